@@ -0,0 +1,165 @@
+package com.simsekolah.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss, load, eviction and payload statistics of one cache
+ * Every event is counted locally (for the cache statistics endpoints) and recorded as a Micrometer meter
+ * tagged with the cache name.
+ */
+public class CacheMetrics {
+
+    private static final int HOT_KEY_SKETCH_WIDTH = 1024;
+
+    private final String cacheName;
+    private final HotKeyTracker hotKeys;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter putCounter;
+    private final Counter evictionCounter;
+    private final Counter loadFailureCounter;
+    private final Timer loadTimer;
+    private final DistributionSummary payloadSize;
+
+    /**
+     * @param hotKeyCapacity number of heavy keys to track, 0 to disable hot-key tracking
+     */
+    public CacheMetrics(String cacheName, MeterRegistry registry, int hotKeyCapacity) {
+        this.cacheName = cacheName;
+        this.hotKeys = hotKeyCapacity > 0 ? new HotKeyTracker(HOT_KEY_SKETCH_WIDTH, hotKeyCapacity) : null;
+        this.hitCounter = Counter.builder("cache.gets").tag("cache", cacheName).tag("result", "hit")
+                .description("Cache lookups that found a value").register(registry);
+        this.missCounter = Counter.builder("cache.gets").tag("cache", cacheName).tag("result", "miss")
+                .description("Cache lookups that found no value").register(registry);
+        this.putCounter = Counter.builder("cache.puts").tag("cache", cacheName)
+                .description("Values written to the cache").register(registry);
+        this.evictionCounter = Counter.builder("cache.evictions").tag("cache", cacheName)
+                .description("Explicit evictions and clears").register(registry);
+        this.loadFailureCounter = Counter.builder("cache.load.failures").tag("cache", cacheName)
+                .description("Value loads that threw").register(registry);
+        this.loadTimer = Timer.builder("cache.load").tag("cache", cacheName)
+                .description("Time spent computing missing values")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.payloadSize = DistributionSummary.builder("cache.payload.size").tag("cache", cacheName)
+                .description("Serialized size of sampled cached values")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.95)
+                .register(registry);
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void recordAccess(Object key) {
+        if (hotKeys != null) {
+            hotKeys.record(key);
+        }
+    }
+
+    public void recordHit() {
+        hits.increment();
+        hitCounter.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+        missCounter.increment();
+    }
+
+    public void recordPut() {
+        puts.increment();
+        putCounter.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+        evictionCounter.increment();
+    }
+
+    public void recordLoad(long nanos, boolean success) {
+        loadTimer.record(nanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            loadFailures.increment();
+            loadFailureCounter.increment();
+        }
+    }
+
+    public void recordPayloadSize(long bytes) {
+        payloadSize.record(bytes);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Most read keys first, with their decayed access estimates; empty when tracking is disabled
+     */
+    public List<HotKeyTracker.HotKey> getHotKeys(int limit) {
+        return hotKeys != null ? hotKeys.topKeys(limit) : Collections.emptyList();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total > 0 ? (double) hitCount / total : 0.0;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("hits", getHits());
+        snapshot.put("misses", getMisses());
+        snapshot.put("hitRatio", Math.round(getHitRatio() * 10000.0) / 10000.0);
+        snapshot.put("puts", getPuts());
+        snapshot.put("evictions", getEvictions());
+        snapshot.put("loads", loadTimer.count());
+        snapshot.put("loadFailures", loadFailures.sum());
+        snapshot.put("loadTimeMeanMs", round(loadTimer.mean(TimeUnit.MILLISECONDS)));
+        snapshot.put("loadTimeMaxMs", round(loadTimer.max(TimeUnit.MILLISECONDS)));
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile percentile : loadTimer.takeSnapshot().percentileValues()) {
+            percentiles.put("p" + Math.round(percentile.percentile() * 100), round(percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        snapshot.put("loadTimePercentilesMs", percentiles);
+        snapshot.put("payloadSamples", payloadSize.count());
+        snapshot.put("payloadMeanBytes", Math.round(payloadSize.mean()));
+        snapshot.put("payloadMaxBytes", Math.round(payloadSize.max()));
+        return snapshot;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.simsekolah.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Time-to-live policy per cache name, shared by the Redis and in-process cache managers
+ */
+public final class CachePolicies {
+
+    private static final Map<String, Duration> TTLS = new LinkedHashMap<>();
+    private static final Map<String, List<String>> ENTITY_DEPENDENCIES = new LinkedHashMap<>();
+
+    // Entities also written by JDBC batches or JPQL bulk statements; snapshot stamps (row count and latest
+    // updatedAt) cannot be trusted to see those writes, so add the entity here with any new bulk write path
+    private static final Set<String> BULK_WRITTEN_ENTITIES = Set.of("Schedule");
+
+    static {
+        // User data - 30 minutes
+        TTLS.put("users", Duration.ofMinutes(30));
+        TTLS.put("userProfiles", Duration.ofMinutes(30));
+        TTLS.put("userRoles", Duration.ofMinutes(60));
+
+        // Student data - 1 hour
+        TTLS.put("students", Duration.ofHours(1));
+        TTLS.put("studentProfiles", Duration.ofHours(1));
+        TTLS.put("studentsByClass", Duration.ofHours(1));
+
+        // Academic data - 2 hours
+        TTLS.put("assessments", Duration.ofHours(2));
+        TTLS.put("grades", Duration.ofHours(2));
+        TTLS.put("transcripts", Duration.ofHours(4));
+
+        // Attendance data - 30 minutes (more dynamic)
+        TTLS.put("attendance", Duration.ofMinutes(30));
+        TTLS.put("attendanceReports", Duration.ofMinutes(30));
+        TTLS.put("dailyAttendance", Duration.ofMinutes(15));
+
+        // Reports - 1 hour
+        TTLS.put("academicReports", Duration.ofHours(1));
+        TTLS.put("performanceReports", Duration.ofHours(1));
+        TTLS.put("statisticsReports", Duration.ofMinutes(30));
+        TTLS.put("classRankings", Duration.ofHours(1));
+        TTLS.put("periodRankings", Duration.ofHours(1));
+
+        // Reference data - 4 hours (rarely changes)
+        TTLS.put("classRooms", Duration.ofHours(4));
+        TTLS.put("subjects", Duration.ofHours(4));
+        TTLS.put("departments", Duration.ofHours(4));
+        TTLS.put("majors", Duration.ofHours(4));
+
+        // Session data - 8 hours
+        TTLS.put("sessions", Duration.ofHours(8));
+        TTLS.put("authTokens", Duration.ofHours(8));
+
+        // Extracurricular data - 1 hour
+        TTLS.put("extracurricularActivities", Duration.ofHours(1));
+        TTLS.put("activityParticipants", Duration.ofMinutes(30));
+
+        // Dashboard data - 15 minutes (frequently updated)
+        TTLS.put("dashboardData", Duration.ofMinutes(15));
+        TTLS.put("kpiData", Duration.ofMinutes(30));
+
+        // Entities each cache is computed from; a snapshot entry is only restored while they are unchanged
+        ENTITY_DEPENDENCIES.put("studentTranscripts",
+            List.of("Student", "StudentAssessment", "Assessment", "Subject", "Attendance"));
+        ENTITY_DEPENDENCIES.put("classPerformanceReports",
+            List.of("ClassRoom", "Student", "StudentAssessment", "Assessment", "Attendance"));
+        ENTITY_DEPENDENCIES.put("subjectPerformanceReports",
+            List.of("Subject", "Assessment", "StudentAssessment", "Student"));
+        ENTITY_DEPENDENCIES.put("gradeDistributionReports", List.of("StudentAssessment", "Assessment", "Subject"));
+        ENTITY_DEPENDENCIES.put("dailyAttendanceSummaries", List.of("Attendance", "Student", "ClassRoom"));
+        ENTITY_DEPENDENCIES.put("schedules", List.of("Schedule", "ClassRoom", "Subject", "User"));
+        ENTITY_DEPENDENCIES.put("timetables", List.of("Schedule", "ClassRoom", "Subject", "User"));
+    }
+
+    private CachePolicies() {
+    }
+
+    /**
+     * Configured cache names and their TTL, in declaration order
+     */
+    public static Map<String, Duration> ttls() {
+        return Collections.unmodifiableMap(TTLS);
+    }
+
+    public static Duration ttl(String cacheName, Duration defaultTtl) {
+        return TTLS.getOrDefault(cacheName, defaultTtl);
+    }
+
+    /**
+     * JPA entity names a cache's values are computed from; empty when not declared
+     */
+    public static List<String> entityDependencies(String cacheName) {
+        return ENTITY_DEPENDENCIES.getOrDefault(cacheName, Collections.emptyList());
+    }
+
+    /**
+     * Whether a snapshot of the cache can be validated on restore: it declares its entity dependencies and
+     * none of them is written by bulk statements
+     */
+    public static boolean isSnapshotSafe(String cacheName) {
+        List<String> entities = entityDependencies(cacheName);
+        return !entities.isEmpty() && entities.stream().noneMatch(BULK_WRITTEN_ENTITIES::contains);
+    }
+
+    /**
+     * Longest time any entry can live, given the TTL of caches without a policy
+     */
+    public static Duration maxTtl(Duration defaultTtl) {
+        Duration max = defaultTtl;
+        for (Duration ttl : TTLS.values()) {
+            if (ttl.compareTo(max) > 0) {
+                max = ttl;
+            }
+        }
+        return max;
+    }
+}
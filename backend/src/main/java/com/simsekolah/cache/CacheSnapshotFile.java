@@ -0,0 +1,327 @@
+package com.simsekolah.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Snapshot of in-process caches in a local file, used to start warm after a restart
+ * The file holds a header (magic, format version, creation time and the entity version stamps the
+ * entries were computed against) followed by one record per entry: cache name, expiry time, key and
+ * value. Keys use the {@link CompactBinaryCodec}; values use the versioned value serializer, so a deploy
+ * that bumps the schema version leaves old entries unread. The file is written to a temporary file and
+ * moved into place, and read through a memory-mapped buffer so records of caches that are not restored
+ * are skipped without being copied.
+ */
+public final class CacheSnapshotFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotFile.class);
+
+    private static final int MAGIC = 0x53434348;
+    private static final short FORMAT_VERSION = 1;
+    private static final int END_OF_RECORDS = -1;
+
+    private final Path file;
+    private final VersionedCacheValueSerializer valueSerializer;
+    private final CompactBinaryCodec keyCodec = new CompactBinaryCodec();
+
+    public CacheSnapshotFile(Path file, VersionedCacheValueSerializer valueSerializer) {
+        this.file = file;
+        this.valueSerializer = valueSerializer;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Write the live entries of the given caches, replacing any previous snapshot
+     *
+     * @param stamps entity version stamps the cached values were computed against
+     */
+    public WriteResult write(Collection<TinyLfuCache> caches, Map<String, String> stamps) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        long now = System.currentTimeMillis();
+        Map<String, Integer> written = new LinkedHashMap<>();
+        int[] skipped = new int[1];
+        try {
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeLong(now);
+                writeBlock(out, keyCodec.encode(new LinkedHashMap<>(stamps)));
+
+                for (TinyLfuCache cache : caches) {
+                    byte[] name = cache.getName().getBytes(StandardCharsets.UTF_8);
+                    int[] count = new int[1];
+                    IOException[] failure = new IOException[1];
+                    cache.forEachEntry((key, value, remainingTtl) -> {
+                        if (failure[0] != null) {
+                            return;
+                        }
+                        byte[] keyBytes;
+                        byte[] valueBytes;
+                        try {
+                            keyBytes = keyCodec.encode(key);
+                            valueBytes = valueSerializer.serialize(value);
+                        } catch (RuntimeException e) {
+                            logger.debug("Not snapshotting entry {} of cache {}: {}", key, cache.getName(), e.getMessage());
+                            skipped[0]++;
+                            return;
+                        }
+                        try {
+                            out.writeInt(2 + name.length + 8 + 4 + keyBytes.length + valueBytes.length);
+                            out.writeShort(name.length);
+                            out.write(name);
+                            out.writeLong(now + remainingTtl.toMillis());
+                            writeBlock(out, keyBytes);
+                            out.write(valueBytes);
+                            count[0]++;
+                        } catch (IOException e) {
+                            failure[0] = e;
+                        }
+                    });
+                    if (failure[0] != null) {
+                        throw failure[0];
+                    }
+                    written.put(cache.getName(), count[0]);
+                }
+                out.writeInt(END_OF_RECORDS);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new WriteResult(Instant.ofEpochMilli(now), written, skipped[0], Files.size(file));
+    }
+
+    /**
+     * Map the snapshot and read its header
+     *
+     * @return the snapshot, or {@code null} when there is no file or it was written in another format
+     */
+    @Nullable
+    public Snapshot open() throws IOException {
+        if (!exists()) {
+            return null;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                logger.info("Ignoring cache snapshot {} written in another format", file);
+                return null;
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+            int stampsLength = buffer.getInt();
+            Object stamps = keyCodec.decode(readBlock(buffer, stampsLength), 0, stampsLength);
+            Map<String, String> stampMap = new LinkedHashMap<>();
+            if (stamps instanceof Map<?, ?> map) {
+                map.forEach((entity, stamp) -> stampMap.put(String.valueOf(entity), String.valueOf(stamp)));
+            }
+            return new Snapshot(buffer, createdAt, stampMap);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable cache snapshot {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static void writeBlock(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBlock(MappedByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt block length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(String cacheName, Object key, @Nullable Object value, Duration remainingTtl);
+    }
+
+    /**
+     * Contents of a mapped snapshot file
+     */
+    public final class Snapshot {
+        private final MappedByteBuffer buffer;
+        private final Instant createdAt;
+        private final Map<String, String> stamps;
+
+        private Snapshot(MappedByteBuffer buffer, Instant createdAt, Map<String, String> stamps) {
+            this.buffer = buffer;
+            this.createdAt = createdAt;
+            this.stamps = stamps;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public Map<String, String> getStamps() {
+            return stamps;
+        }
+
+        /**
+         * Hand every unexpired, readable entry of the accepted caches to the consumer
+         */
+        public ReadResult read(Predicate<String> acceptCache, EntryConsumer consumer) {
+            ReadResult result = new ReadResult();
+            long now = System.currentTimeMillis();
+            try {
+                while (buffer.remaining() >= 4) {
+                    int length = buffer.getInt();
+                    if (length == END_OF_RECORDS) {
+                        result.complete = true;
+                        break;
+                    }
+                    if (length < 14 || length > buffer.remaining()) {
+                        throw new IllegalArgumentException("Corrupt record length " + length);
+                    }
+                    int next = buffer.position() + length;
+                    String cacheName = new String(readBlock(buffer, buffer.getShort()), StandardCharsets.UTF_8);
+                    long expiresAt = buffer.getLong();
+                    if (!acceptCache.test(cacheName)) {
+                        result.count(result.rejected, cacheName);
+                    } else if (expiresAt <= now) {
+                        result.count(result.expired, cacheName);
+                    } else {
+                        int keyLength = buffer.getInt();
+                        byte[] keyBytes = readBlock(buffer, keyLength);
+                        byte[] valueBytes = readBlock(buffer, next - buffer.position());
+                        Object value = valueSerializer.deserialize(valueBytes);
+                        if (value == null) {
+                            // Written by another schema version
+                            result.count(result.stale, cacheName);
+                        } else {
+                            Object key = keyCodec.decode(keyBytes, 0, keyLength);
+                            consumer.accept(cacheName, key, value, Duration.ofMillis(expiresAt - now));
+                            result.count(result.restored, cacheName);
+                        }
+                    }
+                    buffer.position(next);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Stopped reading cache snapshot {} at a corrupt record: {}", file, e.toString());
+            }
+            return result;
+        }
+    }
+
+    public static final class WriteResult {
+        private final Instant createdAt;
+        private final Map<String, Integer> entries;
+        private final int skipped;
+        private final long bytes;
+
+        private WriteResult(Instant createdAt, Map<String, Integer> entries, int skipped, long bytes) {
+            this.createdAt = createdAt;
+            this.entries = entries;
+            this.skipped = skipped;
+            this.bytes = bytes;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        /**
+         * Entries written, by cache name
+         */
+        public Map<String, Integer> getEntries() {
+            return entries;
+        }
+
+        /**
+         * Entries whose key or value could not be encoded
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Entry counts by cache name: restored, rejected by the cache filter, expired, or from another schema
+     */
+    public static final class ReadResult {
+        private final Map<String, Integer> restored = new LinkedHashMap<>();
+        private final Map<String, Integer> rejected = new LinkedHashMap<>();
+        private final Map<String, Integer> expired = new LinkedHashMap<>();
+        private final Map<String, Integer> stale = new LinkedHashMap<>();
+        private boolean complete;
+
+        private void count(Map<String, Integer> counts, String cacheName) {
+            counts.merge(cacheName, 1, Integer::sum);
+        }
+
+        public Map<String, Integer> getRestored() {
+            return restored;
+        }
+
+        public Map<String, Integer> getRejected() {
+            return rejected;
+        }
+
+        public Map<String, Integer> getExpired() {
+            return expired;
+        }
+
+        public Map<String, Integer> getStale() {
+            return stale;
+        }
+
+        /**
+         * Whether the end marker was reached; false when the file was cut short or corrupt
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public int getRestoredCount() {
+            return restored.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+}
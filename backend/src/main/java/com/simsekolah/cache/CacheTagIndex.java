@@ -0,0 +1,207 @@
+package com.simsekolah.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Redis sets that index cache entries by the entities they belong to
+ * Each tag ("student:12") has a set of the Redis keys ("studentTranscripts::12_2024/2025_1") written
+ * for it, so invalidating an entity reads one set instead of walking the keyspace. Keys are deleted
+ * with UNLINK in batches sent in one pipeline. The sets expire with the longest entry TTL and are
+ * refreshed on every write. Entries written before tagging was switched on are not in any set; they
+ * can only be found with a cursor SCAN, which is needed until the longest TTL has passed since the
+ * first tag.
+ */
+public class CacheTagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheTagIndex.class);
+
+    public static final String TAG_KEY_PREFIX = "cache:tag:";
+    private static final String INDEXED_SINCE_KEY = TAG_KEY_PREFIX + "indexed-since";
+    private static final String KEY_SEPARATOR = "::";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration maxEntryTtl;
+    private final int batchSize;
+    private volatile long indexedSince = -1;
+
+    public CacheTagIndex(RedisTemplate<String, String> redisTemplate, Duration maxEntryTtl, int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.maxEntryTtl = maxEntryTtl;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public static String redisKey(String cacheName, Object key) {
+        return cacheName + KEY_SEPARATOR + key;
+    }
+
+    /**
+     * Cache name of a Redis cache key
+     */
+    public static String cacheName(String redisKey) {
+        int separator = redisKey.indexOf(KEY_SEPARATOR);
+        return separator >= 0 ? redisKey.substring(0, separator) : redisKey;
+    }
+
+    /**
+     * Record a written entry under its tags
+     */
+    public void tag(String cacheName, Object key, List<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        byte[] member = bytes(redisKey(cacheName, key));
+        long ttlSeconds = maxEntryTtl.toSeconds();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String tag : tags) {
+                byte[] tagKey = bytes(TAG_KEY_PREFIX + tag);
+                connection.setCommands().sAdd(tagKey, member);
+                connection.keyCommands().expire(tagKey, ttlSeconds);
+            }
+            return null;
+        });
+        markIndexed();
+    }
+
+    /**
+     * Delete every entry tagged with the tag
+     * Only the members that were read are removed from the tag set (SREM) along with their keys; members
+     * added by a concurrent {@link #tag} after the read stay indexed, and Redis drops the set once it is empty
+     *
+     * @return the deleted Redis keys
+     */
+    public Set<String> invalidate(String tag) {
+        String tagKey = TAG_KEY_PREFIX + tag;
+        Set<String> members = redisTemplate.opsForSet().members(tagKey);
+        Set<String> keys = members != null ? new LinkedHashSet<>(members) : new LinkedHashSet<>();
+        if (keys.isEmpty()) {
+            return keys;
+        }
+        List<String> toDelete = new ArrayList<>(keys);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < toDelete.size(); from += batchSize) {
+                List<String> batch = toDelete.subList(from, Math.min(toDelete.size(), from + batchSize));
+                byte[][] rawMembers = new byte[batch.size()][];
+                for (int i = 0; i < rawMembers.length; i++) {
+                    rawMembers[i] = bytes(batch.get(i));
+                }
+                connection.setCommands().sRem(bytes(tagKey), rawMembers);
+                unlinkBatch(connection, batch);
+            }
+            return null;
+        });
+        return keys;
+    }
+
+    /**
+     * Delete the keys matching a glob with a cursor SCAN, a batch at a time
+     *
+     * @return number of deleted keys
+     */
+    public long deleteMatching(String pattern) {
+        List<String> batch = new ArrayList<>(batchSize);
+        long[] deleted = new long[1];
+        scan(pattern, key -> {
+            batch.add(key);
+            if (batch.size() == batchSize) {
+                deleted[0] += unlink(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            deleted[0] += unlink(batch);
+        }
+        return deleted[0];
+    }
+
+    /**
+     * Walk the keys matching a glob without blocking Redis the way KEYS does
+     */
+    public void scan(String pattern, Consumer<String> action) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                action.accept(cursor.next());
+            }
+        }
+    }
+
+    /**
+     * Whether entries written before tagging may still exist and need a SCAN to be found
+     */
+    public boolean isLegacyScanNeeded() {
+        long since = indexedSince;
+        if (since < 0) {
+            try {
+                String value = redisTemplate.opsForValue().get(INDEXED_SINCE_KEY);
+                if (value == null) {
+                    return true;
+                }
+                since = Long.parseLong(value);
+                indexedSince = since;
+            } catch (RuntimeException e) {
+                logger.debug("Could not read cache tag index start: {}", e.getMessage());
+                return true;
+            }
+        }
+        return System.currentTimeMillis() < since + maxEntryTtl.toMillis();
+    }
+
+    private void markIndexed() {
+        if (indexedSince >= 0) {
+            return;
+        }
+        String now = String.valueOf(System.currentTimeMillis());
+        redisTemplate.opsForValue().setIfAbsent(INDEXED_SINCE_KEY, now);
+        String value = redisTemplate.opsForValue().get(INDEXED_SINCE_KEY);
+        indexedSince = Long.parseLong(value != null ? value : now);
+        logger.info("Cache entries are tag-indexed since {}", indexedSince);
+    }
+
+    /**
+     * UNLINK the keys in batches of {@code batchSize}, all batches in one pipeline
+     */
+    private long unlink(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                unlinkBatch(connection, keys.subList(from, Math.min(keys.size(), from + batchSize)));
+            }
+            return null;
+        });
+        long deleted = 0;
+        for (Object result : results) {
+            if (result instanceof Long count) {
+                deleted += count;
+            }
+        }
+        return deleted;
+    }
+
+    private static void unlinkBatch(RedisConnection connection, List<String> keys) {
+        byte[][] rawKeys = new byte[keys.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = bytes(keys.get(i));
+        }
+        connection.keyCommands().unlink(rawKeys);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
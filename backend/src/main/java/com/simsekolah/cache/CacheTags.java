@@ -0,0 +1,98 @@
+package com.simsekolah.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Which entities a cache entry belongs to, derived from the cache key
+ * Each rule reads an entity id from the keys of one cache (for example the student id at the start of
+ * a transcript key). The resulting tags ("student:12") name the Redis sets that index the entries.
+ */
+public final class CacheTags {
+
+    private static final Map<String, List<Rule>> RULES = new LinkedHashMap<>();
+
+    static {
+        // Report keys: "<id>_<academicYear>_<semester>"
+        rule("studentTranscripts", "student", "(\\d+)_.*", "%d_*");
+        rule("classPerformanceReports", "class", "(\\d+)_.*", "%d_*");
+        rule("subjectPerformanceReports", "subject", "(\\d+)_.*", "%d_*");
+
+        // Schedule keys: "<classRoomId>-<academicYear>-<semester>" or "teacher-<id>-..." / "subject-<id>-..."
+        rule("schedules", "class", "(\\d+)-.*", "%d-*");
+        rule("schedules", "teacher", "teacher-(\\d+)-.*", "teacher-%d-*");
+        rule("schedules", "subject", "subject-(\\d+)-.*", "subject-%d-*");
+
+        // Timetable keys: "class-<id>-...", "teacher-<id>-...", "subject-<id>-..."
+        rule("timetables", "class", "class-(\\d+)-.*", "class-%d-*");
+        rule("timetables", "teacher", "teacher-(\\d+)-.*", "teacher-%d-*");
+        rule("timetables", "subject", "subject-(\\d+)-.*", "subject-%d-*");
+    }
+
+    private CacheTags() {
+    }
+
+    private static void rule(String cacheName, String entity, String keyPattern, String keyGlob) {
+        RULES.computeIfAbsent(cacheName, name -> new ArrayList<>())
+                .add(new Rule(entity, Pattern.compile(keyPattern), keyGlob));
+    }
+
+    public static boolean isTagged(String cacheName) {
+        return RULES.containsKey(cacheName);
+    }
+
+    public static String tag(String entity, Object id) {
+        return entity + ":" + id;
+    }
+
+    /**
+     * Tags of one entry; empty when the cache or key is not tagged
+     */
+    public static List<String> tagsFor(String cacheName, Object key) {
+        List<Rule> rules = RULES.get(cacheName);
+        if (rules == null) {
+            return Collections.emptyList();
+        }
+        String keyString = String.valueOf(key);
+        List<String> tags = new ArrayList<>(1);
+        for (Rule rule : rules) {
+            Matcher matcher = rule.keyPattern.matcher(keyString);
+            if (matcher.matches()) {
+                tags.add(tag(rule.entity, matcher.group(1)));
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Key globs, by cache name, matching every entry of one entity; used for entries written before tagging
+     */
+    public static Map<String, String> keyGlobs(String entity, long id) {
+        Map<String, String> globs = new LinkedHashMap<>();
+        RULES.forEach((cacheName, rules) -> {
+            for (Rule rule : rules) {
+                if (rule.entity.equals(entity)) {
+                    globs.put(cacheName, String.format(rule.keyGlob, id));
+                }
+            }
+        });
+        return globs;
+    }
+
+    private static final class Rule {
+        private final String entity;
+        private final Pattern keyPattern;
+        private final String keyGlob;
+
+        private Rule(String entity, Pattern keyPattern, String keyGlob) {
+            this.entity = entity;
+            this.keyPattern = keyPattern;
+            this.keyGlob = keyGlob;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.simsekolah.cache;
+
+/**
+ * Encoding of cached values to bytes, selected per cache name
+ * The codec id is written into every stored value so entries can be decoded with the codec that wrote
+ * them.
+ */
+public interface CacheValueCodec {
+
+    /**
+     * Identifier stored in the value header; unique per codec
+     */
+    byte getId();
+
+    String getName();
+
+    /**
+     * @throws UnsupportedValueException when the value contains types the codec cannot represent
+     */
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes, int offset, int length);
+
+    /**
+     * The value cannot be represented by this codec; the caller falls back to another codec
+     */
+    class UnsupportedValueException extends RuntimeException {
+        public UnsupportedValueException(String message) {
+            super(message);
+        }
+    }
+}
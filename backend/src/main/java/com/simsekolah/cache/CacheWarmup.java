@@ -0,0 +1,240 @@
+package com.simsekolah.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One cache warm-up run: tiers of load tasks executed in priority order
+ * The tasks of a tier run in parallel on a fixed number of daemon threads; the next tier starts when the
+ * previous one is done. Once the time budget is used up, tasks that have not started are cancelled and
+ * later tiers are skipped, so a warm-up never keeps loading long after startup. Progress can be read
+ * from any thread while the run is in progress.
+ */
+public class CacheWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmup.class);
+
+    public enum Status { PENDING, RUNNING, COMPLETED, TIMED_OUT, SKIPPED, FAILED }
+
+    private final String name;
+    private final List<Tier> tiers;
+    private final int parallelism;
+    private final Duration timeBudget;
+    private final Map<String, TierProgress> progress = new LinkedHashMap<>();
+    private volatile Status status = Status.PENDING;
+    private volatile long startedAt;
+    private volatile long startedNanos;
+    private volatile long elapsedNanos = -1;
+
+    public CacheWarmup(String name, List<Tier> tiers, int parallelism, Duration timeBudget) {
+        this.name = name;
+        this.tiers = List.copyOf(tiers);
+        this.parallelism = Math.max(1, parallelism);
+        this.timeBudget = timeBudget;
+        for (Tier tier : this.tiers) {
+            progress.put(tier.name, new TierProgress());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    /**
+     * Run the tiers in order, blocking until all of them finished or the budget ran out
+     */
+    public Status run() {
+        startedAt = System.currentTimeMillis();
+        startedNanos = System.nanoTime();
+        status = Status.RUNNING;
+        long deadline = startedNanos + timeBudget.toNanos();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-warmup-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Status result = Status.COMPLETED;
+        try {
+            for (Tier tier : tiers) {
+                TierProgress tierProgress = progress.get(tier.name);
+                if (result != Status.COMPLETED) {
+                    tierProgress.status = Status.SKIPPED;
+                    continue;
+                }
+                tierProgress.status = runTier(tier, tierProgress, executor, deadline);
+                if (tierProgress.status == Status.TIMED_OUT) {
+                    result = Status.TIMED_OUT;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            result = Status.FAILED;
+        } finally {
+            // Loads already running when the budget ran out still finish and fill their entries
+            executor.shutdown();
+            elapsedNanos = System.nanoTime() - startedNanos;
+            status = result;
+        }
+        logger.info("Cache warm-up '{}' finished with status {} in {} ms: {}", name, result,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), tierSummary());
+        return result;
+    }
+
+    private Status runTier(Tier tier, TierProgress tierProgress, ThreadPoolExecutor executor, long deadline)
+            throws InterruptedException {
+        tierProgress.status = Status.RUNNING;
+        List<Task> tasks;
+        try {
+            tasks = tier.tasks.get();
+        } catch (RuntimeException e) {
+            logger.warn("Could not list cache warm-up tasks of tier {}: {}", tier.name, e.getMessage());
+            return Status.FAILED;
+        }
+        tierProgress.total = tasks.size();
+
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            futures.add(executor.submit(() -> runTask(tier, task, tierProgress)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            long remaining = deadline - System.nanoTime();
+            try {
+                if (remaining <= 0) {
+                    throw new TimeoutException();
+                }
+                futures.get(i).get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | CancellationException e) {
+                // runTask records its own failures
+            } catch (TimeoutException e) {
+                for (int j = i; j < futures.size(); j++) {
+                    if (futures.get(j).cancel(false)) {
+                        tierProgress.skipped.incrementAndGet();
+                    }
+                }
+                logger.warn("Cache warm-up '{}' ran out of its {} s budget in tier {}", name,
+                        timeBudget.toSeconds(), tier.name);
+                return Status.TIMED_OUT;
+            }
+        }
+        return Status.COMPLETED;
+    }
+
+    private void runTask(Tier tier, Task task, TierProgress tierProgress) {
+        try {
+            task.action.run();
+            tierProgress.completed.incrementAndGet();
+        } catch (RuntimeException e) {
+            tierProgress.failed.incrementAndGet();
+            logger.debug("Cache warm-up task {} of tier {} failed: {}", task.name, tier.name, e.getMessage());
+        }
+    }
+
+    private String tierSummary() {
+        StringBuilder summary = new StringBuilder();
+        progress.forEach((tierName, tierProgress) -> summary.append(tierName).append('=')
+                .append(tierProgress.completed.get()).append('/').append(tierProgress.total).append(' '));
+        return summary.toString().trim();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("name", name);
+        snapshot.put("status", status.name());
+        snapshot.put("startedAt", startedAt > 0 ? startedAt : null);
+        long elapsed = elapsedNanos >= 0 ? elapsedNanos
+                : status == Status.RUNNING ? System.nanoTime() - startedNanos : 0;
+        snapshot.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        snapshot.put("timeBudgetMs", timeBudget.toMillis());
+        snapshot.put("parallelism", parallelism);
+
+        int total = 0;
+        int done = 0;
+        List<Map<String, Object>> tierSnapshots = new ArrayList<>();
+        for (Map.Entry<String, TierProgress> entry : progress.entrySet()) {
+            TierProgress tierProgress = entry.getValue();
+            Map<String, Object> tierSnapshot = new LinkedHashMap<>();
+            tierSnapshot.put("tier", entry.getKey());
+            tierSnapshot.put("status", tierProgress.status.name());
+            tierSnapshot.put("total", tierProgress.total);
+            tierSnapshot.put("completed", tierProgress.completed.get());
+            tierSnapshot.put("failed", tierProgress.failed.get());
+            tierSnapshot.put("skipped", tierProgress.skipped.get());
+            tierSnapshots.add(tierSnapshot);
+            total += tierProgress.total;
+            done += tierProgress.completed.get() + tierProgress.failed.get();
+        }
+        snapshot.put("tiers", tierSnapshots);
+        snapshot.put("percentComplete", total > 0 ? Math.round(done * 1000.0 / total) / 10.0 : 0.0);
+        return snapshot;
+    }
+
+    /**
+     * A named group of tasks; the tasks are listed only when the tier starts
+     */
+    public static final class Tier {
+        private final String name;
+        private final Supplier<List<Task>> tasks;
+
+        public Tier(String name, Supplier<List<Task>> tasks) {
+            this.name = name;
+            this.tasks = tasks;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Loads one cache entry, normally by calling the {@code @Cacheable} method that owns it
+     */
+    public static final class Task {
+        private final String name;
+        private final Runnable action;
+
+        public Task(String name, Runnable action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class TierProgress {
+        private volatile Status status = Status.PENDING;
+        private volatile int total;
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+    }
+}
@@ -0,0 +1,341 @@
+package com.simsekolah.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache decorator that lets one caller per key compute a missing value while the others wait for it
+ * Applies to {@code @Cacheable(sync = true)} loads, which arrive as {@link #get(Object, Callable)}.
+ * Loads of different keys run in parallel.
+ * <p>
+ * For expensive caches the entry can also be recomputed shortly before it expires ("XFetch"): a reader
+ * refreshes early with a probability that grows as the expiry approaches and with how long the last
+ * computation took, so a single reader refreshes while the others keep reading the current value.
+ * Expiry and computation time are known for entries loaded by this node only.
+ * <p>
+ * A caller that waits for another caller's load gets the value without running its loader; loaders
+ * implementing {@link CoalescedLoader} are told, so decorators above can count that caller as a miss.
+ * A waiter gives up after the load wait timeout and runs its own loader, so a stuck load cannot pin
+ * every caller of the key.
+ * <p>
+ * Evictions bump a generation (striped by key, plus one for whole-cache clears). A load that started
+ * before an eviction of its key still returns its value to the callers but does not store it.
+ */
+public class CoalescingCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingCache.class);
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Cache delegate;
+    private final long ttlNanos;
+    private final double earlyRefreshBeta;
+    private final int maxTrackedEntries;
+    private final long loadWaitTimeoutNanos;
+    private final AtomicLongArray evictionGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong clearGeneration = new AtomicLong();
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Object, LoadStamp> loadStamps = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param ttl               time-to-live of the entries of the delegate
+     * @param earlyRefreshBeta  eagerness of early refresh, 0 to disable it (1.0 is the usual setting)
+     * @param maxTrackedEntries number of entries whose expiry and computation time are remembered
+     * @param loadWaitTimeout   how long a caller waits for another caller's load before loading itself
+     */
+    public CoalescingCache(Cache delegate, Duration ttl, double earlyRefreshBeta, int maxTrackedEntries,
+                           Duration loadWaitTimeout) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.maxTrackedEntries = Math.max(1, maxTrackedEntries);
+        this.loadWaitTimeoutNanos = loadWaitTimeout.toNanos();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    public boolean isEarlyRefreshEnabled() {
+        return earlyRefreshBeta > 0;
+    }
+
+    /**
+     * Keys being computed right now
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            if (!shouldRefreshEarly(key)) {
+                return (T) cached.get();
+            }
+            CompletableFuture<Object> refresh = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(key, refresh) != null) {
+                // Someone else is already refreshing; the current value is still valid
+                return (T) cached.get();
+            }
+            try {
+                return load(key, valueLoader, refresh);
+            } catch (ValueRetrievalException e) {
+                logger.debug("Early refresh failed for cache: {}, key: {}; keeping the current value", getName(), key);
+                return (T) cached.get();
+            }
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced(valueLoader);
+            return (T) await(key, valueLoader, existing);
+        }
+        // The previous owner may have finished between our lookup and registering
+        cached = delegate.get(key);
+        if (cached != null) {
+            coalesced(valueLoader);
+            inFlight.remove(key, mine);
+            mine.complete(cached.get());
+            return (T) cached.get();
+        }
+        return load(key, valueLoader, mine);
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        evicted(key);
+        delegate.evict(key);
+        forgetLoad(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        evicted(key);
+        boolean evicted = delegate.evictIfPresent(key);
+        forgetLoad(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        evicted(null);
+        delegate.clear();
+        forgetLoads();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evicted(null);
+        boolean invalidated = delegate.invalidate();
+        forgetLoads();
+        return invalidated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(Object key, Callable<T> valueLoader, CompletableFuture<Object> future) {
+        try {
+            long generation = generation(key);
+            long start = System.nanoTime();
+            T value = valueLoader.call();
+            long end = System.nanoTime();
+            if (store(key, value, generation)) {
+                rememberLoad(key, end, end - start);
+            }
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        try {
+            return future.get(loadWaitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Load of cache: {}, key: {} still running after {} ms; loading directly", getName(), key,
+                    TimeUnit.NANOSECONDS.toMillis(loadWaitTimeoutNanos));
+            return loadDirectly(key, valueLoader);
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    /**
+     * Run the caller's own loader outside the in-flight map after waiting for another load timed out
+     */
+    private Object loadDirectly(Object key, Callable<?> valueLoader) {
+        long generation = generation(key);
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Throwable e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        store(key, value, generation);
+        return value;
+    }
+
+    /**
+     * Store a loaded value unless its key was evicted since the load started; the second check removes
+     * the value again when an eviction slipped in between the check and the put
+     *
+     * @return whether the value was stored
+     */
+    private boolean store(Object key, Object value, long generation) {
+        if (generation(key) != generation) {
+            logger.debug("Not storing load of cache: {}, key: {}; evicted while loading", getName(), key);
+            return false;
+        }
+        delegate.put(key, value);
+        if (generation(key) != generation) {
+            delegate.evict(key);
+            return false;
+        }
+        return true;
+    }
+
+    private long generation(Object key) {
+        return clearGeneration.get() + evictionGenerations.get(stripe(key));
+    }
+
+    private void evicted(@Nullable Object key) {
+        if (key == null) {
+            clearGeneration.incrementAndGet();
+        } else {
+            evictionGenerations.incrementAndGet(stripe(key));
+        }
+    }
+
+    private static int stripe(Object key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private static void coalesced(Callable<?> valueLoader) {
+        if (valueLoader instanceof CoalescedLoader<?> loader) {
+            loader.coalesced();
+        }
+    }
+
+    /**
+     * XFetch: refresh when now - delta * beta * ln(random) reaches the expiry, random in (0, 1]
+     */
+    private boolean shouldRefreshEarly(Object key) {
+        if (earlyRefreshBeta <= 0) {
+            return false;
+        }
+        LoadStamp stamp;
+        synchronized (loadStamps) {
+            stamp = loadStamps.get(key);
+        }
+        if (stamp == null) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double headStart = -stamp.computeNanos * earlyRefreshBeta * Math.log(random);
+        return System.nanoTime() + (long) headStart - stamp.expiresAt >= 0;
+    }
+
+    private void rememberLoad(Object key, long loadedAt, long computeNanos) {
+        if (earlyRefreshBeta <= 0) {
+            return;
+        }
+        synchronized (loadStamps) {
+            loadStamps.put(key, new LoadStamp(loadedAt + ttlNanos, computeNanos));
+            if (loadStamps.size() > maxTrackedEntries) {
+                loadStamps.remove(loadStamps.keySet().iterator().next());
+            }
+        }
+    }
+
+    private void forgetLoad(Object key) {
+        synchronized (loadStamps) {
+            loadStamps.remove(key);
+        }
+    }
+
+    private void forgetLoads() {
+        synchronized (loadStamps) {
+            loadStamps.clear();
+        }
+    }
+
+    /**
+     * Loader that is told when its caller missed but got the value of another caller's load
+     */
+    public interface CoalescedLoader<T> extends Callable<T> {
+
+        void coalesced();
+    }
+
+    private static final class LoadStamp {
+        private final long expiresAt;
+        private final long computeNanos;
+
+        private LoadStamp(long expiresAt, long computeNanos) {
+            this.expiresAt = expiresAt;
+            this.computeNanos = computeNanos;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache manager decorator that coalesces concurrent loads of the same key in every cache
+ * Early refresh is enabled only for the caches named as expensive.
+ */
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Function<String, Duration> ttlResolver;
+    private final Set<String> earlyRefreshCaches;
+    private final double earlyRefreshBeta;
+    private final int maxTrackedEntries;
+    private final Duration loadWaitTimeout;
+    private final Map<String, CoalescingCache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager delegate, Function<String, Duration> ttlResolver,
+                                  Collection<String> earlyRefreshCaches, double earlyRefreshBeta,
+                                  int maxTrackedEntries, Duration loadWaitTimeout) {
+        this.delegate = delegate;
+        this.ttlResolver = ttlResolver;
+        this.earlyRefreshCaches = Set.copyOf(earlyRefreshCaches);
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.maxTrackedEntries = maxTrackedEntries;
+        this.loadWaitTimeout = loadWaitTimeout;
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        CoalescingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new CoalescingCache(target, ttlResolver.apply(cacheName),
+                earlyRefreshCaches.contains(cacheName) ? earlyRefreshBeta : 0, maxTrackedEntries,
+                loadWaitTimeout));
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -0,0 +1,371 @@
+package com.simsekolah.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact tagged binary encoding of the values report caches hold: maps, lists, sets, strings, numbers,
+ * booleans, dates, times and enums
+ * Integers use zig-zag varints and every string of up to 64 characters is written once and then
+ * referenced by index, so the repeated keys of report rows cost one or two bytes each. Values of any
+ * other type are rejected with {@link UnsupportedValueException}.
+ */
+public class CompactBinaryCodec implements CacheValueCodec {
+
+    public static final byte ID = 1;
+
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_REFERENCED_LENGTH = 64;
+    private static final String[] ENUM_PACKAGES = {"com.simsekolah.", "java.time."};
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte STRING = 6;
+    private static final byte STRING_REF = 7;
+    private static final byte LIST = 8;
+    private static final byte SET = 9;
+    private static final byte MAP = 10;
+    private static final byte DECIMAL = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte DATE = 13;
+    private static final byte DATE_TIME = 14;
+    private static final byte TIME = 15;
+    private static final byte INSTANT = 16;
+    private static final byte ENUM = 17;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        Writer writer = new Writer();
+        writer.write(value, 0);
+        return writer.out.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        Reader reader = new Reader(bytes, offset, offset + length);
+        Object value = reader.read();
+        if (reader.position != offset + length) {
+            throw new IllegalArgumentException("Trailing bytes after cached value");
+        }
+        return value;
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private void write(Object value, int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new UnsupportedValueException("Value nested deeper than " + MAX_DEPTH);
+            }
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof Boolean bool) {
+                out.write(bool ? TRUE : FALSE);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                out.write(INT);
+                writeSignedVarLong(((Number) value).intValue());
+            } else if (value instanceof Long number) {
+                out.write(LONG);
+                writeSignedVarLong(number);
+            } else if (value instanceof Double || value instanceof Float) {
+                out.write(DOUBLE);
+                long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) (bits >>> shift));
+                }
+            } else if (value instanceof String string) {
+                writeString(string);
+            } else if (value instanceof BigDecimal decimal) {
+                out.write(DECIMAL);
+                writeSignedVarLong(decimal.scale());
+                writeBytes(decimal.unscaledValue().toByteArray());
+            } else if (value instanceof BigInteger integer) {
+                out.write(BIG_INTEGER);
+                writeBytes(integer.toByteArray());
+            } else if (value instanceof LocalDate date) {
+                out.write(DATE);
+                writeSignedVarLong(date.toEpochDay());
+            } else if (value instanceof LocalDateTime dateTime) {
+                out.write(DATE_TIME);
+                writeSignedVarLong(dateTime.toLocalDate().toEpochDay());
+                writeSignedVarLong(dateTime.toLocalTime().toNanoOfDay());
+            } else if (value instanceof LocalTime time) {
+                out.write(TIME);
+                writeSignedVarLong(time.toNanoOfDay());
+            } else if (value instanceof Instant instant) {
+                out.write(INSTANT);
+                writeSignedVarLong(instant.getEpochSecond());
+                writeSignedVarLong(instant.getNano());
+            } else if (value instanceof Enum<?> constant) {
+                Class<?> type = constant.getDeclaringClass();
+                if (!isAllowedEnum(type.getName())) {
+                    throw new UnsupportedValueException("Enum type not allowed: " + type.getName());
+                }
+                out.write(ENUM);
+                writeString(type.getName());
+                writeString(constant.name());
+            } else if (value instanceof Map<?, ?> map) {
+                out.write(MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(entry.getKey(), depth + 1);
+                    write(entry.getValue(), depth + 1);
+                }
+            } else if (value instanceof Set<?> set) {
+                out.write(SET);
+                writeElements(set, depth);
+            } else if (value instanceof Collection<?> collection) {
+                out.write(LIST);
+                writeElements(collection, depth);
+            } else {
+                throw new UnsupportedValueException("Unsupported type: " + value.getClass().getName());
+            }
+        }
+
+        private void writeElements(Collection<?> elements, int depth) {
+            writeVarLong(elements.size());
+            for (Object element : elements) {
+                write(element, depth + 1);
+            }
+        }
+
+        private void writeString(String string) {
+            Integer index = strings.get(string);
+            if (index != null) {
+                out.write(STRING_REF);
+                writeVarLong(index);
+                return;
+            }
+            if (string.length() <= MAX_REFERENCED_LENGTH) {
+                strings.put(string, strings.size());
+            }
+            out.write(STRING);
+            writeBytes(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private final int end;
+        private final List<String> strings = new ArrayList<>();
+        private int position;
+
+        private Reader(byte[] bytes, int offset, int end) {
+            this.bytes = bytes;
+            this.position = offset;
+            this.end = end;
+        }
+
+        private Object read() {
+            byte tag = nextByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case INT:
+                    return (int) readSignedVarLong();
+                case LONG:
+                    return readSignedVarLong();
+                case DOUBLE: {
+                    long bits = 0;
+                    for (int i = 0; i < 8; i++) {
+                        bits = (bits << 8) | (nextByte() & 0xFF);
+                    }
+                    return Double.longBitsToDouble(bits);
+                }
+                case STRING:
+                case STRING_REF:
+                    return readString(tag);
+                case DECIMAL: {
+                    int scale = (int) readSignedVarLong();
+                    return new BigDecimal(new BigInteger(readBytes()), scale);
+                }
+                case BIG_INTEGER:
+                    return new BigInteger(readBytes());
+                case DATE:
+                    return LocalDate.ofEpochDay(readSignedVarLong());
+                case DATE_TIME: {
+                    LocalDate date = LocalDate.ofEpochDay(readSignedVarLong());
+                    return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readSignedVarLong()));
+                }
+                case TIME:
+                    return LocalTime.ofNanoOfDay(readSignedVarLong());
+                case INSTANT:
+                    return Instant.ofEpochSecond(readSignedVarLong(), readSignedVarLong());
+                case ENUM:
+                    return readEnum();
+                case MAP: {
+                    int size = readSize();
+                    Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, size * 4 / 3 + 1));
+                    for (int i = 0; i < size; i++) {
+                        Object key = read();
+                        map.put(key, read());
+                    }
+                    return map;
+                }
+                case SET: {
+                    int size = readSize();
+                    Set<Object> set = new LinkedHashSet<>(Math.max(16, size * 4 / 3 + 1));
+                    for (int i = 0; i < size; i++) {
+                        set.add(read());
+                    }
+                    return set;
+                }
+                case LIST: {
+                    int size = readSize();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(read());
+                    }
+                    return list;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown value tag " + tag);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnum() {
+            String typeName = readString(nextByte());
+            String constant = readString(nextByte());
+            if (!isAllowedEnum(typeName)) {
+                throw new IllegalArgumentException("Enum type not allowed: " + typeName);
+            }
+            try {
+                Class<?> type = Class.forName(typeName, false, CompactBinaryCodec.class.getClassLoader());
+                if (!type.isEnum()) {
+                    throw new IllegalArgumentException("Not an enum: " + typeName);
+                }
+                return Enum.valueOf((Class) type, constant);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("Unknown enum type: " + typeName, e);
+            }
+        }
+
+        private String readString(byte tag) {
+            if (tag == STRING_REF) {
+                // An index into the strings read so far, not a length, so it is not bounded by the input left
+                long index = readVarLong();
+                if (index < 0 || index >= strings.size()) {
+                    throw new IllegalArgumentException("Unknown string reference " + index);
+                }
+                return strings.get((int) index);
+            }
+            if (tag != STRING) {
+                throw new IllegalArgumentException("Expected a string, found tag " + tag);
+            }
+            int length = readSize();
+            checkAvailable(length);
+            String string = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            if (string.length() <= MAX_REFERENCED_LENGTH) {
+                strings.add(string);
+            }
+            return string;
+        }
+
+        private byte[] readBytes() {
+            int length = readSize();
+            checkAvailable(length);
+            byte[] result = new byte[length];
+            System.arraycopy(bytes, position, result, 0, length);
+            position += length;
+            return result;
+        }
+
+        private int readSize() {
+            long size = readVarLong();
+            // Every element and every byte takes at least one byte of input
+            if (size < 0 || size > end - position) {
+                throw new IllegalArgumentException("Corrupt size " + size);
+            }
+            return (int) size;
+        }
+
+        private long readSignedVarLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = nextByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private byte nextByte() {
+            checkAvailable(1);
+            return bytes[position++];
+        }
+
+        private void checkAvailable(int length) {
+            if (length < 0 || position + length > end) {
+                throw new IllegalArgumentException("Truncated cached value");
+            }
+        }
+    }
+
+    private static boolean isAllowedEnum(String typeName) {
+        for (String allowed : ENUM_PACKAGES) {
+            if (typeName.startsWith(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
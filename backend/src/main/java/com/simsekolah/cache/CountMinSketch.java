@@ -0,0 +1,68 @@
+package com.simsekolah.cache;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over 32-bit key hashes: four rows of saturating int counters
+ * Estimates never undercount; {@link #halve()} ages all counters at once. Not thread-safe.
+ */
+public class CountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int[] table;
+    private final int widthMask;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int width) {
+        int rowWidth = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.table = new int[DEPTH * rowWidth];
+        this.widthMask = rowWidth - 1;
+    }
+
+    public int getWidth() {
+        return widthMask + 1;
+    }
+
+    /**
+     * Count one occurrence and return the new estimate
+     */
+    public int increment(int hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (table[index] < Integer.MAX_VALUE) {
+                table[index]++;
+            }
+            estimate = Math.min(estimate, table[index]);
+        }
+        return estimate;
+    }
+
+    public int estimate(int hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, table[indexOf(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    private int indexOf(int hash, int row) {
+        long mixed = (hash + SEEDS[row]) * SEEDS[row];
+        mixed ^= mixed >>> 32;
+        return row * (widthMask + 1) + ((int) mixed & widthMask);
+    }
+}
@@ -0,0 +1,138 @@
+package com.simsekolah.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate access frequency per key with a fixed memory footprint
+ * A count-min sketch estimates how often a key was read and a small top-K table keeps the heaviest keys.
+ * After ten accesses per sketch counter all counts are halved, so old traffic fades out. Recording never
+ * blocks: when another thread holds the lock the access is simply not sampled.
+ */
+public class HotKeyTracker {
+
+    private final CountMinSketch sketch;
+    private final int sampleSize;
+    private final int capacity;
+    private final String[] topKeys;
+    private final int[] topCounts;
+    private final Map<String, Integer> topIndex = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int topSize;
+    private int additions;
+
+    /**
+     * @param width    counters per sketch row, rounded up to a power of two
+     * @param capacity number of heavy keys to keep
+     */
+    public HotKeyTracker(int width, int capacity) {
+        this.sketch = new CountMinSketch(width);
+        this.sampleSize = 10 * sketch.getWidth();
+        this.capacity = Math.max(1, capacity);
+        this.topKeys = new String[this.capacity];
+        this.topCounts = new int[this.capacity];
+    }
+
+    public void record(Object key) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            String name = String.valueOf(key);
+            int estimate = sketch.increment(name.hashCode());
+            offer(name, estimate);
+            if (++additions >= sampleSize) {
+                decay();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estimated access count of a key; never lower than the decayed true count
+     */
+    public int estimate(Object key) {
+        lock.lock();
+        try {
+            return sketch.estimate(String.valueOf(key).hashCode());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Heaviest keys first
+     */
+    public List<HotKey> topKeys(int limit) {
+        List<HotKey> keys = new ArrayList<>();
+        lock.lock();
+        try {
+            for (int i = 0; i < topSize; i++) {
+                keys.add(new HotKey(topKeys[i], topCounts[i]));
+            }
+        } finally {
+            lock.unlock();
+        }
+        keys.sort((a, b) -> Integer.compare(b.getEstimatedAccesses(), a.getEstimatedAccesses()));
+        return keys.size() > limit ? new ArrayList<>(keys.subList(0, Math.max(0, limit))) : keys;
+    }
+
+    private void offer(String name, int estimate) {
+        Integer index = topIndex.get(name);
+        if (index != null) {
+            topCounts[index] = estimate;
+            return;
+        }
+        if (topSize < capacity) {
+            topKeys[topSize] = name;
+            topCounts[topSize] = estimate;
+            topIndex.put(name, topSize++);
+            return;
+        }
+        int min = 0;
+        for (int i = 1; i < topSize; i++) {
+            if (topCounts[i] < topCounts[min]) {
+                min = i;
+            }
+        }
+        if (estimate > topCounts[min]) {
+            topIndex.remove(topKeys[min]);
+            topKeys[min] = name;
+            topCounts[min] = estimate;
+            topIndex.put(name, min);
+        }
+    }
+
+    private void decay() {
+        sketch.halve();
+        for (int i = 0; i < topSize; i++) {
+            topCounts[i] >>>= 1;
+        }
+        additions = 0;
+    }
+
+    /**
+     * A heavy key and its estimated (decayed) access count
+     */
+    public static final class HotKey {
+        private final String key;
+        private final int estimatedAccesses;
+
+        public HotKey(String key, int estimatedAccesses) {
+            this.key = key;
+            this.estimatedAccesses = estimatedAccesses;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getEstimatedAccesses() {
+            return estimatedAccesses;
+        }
+    }
+}
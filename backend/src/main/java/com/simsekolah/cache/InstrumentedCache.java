@@ -0,0 +1,203 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache decorator that records hits, misses, loads, evictions and payload sizes
+ * {@code @Cacheable} without {@code sync} looks a key up, runs the method and then puts the result,
+ * so a miss followed by a put of the same key on the same thread is recorded as one load.
+ * A {@code sync} lookup that waited for another caller's load is a miss without a load.
+ */
+public class InstrumentedCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheMetrics metrics;
+    private final ToLongFunction<Object> payloadSizer;
+    private final int payloadSampleRate;
+    private final AtomicLong putSequence = new AtomicLong();
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    public InstrumentedCache(Cache delegate, CacheMetrics metrics, ToLongFunction<Object> payloadSizer,
+                             int payloadSampleRate) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.payloadSizer = payloadSizer;
+        this.payloadSampleRate = Math.max(1, payloadSampleRate);
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        return recordLookup(key, delegate.get(key));
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        T value = delegate.get(key, type);
+        recordLookup(key, value != null ? () -> value : null);
+        return value;
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        metrics.recordAccess(key);
+        RecordingLoader<T> loader = new RecordingLoader<>(valueLoader);
+        T value = delegate.get(key, loader);
+        if (loader.loaded) {
+            metrics.recordMiss();
+            samplePayload(value);
+        } else if (loader.coalesced) {
+            metrics.recordMiss();
+        } else {
+            metrics.recordHit();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        delegate.put(key, value);
+        recordPut(key, value);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            recordPut(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        delegate.evict(key);
+        metrics.recordEviction();
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        if (evicted) {
+            metrics.recordEviction();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        metrics.recordEviction();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        metrics.recordEviction();
+        return invalidated;
+    }
+
+    private ValueWrapper recordLookup(Object key, @Nullable ValueWrapper wrapper) {
+        metrics.recordAccess(key);
+        if (wrapper != null) {
+            metrics.recordHit();
+        } else {
+            metrics.recordMiss();
+            pendingLoad.set(new PendingLoad(key, System.nanoTime()));
+        }
+        return wrapper;
+    }
+
+    private void recordPut(Object key, @Nullable Object value) {
+        metrics.recordPut();
+        PendingLoad pending = pendingLoad.get();
+        if (pending != null) {
+            pendingLoad.remove();
+            if (Objects.equals(pending.key, key)) {
+                metrics.recordLoad(System.nanoTime() - pending.startedAt, true);
+            }
+        }
+        samplePayload(value);
+    }
+
+    private void samplePayload(@Nullable Object value) {
+        if (value != null && putSequence.getAndIncrement() % payloadSampleRate == 0) {
+            long size = payloadSizer.applyAsLong(value);
+            if (size >= 0) {
+                metrics.recordPayloadSize(size);
+            }
+        }
+    }
+
+    /**
+     * Times the load if it runs on this caller and notes whether the caller waited for another load instead
+     */
+    private final class RecordingLoader<T> implements CoalescingCache.CoalescedLoader<T> {
+        private final Callable<T> valueLoader;
+        private boolean loaded;
+        private boolean coalesced;
+
+        private RecordingLoader(Callable<T> valueLoader) {
+            this.valueLoader = valueLoader;
+        }
+
+        @Override
+        public T call() throws Exception {
+            loaded = true;
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                T result = valueLoader.call();
+                success = true;
+                return result;
+            } finally {
+                metrics.recordLoad(System.nanoTime() - start, success);
+            }
+        }
+
+        @Override
+        public void coalesced() {
+            coalesced = true;
+        }
+    }
+
+    private static final class PendingLoad {
+        private final Object key;
+        private final long startedAt;
+
+        private PendingLoad(Object key, long startedAt) {
+            this.key = key;
+            this.startedAt = startedAt;
+        }
+    }
+}
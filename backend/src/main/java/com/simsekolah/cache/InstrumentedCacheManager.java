@@ -0,0 +1,184 @@
+package com.simsekolah.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager decorator that instruments every cache of the configured cache manager
+ * Payload sizes are the JSON size of a sample of the written values; the Redis tier stores the more compact
+ * codec form (see {@link VersionedCacheValueSerializer}), so they are an upper bound.
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedCacheManager.class);
+
+    private static final ObjectMapper PAYLOAD_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private final CacheManager delegate;
+    private final MeterRegistry registry;
+    private final int payloadSampleRate;
+    private final int hotKeyCapacity;
+    private final Map<String, InstrumentedCache> caches = new ConcurrentHashMap<>();
+
+    public InstrumentedCacheManager(CacheManager delegate, MeterRegistry registry, int payloadSampleRate,
+                                    int hotKeyCapacity) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.payloadSampleRate = payloadSampleRate;
+        this.hotKeyCapacity = hotKeyCapacity;
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        InstrumentedCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> instrument(cacheName, target));
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Nullable
+    public CacheMetrics getMetrics(String cacheName) {
+        InstrumentedCache cache = caches.get(cacheName);
+        return cache != null ? cache.getMetrics() : null;
+    }
+
+    /**
+     * Metrics of every cache used so far, by cache name
+     */
+    public Map<String, CacheMetrics> getAllMetrics() {
+        Map<String, CacheMetrics> metrics = new TreeMap<>();
+        caches.forEach((name, cache) -> metrics.put(name, cache.getMetrics()));
+        return metrics;
+    }
+
+    /**
+     * The in-process store behind a cache, when there is one
+     */
+    @Nullable
+    public static LocalCache findLocalCache(Cache cache) {
+        return unwrap(cache, LocalCache.class);
+    }
+
+    /**
+     * The first cache of the given type found by unwrapping the decorators around a cache
+     * For a two-level cache the in-process tier is returned.
+     */
+    @Nullable
+    public static <T extends Cache> T unwrap(Cache cache, Class<T> type) {
+        Cache current = cache;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            } else if (current instanceof TwoLevelCache twoLevel) {
+                current = twoLevel.getLocalCache();
+            } else if (current instanceof InstrumentedCache instrumented) {
+                current = instrumented.getDelegate();
+            } else if (current instanceof CoalescingCache coalescing) {
+                current = coalescing.getDelegate();
+            } else if (current instanceof TaggedCache tagged) {
+                current = tagged.getDelegate();
+            } else if (current instanceof TransactionAwareCacheDecorator decorator) {
+                current = decorator.getTargetCache();
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private InstrumentedCache instrument(String name, Cache target) {
+        LocalCache local = findLocalCache(target);
+        if (local != null) {
+            Gauge.builder("cache.local.size", local, LocalCache::size).tag("cache", name)
+                    .description("Entries held in process").register(registry);
+            FunctionCounter.builder("cache.local.removals", local, LocalCache::getEvictionCount)
+                    .tag("cache", name).tag("cause", "size")
+                    .description("In-process entries removed by the size bound or expiry").register(registry);
+            FunctionCounter.builder("cache.local.removals", local, LocalCache::getExpirationCount)
+                    .tag("cache", name).tag("cause", "expired")
+                    .description("In-process entries removed by the size bound or expiry").register(registry);
+        }
+        TinyLfuCache tinyLfu = unwrap(target, TinyLfuCache.class);
+        if (tinyLfu != null) {
+            Gauge.builder("cache.local.size", tinyLfu, TinyLfuCache::size).tag("cache", name)
+                    .description("Entries held in process").register(registry);
+            Gauge.builder("cache.local.weight", tinyLfu, TinyLfuCache::getWeightedSize).tag("cache", name)
+                    .description("Total weight of the entries held in process").register(registry);
+            FunctionCounter.builder("cache.local.removals", tinyLfu, TinyLfuCache::getEvictionCount)
+                    .tag("cache", name).tag("cause", "size")
+                    .description("In-process entries removed by the size bound or expiry").register(registry);
+            FunctionCounter.builder("cache.local.removals", tinyLfu, TinyLfuCache::getExpirationCount)
+                    .tag("cache", name).tag("cause", "expired")
+                    .description("In-process entries removed by the size bound or expiry").register(registry);
+            FunctionCounter.builder("cache.local.rejections", tinyLfu, TinyLfuCache::getRejectionCount)
+                    .tag("cache", name)
+                    .description("New entries not admitted by the frequency filter").register(registry);
+        }
+        logger.debug("Instrumenting cache: {}", name);
+        return new InstrumentedCache(target, new CacheMetrics(name, registry, hotKeyCapacity),
+                InstrumentedCacheManager::payloadSize, payloadSampleRate);
+    }
+
+    private static long payloadSize(Object value) {
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            PAYLOAD_MAPPER.writeValue(out, value);
+            return out.count;
+        } catch (Exception e) {
+            logger.trace("Could not measure cached value of type {}", value.getClass().getName(), e);
+            return -1;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
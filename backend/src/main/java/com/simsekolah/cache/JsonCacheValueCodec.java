@@ -0,0 +1,59 @@
+package com.simsekolah.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Arrays;
+
+/**
+ * Codec backed by the typed Jackson serializer the Redis tier used before codecs existed
+ * Handles any value, so it is also the fallback for values the binary codec cannot represent.
+ */
+public class JsonCacheValueCodec implements CacheValueCodec {
+
+    public static final byte ID = 2;
+
+    private final RedisSerializer<Object> serializer;
+
+    public JsonCacheValueCodec(RedisSerializer<Object> serializer) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * JSON serializer that records value types, so cached DTOs are read back as the same classes
+     */
+    public static GenericJackson2JsonRedisSerializer createTypedSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.activateDefaultTyping(
+            objectMapper.getPolymorphicTypeValidator(),
+            ObjectMapper.DefaultTyping.NON_FINAL
+        );
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return serializer.serialize(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        return serializer.deserialize(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+}
@@ -0,0 +1,178 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * In-process cache bounded by entry count and time-to-live
+ * Entries are kept in access order, so the least recently used entry is evicted first once the
+ * cache is full. Expired entries are dropped when they are read or reach the eviction end.
+ */
+public class LocalCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long evictionCount;
+    private long expirationCount;
+
+    public LocalCache(String name, int maximumSize, Duration ttl) {
+        super(false);
+        this.name = name;
+        this.maximumSize = Math.max(1, maximumSize);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entries removed to stay within the maximum size
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Entries removed because their time-to-live had passed
+     */
+    public synchronized long getExpirationCount() {
+        return expirationCount;
+    }
+
+    @Override
+    @Nullable
+    protected synchronized Object lookup(@NonNull Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            expirationCount++;
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        Object stored = lookup(key);
+        if (stored != null) {
+            return (T) fromStoreValue(stored);
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        synchronized (this) {
+            entries.put(key, new Entry(toStoreValue(value), System.nanoTime() + ttlNanos));
+            trim();
+        }
+    }
+
+    @Override
+    @Nullable
+    public synchronized ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        Object existing = lookup(key);
+        if (existing != null) {
+            return toValueWrapper(existing);
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public synchronized void evict(@NonNull Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized boolean evictIfPresent(@NonNull Object key) {
+        return entries.remove(key) != null;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized boolean invalidate() {
+        boolean notEmpty = !entries.isEmpty();
+        entries.clear();
+        return notEmpty;
+    }
+
+    private void trim() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && entries.size() > maximumSize) {
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+        // Drop expired entries that have drifted to the eviction end
+        iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && iterator.next().getValue().isExpired(now)) {
+            iterator.remove();
+            expirationCount++;
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.simsekolah.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache decorator that indexes every written entry under the entity tags of its key
+ * A failure to write the tags is logged and does not fail the cache write; the entry then simply
+ * expires with its TTL.
+ */
+public class TaggedCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaggedCache.class);
+
+    private final Cache delegate;
+    private final CacheTagIndex tagIndex;
+
+    public TaggedCache(Cache delegate, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.tagIndex = tagIndex;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        if (loaded[0]) {
+            tag(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        delegate.put(key, value);
+        if (value != null) {
+            tag(key);
+        }
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null && value != null) {
+            tag(key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private void tag(Object key) {
+        List<String> tags = CacheTags.tagsFor(getName(), key);
+        if (tags.isEmpty()) {
+            return;
+        }
+        try {
+            tagIndex.tag(getName(), key, tags);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to tag cache entry - cache: {}, key: {}: {}", getName(), key, e.getMessage());
+        }
+    }
+}
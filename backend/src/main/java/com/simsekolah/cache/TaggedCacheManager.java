@@ -0,0 +1,46 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager decorator that tag-indexes the writes of the caches listed in {@link CacheTags}
+ */
+public class TaggedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheTagIndex tagIndex;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TaggedCacheManager(CacheManager delegate, CacheTagIndex tagIndex) {
+        this.delegate = delegate;
+        this.tagIndex = tagIndex;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name,
+                cacheName -> CacheTags.isTagged(cacheName) ? new TaggedCache(target, tagIndex) : target);
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -0,0 +1,624 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-process cache bounded by total weight and time-to-live, with W-TinyLFU admission
+ * New entries enter a small LRU window (1% of the weight). Entries leaving the window compete with the
+ * least recently used entry of the main region: a count-min sketch of recent access frequencies decides
+ * which of the two stays, so one-off reads cannot push out entries that are read again and again.
+ * The main region is a segmented LRU: entries read while on probation move to the protected segment
+ * (80% of the main region). Expired entries are dropped after they were read, when they reach the head
+ * of a queue during a write, or by {@link #cleanUp()}.
+ * <p>
+ * Reads never block: they look the key up in a concurrent map and note the access in a small lossy ring
+ * buffer. Writes, eviction and replaying buffered reads into the sketch and the LRU queues take the
+ * cache's lock; a reader drains the buffer only when the lock is free. A read lost to a full buffer
+ * just does not count towards recency and frequency. Values are loaded outside of the lock.
+ * <p>
+ * Null values are rejected like the Redis caches reject them, so a method result cached without Redis
+ * behaves the same as with it.
+ */
+public class TinyLfuCache extends AbstractValueAdaptingCache {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+    private static final int MAX_SKETCH_WIDTH = 1 << 16;
+    private static final int READ_BUFFER_SIZE = 256;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 4;
+
+    private enum Segment { WINDOW, PROBATION, PROTECTED }
+
+    private final String name;
+    private final long maximumWeight;
+    private final long ttlNanos;
+    private final ToIntFunction<Object> weigher;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final Map<Object, Node> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Object, Node> window = new LinkedHashMap<>();
+    private final LinkedHashMap<Object, Node> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<Object, Node> protectedSegment = new LinkedHashMap<>();
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private final CountMinSketch sketch;
+    private final int sampleSize;
+    private int additions;
+
+    // Accessed nodes for hits and keys for misses, replayed under the lock
+    private final AtomicReferenceArray<Object> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readSequence = new AtomicLong();
+    private long drainedSequence;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private long putCount;
+    private long evictionCount;
+    private long expirationCount;
+    private long rejectionCount;
+
+    /**
+     * @param maximumWeight total weight of the entries kept
+     * @param weigher       weight of a stored value, at least 1
+     */
+    public TinyLfuCache(String name, long maximumWeight, Duration ttl, ToIntFunction<Object> weigher) {
+        super(false);
+        this.name = name;
+        this.maximumWeight = Math.max(1, maximumWeight);
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+        this.windowMaximum = Math.max(1, (long) (this.maximumWeight * WINDOW_RATIO));
+        this.protectedMaximum = (long) ((this.maximumWeight - windowMaximum) * PROTECTED_RATIO);
+        this.sketch = new CountMinSketch((int) Math.min(this.maximumWeight, MAX_SKETCH_WIDTH));
+        this.sampleSize = 10 * sketch.getWidth();
+    }
+
+    /**
+     * Weight of a value: one per object, plus the elements of collections, maps and arrays up to three
+     * levels deep, so a report with hundreds of rows weighs more than a single lookup result
+     */
+    public static int approximateWeight(Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, weigh(value, 3));
+    }
+
+    private static long weigh(Object value, int depth) {
+        if (depth == 0 || value == null) {
+            return 1;
+        }
+        long weight = 1;
+        if (value instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                weight += weigh(element, depth - 1);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            for (Object element : map.values()) {
+                weight += weigh(element, depth - 1);
+            }
+        } else if (value instanceof Object[] array) {
+            for (Object element : array) {
+                weight += weigh(element, depth - 1);
+            }
+        }
+        return weight;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return data;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            return weightedSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Entries removed to stay within the maximum weight
+     */
+    public long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entries removed because their time-to-live had passed
+     */
+    public long getExpirationCount() {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            return expirationCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * New entries dropped because they were read less often than the entry they would have replaced,
+     * or were heavier than the whole cache
+     */
+    public long getRejectionCount() {
+        lock.lock();
+        try {
+            return rejectionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            long hits = hitCount.sum();
+            long misses = missCount.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("size", data.size());
+            stats.put("weightedSize", weightedSize());
+            stats.put("maximumWeight", maximumWeight);
+            stats.put("ttlSeconds", getTtl().toSeconds());
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+            stats.put("puts", putCount);
+            stats.put("evictions", evictionCount);
+            stats.put("expirations", expirationCount);
+            stats.put("rejections", rejectionCount);
+            stats.put("windowWeight", windowWeight);
+            stats.put("probationWeight", probationWeight);
+            stats.put("protectedWeight", protectedWeight);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(@NonNull Object key) {
+        Node node = data.get(key);
+        if (node == null) {
+            missCount.increment();
+            afterRead(key);
+            return null;
+        }
+        // An expired node is buffered too, the drain removes it
+        Object value = node.value;
+        boolean expired = node.isExpired(System.nanoTime());
+        afterRead(node);
+        if (expired) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        put(key, value, ttlNanos);
+    }
+
+    /**
+     * Store an entry that expires after the given time instead of the cache's time-to-live; used to
+     * restore entries with their remaining lifetime
+     */
+    public void put(@NonNull Object key, @Nullable Object value, Duration timeToLive) {
+        put(key, value, Math.min(ttlNanos, timeToLive.toNanos()));
+    }
+
+    /**
+     * Visit every live entry, most valuable first: protected, then probation, then the window, each from
+     * most to least recently used
+     */
+    public void forEachEntry(EntryVisitor visitor) {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            long now = System.nanoTime();
+            for (LinkedHashMap<Object, Node> queue : List.of(protectedSegment, probation, window)) {
+                List<Node> nodes = new ArrayList<>(queue.values());
+                for (int i = nodes.size() - 1; i >= 0; i--) {
+                    Node node = nodes.get(i);
+                    if (!node.isExpired(now)) {
+                        visitor.visit(node.key, fromStoreValue(node.value), Duration.ofNanos(node.expiresAt - now));
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Object key, @Nullable Object value, long timeToLiveNanos) {
+        Object storeValue = toStoreValue(value);
+        int weight = Math.max(1, weigher.applyAsInt(storeValue));
+        lock.lock();
+        try {
+            drainReadBuffer();
+            putCount++;
+            Node existing = data.get(key);
+            if (weight > maximumWeight) {
+                if (existing != null) {
+                    remove(existing);
+                }
+                rejectionCount++;
+                return;
+            }
+            long expiresAt = System.nanoTime() + timeToLiveNanos;
+            if (existing != null) {
+                addWeight(existing.segment, weight - existing.weight);
+                existing.value = storeValue;
+                existing.weight = weight;
+                existing.expiresAt = expiresAt;
+                onHit(existing);
+            } else {
+                Node node = new Node(key, storeValue, weight, expiresAt);
+                data.put(key, node);
+                window.put(key, node);
+                windowWeight += weight;
+            }
+            maintain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        lock.lock();
+        try {
+            Object existing = lookup(key);
+            if (existing != null) {
+                return toValueWrapper(existing);
+            }
+            put(key, value);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        lock.lock();
+        try {
+            Node node = data.get(key);
+            if (node == null) {
+                return false;
+            }
+            remove(node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            windowWeight = 0;
+            probationWeight = 0;
+            protectedWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        lock.lock();
+        try {
+            boolean notEmpty = !data.isEmpty();
+            clear();
+            return notEmpty;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop every expired entry
+     *
+     * @return number of entries removed
+     */
+    public int cleanUp() {
+        lock.lock();
+        try {
+            drainReadBuffer();
+            long now = System.nanoTime();
+            int removed = 0;
+            Iterator<Node> iterator = data.values().iterator();
+            while (iterator.hasNext()) {
+                Node node = iterator.next();
+                if (node.isExpired(now)) {
+                    iterator.remove();
+                    queue(node.segment).remove(node.key);
+                    addWeight(node.segment, -node.weight);
+                    expirationCount++;
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Buffer a read without blocking; a full ring overwrites reads that were not replayed yet
+     */
+    private void afterRead(Object access) {
+        long sequence = readSequence.getAndIncrement();
+        readBuffer.lazySet((int) (sequence & READ_BUFFER_MASK), access);
+        if ((sequence & (READ_DRAIN_THRESHOLD - 1)) == 0 && lock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replay buffered reads into the sketch and the LRU queues; called with the lock held
+     */
+    private void drainReadBuffer() {
+        long end = readSequence.get();
+        long start = Math.max(drainedSequence, end - READ_BUFFER_SIZE);
+        long now = System.nanoTime();
+        for (long sequence = start; sequence < end; sequence++) {
+            Object access = readBuffer.getAndSet((int) (sequence & READ_BUFFER_MASK), null);
+            if (access instanceof Node node) {
+                recordAccess(node.key);
+                if (data.get(node.key) != node) {
+                    continue;
+                }
+                if (node.isExpired(now)) {
+                    remove(node);
+                    expirationCount++;
+                } else {
+                    onHit(node);
+                }
+            } else if (access != null) {
+                recordAccess(access);
+            }
+        }
+        drainedSequence = end;
+    }
+
+    private void recordAccess(Object key) {
+        sketch.increment(key.hashCode());
+        if (++additions >= sampleSize) {
+            sketch.halve();
+            additions = 0;
+        }
+    }
+
+    private void onHit(Node node) {
+        switch (node.segment) {
+            case WINDOW -> moveToTail(window, node);
+            case PROTECTED -> moveToTail(protectedSegment, node);
+            case PROBATION -> {
+                probation.remove(node.key);
+                probationWeight -= node.weight;
+                node.segment = Segment.PROTECTED;
+                protectedSegment.put(node.key, node);
+                protectedWeight += node.weight;
+                // Make room in the protected segment by demoting its least recently used entries
+                while (protectedWeight > protectedMaximum && protectedSegment.size() > 1) {
+                    Node demoted = first(protectedSegment);
+                    protectedSegment.remove(demoted.key);
+                    protectedWeight -= demoted.weight;
+                    demoted.segment = Segment.PROBATION;
+                    probation.put(demoted.key, demoted);
+                    probationWeight += demoted.weight;
+                }
+            }
+        }
+    }
+
+    private void maintain() {
+        expireHeads(System.nanoTime());
+        while (windowWeight > windowMaximum && window.size() > 1) {
+            Node candidate = first(window);
+            window.remove(candidate.key);
+            windowWeight -= candidate.weight;
+            candidate.segment = Segment.PROBATION;
+            probation.put(candidate.key, candidate);
+            probationWeight += candidate.weight;
+            evictOverflow(candidate);
+        }
+        evictOverflow(null);
+    }
+
+    /**
+     * Evict until the weight fits; a candidate fresh from the window duels the probation victim
+     */
+    private void evictOverflow(@Nullable Node candidate) {
+        while (weightedSize() > maximumWeight) {
+            Node victim = !probation.isEmpty() ? first(probation)
+                    : !protectedSegment.isEmpty() ? first(protectedSegment) : first(window);
+            if (candidate != null && candidate.segment == Segment.PROBATION && data.get(candidate.key) == candidate
+                    && victim != candidate && frequency(candidate.key) <= frequency(victim.key)) {
+                remove(candidate);
+                rejectionCount++;
+                candidate = null;
+                continue;
+            }
+            remove(victim);
+            evictionCount++;
+        }
+    }
+
+    private void expireHeads(long now) {
+        expireHead(window, now);
+        expireHead(probation, now);
+        expireHead(protectedSegment, now);
+    }
+
+    private void expireHead(LinkedHashMap<Object, Node> queue, long now) {
+        Iterator<Node> iterator = queue.values().iterator();
+        while (iterator.hasNext()) {
+            Node node = iterator.next();
+            if (!node.isExpired(now)) {
+                return;
+            }
+            iterator.remove();
+            data.remove(node.key);
+            addWeight(node.segment, -node.weight);
+            expirationCount++;
+        }
+    }
+
+    private long weightedSize() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    private int frequency(Object key) {
+        return sketch.estimate(key.hashCode());
+    }
+
+    private void remove(Node node) {
+        data.remove(node.key);
+        queue(node.segment).remove(node.key);
+        addWeight(node.segment, -node.weight);
+    }
+
+    private LinkedHashMap<Object, Node> queue(Segment segment) {
+        return switch (segment) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedSegment;
+        };
+    }
+
+    private void addWeight(Segment segment, long delta) {
+        switch (segment) {
+            case WINDOW -> windowWeight += delta;
+            case PROBATION -> probationWeight += delta;
+            case PROTECTED -> protectedWeight += delta;
+        }
+    }
+
+    private static void moveToTail(LinkedHashMap<Object, Node> queue, Node node) {
+        queue.remove(node.key);
+        queue.put(node.key, node);
+    }
+
+    private static Node first(LinkedHashMap<Object, Node> queue) {
+        return queue.values().iterator().next();
+    }
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(Object key, @Nullable Object value, Duration remainingTtl);
+    }
+
+    /**
+     * Value and expiry are read without the lock; everything else is guarded by it
+     */
+    private static final class Node {
+        private final Object key;
+        private volatile Object value;
+        private int weight;
+        private volatile long expiresAt;
+        private Segment segment = Segment.WINDOW;
+
+        private Node(Object key, Object value, int weight, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache manager of bounded in-process {@link TinyLfuCache}s for deployments without Redis
+ * The configured cache names are created up front; like {@code ConcurrentMapCacheManager} without fixed
+ * names, any other name used by {@code @Cacheable} gets a cache on first use.
+ */
+public class TinyLfuCacheManager extends AbstractCacheManager {
+
+    private final Collection<String> initialCacheNames;
+    private final Function<String, TinyLfuCache> cacheFactory;
+
+    public TinyLfuCacheManager(Collection<String> initialCacheNames, Function<String, TinyLfuCache> cacheFactory) {
+        this.initialCacheNames = List.copyOf(initialCacheNames);
+        this.cacheFactory = cacheFactory;
+    }
+
+    @Override
+    @NonNull
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : initialCacheNames) {
+            caches.add(cacheFactory.apply(name));
+        }
+        return caches;
+    }
+
+    @Override
+    @Nullable
+    protected Cache getMissingCache(@NonNull String name) {
+        return cacheFactory.apply(name);
+    }
+
+    /**
+     * Drop the expired entries of every cache
+     *
+     * @return number of entries removed
+     */
+    public int cleanUp() {
+        int removed = 0;
+        for (String name : getCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache instanceof TinyLfuCache tinyLfuCache) {
+                removed += tinyLfuCache.cleanUp();
+            }
+        }
+        return removed;
+    }
+}
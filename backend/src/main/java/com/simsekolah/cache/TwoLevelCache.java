@@ -0,0 +1,201 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache that reads through a bounded in-process L1 into a shared L2 (Redis)
+ * Writes go to L2 first and then replace the local copy; every write is announced so that other
+ * nodes drop their L1 copy of the key (a null key stands for the whole cache).
+ * L1 keys are the string form of the cache key, which is also how Redis keys are built.
+ * Every L1 invalidation bumps a generation (striped by key, plus one for whole-cache clears); a
+ * read-through records the generation before asking L2 and only keeps the L2 value in L1 when no
+ * invalidation arrived meanwhile, so a stale read cannot overwrite a newer eviction.
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final LocalCache local;
+    private final Cache remote;
+    private final BiConsumer<String, String> invalidationPublisher;
+    private final AtomicLongArray keyGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    public TwoLevelCache(LocalCache local, Cache remote, BiConsumer<String, String> invalidationPublisher) {
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public LocalCache getLocalCache() {
+        return local;
+    }
+
+    public Cache getRemoteCache() {
+        return remote;
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.get(localKey);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        long generation = generation(localKey);
+        wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            fillLocal(localKey, wrapper.get(), generation);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.get(localKey);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        long generation = generation(localKey);
+        T value = remote.get(key, valueLoader);
+        if (value != null) {
+            fillLocal(localKey, value, generation);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        remote.put(key, value);
+        invalidated(localKey(key));
+        local.put(localKey(key), value);
+        invalidationPublisher.accept(getName(), localKey(key));
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        invalidated(localKey(key));
+        local.evict(localKey(key));
+        if (existing == null) {
+            invalidationPublisher.accept(getName(), localKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        remote.evict(key);
+        invalidated(localKey(key));
+        local.evict(localKey(key));
+        invalidationPublisher.accept(getName(), localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        invalidated(localKey(key));
+        local.evict(localKey(key));
+        invalidationPublisher.accept(getName(), localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidated(null);
+        local.clear();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        invalidated(null);
+        local.clear();
+        invalidationPublisher.accept(getName(), null);
+        return invalidated;
+    }
+
+    /**
+     * Drop a key announced by another node from L1 only; a null key clears L1
+     */
+    public void evictLocal(@Nullable String key) {
+        invalidated(key);
+        if (key == null) {
+            local.clear();
+        } else {
+            local.evict(key);
+        }
+    }
+
+    /**
+     * Copy an L2 value into L1 unless the key was invalidated since {@code generation} was read; the
+     * second check drops the copy again when an invalidation slipped in between the check and the put
+     */
+    private void fillLocal(String localKey, Object value, long generation) {
+        if (generation(localKey) != generation) {
+            return;
+        }
+        local.put(localKey, value);
+        if (generation(localKey) != generation) {
+            local.evict(localKey);
+        }
+    }
+
+    private long generation(String localKey) {
+        return clearGeneration.get() + keyGenerations.get(stripe(localKey));
+    }
+
+    private void invalidated(@Nullable String localKey) {
+        if (localKey == null) {
+            clearGeneration.incrementAndGet();
+        } else {
+            keyGenerations.incrementAndGet(stripe(localKey));
+        }
+    }
+
+    private static int stripe(String localKey) {
+        return (localKey.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
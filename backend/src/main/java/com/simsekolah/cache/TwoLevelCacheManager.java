@@ -0,0 +1,81 @@
+package com.simsekolah.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Cache manager that puts an in-process L1 in front of every cache of a remote cache manager
+ * Invalidation messages from other nodes are applied with {@link #evictLocal(String, String)};
+ * local writes are announced through the publisher set with {@link #setInvalidationPublisher(BiConsumer)}.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final Function<String, LocalCache> localCacheFactory;
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    private volatile BiConsumer<String, String> invalidationPublisher = (cacheName, key) -> { };
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, Function<String, LocalCache> localCacheFactory) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localCacheFactory = localCacheFactory;
+    }
+
+    public void setInvalidationPublisher(BiConsumer<String, String> invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    @NonNull
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : remoteCacheManager.getCacheNames()) {
+            Cache remote = remoteCacheManager.getCache(name);
+            if (remote != null) {
+                caches.add(createCache(name, remote));
+            }
+        }
+        return caches;
+    }
+
+    @Override
+    @Nullable
+    protected Cache getMissingCache(@NonNull String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        return remote != null ? createCache(name, remote) : null;
+    }
+
+    /**
+     * Apply an invalidation received from another node to the local tier only
+     */
+    public void evictLocal(String cacheName, @Nullable String key) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    @Nullable
+    public LocalCache getLocalCache(String cacheName) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        return cache != null ? cache.getLocalCache() : null;
+    }
+
+    private Cache createCache(String name, Cache remote) {
+        TwoLevelCache cache = new TwoLevelCache(localCacheFactory.apply(name), remote,
+                (cacheName, key) -> invalidationPublisher.accept(cacheName, key));
+        twoLevelCaches.put(name, cache);
+        return cache;
+    }
+}
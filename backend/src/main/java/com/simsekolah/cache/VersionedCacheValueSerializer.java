@@ -0,0 +1,205 @@
+package com.simsekolah.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value serializer that writes a small header in front of the encoded value
+ * The header holds a magic byte, the schema version, the codec id and a compression flag. Values whose
+ * header carries another schema version, and values written before the header existed, read as a cache
+ * miss and are recomputed, so a deploy that changes cached types never fails on old entries.
+ * <p>
+ * Encoded values above the compression threshold are deflated when that makes them smaller. Values the
+ * preferred codec cannot represent are written with the fallback codec.
+ */
+public class VersionedCacheValueSerializer implements RedisSerializer<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionedCacheValueSerializer.class);
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final int HEADER_LENGTH = 4;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int MAX_INFLATED_LENGTH = 64 * 1024 * 1024;
+
+    private final CacheValueCodec codec;
+    private final CacheValueCodec fallbackCodec;
+    private final Map<Byte, CacheValueCodec> decoders;
+    private final byte schemaVersion;
+    private final int compressionThreshold;
+
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final AtomicLong fallbackWrites = new AtomicLong();
+    private final AtomicLong compressedWrites = new AtomicLong();
+
+    /**
+     * @param codec                preferred codec for writes
+     * @param fallbackCodec        codec for values the preferred codec rejects
+     * @param schemaVersion        version written into every value; entries of other versions are skipped
+     * @param compressionThreshold encoded size in bytes from which values are deflated, 0 to never compress
+     */
+    public VersionedCacheValueSerializer(CacheValueCodec codec, CacheValueCodec fallbackCodec, int schemaVersion,
+                                         int compressionThreshold) {
+        this.codec = codec;
+        this.fallbackCodec = fallbackCodec;
+        this.decoders = new HashMap<>();
+        this.decoders.put(codec.getId(), codec);
+        this.decoders.put(fallbackCodec.getId(), fallbackCodec);
+        this.schemaVersion = (byte) schemaVersion;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public CacheValueCodec getCodec() {
+        return codec;
+    }
+
+    public int getSchemaVersion() {
+        return schemaVersion & 0xFF;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Entries skipped because of a different schema version or a missing header
+     */
+    public long getStaleEntries() {
+        return staleEntries.get();
+    }
+
+    public long getFallbackWrites() {
+        return fallbackWrites.get();
+    }
+
+    public long getCompressedWrites() {
+        return compressedWrites.get();
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        CacheValueCodec writer = codec;
+        byte[] encoded;
+        try {
+            encoded = codec.encode(value);
+        } catch (CacheValueCodec.UnsupportedValueException e) {
+            logger.debug("Codec {} cannot encode {}, using {}", codec.getName(), e.getMessage(), fallbackCodec.getName());
+            fallbackWrites.incrementAndGet();
+            writer = fallbackCodec;
+            encoded = fallbackCodec.encode(value);
+        }
+
+        int flags = 0;
+        if (compressionThreshold > 0 && encoded.length >= compressionThreshold) {
+            byte[] deflated = deflate(encoded);
+            if (deflated.length < encoded.length) {
+                encoded = deflated;
+                flags |= FLAG_DEFLATE;
+                compressedWrites.incrementAndGet();
+            }
+        }
+
+        byte[] result = new byte[HEADER_LENGTH + encoded.length];
+        result[0] = MAGIC;
+        result[1] = schemaVersion;
+        result[2] = writer.getId();
+        result[3] = (byte) flags;
+        System.arraycopy(encoded, 0, result, HEADER_LENGTH, encoded.length);
+        return result;
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC || bytes[1] != schemaVersion) {
+            staleEntries.incrementAndGet();
+            return null;
+        }
+        CacheValueCodec decoder = decoders.get(bytes[2]);
+        if (decoder == null) {
+            staleEntries.incrementAndGet();
+            return null;
+        }
+        try {
+            if ((bytes[3] & FLAG_DEFLATE) != 0) {
+                byte[] inflated = inflate(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+                return decoder.decode(inflated, 0, inflated.length);
+            }
+            return decoder.decode(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot decode cached value with codec " + decoder.getName(), e);
+        }
+    }
+
+    /**
+     * Original length as four bytes, then the deflated data
+     */
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            out.write(data.length >>> 24);
+            out.write(data.length >>> 16);
+            out.write(data.length >>> 8);
+            out.write(data.length);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int length) {
+        if (length < 4) {
+            throw new IllegalArgumentException("Truncated compressed value");
+        }
+        int inflatedLength = ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+            | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+        if (inflatedLength < 0 || inflatedLength > MAX_INFLATED_LENGTH) {
+            throw new IllegalArgumentException("Corrupt compressed length " + inflatedLength);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset + 4, length - 4);
+            byte[] result = new byte[inflatedLength];
+            int filled = 0;
+            while (filled < inflatedLength) {
+                int count = inflater.inflate(result, filled, inflatedLength - filled);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                filled += count;
+            }
+            if (filled != inflatedLength || !inflater.finished()) {
+                throw new IllegalArgumentException("Compressed value does not match its length");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Cache infrastructure.
+ * Contains the cache policies, the in-process cache, the two-level cache used in front of Redis,
+ * the bounded TinyLFU cache used without Redis, the value codecs of the Redis tier, the entity tag
+ * index used for invalidation, load coalescing, the cache metrics and the cache warm-up engine.
+ */
+package com.simsekolah.cache;
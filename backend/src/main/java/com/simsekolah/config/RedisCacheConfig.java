@@ -1,12 +1,24 @@
 package com.simsekolah.config;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.simsekolah.cache.CachePolicies;
+import com.simsekolah.cache.CacheTagIndex;
+import com.simsekolah.cache.CacheValueCodec;
+import com.simsekolah.cache.CoalescingCacheManager;
+import com.simsekolah.cache.CompactBinaryCodec;
+import com.simsekolah.cache.InstrumentedCacheManager;
+import com.simsekolah.cache.JsonCacheValueCodec;
+import com.simsekolah.cache.LocalCache;
+import com.simsekolah.cache.TaggedCacheManager;
+import com.simsekolah.cache.TwoLevelCacheManager;
+import com.simsekolah.cache.VersionedCacheValueSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
@@ -16,19 +28,26 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Redis caching configuration for the School Information Management System
@@ -59,6 +78,45 @@ public class RedisCacheConfig implements CachingConfigurer {
     @Value("${spring.cache.redis.time-to-live:3600}")
     private long defaultTtl;
 
+    @Value("${app.cache.l1.enabled:true}")
+    private boolean l1Enabled;
+
+    @Value("${app.cache.l1.max-entries:1000}")
+    private int l1MaxEntries;
+
+    @Value("${app.cache.l1.max-ttl-seconds:600}")
+    private long l1MaxTtl;
+
+    @Value("${app.cache.metrics.payload-sample-rate:16}")
+    private int payloadSampleRate;
+
+    @Value("${app.cache.metrics.hot-keys:20}")
+    private int hotKeyCapacity;
+
+    @Value("${app.cache.redis.batch-size:500}")
+    private int redisBatchSize;
+
+    @Value("${app.cache.early-refresh.caches:}")
+    private String[] earlyRefreshCaches;
+
+    @Value("${app.cache.early-refresh.beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${app.cache.early-refresh.max-tracked-entries:1000}")
+    private int earlyRefreshMaxTrackedEntries;
+
+    @Value("${app.cache.coalescing.wait-timeout-seconds:30}")
+    private long coalescingWaitTimeoutSeconds;
+
+    @Value("${app.cache.codec.default:binary}")
+    private String defaultCodec;
+
+    @Value("${app.cache.codec.schema-version:1}")
+    private int codecSchemaVersion;
+
+    @Value("${app.cache.codec.compression-threshold-bytes:1024}")
+    private int compressionThreshold;
+
     /**
      * Redis connection factory configuration
      */
@@ -131,70 +189,121 @@ public class RedisCacheConfig implements CachingConfigurer {
      */
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, Environment environment,
+                                     ObjectProvider<MeterRegistry> meterRegistry, CacheTagIndex cacheTagIndex) {
         logger.info("Configuring Redis cache manager");
         
+        // Values carry a codec and schema version header (per cache codec: app.cache.codec.caches.<cacheName>)
+        JsonCacheValueCodec jsonCodec = new JsonCacheValueCodec(createJsonSerializer());
+        Map<String, String> codecOverrides = Binder.get(environment)
+            .bind("app.cache.codec.caches", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of());
+
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofSeconds(defaultTtl))
             .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(createJsonSerializer()))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                valueSerializer(defaultCodec, jsonCodec)))
             .disableCachingNullValues();
 
-        // Specific cache configurations with different TTL
+        // Specific cache configurations with different TTL and codec
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        
-        // User data - 30 minutes
-        cacheConfigurations.put("users", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("userProfiles", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("userRoles", defaultConfig.entryTtl(Duration.ofMinutes(60)));
-        
-        // Student data - 1 hour
-        cacheConfigurations.put("students", defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigurations.put("studentProfiles", defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigurations.put("studentsByClass", defaultConfig.entryTtl(Duration.ofHours(1)));
-        
-        // Academic data - 2 hours
-        cacheConfigurations.put("assessments", defaultConfig.entryTtl(Duration.ofHours(2)));
-        cacheConfigurations.put("grades", defaultConfig.entryTtl(Duration.ofHours(2)));
-        cacheConfigurations.put("transcripts", defaultConfig.entryTtl(Duration.ofHours(4)));
-        
-        // Attendance data - 30 minutes (more dynamic)
-        cacheConfigurations.put("attendance", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("attendanceReports", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("dailyAttendance", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        
-        // Reports - 1 hour
-        cacheConfigurations.put("academicReports", defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigurations.put("performanceReports", defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigurations.put("statisticsReports", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        
-        // Reference data - 4 hours (rarely changes)
-        cacheConfigurations.put("classRooms", defaultConfig.entryTtl(Duration.ofHours(4)));
-        cacheConfigurations.put("subjects", defaultConfig.entryTtl(Duration.ofHours(4)));
-        cacheConfigurations.put("departments", defaultConfig.entryTtl(Duration.ofHours(4)));
-        cacheConfigurations.put("majors", defaultConfig.entryTtl(Duration.ofHours(4)));
-        
-        // Session data - 8 hours
-        cacheConfigurations.put("sessions", defaultConfig.entryTtl(Duration.ofHours(8)));
-        cacheConfigurations.put("authTokens", defaultConfig.entryTtl(Duration.ofHours(8)));
-        
-        // Extracurricular data - 1 hour
-        cacheConfigurations.put("extracurricularActivities", defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigurations.put("activityParticipants", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        
-        // Dashboard data - 15 minutes (frequently updated)
-        cacheConfigurations.put("dashboardData", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        cacheConfigurations.put("kpiData", defaultConfig.entryTtl(Duration.ofMinutes(30)));
+        Set<String> configuredNames = new LinkedHashSet<>(CachePolicies.ttls().keySet());
+        configuredNames.addAll(codecOverrides.keySet());
+        for (String name : configuredNames) {
+            RedisCacheConfiguration config = defaultConfig.entryTtl(CachePolicies.ttl(name, Duration.ofSeconds(defaultTtl)));
+            String codec = codecOverrides.get(name);
+            if (codec != null) {
+                config = config.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                    valueSerializer(codec, jsonCodec)));
+            }
+            cacheConfigurations.put(name, config);
+        }
 
-        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+        // Clearing a cache walks its keys with SCAN instead of KEYS
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
+            BatchStrategies.scan(redisBatchSize));
+
+        if (!l1Enabled) {
+            RedisCacheManager cacheManager = RedisCacheManager.builder(cacheWriter)
+                .cacheDefaults(defaultConfig)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .transactionAware()
+                .build();
+            cacheManager.afterPropertiesSet();
+
+            logger.info("Redis cache manager configured with {} specific cache configurations", cacheConfigurations.size());
+            return new InstrumentedCacheManager(coalescing(new TaggedCacheManager(cacheManager, cacheTagIndex)),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new), payloadSampleRate, hotKeyCapacity);
+        }
+
+        // Transaction awareness is applied once, on the two-level caches
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigurations)
-            .transactionAware()
             .build();
+        redisCacheManager.afterPropertiesSet();
 
-        logger.info("Redis cache manager configured with {} specific cache configurations", cacheConfigurations.size());
-        return cacheManager;
+        Duration maxLocalTtl = Duration.ofSeconds(l1MaxTtl);
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+            new TaggedCacheManager(redisCacheManager, cacheTagIndex), name -> {
+                Duration ttl = CachePolicies.ttl(name, Duration.ofSeconds(defaultTtl));
+                int maxEntries = environment.getProperty("app.cache.l1.max-entries." + name, Integer.class, l1MaxEntries);
+                return new LocalCache(name, maxEntries, ttl.compareTo(maxLocalTtl) < 0 ? ttl : maxLocalTtl);
+            });
+        cacheManager.setTransactionAware(true);
+
+        logger.info("Two-level cache manager configured with {} specific cache configurations, L1 up to {} entries",
+            cacheConfigurations.size(), l1MaxEntries);
+        return new InstrumentedCacheManager(coalescing(cacheManager), meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+            payloadSampleRate, hotKeyCapacity);
+    }
+
+    /**
+     * One load per key at a time, with early refresh of the expensive caches
+     */
+    private CacheManager coalescing(CacheManager cacheManager) {
+        return new CoalescingCacheManager(cacheManager, name -> CachePolicies.ttl(name, Duration.ofSeconds(defaultTtl)),
+            Arrays.asList(earlyRefreshCaches), earlyRefreshBeta, earlyRefreshMaxTrackedEntries,
+            Duration.ofSeconds(coalescingWaitTimeoutSeconds));
+    }
+
+    /**
+     * Versioned value serializer for the named codec; values the binary codec rejects are written as JSON
+     */
+    private VersionedCacheValueSerializer valueSerializer(String codecName, JsonCacheValueCodec jsonCodec) {
+        CacheValueCodec codec;
+        switch (codecName.trim().toLowerCase()) {
+            case "binary":
+                codec = new CompactBinaryCodec();
+                break;
+            case "json":
+                codec = jsonCodec;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cache codec: " + codecName);
+        }
+        return new VersionedCacheValueSerializer(codec, jsonCodec, codecSchemaVersion, compressionThreshold);
+    }
+
+    /**
+     * Index of cache entries by entity tag, used for targeted invalidation
+     */
+    @Bean
+    public CacheTagIndex cacheTagIndex(RedisTemplate<String, String> stringRedisTemplate) {
+        return new CacheTagIndex(stringRedisTemplate, CachePolicies.maxTtl(Duration.ofSeconds(defaultTtl)),
+            redisBatchSize);
+    }
+
+    /**
+     * Listener container for cache invalidation messages between nodes
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 
     /**
@@ -264,14 +373,6 @@ public class RedisCacheConfig implements CachingConfigurer {
      * Create JSON serializer with proper configuration
      */
     private GenericJackson2JsonRedisSerializer createJsonSerializer() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.activateDefaultTyping(
-            objectMapper.getPolymorphicTypeValidator(),
-            ObjectMapper.DefaultTyping.NON_FINAL
-        );
-        
-        return new GenericJackson2JsonRedisSerializer(objectMapper);
+        return JsonCacheValueCodec.createTypedSerializer();
     }
 }
@@ -1,33 +1,81 @@
 package com.simsekolah.config;
 
+import com.simsekolah.cache.CachePolicies;
+import com.simsekolah.cache.CoalescingCacheManager;
+import com.simsekolah.cache.InstrumentedCacheManager;
+import com.simsekolah.cache.TinyLfuCache;
+import com.simsekolah.cache.TinyLfuCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Arrays;
 
 /**
- * Simple in-memory cache configuration for development when Redis is not available
+ * In-memory cache configuration for deployments without Redis
+ * Caches are bounded by weight and expire with the same TTLs as the Redis caches.
  */
 @Configuration
 @Conditional(SimpleCacheCondition.class)
 public class SimpleCacheConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SimpleCacheConfig.class);
+
+    @Value("${spring.cache.redis.time-to-live:3600}")
+    private long defaultTtl;
+
+    @Value("${app.cache.local.max-weight:10000}")
+    private long maxWeight;
+
+    @Value("${app.cache.metrics.payload-sample-rate:16}")
+    private int payloadSampleRate;
+
+    @Value("${app.cache.metrics.hot-keys:20}")
+    private int hotKeyCapacity;
+
+    @Value("${app.cache.early-refresh.caches:}")
+    private String[] earlyRefreshCaches;
+
+    @Value("${app.cache.early-refresh.beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${app.cache.early-refresh.max-tracked-entries:1000}")
+    private int earlyRefreshMaxTrackedEntries;
+
+    @Value("${app.cache.coalescing.wait-timeout-seconds:30}")
+    private long coalescingWaitTimeoutSeconds;
+
     /**
-     * Simple in-memory cache manager using ConcurrentHashMap
+     * Bounded in-memory cache manager (per cache override: app.cache.local.max-weight.<cacheName>)
      */
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-            "users", "userProfiles", "userRoles",
-            "students", "studentProfiles", "studentsByClass",
-            "assessments", "grades", "transcripts",
-            "attendance", "attendanceReports", "dailyAttendance",
-            "academicReports", "performanceReports", "statisticsReports",
-            "classRooms", "subjects", "departments", "majors",
-            "sessions", "authTokens",
-            "extracurricularActivities", "activityParticipants",
-            "dashboardData", "kpiData"
-        );
+    public CacheManager cacheManager(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        TinyLfuCacheManager cacheManager = new TinyLfuCacheManager(CachePolicies.ttls().keySet(), name ->
+            new TinyLfuCache(name,
+                environment.getProperty("app.cache.local.max-weight." + name, Long.class, maxWeight),
+                ttl(name),
+                TinyLfuCache::approximateWeight));
+        cacheManager.afterPropertiesSet();
+        logger.info("In-memory cache manager configured with {} caches of up to {} weight units",
+            cacheManager.getCacheNames().size(), maxWeight);
+
+        CacheManager coalescing = new CoalescingCacheManager(cacheManager, this::ttl,
+            Arrays.asList(earlyRefreshCaches), earlyRefreshBeta, earlyRefreshMaxTrackedEntries,
+            Duration.ofSeconds(coalescingWaitTimeoutSeconds));
+        return new InstrumentedCacheManager(coalescing, meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+            payloadSampleRate, hotKeyCapacity);
+    }
+
+    private Duration ttl(String cacheName) {
+        return CachePolicies.ttl(cacheName, Duration.ofSeconds(defaultTtl));
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -87,6 +88,30 @@ public class PerformanceController {
         }
     }
 
+    /**
+     * Get the most accessed keys of a cache
+     */
+    @GetMapping("/cache/statistics/{cacheName}/hot-keys")
+    @Operation(summary = "Get hot cache keys", description = "Get the most accessed keys of a cache with estimated access counts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Hot keys retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getMostAccessedCacheEntries(
+            @PathVariable("cacheName") @NotNull String cacheName,
+            @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        logger.info("Getting hot keys for cache: {}", cacheName);
+        
+        try {
+            List<Map<String, Object>> entries = cacheService.getMostAccessedCacheEntries(cacheName, limit);
+            return ResponseEntity.ok(entries);
+        } catch (Exception e) {
+            logger.error("Failed to get hot keys for cache: {}", cacheName, e);
+            throw e;
+        }
+    }
+
     /**
      * Invalidate all caches
      */
@@ -206,9 +231,9 @@ public class PerformanceController {
      * Warm up caches
      */
     @PostMapping("/cache/warmup")
-    @Operation(summary = "Warm up caches", description = "Pre-load frequently accessed data into cache")
+    @Operation(summary = "Warm up caches", description = "Start pre-loading frequently accessed data into cache in the background")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Cache warm-up completed successfully"),
+        @ApiResponse(responseCode = "202", description = "Cache warm-up started; progress at /cache/warmup/status"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access")
     })
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
@@ -216,20 +241,36 @@ public class PerformanceController {
         logger.info("Starting cache warm-up");
         
         try {
-            cacheService.warmUpCaches();
+            Map<String, Object> status = cacheService.startCacheWarmup();
             
             Map<String, Object> response = new HashMap<>();
-            response.put("message", "Cache warm-up completed successfully");
+            response.put("message", "Cache warm-up started");
+            response.put("warmup", status);
             response.put("timestamp", System.currentTimeMillis());
             
-            logger.info("Successfully completed cache warm-up");
-            return ResponseEntity.ok(response);
+            logger.info("Cache warm-up '{}' is {}", status.get("name"), status.get("status"));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
         } catch (Exception e) {
             logger.error("Failed to warm up caches", e);
             throw e;
         }
     }
 
+    /**
+     * Get cache warm-up progress
+     */
+    @GetMapping("/cache/warmup/status")
+    @Operation(summary = "Get cache warm-up progress", description = "Get per-tier progress of the current or last cache warm-up")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Warm-up progress retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheWarmupStatus() {
+        logger.debug("Getting cache warm-up status");
+        return ResponseEntity.ok(cacheService.getCacheWarmupStatus());
+    }
+
     // Database Optimization Endpoints
 
     /**
@@ -2,8 +2,13 @@ package com.simsekolah.controller;
 
 import com.simsekolah.dto.request.AcademicReportRequest;
 import com.simsekolah.dto.request.AttendanceReportRequest;
+import com.simsekolah.dto.request.ReportJobRequest;
 import com.simsekolah.dto.response.AcademicReportResponse;
 import com.simsekolah.dto.response.AttendanceReportResponse;
+import com.simsekolah.service.AcademicReportService;
+import com.simsekolah.service.GpaSnapshotService;
+import com.simsekolah.service.ReportCardPdfService;
+import com.simsekolah.service.ReportJobService;
 import com.simsekolah.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,15 +19,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +52,18 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private ReportCardPdfService reportCardPdfService;
+
+    @Autowired
+    private AcademicReportService academicReportService;
+
+    @Autowired
+    private GpaSnapshotService gpaSnapshotService;
+
     // Academic Reports
 
     /**
@@ -95,6 +118,101 @@ public class ReportController {
         }
     }
 
+    /**
+     * Download student report card as PDF
+     */
+    @GetMapping("/academic/report-cards/student/{studentId}")
+    @Operation(summary = "Download student report card", description = "Render the report card of a student as PDF")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Report card generated successfully"),
+        @ApiResponse(responseCode = "404", description = "Student not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<byte[]> downloadStudentReportCard(
+            @PathVariable("studentId") @NotNull Long studentId,
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @Parameter(description = "Semester") @RequestParam Integer semester) {
+
+        logger.info("Rendering report card for student: {} for {}-{}", studentId, academicYear, semester);
+
+        try {
+            byte[] pdfData = reportCardPdfService.renderReportCard(studentId, academicYear, semester);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", "report_card_" + studentId + ".pdf");
+            headers.setContentLength(pdfData.length);
+
+            logger.info("Successfully rendered report card for student: {}", studentId);
+            return ResponseEntity.ok().headers(headers).body(pdfData);
+        } catch (Exception e) {
+            logger.error("Failed to render report card for student: {}", studentId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Download report cards of a class as ZIP
+     */
+    @GetMapping("/academic/report-cards/class/{classRoomId}")
+    @Operation(summary = "Download class report cards", description = "Stream PDF report cards of all active students in a class as a ZIP archive")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archive streamed successfully"),
+        @ApiResponse(responseCode = "404", description = "Class not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public void downloadClassReportCards(
+            @PathVariable("classRoomId") @NotNull Long classRoomId,
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @Parameter(description = "Semester") @RequestParam Integer semester,
+            HttpServletResponse response) throws IOException {
+
+        logger.info("Streaming report cards for class: {} for {}-{}", classRoomId, academicYear, semester);
+
+        prepareZipResponse(response, "report_cards_class_" + classRoomId + ".zip");
+        try {
+            int count = reportCardPdfService.writeClassReportCards(classRoomId, academicYear, semester,
+                    response.getOutputStream());
+            logger.info("Successfully streamed {} report cards for class: {}", count, classRoomId);
+        } catch (RuntimeException e) {
+            logger.error("Failed to stream report cards for class: {}", classRoomId, e);
+            resetZipResponse(response);
+            throw e;
+        }
+    }
+
+    /**
+     * Download report cards of a grade level as ZIP
+     */
+    @GetMapping("/academic/report-cards/grade/{gradeLevel}")
+    @Operation(summary = "Download grade report cards", description = "Stream PDF report cards of all active students in a grade level as a ZIP archive")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archive streamed successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public void downloadGradeReportCards(
+            @PathVariable("gradeLevel") @NotNull @Min(1) Integer gradeLevel,
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @Parameter(description = "Semester") @RequestParam Integer semester,
+            HttpServletResponse response) throws IOException {
+
+        logger.info("Streaming report cards for grade: {} for {}-{}", gradeLevel, academicYear, semester);
+
+        prepareZipResponse(response, "report_cards_grade_" + gradeLevel + ".zip");
+        try {
+            int count = reportCardPdfService.writeGradeReportCards(gradeLevel, academicYear, semester,
+                    response.getOutputStream());
+            logger.info("Successfully streamed {} report cards for grade: {}", count, gradeLevel);
+        } catch (RuntimeException e) {
+            logger.error("Failed to stream report cards for grade: {}", gradeLevel, e);
+            resetZipResponse(response);
+            throw e;
+        }
+    }
+
     /**
      * Generate class performance report
      */
@@ -168,7 +286,8 @@ public class ReportController {
         logger.info("Generating grade distribution report for {}-{}", academicYear, semester);
         
         try {
-            Map<String, Object> report = reportService.generateGradeDistributionReport(academicYear, semester);
+            Map<String, Object> report = reportJobService.execute(ReportJobService.GRADE_DISTRIBUTION,
+                    params("academicYear", academicYear, "semester", semester));
             logger.info("Successfully generated grade distribution report");
             return ResponseEntity.ok(report);
         } catch (Exception e) {
@@ -195,7 +314,8 @@ public class ReportController {
         logger.info("Generating top performers report for {}-{} (limit: {})", academicYear, semester, limit);
         
         try {
-            Map<String, Object> report = reportService.generateTopPerformersReport(academicYear, semester, limit);
+            Map<String, Object> report = reportJobService.execute(ReportJobService.TOP_PERFORMERS,
+                    params("academicYear", academicYear, "semester", semester, "limit", limit));
             logger.info("Successfully generated top performers report");
             return ResponseEntity.ok(report);
         } catch (Exception e) {
@@ -222,7 +342,8 @@ public class ReportController {
         logger.info("Generating students at risk report for {}-{} (threshold: {})", academicYear, semester, threshold);
         
         try {
-            Map<String, Object> report = reportService.generateStudentsAtRiskReport(academicYear, semester, threshold);
+            Map<String, Object> report = reportJobService.execute(ReportJobService.STUDENTS_AT_RISK,
+                    params("academicYear", academicYear, "semester", semester, "threshold", threshold));
             logger.info("Successfully generated students at risk report");
             return ResponseEntity.ok(report);
         } catch (Exception e) {
@@ -231,6 +352,110 @@ public class ReportController {
         }
     }
 
+    /**
+     * Get student rankings of a class
+     */
+    @GetMapping("/academic/rankings/class/{classRoomId}")
+    @Operation(summary = "Get class student rankings", description = "Dense-ranked students of a class by semester GPA")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rankings retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<List<AcademicReportResponse.StudentRanking>> getClassStudentRankings(
+            @PathVariable("classRoomId") @NotNull Long classRoomId,
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @Parameter(description = "Semester") @RequestParam Integer semester) {
+
+        logger.debug("Getting student rankings for class: {} for {}-{}", classRoomId, academicYear, semester);
+        return ResponseEntity.ok(academicReportService.generateStudentRankings(classRoomId, academicYear, semester));
+    }
+
+    /**
+     * Get the rank of a single student within a class
+     */
+    @GetMapping("/academic/rankings/class/{classRoomId}/student/{studentId}")
+    @Operation(summary = "Get student class rank", description = "Dense rank of one student within a class by semester GPA")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rank retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Students can only read their own rank")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER') or " +
+                  "(hasRole('STUDENT') and @securityService.isCurrentStudent(#studentId))")
+    public ResponseEntity<Map<String, Object>> getStudentClassRank(
+            @PathVariable("classRoomId") @NotNull Long classRoomId,
+            @PathVariable("studentId") @NotNull Long studentId,
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @Parameter(description = "Semester") @RequestParam Integer semester) {
+
+        return ResponseEntity.ok(academicReportService.getStudentClassRank(studentId, classRoomId, academicYear, semester));
+    }
+
+    /**
+     * Get school-wide class rankings
+     */
+    @GetMapping("/academic/rankings/classes")
+    @Operation(summary = "Get class rankings", description = "Dense-ranked classes by average semester GPA")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rankings retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<List<Map<String, Object>>> getClassRankings(
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @Parameter(description = "Semester") @RequestParam Integer semester) {
+
+        return ResponseEntity.ok(academicReportService.generateClassRankings(academicYear, semester));
+    }
+
+    /**
+     * Get school-wide subject rankings
+     */
+    @GetMapping("/academic/rankings/subjects")
+    @Operation(summary = "Get subject rankings", description = "Dense-ranked subjects by average score percentage")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rankings retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<List<Map<String, Object>>> getSubjectRankings(
+            @Parameter(description = "Academic year") @RequestParam String academicYear,
+            @Parameter(description = "Semester") @RequestParam Integer semester) {
+
+        return ResponseEntity.ok(academicReportService.generateSubjectRankings(academicYear, semester));
+    }
+
+    /**
+     * Rebuild GPA snapshots from scores
+     */
+    @PostMapping("/academic/gpa-snapshots/rebuild")
+    @Operation(summary = "Rebuild GPA snapshots",
+               description = "Recompute the GPA snapshots of one academic period, or of every period whose snapshots miss scores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshots rebuilt successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildGpaSnapshots(
+            @Parameter(description = "Academic year (all incomplete periods when omitted)") @RequestParam(required = false) String academicYear,
+            @Parameter(description = "Semester") @RequestParam(required = false) Integer semester) {
+
+        logger.info("Rebuilding GPA snapshots for {}-{}", academicYear, semester);
+        Map<String, Integer> rebuilt;
+        if (academicYear != null && semester != null) {
+            rebuilt = Map.of(academicYear + "-" + semester, gpaSnapshotService.rebuildSnapshots(academicYear, semester));
+        } else {
+            rebuilt = gpaSnapshotService.rebuildIncompletePeriods();
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("message", "GPA snapshots rebuilt successfully");
+        response.put("rebuiltPeriods", rebuilt);
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(response);
+    }
+
     // Attendance Reports
 
     /**
@@ -299,7 +524,8 @@ public class ReportController {
         logger.info("Generating monthly attendance report for {}/{}", year, month);
         
         try {
-            Map<String, Object> report = reportService.generateMonthlyAttendanceReport(year, month);
+            Map<String, Object> report = reportJobService.execute(ReportJobService.MONTHLY_ATTENDANCE,
+                    params("year", year, "month", month));
             logger.info("Successfully generated monthly attendance report for {}/{}", year, month);
             return ResponseEntity.ok(report);
         } catch (Exception e) {
@@ -465,6 +691,93 @@ public class ReportController {
         }
     }
 
+    // Report Jobs
+
+    /**
+     * Submit asynchronous report job
+     */
+    @PostMapping("/jobs")
+    @Operation(summary = "Submit report job", description = "Queue a heavy report for background generation; identical in-flight jobs are shared")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job accepted"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "503", description = "Report queue is full"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> submitReportJob(@Valid @RequestBody ReportJobRequest request) {
+        logger.info("Submitting report job: {} {}", request.getReportType(), request.getParameters());
+
+        try {
+            Map<String, Object> status = reportJobService.submitJob(request.getReportType(), request.getParameters());
+            logger.info("Report job {} accepted", status.get("jobId"));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (Exception e) {
+            logger.error("Failed to submit report job: {}", request.getReportType(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get report job status
+     */
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get report job status", description = "Get status and progress of a report job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Job not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getReportJobStatus(@PathVariable("jobId") String jobId) {
+        logger.debug("Fetching status of report job: {}", jobId);
+        return ResponseEntity.ok(reportJobService.getJobStatus(jobId));
+    }
+
+    /**
+     * Get report job result
+     */
+    @GetMapping("/jobs/{jobId}/result")
+    @Operation(summary = "Get report job result", description = "Get the result of a completed report job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Result retrieved successfully"),
+        @ApiResponse(responseCode = "202", description = "Job is still queued or running"),
+        @ApiResponse(responseCode = "409", description = "Job failed or was cancelled"),
+        @ApiResponse(responseCode = "404", description = "Job not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getReportJobResult(@PathVariable("jobId") String jobId) {
+        logger.info("Fetching result of report job: {}", jobId);
+
+        Map<String, Object> status = reportJobService.getJobStatus(jobId);
+        Object state = status.get("status");
+        if ("QUEUED".equals(state) || "RUNNING".equals(state)) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        }
+        if (!"COMPLETED".equals(state)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(status);
+        }
+        return ResponseEntity.ok(reportJobService.getJobResult(jobId));
+    }
+
+    /**
+     * Cancel report job
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    @Operation(summary = "Cancel report job", description = "Cancel a queued or running report job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job cancelled"),
+        @ApiResponse(responseCode = "404", description = "Job not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> cancelReportJob(@PathVariable("jobId") String jobId) {
+        logger.info("Cancelling report job: {}", jobId);
+        reportJobService.cancelJob(jobId);
+        return ResponseEntity.ok(reportJobService.getJobStatus(jobId));
+    }
+
     // Report Management
 
     /**
@@ -518,4 +831,27 @@ public class ReportController {
             throw e;
         }
     }
+
+    private static void prepareZipResponse(HttpServletResponse response, String fileName) {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+    }
+
+    /**
+     * Drop the ZIP headers so the error is answered as usual; nothing of the archive was sent yet
+     * unless the failure happened while copying it
+     */
+    private static void resetZipResponse(HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            response.reset();
+        }
+    }
+
+    private static Map<String, Object> params(Object... keyValues) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            params.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
 }
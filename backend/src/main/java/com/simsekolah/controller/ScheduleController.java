@@ -1,6 +1,7 @@
 package com.simsekolah.controller;
 
 import com.simsekolah.dto.request.CreateScheduleRequest;
+import com.simsekolah.dto.request.TimetableGenerationRequest;
 import com.simsekolah.dto.request.UpdateScheduleRequest;
 import com.simsekolah.dto.response.ScheduleResponse;
 import com.simsekolah.service.ScheduleService;
@@ -170,6 +171,88 @@ public class ScheduleController {
         }
     }
 
+    // Timetable solver endpoints
+    @PostMapping("/generate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> generateTimetable(@Valid @RequestBody TimetableGenerationRequest request) {
+        try {
+            Map<String, Object> result = scheduleService.generateTimetable(request);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping("/suggestions")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<List<ScheduleResponse>> getScheduleSuggestions(
+            @RequestParam Long classRoomId,
+            @RequestParam Long subjectId,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(defaultValue = "2024/2025") String academicYear,
+            @RequestParam(defaultValue = "1") Integer semester) {
+        try {
+            List<ScheduleResponse> suggestions = scheduleService.generateScheduleSuggestions(
+                    classRoomId, subjectId, teacherId, academicYear, semester);
+            return ResponseEntity.ok(suggestions);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @GetMapping("/availability/common")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<List<Map<String, Object>>> getCommonFreeSlots(
+            @RequestParam Long teacherId,
+            @RequestParam Long classRoomId,
+            @RequestParam(defaultValue = "2024/2025") String academicYear,
+            @RequestParam(defaultValue = "1") Integer semester,
+            @RequestParam(required = false) Integer minDuration) {
+        List<Map<String, Object>> slots = scheduleService.findCommonFreeSlots(
+                teacherId, classRoomId, academicYear, semester, minDuration);
+        return ResponseEntity.ok(slots);
+    }
+
+    @GetMapping("/analytics/density")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScheduleDensityReport(
+            @RequestParam(defaultValue = "2024/2025") String academicYear,
+            @RequestParam(defaultValue = "1") Integer semester) {
+        return ResponseEntity.ok(scheduleService.generateScheduleDensityReport(academicYear, semester));
+    }
+
+    @GetMapping("/analytics/efficiency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScheduleEfficiencyMetrics(
+            @RequestParam(defaultValue = "2024/2025") String academicYear,
+            @RequestParam(defaultValue = "1") Integer semester) {
+        return ResponseEntity.ok(scheduleService.generateScheduleEfficiencyMetrics(academicYear, semester));
+    }
+
+    @GetMapping("/analytics/comparison")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getScheduleComparisonReport(
+            @RequestParam String academicYear1,
+            @RequestParam Integer semester1,
+            @RequestParam String academicYear2,
+            @RequestParam Integer semester2) {
+        return ResponseEntity.ok(scheduleService.generateScheduleComparisonReport(
+                academicYear1, semester1, academicYear2, semester2));
+    }
+
+    @PostMapping("/resolve-conflicts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ScheduleResponse>> resolveScheduleConflicts(
+            @RequestBody List<Long> scheduleIds,
+            @RequestParam(defaultValue = "MINIMAL_CHANGE") String strategy) {
+        try {
+            List<ScheduleResponse> resolved = scheduleService.resolveScheduleConflicts(scheduleIds, strategy);
+            return ResponseEntity.ok(resolved);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     @GetMapping("/class/{classId}/weekly")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
     public ResponseEntity<List<ScheduleResponse>> getWeeklyScheduleByClass(
@@ -3,9 +3,11 @@ package com.simsekolah.controller;
 import com.simsekolah.service.TeachingActivityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 /**
@@ -18,15 +20,21 @@ public class ScheduledTasks {
 
     private final TeachingActivityService teachingActivityService;
 
+    @Value("${app.teaching-activities.generate-days-ahead:7}")
+    private int generateDaysAhead;
+
     /**
-     * Automatically generates teaching activities for the current day based on active schedules.
+     * Automatically generates teaching activities for today and the configured number of days ahead
+     * based on active schedules, skipping holidays. Days already generated are left untouched.
      * This job runs every day at 1 AM server time.
      * The cron expression is "0 0 1 * * ?": second, minute, hour, day of month, month, day of week.
      */
     @Scheduled(cron = "0 0 1 * * ?")
     public void generateTodaysTeachingActivities() {
-        log.info("CRON JOB: Starting generation of today's teaching activities.");
-        Map<String, Object> result = teachingActivityService.generateTodaysActivities();
-        log.info("CRON JOB: Finished generating today's teaching activities. Result: {}", result);
+        LocalDate today = LocalDate.now();
+        LocalDate endDate = today.plusDays(Math.max(generateDaysAhead, 1) - 1L);
+        log.info("CRON JOB: Starting generation of teaching activities from {} to {}.", today, endDate);
+        Map<String, Object> result = teachingActivityService.generateActivities(today, endDate);
+        log.info("CRON JOB: Finished generating teaching activities. Result: {}", result);
     }
 }
\ No newline at end of file
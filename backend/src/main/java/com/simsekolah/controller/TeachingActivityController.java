@@ -2,6 +2,7 @@ package com.simsekolah.controller;
 
 import com.simsekolah.dto.response.TeachingActivityResponse;
 import com.simsekolah.entity.User;
+import com.simsekolah.exception.ValidationException;
 import com.simsekolah.service.TeachingActivityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +23,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -52,6 +55,26 @@ public class TeachingActivityController {
         }
     }
 
+    @PostMapping("/generate")
+    @Operation(summary = "Generate Activities for a Date Range", description = "Creates missing teaching activities from active schedules for every day in the range. Skips holidays and existing ones.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Process completed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range"),
+        @ApiResponse(responseCode = "403", description = "Forbidden access")
+    })
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> generateActivities(
+            @Parameter(description = "First date (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last date (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        log.info("Request received to generate teaching activities from {} to {}.", startDate, endDate);
+        try {
+            Map<String, Object> result = teachingActivityService.generateActivities(startDate, endDate);
+            return ResponseEntity.ok(result);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/me/pending")
     @Operation(summary = "Get Pending Activities for Current Teacher", description = "Retrieves a paginated list of teaching activities for the currently logged-in teacher that are not yet marked as complete (e.g., attendance not taken).")
     @ApiResponses(value = {
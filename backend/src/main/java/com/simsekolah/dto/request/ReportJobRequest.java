@@ -0,0 +1,26 @@
+package com.simsekolah.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request DTO for submitting an asynchronous report job
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+
+    @NotBlank(message = "Report type is required")
+    private String reportType;
+
+    @Builder.Default
+    private Map<String, Object> parameters = new HashMap<>();
+}
@@ -0,0 +1,100 @@
+package com.simsekolah.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request DTO for generating a timetable with the schedule solver
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimetableGenerationRequest {
+
+    @NotBlank(message = "Academic year is required")
+    @Pattern(regexp = "\\d{4}/\\d{4}", message = "Academic year must be in format YYYY/YYYY")
+    private String academicYear;
+
+    @NotNull(message = "Semester is required")
+    @Min(value = 1, message = "Semester must be 1 or 2")
+    @Max(value = 2, message = "Semester must be 1 or 2")
+    private Integer semester;
+
+    @NotEmpty(message = "Assignment list cannot be empty")
+    @Valid
+    private List<Assignment> assignments;
+
+    @Valid
+    @Builder.Default
+    private List<TeacherUnavailability> teacherUnavailability = new ArrayList<>();
+
+    // Maximum number of periods a class may be scheduled per day
+    @Min(value = 1, message = "Max daily periods must be at least 1")
+    private Integer maxDailyPeriodsPerClass;
+
+    @Min(value = 1, message = "Time budget must be at least 1 second")
+    private Integer timeBudgetSeconds;
+
+    // Deactivate existing schedules of the requested classes instead of keeping them fixed
+    @Builder.Default
+    private Boolean replaceExisting = false;
+
+    @Builder.Default
+    private Boolean persist = true;
+
+    /**
+     * Weekly teaching quota of one subject for one class, taught by one teacher
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Assignment {
+        @NotNull(message = "Class room ID is required")
+        private Long classRoomId;
+
+        @NotNull(message = "Subject ID is required")
+        private Long subjectId;
+
+        @NotNull(message = "Teacher ID is required")
+        private Long teacherId;
+
+        @NotNull(message = "Weekly periods is required")
+        @Min(value = 1, message = "Weekly periods must be at least 1")
+        private Integer weeklyPeriods;
+
+        // Consecutive periods per lesson; the remainder becomes a shorter lesson
+        @Builder.Default
+        @Min(value = 1, message = "Lesson length must be at least 1")
+        private Integer lessonLength = 2;
+    }
+
+    /**
+     * Time window in which a teacher cannot teach
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TeacherUnavailability {
+        @NotNull(message = "Teacher ID is required")
+        private Long teacherId;
+
+        @NotNull(message = "Day of week is required")
+        private DayOfWeek dayOfWeek;
+
+        private LocalTime startTime;
+
+        private LocalTime endTime;
+    }
+}
@@ -0,0 +1,75 @@
+package com.simsekolah.entity;
+
+import com.simsekolah.enums.ReportRunStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a single execution of an asynchronous report job
+ * Identical requests share one run through the run key (report type + canonical parameters)
+ */
+@Entity
+@Table(name = "report_runs", indexes = {
+    @Index(name = "idx_report_run_key_status", columnList = "run_key, status"),
+    @Index(name = "idx_report_run_created", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, unique = true, length = 36)
+    private String jobId;
+
+    @Column(name = "run_key", nullable = false, length = 64)
+    private String runKey;
+
+    @Column(name = "report_type", nullable = false, length = 50)
+    private String reportType;
+
+    @Column(name = "parameters", columnDefinition = "TEXT")
+    private String parameters;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ReportRunStatus status = ReportRunStatus.QUEUED;
+
+    @Column(name = "progress", nullable = false)
+    @Builder.Default
+    private Integer progress = 0;
+
+    @Column(name = "result", columnDefinition = "LONGTEXT")
+    private String result;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "requested_by", length = 100)
+    private String requestedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
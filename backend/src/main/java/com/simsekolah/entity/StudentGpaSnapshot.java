@@ -0,0 +1,67 @@
+package com.simsekolah.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding the running GPA components of a student for one academic period
+ * Weighted points are the sum of grade points x subject credit hours over all scored assessments,
+ * kept in step with student_assessments whenever a grade is written
+ */
+@Entity
+@Table(name = "student_gpa_snapshot",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "academic_year", "semester"}),
+       indexes = @Index(name = "idx_gpa_snapshot_period", columnList = "academic_year, semester"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentGpaSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", insertable = false, updatable = false)
+    private Student student;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "academic_year", nullable = false, length = 20)
+    private String academicYear;
+
+    @Column(name = "semester", nullable = false)
+    private Integer semester;
+
+    @Column(name = "weighted_points", nullable = false, precision = 12, scale = 4)
+    @Builder.Default
+    private BigDecimal weightedPoints = BigDecimal.ZERO;
+
+    @Column(name = "total_credits", nullable = false)
+    @Builder.Default
+    private Integer totalCredits = 0;
+
+    @Column(name = "assessment_count", nullable = false)
+    @Builder.Default
+    private Integer assessmentCount = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * GPA on the 4.0 scale, zero when no credit-bearing assessment is scored
+     */
+    public double getGpa() {
+        return totalCredits != null && totalCredits > 0
+                ? weightedPoints.divide(BigDecimal.valueOf(totalCredits), 4, RoundingMode.HALF_UP).doubleValue()
+                : 0.0;
+    }
+}
@@ -7,7 +7,10 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Entity
-@Table(name = "teaching_activities", indexes = {
+@Table(name = "teaching_activities",
+    uniqueConstraints = @UniqueConstraint(name = "uk_teaching_activity_schedule_date",
+                                          columnNames = {"schedule_id", "date"}),
+    indexes = {
     @Index(name = "idx_teaching_activity_date", columnList = "activity_date"),
     @Index(name = "idx_teaching_activity_class", columnList = "class_room_id")
 })
@@ -0,0 +1,9 @@
+package com.simsekolah.enums;
+
+public enum ReportRunStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
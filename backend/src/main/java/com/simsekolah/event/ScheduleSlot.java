@@ -0,0 +1,81 @@
+package com.simsekolah.event;
+
+import com.simsekolah.entity.Schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Detached copy of the identifying fields and time slot of a schedule
+ */
+public class ScheduleSlot {
+
+    private final Long scheduleId;
+    private final Long classRoomId;
+    private final Long teacherId;
+    private final DayOfWeek dayOfWeek;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final String academicYear;
+    private final Integer semester;
+    private final boolean active;
+
+    public ScheduleSlot(Schedule schedule) {
+        this(schedule.getId(),
+                schedule.getClassRoom() != null ? schedule.getClassRoom().getId() : null,
+                schedule.getTeacher() != null ? schedule.getTeacher().getId() : null,
+                schedule.getDayOfWeek(), schedule.getStartTime(), schedule.getEndTime(),
+                schedule.getAcademicYear(), schedule.getSemester(),
+                Boolean.TRUE.equals(schedule.getIsActive()));
+    }
+
+    public ScheduleSlot(Long scheduleId, Long classRoomId, Long teacherId, DayOfWeek dayOfWeek,
+                        LocalTime startTime, LocalTime endTime, String academicYear, Integer semester,
+                        boolean active) {
+        this.scheduleId = scheduleId;
+        this.classRoomId = classRoomId;
+        this.teacherId = teacherId;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.academicYear = academicYear;
+        this.semester = semester;
+        this.active = active;
+    }
+
+    public Long getScheduleId() {
+        return scheduleId;
+    }
+
+    public Long getClassRoomId() {
+        return classRoomId;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public String getAcademicYear() {
+        return academicYear;
+    }
+
+    public Integer getSemester() {
+        return semester;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,95 @@
+package com.simsekolah.event;
+
+import com.simsekolah.entity.Schedule;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Published after schedules are created, changed or deleted
+ * Carries the cache keys the writes touched and the final time slot of each changed schedule
+ */
+public class SchedulesChangedEvent {
+
+    private final Set<Object> scheduleKeys = new HashSet<>();
+    private final Set<Object> timetableKeys = new HashSet<>();
+    private final Map<Long, ScheduleSlot> changedSlots = new LinkedHashMap<>();
+    private final Set<Long> removedIds = new HashSet<>();
+    private final Set<String> periods = new HashSet<>();
+
+    /**
+     * Record a schedule as it is now; call before and after an update to cover old and new keys
+     */
+    public void add(Schedule schedule) {
+        addKeys(schedule);
+        if (schedule.getId() != null) {
+            removedIds.remove(schedule.getId());
+            changedSlots.put(schedule.getId(), new ScheduleSlot(schedule));
+        }
+    }
+
+    /**
+     * Record a deleted schedule
+     */
+    public void remove(Schedule schedule) {
+        addKeys(schedule);
+        if (schedule.getId() != null) {
+            changedSlots.remove(schedule.getId());
+            removedIds.add(schedule.getId());
+        }
+    }
+
+    private void addKeys(Schedule schedule) {
+        String period = "-" + schedule.getAcademicYear() + "-" + schedule.getSemester();
+        periods.add(periodKey(schedule.getAcademicYear(), schedule.getSemester()));
+        if (schedule.getClassRoom() != null) {
+            scheduleKeys.add(schedule.getClassRoom().getId() + period);
+            timetableKeys.add("class-" + schedule.getClassRoom().getId() + period);
+        }
+        if (schedule.getTeacher() != null) {
+            scheduleKeys.add("teacher-" + schedule.getTeacher().getId() + period);
+            timetableKeys.add("teacher-" + schedule.getTeacher().getId() + period);
+        }
+        if (schedule.getSubject() != null) {
+            scheduleKeys.add("subject-" + schedule.getSubject().getId() + period);
+            timetableKeys.add("subject-" + schedule.getSubject().getId() + period);
+        }
+        if (schedule.getId() != null) {
+            scheduleKeys.add(schedule.getId());
+        }
+    }
+
+    public boolean isEmpty() {
+        return scheduleKeys.isEmpty();
+    }
+
+    public Set<Object> getScheduleKeys() {
+        return scheduleKeys;
+    }
+
+    public Set<Object> getTimetableKeys() {
+        return timetableKeys;
+    }
+
+    public Collection<ScheduleSlot> getChangedSlots() {
+        return changedSlots.values();
+    }
+
+    public Set<Long> getRemovedIds() {
+        return removedIds;
+    }
+
+    /**
+     * Academic periods the writes touched, before and after each change
+     */
+    public Set<String> getPeriods() {
+        return periods;
+    }
+
+    public static String periodKey(String academicYear, Integer semester) {
+        return academicYear + "_" + semester;
+    }
+}
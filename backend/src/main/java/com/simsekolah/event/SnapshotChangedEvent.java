@@ -0,0 +1,44 @@
+package com.simsekolah.event;
+
+import java.util.Collection;
+
+/**
+ * Published whenever snapshots of an academic period change, and on every score write
+ * studentIds is null when the whole period was rebuilt; gpaChanged is false when a score moved
+ * within its grade band, which leaves GPAs alone but changes subject averages
+ */
+public class SnapshotChangedEvent {
+
+    private final Collection<Long> studentIds;
+    private final String academicYear;
+    private final Integer semester;
+    private final boolean gpaChanged;
+
+    public SnapshotChangedEvent(Collection<Long> studentIds, String academicYear, Integer semester) {
+        this(studentIds, academicYear, semester, true);
+    }
+
+    public SnapshotChangedEvent(Collection<Long> studentIds, String academicYear, Integer semester,
+                                boolean gpaChanged) {
+        this.studentIds = studentIds;
+        this.academicYear = academicYear;
+        this.semester = semester;
+        this.gpaChanged = gpaChanged;
+    }
+
+    public Collection<Long> getStudentIds() {
+        return studentIds;
+    }
+
+    public String getAcademicYear() {
+        return academicYear;
+    }
+
+    public Integer getSemester() {
+        return semester;
+    }
+
+    public boolean isGpaChanged() {
+        return gpaChanged;
+    }
+}
@@ -187,6 +187,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(errorResponse);
     }
 
+    /**
+     * Handle report jobs rejected by a saturated report worker pool
+     */
+    @ExceptionHandler(ReportJobUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleReportJobUnavailableException(
+            ReportJobUnavailableException ex, HttpServletRequest request) {
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        logger.warn("Report job unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
     /**
      * Handle data integrity violations
      */
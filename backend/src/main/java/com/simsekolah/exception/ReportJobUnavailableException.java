@@ -0,0 +1,16 @@
+package com.simsekolah.exception;
+
+/**
+ * Thrown when a report job cannot be accepted or does not finish in time,
+ * e.g. because the report worker queue is full
+ */
+public class ReportJobUnavailableException extends RuntimeException {
+
+    public ReportJobUnavailableException(String message) {
+        super(message);
+    }
+
+    public ReportJobUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
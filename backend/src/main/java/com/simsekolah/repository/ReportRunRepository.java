@@ -0,0 +1,48 @@
+package com.simsekolah.repository;
+
+import com.simsekolah.entity.ReportRun;
+import com.simsekolah.enums.ReportRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repository interface for ReportRun entity
+ * Provides data access methods for persisted report job state and results
+ */
+@Repository
+public interface ReportRunRepository extends JpaRepository<ReportRun, Long> {
+
+    /**
+     * Find report run by public job id
+     */
+    Optional<ReportRun> findByJobId(String jobId);
+
+    /**
+     * Mark runs left unfinished by a previous process as failed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportRun r SET r.status = :failed, r.errorMessage = :message, r.completedAt = :now " +
+           "WHERE r.status IN :statuses")
+    int failUnfinishedRuns(@Param("statuses") Collection<ReportRunStatus> statuses,
+                           @Param("failed") ReportRunStatus failed,
+                           @Param("message") String message,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * Delete finished runs older than the given timestamp
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReportRun r WHERE r.createdAt < :before AND r.status IN :statuses")
+    int deleteFinishedRunsBefore(@Param("before") LocalDateTime before,
+                                 @Param("statuses") Collection<ReportRunStatus> statuses);
+}
@@ -5,12 +5,14 @@ import com.simsekolah.entity.ClassRoom;
 import com.simsekolah.entity.Subject;
 import com.simsekolah.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,7 +20,7 @@ import java.util.List;
  * Provides data access methods for class schedules and timetables
  */
 @Repository
-public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+public interface ScheduleRepository extends JpaRepository<Schedule, Long>, JpaSpecificationExecutor<Schedule> {
     
     /**
      * Find schedules by class room
@@ -122,4 +124,21 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
      * Find schedules by academic year and semester (without active filter)
      */
     List<Schedule> findByAcademicYearAndSemester(String academicYear, Integer semester);
+
+    /**
+     * Slot rows of active schedules in an academic period:
+     * [scheduleId, classRoomId, teacherId, dayOfWeek, startTime, endTime]
+     */
+    @Query("SELECT s.id, s.classRoom.id, s.teacher.id, s.dayOfWeek, s.startTime, s.endTime FROM Schedule s " +
+           "WHERE s.academicYear = :academicYear AND s.semester = :semester AND s.isActive = true")
+    List<Object[]> findActiveSlotRowsByPeriod(@Param("academicYear") String academicYear,
+                                              @Param("semester") Integer semester);
+
+    /**
+     * Rows of active schedules on the given days:
+     * [scheduleId, subjectId, teacherId, classRoomId, dayOfWeek, startTime, endTime]
+     */
+    @Query("SELECT s.id, s.subject.id, s.teacher.id, s.classRoom.id, s.dayOfWeek, s.startTime, s.endTime " +
+           "FROM Schedule s WHERE s.isActive = true AND s.dayOfWeek IN :days")
+    List<Object[]> findActiveRowsByDays(@Param("days") Collection<DayOfWeek> days);
 }
@@ -0,0 +1,172 @@
+package com.simsekolah.repository;
+
+import com.simsekolah.dto.request.ScheduleSearchRequest;
+import com.simsekolah.entity.ClassRoom;
+import com.simsekolah.entity.Schedule;
+import com.simsekolah.entity.Subject;
+import com.simsekolah.entity.User;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JPA specifications for dynamic schedule queries
+ * The search specification filters, fetch-joins classRoom, subject and teacher and orders in SQL;
+ * the count query produced by Spring Data gets the same predicates without fetches or ordering.
+ */
+public final class ScheduleSpecifications {
+
+    private static final Set<String> SORT_PROPERTIES = Set.of("dayOfWeek", "startTime", "endTime", "subject",
+            "teacher", "classRoom", "academicYear", "semester", "isActive", "createdAt", "updatedAt", "id");
+
+    private ScheduleSpecifications() {
+    }
+
+    /**
+     * Build the search specification; ordering is applied here so that day of week sorts
+     * by weekday order instead of by its stored name
+     */
+    public static Specification<Schedule> search(ScheduleSearchRequest request, Sort sort) {
+        return (root, query, cb) -> {
+            Path<ClassRoom> classRoom;
+            Path<Subject> subject;
+            Path<User> teacher;
+
+            if (isCountQuery(query)) {
+                classRoom = root.get("classRoom");
+                subject = root.get("subject");
+                teacher = root.get("teacher");
+            } else {
+                classRoom = fetchJoin(root, "classRoom");
+                subject = fetchJoin(root, "subject");
+                teacher = fetchJoin(root, "teacher");
+                query.orderBy(toOrders(sort, root, classRoom, subject, teacher, cb));
+            }
+
+            if (request == null) {
+                return cb.conjunction();
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            addEqual(predicates, cb, classRoom.get("id"), request.getClassRoomId());
+            addEqual(predicates, cb, subject.get("id"), request.getSubjectId());
+            addEqual(predicates, cb, teacher.get("id"), request.getTeacherId());
+            addEqual(predicates, cb, root.get("academicYear"), request.getAcademicYear());
+            addEqual(predicates, cb, root.get("semester"), request.getSemester());
+            addEqual(predicates, cb, root.get("dayOfWeek"), request.getDayOfWeek());
+            addEqual(predicates, cb, root.get("isActive"), request.getIsActive());
+
+            addIn(predicates, classRoom.get("id"), request.getClassRoomIds());
+            addIn(predicates, subject.get("id"), request.getSubjectIds());
+            addIn(predicates, teacher.get("id"), request.getTeacherIds());
+            addIn(predicates, root.get("dayOfWeek"), request.getDaysOfWeek());
+
+            if (request.getStartTimeFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("startTime"), request.getStartTimeFrom()));
+            }
+            if (request.getStartTimeTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startTime"), request.getStartTimeTo()));
+            }
+            if (request.getEndTimeFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("endTime"), request.getEndTimeFrom()));
+            }
+            if (request.getEndTimeTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("endTime"), request.getEndTimeTo()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Resolve the effective sort from the pageable, the request sortBy/sortDirection or the
+     * default weekly order (day of week, then start time)
+     *
+     * @throws IllegalArgumentException if a sort property is not supported
+     */
+    public static Sort resolveSort(ScheduleSearchRequest request, Sort pageableSort) {
+        Sort sort;
+        if (pageableSort != null && pageableSort.isSorted()) {
+            sort = pageableSort;
+        } else if (request != null && request.getSortBy() != null && !request.getSortBy().isBlank()) {
+            Sort.Direction direction = "DESC".equalsIgnoreCase(request.getSortDirection())
+                    ? Sort.Direction.DESC : Sort.Direction.ASC;
+            sort = Sort.by(direction, request.getSortBy());
+        } else {
+            sort = Sort.by("dayOfWeek", "startTime");
+        }
+        for (Sort.Order order : sort) {
+            if (!SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported schedule sort property: " + order.getProperty());
+            }
+        }
+        return sort;
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return Long.class.equals(query.getResultType()) || long.class.equals(query.getResultType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Path<T> fetchJoin(Root<Schedule> root, String attribute) {
+        // Hibernate fetches are joins as well, so the fetched path can be used in predicates and ordering
+        return (Join<Schedule, T>) root.<Schedule, T>fetch(attribute, JoinType.INNER);
+    }
+
+    private static List<Order> toOrders(Sort sort, Root<Schedule> root, Path<ClassRoom> classRoom,
+                                        Path<Subject> subject, Path<User> teacher, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            List<Expression<?>> expressions = new ArrayList<>();
+            switch (order.getProperty()) {
+                case "dayOfWeek":
+                    expressions.add(dayOrder(root, cb));
+                    break;
+                case "subject":
+                    expressions.add(subject.get("name"));
+                    break;
+                case "teacher":
+                    expressions.add(teacher.get("firstName"));
+                    expressions.add(teacher.get("lastName"));
+                    break;
+                case "classRoom":
+                    // getName() is only a compatibility getter; the persistent attribute is className
+                    expressions.add(classRoom.get("className"));
+                    break;
+                default:
+                    expressions.add(root.get(order.getProperty()));
+            }
+            for (Expression<?> expression : expressions) {
+                orders.add(order.isAscending() ? cb.asc(expression) : cb.desc(expression));
+            }
+        }
+        // Stable paging across equal sort keys
+        orders.add(cb.asc(root.get("id")));
+        return orders;
+    }
+
+    private static Expression<Integer> dayOrder(Root<Schedule> root, CriteriaBuilder cb) {
+        CriteriaBuilder.SimpleCase<DayOfWeek, Integer> dayCase = cb.selectCase(root.get("dayOfWeek"));
+        for (DayOfWeek day : DayOfWeek.values()) {
+            dayCase.when(day, day.getValue());
+        }
+        return dayCase.otherwise(8);
+    }
+
+    private static <T> void addEqual(List<Predicate> predicates, CriteriaBuilder cb, Path<T> path, T value) {
+        if (value != null) {
+            predicates.add(cb.equal(path, value));
+        }
+    }
+
+    private static <T> void addIn(List<Predicate> predicates, Path<T> path, List<T> values) {
+        if (values != null && !values.isEmpty()) {
+            predicates.add(path.in(values));
+        }
+    }
+}
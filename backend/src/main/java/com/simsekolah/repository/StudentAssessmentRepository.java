@@ -3,12 +3,14 @@ package com.simsekolah.repository;
 import com.simsekolah.entity.StudentAssessment;
 import com.simsekolah.entity.Assessment;
 import com.simsekolah.entity.Student;
+import com.simsekolah.util.GradeScale;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -110,6 +112,87 @@ public interface StudentAssessmentRepository extends JpaRepository<StudentAssess
            "AND sa.grade IS NOT NULL GROUP BY sa.grade")
     List<Object[]> countAssessmentsByGrade(@Param("assessment") Assessment assessment);
     
+    /**
+     * Count graded student assessments per subject and letter grade for an academic period
+     * Letter grade bands are those of GradeScale
+     * Returns rows of [subjectName, letterGrade, count]
+     */
+    @Query("SELECT s.name, " +
+           GradeScale.LETTER_GRADE_JPQL + ", " +
+           "COUNT(sa) " +
+           "FROM StudentAssessment sa JOIN sa.assessment a JOIN a.subject s " +
+           "WHERE a.academicYear = :academicYear AND a.semester = :semester AND a.isActive = true " +
+           "AND sa.score IS NOT NULL " +
+           "GROUP BY s.name, " +
+           GradeScale.LETTER_GRADE_JPQL)
+    List<Object[]> countLetterGradesBySubject(
+            @Param("academicYear") String academicYear,
+            @Param("semester") Integer semester
+    );
+
+    /**
+     * Sum GPA components per student for an academic period, restricted to the given students
+     * Grade point bands are those of GradeScale
+     * Returns rows of [studentId, weightedPoints, totalCredits, assessmentCount]
+     */
+    @Query("SELECT sa.student.id, " +
+           "SUM(" + GradeScale.GRADE_POINTS_JPQL + " " +
+           "* COALESCE(s.creditHours, 0)), " +
+           "SUM(COALESCE(s.creditHours, 0)), COUNT(sa) " +
+           "FROM StudentAssessment sa JOIN sa.assessment a LEFT JOIN a.subject s " +
+           "WHERE sa.student.id IN :studentIds AND a.academicYear = :academicYear AND a.semester = :semester " +
+           "AND sa.score IS NOT NULL " +
+           "GROUP BY sa.student.id")
+    List<Object[]> sumGradePointsByStudentsAndPeriod(
+            @Param("studentIds") Collection<Long> studentIds,
+            @Param("academicYear") String academicYear,
+            @Param("semester") Integer semester
+    );
+
+    /**
+     * Sum GPA components per student for an academic period
+     * Returns rows of [studentId, weightedPoints, totalCredits, assessmentCount]
+     */
+    @Query("SELECT sa.student.id, " +
+           "SUM(" + GradeScale.GRADE_POINTS_JPQL + " " +
+           "* COALESCE(s.creditHours, 0)), " +
+           "SUM(COALESCE(s.creditHours, 0)), COUNT(sa) " +
+           "FROM StudentAssessment sa JOIN sa.assessment a LEFT JOIN a.subject s " +
+           "WHERE a.academicYear = :academicYear AND a.semester = :semester AND sa.score IS NOT NULL " +
+           "GROUP BY sa.student.id")
+    List<Object[]> sumGradePointsByPeriod(
+            @Param("academicYear") String academicYear,
+            @Param("semester") Integer semester
+    );
+
+    /**
+     * Average score percentage per subject for an academic period
+     * Returns rows of [subjectId, subjectName, subjectCode, averagePercentage, scoredAssessments]
+     */
+    @Query("SELECT s.id, s.name, s.code, AVG(sa.score * 100 / COALESCE(a.maxScore, 100)), COUNT(sa) " +
+           "FROM StudentAssessment sa JOIN sa.assessment a JOIN a.subject s " +
+           "WHERE a.academicYear = :academicYear AND a.semester = :semester AND sa.score IS NOT NULL " +
+           "GROUP BY s.id, s.name, s.code")
+    List<Object[]> averagePercentageBySubject(
+            @Param("academicYear") String academicYear,
+            @Param("semester") Integer semester
+    );
+
+    /**
+     * Find ids of students that have a result for an assessment
+     */
+    @Query("SELECT sa.student.id FROM StudentAssessment sa WHERE sa.assessment.id = :assessmentId")
+    List<Long> findStudentIdsByAssessmentId(@Param("assessmentId") Long assessmentId);
+
+    /**
+     * Count scored student assessments per academic period
+     * Returns rows of [academicYear, semester, count]
+     */
+    @Query("SELECT a.academicYear, a.semester, COUNT(sa) FROM StudentAssessment sa JOIN sa.assessment a " +
+           "WHERE sa.score IS NOT NULL AND a.academicYear IS NOT NULL AND a.semester IS NOT NULL " +
+           "GROUP BY a.academicYear, a.semester")
+    List<Object[]> countScoredByPeriod();
+
     /**
      * Check if student assessment exists
      */
@@ -0,0 +1,146 @@
+package com.simsekolah.repository;
+
+import com.simsekolah.entity.StudentGpaSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for StudentGpaSnapshot entity
+ * Provides data access methods for the per-semester GPA components of students
+ */
+@Repository
+public interface StudentGpaSnapshotRepository extends JpaRepository<StudentGpaSnapshot, Long> {
+
+    /**
+     * Find snapshot of a student for an academic period
+     */
+    Optional<StudentGpaSnapshot> findByStudentIdAndAcademicYearAndSemester(Long studentId, String academicYear,
+                                                                           Integer semester);
+
+    /**
+     * Check whether a student already has a snapshot for an academic period
+     */
+    boolean existsByStudentIdAndAcademicYearAndSemester(Long studentId, String academicYear, Integer semester);
+
+    /**
+     * Find all snapshots of a student in chronological order
+     */
+    List<StudentGpaSnapshot> findByStudentIdOrderByAcademicYearAscSemesterAsc(Long studentId);
+
+    /**
+     * Add deltas to an existing snapshot in a single statement so concurrent grade writes do not lose updates
+     * Returns the number of rows updated (0 when the snapshot does not exist yet)
+     */
+    @Modifying
+    @Query("UPDATE StudentGpaSnapshot g SET g.weightedPoints = g.weightedPoints + :points, " +
+           "g.totalCredits = g.totalCredits + :credits, g.assessmentCount = g.assessmentCount + :count, " +
+           "g.updatedAt = :now " +
+           "WHERE g.studentId = :studentId AND g.academicYear = :academicYear AND g.semester = :semester")
+    int applyDelta(@Param("studentId") Long studentId,
+                   @Param("academicYear") String academicYear,
+                   @Param("semester") Integer semester,
+                   @Param("points") BigDecimal points,
+                   @Param("credits") int credits,
+                   @Param("count") int count,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Sum weighted points and credits over all semesters of a student
+     * Returns a single row of [weightedPoints, totalCredits]
+     */
+    @Query("SELECT COALESCE(SUM(g.weightedPoints), 0), COALESCE(SUM(g.totalCredits), 0) " +
+           "FROM StudentGpaSnapshot g WHERE g.studentId = :studentId")
+    List<Object[]> sumCumulativeByStudent(@Param("studentId") Long studentId);
+
+    /**
+     * Find snapshots of the students in a class for an academic period
+     */
+    @Query("SELECT g FROM StudentGpaSnapshot g WHERE g.academicYear = :academicYear AND g.semester = :semester " +
+           "AND g.studentId IN (SELECT s.id FROM Student s WHERE s.classRoom.id = :classRoomId)")
+    List<StudentGpaSnapshot> findByClassRoomAndPeriod(@Param("classRoomId") Long classRoomId,
+                                                      @Param("academicYear") String academicYear,
+                                                      @Param("semester") Integer semester);
+
+    /**
+     * Find snapshots of the students in a class for an academic period with students and class loaded
+     */
+    @Query("SELECT g FROM StudentGpaSnapshot g JOIN FETCH g.student s JOIN FETCH s.classRoom c " +
+           "WHERE c.id = :classRoomId AND g.academicYear = :academicYear AND g.semester = :semester " +
+           "AND g.assessmentCount > 0")
+    List<StudentGpaSnapshot> findWithStudentsByClassRoomAndPeriod(@Param("classRoomId") Long classRoomId,
+                                                                  @Param("academicYear") String academicYear,
+                                                                  @Param("semester") Integer semester);
+
+    /**
+     * Average GPA per class for an academic period
+     * Returns rows of [classRoomId, className, averageGpa, rankedStudents]
+     */
+    @Query("SELECT c.id, c.className, " +
+           "AVG(CASE WHEN g.totalCredits > 0 THEN g.weightedPoints / g.totalCredits ELSE 0 END), COUNT(g) " +
+           "FROM StudentGpaSnapshot g JOIN g.student s JOIN s.classRoom c " +
+           "WHERE g.academicYear = :academicYear AND g.semester = :semester AND g.assessmentCount > 0 " +
+           "GROUP BY c.id, c.className")
+    List<Object[]> averageGpaByClassRoom(@Param("academicYear") String academicYear,
+                                         @Param("semester") Integer semester);
+
+    /**
+     * Count students with at least one scored assessment in an academic period
+     */
+    long countByAcademicYearAndSemesterAndAssessmentCountGreaterThan(String academicYear, Integer semester,
+                                                                     Integer assessmentCount);
+
+    /**
+     * Find snapshots with students for an academic period ordered by GPA descending
+     */
+    @Query("SELECT g FROM StudentGpaSnapshot g JOIN FETCH g.student " +
+           "WHERE g.academicYear = :academicYear AND g.semester = :semester AND g.assessmentCount > 0 " +
+           "ORDER BY CASE WHEN g.totalCredits > 0 THEN g.weightedPoints / g.totalCredits ELSE 0 END DESC")
+    List<StudentGpaSnapshot> findRankedByPeriod(@Param("academicYear") String academicYear,
+                                                @Param("semester") Integer semester,
+                                                Pageable pageable);
+
+    /**
+     * Find snapshots with students for an academic period whose GPA is below the threshold
+     */
+    @Query("SELECT g FROM StudentGpaSnapshot g JOIN FETCH g.student " +
+           "WHERE g.academicYear = :academicYear AND g.semester = :semester AND g.assessmentCount > 0 " +
+           "AND CASE WHEN g.totalCredits > 0 THEN g.weightedPoints / g.totalCredits ELSE 0 END < :threshold")
+    List<StudentGpaSnapshot> findBelowGpaByPeriod(@Param("academicYear") String academicYear,
+                                                  @Param("semester") Integer semester,
+                                                  @Param("threshold") BigDecimal threshold);
+
+    /**
+     * Delete snapshots of the given students for an academic period
+     */
+    @Modifying
+    @Query("DELETE FROM StudentGpaSnapshot g WHERE g.studentId IN :studentIds " +
+           "AND g.academicYear = :academicYear AND g.semester = :semester")
+    int deleteByStudentsAndPeriod(@Param("studentIds") Collection<Long> studentIds,
+                                  @Param("academicYear") String academicYear,
+                                  @Param("semester") Integer semester);
+
+    /**
+     * Delete all snapshots of an academic period
+     */
+    @Modifying
+    @Query("DELETE FROM StudentGpaSnapshot g WHERE g.academicYear = :academicYear AND g.semester = :semester")
+    int deleteByPeriod(@Param("academicYear") String academicYear, @Param("semester") Integer semester);
+
+    /**
+     * Sum assessment counts of the snapshots per academic period
+     * Returns rows of [academicYear, semester, assessmentCount]
+     */
+    @Query("SELECT g.academicYear, g.semester, SUM(g.assessmentCount) FROM StudentGpaSnapshot g " +
+           "GROUP BY g.academicYear, g.semester")
+    List<Object[]> sumAssessmentCountsByPeriod();
+}
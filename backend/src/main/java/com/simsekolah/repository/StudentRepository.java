@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,8 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     Optional<Student> findByUserId(Long userId);
 
+    boolean existsByIdAndUserEmailIgnoreCase(Long id, String email);
+
     boolean existsByNis(String nis);
 
     @Query("SELECT s FROM Student s WHERE s.classRoom.id = :classRoomId AND s.status = :status")
@@ -38,6 +41,22 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     @Query("SELECT s FROM Student s WHERE s.classRoom.id = :classRoomId AND s.status = 'ACTIVE'")
     List<Student> findActiveStudentsByClassRoom(@Param("classRoomId") Long classRoomId);
+
+    @Query("SELECT s.id FROM Student s WHERE s.classRoom.id = :classRoomId")
+    List<Long> findIdsByClassRoomId(@Param("classRoomId") Long classRoomId);
+
+    @Query("SELECT DISTINCT s.classRoom.id FROM Student s WHERE s.id IN :ids AND s.classRoom IS NOT NULL")
+    List<Long> findClassRoomIdsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s.id FROM Student s WHERE s.status = 'ACTIVE' ORDER BY s.id")
+    List<Long> findActiveStudentIds();
+
+    @Query("SELECT s.id FROM Student s WHERE s.classRoom.id = :classRoomId AND s.status = 'ACTIVE' ORDER BY s.namaLengkap")
+    List<Long> findActiveStudentIdsByClassRoom(@Param("classRoomId") Long classRoomId);
+
+    @Query("SELECT s.id FROM Student s JOIN s.classRoom c WHERE c.gradeLevel = :grade AND s.status = 'ACTIVE' " +
+           "ORDER BY c.className, s.namaLengkap")
+    List<Long> findActiveStudentIdsByGrade(@Param("grade") Integer grade);
     
     // Added missing methods
     Page<Student> findByClassRoomId(Long classRoomId, Pageable pageable);
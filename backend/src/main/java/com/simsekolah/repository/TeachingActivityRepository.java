@@ -4,17 +4,53 @@ import com.simsekolah.entity.TeachingActivity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface TeachingActivityRepository extends JpaRepository<TeachingActivity, Long> {
 
+    /**
+     * Activities of the given schedules that have not started, are not completed and have no attendance yet
+     */
+    String UNSTARTED_OF_SCHEDULES = "ta.schedule.id IN :scheduleIds AND ta.isCompleted = false " +
+            "AND (ta.date > :today OR (ta.date = :today AND ta.startTime > :now)) " +
+            "AND NOT EXISTS (SELECT a.id FROM Attendance a WHERE a.teachingActivity.id = ta.id)";
+
     boolean existsByScheduleIdAndDate(Long scheduleId, LocalDate date);
 
+    /**
+     * Schedule ids and dates of activities generated from schedules within a date range: [scheduleId, date]
+     */
+    @Query("SELECT ta.schedule.id, ta.date FROM TeachingActivity ta " +
+           "WHERE ta.schedule IS NOT NULL AND ta.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findScheduleDatesBetween(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Latest date among the activities {@link #deleteUnstartedBySchedules} would delete, null when there are none
+     */
+    @Query("SELECT MAX(ta.date) FROM TeachingActivity ta WHERE " + UNSTARTED_OF_SCHEDULES)
+    LocalDate findLastUnstartedDate(@Param("scheduleIds") Collection<Long> scheduleIds,
+                                    @Param("today") LocalDate today,
+                                    @Param("now") LocalTime now);
+
+    /**
+     * Delete pre-generated activities of schedules that changed, so they can be generated again from the new slot
+     */
+    @Modifying
+    @Query("DELETE FROM TeachingActivity ta WHERE " + UNSTARTED_OF_SCHEDULES)
+    int deleteUnstartedBySchedules(@Param("scheduleIds") Collection<Long> scheduleIds,
+                                   @Param("today") LocalDate today,
+                                   @Param("now") LocalTime now);
+
     Page<TeachingActivity> findByTeacherIdAndIsCompletedFalseOrderByDateDescStartTimeDesc(Long teacherId, Pageable pageable);
 
     /**
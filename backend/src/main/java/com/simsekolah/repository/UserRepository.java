@@ -39,6 +39,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles r WHERE u.email = :identifier OR u.nip = :identifier OR u.username = :identifier")
     Optional<User> findByEmailOrNipForAuthentication(@Param("identifier") String identifier);
 
+    // Authentication lookups: one indexed query that also loads roles and their permissions
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.permissions WHERE u.email = :email")
+    Optional<User> findByEmailWithAuthorities(@Param("email") String email);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.permissions WHERE u.username = :username")
+    Optional<User> findByUsernameWithAuthorities(@Param("username") String username);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles r LEFT JOIN FETCH r.permissions " +
+           "WHERE u.email = :identifier OR u.username = :identifier OR u.nip = :identifier")
+    List<User> findByAnyIdentifierWithAuthorities(@Param("identifier") String identifier);
+
     // Pagination variants used by services
     Page<User> findByUserType(UserType userType, Pageable pageable);
     Page<User> findByUserTypeAndIsActive(UserType userType, boolean isActive, Pageable pageable);
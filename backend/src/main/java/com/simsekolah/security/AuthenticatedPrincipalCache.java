@@ -0,0 +1,242 @@
+package com.simsekolah.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of validated JWTs and the principal they authenticate
+ * Entries are keyed by the SHA-256 digest of the token, so a hit means the exact token was already
+ * verified; the signature is not checked again and the user is not reloaded. An entry expires with its
+ * token, or after the configured maximum lifetime when that is shorter (the bound on how long another
+ * node's role or password change can go unnoticed here). Entries of a user are dropped when their
+ * roles, active flag or password change; when that happens inside a transaction they are dropped again
+ * after commit, so a concurrent request cannot re-cache the old state. With Redis the committed
+ * invalidation is also sent to the other nodes over the cache invalidation channel.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticatedPrincipalCache.class);
+
+    // Shares the cache invalidation format: "nodeId|authenticatedPrincipals" or "nodeId|authenticatedPrincipals|username"
+    private static final String INVALIDATION_CHANNEL = "cache:invalidation";
+    private static final String INVALIDATION_SEPARATOR = "|";
+    private static final String CACHE_NAME = "authenticatedPrincipals";
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxTtlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    public AuthenticatedPrincipalCache(@Value("${app.security.principal-cache.enabled:true}") boolean enabled,
+                                       @Value("${app.security.principal-cache.max-entries:10000}") int maxEntries,
+                                       @Value("${app.security.principal-cache.max-ttl-seconds:900}") long maxTtlSeconds) {
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxTtlMillis = maxTtlSeconds > 0 ? maxTtlSeconds * 1000 : Long.MAX_VALUE;
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        if (listenerContainer == null || !enabled) {
+            return;
+        }
+        listenerContainer.addMessageListener(
+            (message, pattern) -> onInvalidationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Principal of a previously validated token, or {@code null} when unknown or expired
+     */
+    public UserDetails get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String digest = TokenDigest.hex(token);
+        synchronized (entries) {
+            Entry entry = entries.get(digest);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.principal;
+            }
+            if (entry != null) {
+                entries.remove(digest);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Remember the principal of a validated token; its credentials are erased first
+     */
+    public void put(String token, UserDetails principal, Date tokenExpiration) {
+        if (!enabled || tokenExpiration == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(tokenExpiration.getTime(), now + Math.min(maxTtlMillis, Long.MAX_VALUE - now));
+        if (expiresAt <= now) {
+            return;
+        }
+        if (principal instanceof CredentialsContainer credentials) {
+            credentials.eraseCredentials();
+        }
+        String digest = TokenDigest.hex(token);
+        synchronized (entries) {
+            entries.put(digest, new Entry(principal, expiresAt));
+            if (entries.size() > maxEntries) {
+                // Least recently used; expired entries are never read, so they age to the front
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Forget one token, e.g. on logout
+     */
+    public void evict(String token) {
+        String digest = TokenDigest.hex(token);
+        synchronized (entries) {
+            entries.remove(digest);
+        }
+    }
+
+    /**
+     * Forget every token of a user (by principal username, which is the user's email)
+     */
+    public void invalidateUser(String username) {
+        if (username == null) {
+            return;
+        }
+        removeUser(username);
+        afterCommit(() -> removeUser(username), username);
+    }
+
+    /**
+     * Forget every token, e.g. when a role's name or permissions change
+     */
+    public void invalidateAll() {
+        clear();
+        afterCommit(this::clear, null);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        synchronized (entries) {
+            statistics.put("size", entries.size());
+        }
+        statistics.put("maxEntries", maxEntries);
+        statistics.put("hits", hits.get());
+        statistics.put("misses", misses.get());
+        return statistics;
+    }
+
+    private void removeUser(String username) {
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (username.equalsIgnoreCase(iterator.next().principal.getUsername())) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            logger.debug("Dropped {} cached authentications of user {}", removed, username);
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Repeat a local invalidation after commit and then tell the other nodes; without a transaction
+     * the other nodes are told right away
+     */
+    private void afterCommit(Runnable action, @Nullable String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                    publishInvalidation(username);
+                }
+            });
+        } else {
+            publishInvalidation(username);
+        }
+    }
+
+    private void publishInvalidation(@Nullable String username) {
+        if (stringRedisTemplate == null || !enabled) {
+            return;
+        }
+        try {
+            String message = nodeId + INVALIDATION_SEPARATOR + CACHE_NAME
+                + (username != null ? INVALIDATION_SEPARATOR + username : "");
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            // Other nodes fall back to the maximum entry lifetime
+            logger.warn("Failed to publish principal cache invalidation - user: {}: {}", username, e.getMessage());
+        }
+    }
+
+    private void onInvalidationMessage(String message) {
+        String[] parts = message.split("\\" + INVALIDATION_SEPARATOR, 3);
+        if (parts.length < 2 || nodeId.equals(parts[0]) || !CACHE_NAME.equals(parts[1])) {
+            return;
+        }
+        if (parts.length == 3) {
+            removeUser(parts[2]);
+        } else {
+            clear();
+        }
+        logger.debug("Applied principal cache invalidation from node {}", parts[0]);
+    }
+
+    private static final class Entry {
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        private Entry(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
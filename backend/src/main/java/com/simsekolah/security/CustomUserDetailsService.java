@@ -2,7 +2,6 @@ package com.simsekolah.security;
 
 import com.simsekolah.entity.Permission;
 import com.simsekolah.entity.Role;
-import com.simsekolah.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,20 +21,18 @@ import java.util.List;
  * This service integrates with the User entity and Role system
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserLookup userLookup;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         try {
-            // Try by email first
-            com.simsekolah.entity.User user = userRepository.findByEmail(username)
-                    .orElseGet(() -> userRepository.findByUsername(username)
-                            .orElseGet(() -> userRepository.findByNip(username)
-                                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username))));
+            // Email, username or NIP, resolved with roles and permissions in one query
+            com.simsekolah.entity.User user = userLookup.findForAuthentication(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
             if (!Boolean.TRUE.equals(user.getIsActive())) {
                 throw new UsernameNotFoundException("User account is disabled: " + username);
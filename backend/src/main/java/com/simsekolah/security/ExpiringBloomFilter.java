@@ -0,0 +1,112 @@
+package com.simsekolah.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter whose elements disappear after their expiry time
+ * Elements are added to one filter per expiry window (an element expiring at 10:42 goes into the
+ * 10:00-11:00 filter with hourly windows), and a window's filter is dropped once the window has passed.
+ * An element is therefore remembered at least until its expiry and at most one window longer.
+ * <p>
+ * Elements are SHA-256 digests; their first 16 bytes give the two hashes from which the bit positions
+ * are derived, so no further hashing is needed. Thread-safe without locking.
+ */
+public class ExpiringBloomFilter {
+
+    private final long windowMillis;
+    private final int bitCount;
+    private final int hashCount;
+    private final ConcurrentSkipListMap<Long, AtomicLongArray> generations = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param window                    expiry window covered by one filter
+     * @param expectedElementsPerWindow elements one filter is sized for
+     * @param falsePositiveRate         target false positive rate of one filter at that size
+     */
+    public ExpiringBloomFilter(Duration window, int expectedElementsPerWindow, double falsePositiveRate) {
+        this.windowMillis = Math.max(1, window.toMillis());
+        int expected = Math.max(1, expectedElementsPerWindow);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 63, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * ln2));
+    }
+
+    public void add(byte[] digest, long expiresAtMillis) {
+        long generation = Math.floorDiv(expiresAtMillis, windowMillis);
+        AtomicLongArray bits = generations.computeIfAbsent(generation, key -> new AtomicLongArray((bitCount + 63) / 64));
+        long hash1 = hash(digest, 0);
+        long hash2 = hash(digest, 8);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash1, hash2, i);
+            long mask = 1L << index;
+            int word = index >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * False means the digest was never added or has expired; true means it probably was added
+     */
+    public boolean mightContain(byte[] digest, long nowMillis) {
+        dropExpired(nowMillis);
+        long hash1 = hash(digest, 0);
+        long hash2 = hash(digest, 8);
+        for (AtomicLongArray bits : generations.values()) {
+            if (contains(bits, hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        generations.clear();
+    }
+
+    /**
+     * Filters currently kept, one per expiry window
+     */
+    public int getGenerationCount() {
+        return generations.size();
+    }
+
+    private boolean contains(AtomicLongArray bits, long hash1, long hash2) {
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash1, hash2, i);
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void dropExpired(long nowMillis) {
+        long current = Math.floorDiv(nowMillis, windowMillis);
+        Iterator<Map.Entry<Long, AtomicLongArray>> iterator = generations.headMap(current).entrySet().iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private int index(long hash1, long hash2, int i) {
+        long combined = hash1 + i * hash2;
+        return (int) Math.floorMod(combined, (long) bitCount);
+    }
+
+    private static long hash(byte[] digest, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (digest[i] & 0xFF);
+        }
+        return value;
+    }
+}
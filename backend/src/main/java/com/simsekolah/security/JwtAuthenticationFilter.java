@@ -1,5 +1,6 @@
 package com.simsekolah.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,6 +37,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private AuthenticatedPrincipalCache authenticatedPrincipalCache;
+
     @Override
     protected void doFilterInternal(@org.springframework.lang.NonNull HttpServletRequest request, 
                                   @org.springframework.lang.NonNull HttpServletResponse response, 
@@ -47,14 +51,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = getJwtFromRequest(request);
-            
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt) && 
-                !tokenBlacklistService.isTokenBlacklisted(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (tokenProvider.validateToken(jwt, userDetails)) {
+
+            if (StringUtils.hasText(jwt)) {
+                UserDetails userDetails = authenticatedPrincipalCache.get(jwt);
+                if (userDetails == null) {
+                    userDetails = loadPrincipal(jwt);
+                } else if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
+                    authenticatedPrincipalCache.evict(jwt);
+                    userDetails = null;
+                }
+
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(
                                     userDetails, 
@@ -73,6 +80,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verify a token seen for the first time, load its user and remember the result until the token expires
+     */
+    private UserDetails loadPrincipal(String jwt) {
+        Claims claims = tokenProvider.getValidClaims(jwt);
+        if (claims == null || tokenBlacklistService.isTokenBlacklisted(jwt)) {
+            return null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!userDetails.getUsername().equals(claims.getSubject())) {
+            return null;
+        }
+        authenticatedPrincipalCache.put(jwt, userDetails, claims.getExpiration());
+        return userDetails;
+    }
+
     /**
      * Extract JWT token from Authorization header
      * Expected format: "Bearer <token>"
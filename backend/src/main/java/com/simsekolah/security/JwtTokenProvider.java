@@ -163,12 +163,21 @@ public class JwtTokenProvider {
      * Validate JWT token
      */
     public boolean validateToken(String token) {
+        return getValidClaims(token) != null;
+    }
+
+    /**
+     * Verify the token and return its claims in one parse
+     *
+     * @return the claims, or {@code null} when the token is invalid or expired
+     */
+    public Claims getValidClaims(String token) {
         try {
-            Jwts.parser()
+            return Jwts.parser()
                 .verifyWith(getSigningKey())
                 .build()
-                .parseSignedClaims(token);
-            return true;
+                .parseSignedClaims(token)
+                .getPayload();
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -180,7 +189,7 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return null;
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.simsekolah.security;
 
+import com.simsekolah.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,6 +13,9 @@ import org.springframework.stereotype.Service;
 @Service("securityService")
 public class SecurityService {
 
+    @Autowired
+    private StudentRepository studentRepository;
+
     /**
      * Get the currently authenticated user's username
      */
@@ -103,6 +108,15 @@ public class SecurityService {
         return false;
     }
 
+    /**
+     * Check if the student record belongs to the current user (principal username is the user's email)
+     */
+    public boolean isCurrentStudent(Long studentId) {
+        String username = getCurrentUsername();
+        return studentId != null && username != null
+                && studentRepository.existsByIdAndUserEmailIgnoreCase(studentId, username);
+    }
+
     /**
      * Check if the current user can access a specific class
      */
@@ -1,16 +1,40 @@
 package com.simsekolah.security;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for managing JWT token blacklist
  * Provides functionality to blacklist tokens on logout and validate token status
+ * <p>
+ * Every node keeps the blacklist in memory: an expiring Bloom filter in front of an exact map of token
+ * digests to token expiry, so the usual "not blacklisted" answer costs no network call and entries age
+ * out when their token expires. Without Redis this local blacklist is the blacklist. With Redis, tokens
+ * are also stored there (by digest), a local hit is confirmed against Redis, blacklist changes are
+ * broadcast to the other nodes, and a starting node loads the current blacklist. Broadcasts are fire and
+ * forget, so every node also rescans Redis periodically and picks up the tokens whose message it missed.
  */
 @Service
 public class TokenBlacklistService {
@@ -18,32 +42,97 @@ public class TokenBlacklistService {
     private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
     private static final String BLACKLIST_PREFIX = "blacklisted_token:";
 
+    // Messages are "nodeId|add|digest|expiresAt", "nodeId|remove|digest" or "nodeId|clear"
+    private static final String BLACKLIST_CHANNEL = "token:blacklist";
+    private static final String SEPARATOR = "|";
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Long> localDigests = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurgeAt = new AtomicLong();
+    private ExpiringBloomFilter bloomFilter;
+    private ScheduledExecutorService resyncExecutor;
+
+    @Value("${app.security.token-blacklist.expected-tokens-per-window:10000}")
+    private int expectedTokensPerWindow;
+
+    @Value("${app.security.token-blacklist.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${app.security.token-blacklist.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.security.token-blacklist.resync-seconds:60}")
+    private long resyncSeconds;
+
     @Autowired(required = false)
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private AuthenticatedPrincipalCache authenticatedPrincipalCache;
+
+    @PostConstruct
+    void initLocalBlacklist() {
+        bloomFilter = new ExpiringBloomFilter(Duration.ofMinutes(windowMinutes), expectedTokensPerWindow,
+            falsePositiveRate);
+        if (redisTemplate == null) {
+            logger.info("Redis not available, token blacklist is kept in memory on this node only");
+            return;
+        }
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(
+                (message, pattern) -> onBlacklistMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(BLACKLIST_CHANNEL));
+        }
+        logger.info("Loaded {} blacklisted tokens from Redis", syncFromRedis());
+        if (resyncSeconds > 0) {
+            resyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "token-blacklist-resync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            resyncExecutor.scheduleWithFixedDelay(this::resync, resyncSeconds, resyncSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdownResync() {
+        if (resyncExecutor != null) {
+            resyncExecutor.shutdownNow();
+        }
+    }
+
     /**
      * Add token to blacklist
      */
     public void blacklistToken(String token) {
+        authenticatedPrincipalCache.evict(token);
+        long remainingTime = jwtTokenProvider.getTokenRemainingTime(token);
+        if (remainingTime <= 0) {
+            return;
+        }
+        String digest = TokenDigest.hex(token);
+        long expiresAt = System.currentTimeMillis() + remainingTime;
+        addLocal(digest, expiresAt);
+
         if (redisTemplate == null) {
-            logger.debug("Redis not available, skipping token blacklisting");
+            logger.debug("Token blacklisted in memory");
             return;
         }
 
         try {
-            String key = BLACKLIST_PREFIX + token;
-            long remainingTime = jwtTokenProvider.getTokenRemainingTime(token);
-
-            if (remainingTime > 0) {
-                // Store token in Redis with expiration time matching token expiration
-                redisTemplate.opsForValue().set(key, "blacklisted", remainingTime, TimeUnit.MILLISECONDS);
-                logger.debug("Token blacklisted successfully");
-            }
+            // Store token in Redis with expiration time matching token expiration
+            redisTemplate.opsForValue().set(BLACKLIST_PREFIX + digest, "blacklisted", remainingTime, TimeUnit.MILLISECONDS);
+            publish("add" + SEPARATOR + digest + SEPARATOR + expiresAt);
+            logger.debug("Token blacklisted successfully");
         } catch (Exception e) {
-            logger.error("Error blacklisting token", e);
+            logger.error("Error blacklisting token in Redis; it is blacklisted on this node only", e);
         }
     }
 
@@ -51,17 +140,33 @@ public class TokenBlacklistService {
      * Check if token is blacklisted
      */
     public boolean isTokenBlacklisted(String token) {
+        byte[] digestBytes = TokenDigest.of(token);
+        long now = System.currentTimeMillis();
+        if (!bloomFilter.mightContain(digestBytes, now)) {
+            return false;
+        }
+        String digest = TokenDigest.hex(digestBytes);
+        Long expiresAt = localDigests.get(digest);
+        if (expiresAt == null || expiresAt <= now) {
+            // Bloom filter false positive, or the token has expired anyway
+            return false;
+        }
         if (redisTemplate == null) {
-            logger.debug("Redis not available, token considered not blacklisted");
-            return false; // Without Redis, we can't check blacklist, so assume not blacklisted
+            return true;
         }
 
         try {
-            String key = BLACKLIST_PREFIX + token;
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+            // Legacy entries are keyed by the token itself
+            Long existing = redisTemplate.countExistingKeys(List.of(BLACKLIST_PREFIX + digest, BLACKLIST_PREFIX + token));
+            if (existing != null && existing > 0) {
+                return true;
+            }
+            // Removed on another node while this one missed the message
+            localDigests.remove(digest);
+            return false;
         } catch (Exception e) {
-            logger.error("Error checking token blacklist status", e);
-            return false; // Fail open - don't block valid tokens due to Redis issues
+            logger.error("Error confirming token blacklist status, using the local blacklist", e);
+            return true;
         }
     }
 
@@ -69,14 +174,15 @@ public class TokenBlacklistService {
      * Remove token from blacklist (rarely used, mainly for testing)
      */
     public void removeTokenFromBlacklist(String token) {
+        String digest = TokenDigest.hex(token);
+        localDigests.remove(digest);
         if (redisTemplate == null) {
-            logger.debug("Redis not available, skipping token removal");
             return;
         }
 
         try {
-            String key = BLACKLIST_PREFIX + token;
-            redisTemplate.delete(key);
+            redisTemplate.delete(List.of(BLACKLIST_PREFIX + digest, BLACKLIST_PREFIX + token));
+            publish("remove" + SEPARATOR + digest);
             logger.debug("Token removed from blacklist");
         } catch (Exception e) {
             logger.error("Error removing token from blacklist", e);
@@ -87,14 +193,18 @@ public class TokenBlacklistService {
      * Clear all blacklisted tokens (admin function)
      */
     public void clearAllBlacklistedTokens() {
+        clearLocal();
         if (redisTemplate == null) {
-            logger.debug("Redis not available, skipping clear operation");
+            logger.info("All blacklisted tokens cleared");
             return;
         }
 
         try {
-            String pattern = BLACKLIST_PREFIX + "*";
-            redisTemplate.delete(redisTemplate.keys(pattern));
+            List<String> keys = scanKeys();
+            if (!keys.isEmpty()) {
+                redisTemplate.unlink(keys);
+            }
+            publish("clear");
             logger.info("All blacklisted tokens cleared");
         } catch (Exception e) {
             logger.error("Error clearing blacklisted tokens", e);
@@ -106,16 +216,125 @@ public class TokenBlacklistService {
      */
     public long getBlacklistedTokenCount() {
         if (redisTemplate == null) {
-            logger.debug("Redis not available, returning 0");
-            return 0;
+            purgeExpired(System.currentTimeMillis());
+            return localDigests.size();
         }
 
         try {
-            String pattern = BLACKLIST_PREFIX + "*";
-            return redisTemplate.keys(pattern).size();
+            return scanKeys().size();
         } catch (Exception e) {
             logger.error("Error getting blacklisted token count", e);
             return 0;
         }
     }
+
+    private void addLocal(String digest, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return;
+        }
+        localDigests.merge(digest, expiresAt, Math::max);
+        bloomFilter.add(TokenDigest.fromHex(digest), expiresAt);
+        purgeExpired(now);
+    }
+
+    private void clearLocal() {
+        localDigests.clear();
+        bloomFilter.clear();
+    }
+
+    /**
+     * Drop expired digests, at most once per interval; the Bloom filter drops its own
+     */
+    private void purgeExpired(long now) {
+        long next = nextPurgeAt.get();
+        if (now < next || !nextPurgeAt.compareAndSet(next, now + PURGE_INTERVAL_MILLIS)) {
+            return;
+        }
+        localDigests.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    /**
+     * Periodic catch-up with the tokens other nodes blacklisted while their broadcast did not arrive;
+     * removals need no resync, a local hit that is gone from Redis is dropped when confirmed
+     */
+    private void resync() {
+        int added = syncFromRedis();
+        if (added > 0) {
+            logger.info("Token blacklist resync added {} tokens missed by pub/sub", added);
+        }
+    }
+
+    /**
+     * Add the blacklisted tokens in Redis that this node does not know yet
+     *
+     * @return number of tokens added
+     */
+    private int syncFromRedis() {
+        try {
+            int added = 0;
+            long now = System.currentTimeMillis();
+            for (String key : scanKeys()) {
+                String suffix = key.substring(BLACKLIST_PREFIX.length());
+                // Legacy keys hold the token itself (a JWT always contains dots)
+                String digest = suffix.indexOf('.') >= 0 ? TokenDigest.hex(suffix) : suffix;
+                Long known = localDigests.get(digest);
+                if (known != null && known > now) {
+                    continue;
+                }
+                Long remaining = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                if (remaining == null || remaining <= 0) {
+                    continue;
+                }
+                addLocal(digest, System.currentTimeMillis() + remaining);
+                added++;
+            }
+            return added;
+        } catch (Exception e) {
+            logger.warn("Could not load the token blacklist from Redis: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private List<String> scanKeys() {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(BLACKLIST_PREFIX + "*").count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        return keys;
+    }
+
+    private void publish(String event) {
+        try {
+            redisTemplate.convertAndSend(BLACKLIST_CHANNEL, nodeId + SEPARATOR + event);
+        } catch (Exception e) {
+            // Other nodes pick the token up from Redis at their next resync
+            logger.warn("Failed to publish token blacklist event: {}", e.getMessage());
+        }
+    }
+
+    private void onBlacklistMessage(String message) {
+        String[] parts = message.split("\\" + SEPARATOR);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            switch (parts[1]) {
+                case "add":
+                    addLocal(parts[2], Long.parseLong(parts[3]));
+                    break;
+                case "remove":
+                    localDigests.remove(parts[2]);
+                    break;
+                case "clear":
+                    clearLocal();
+                    break;
+                default:
+                    logger.debug("Ignoring unknown token blacklist event: {}", message);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed token blacklist event: {}", message);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.simsekolah.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digests of tokens, used wherever a token is remembered so the token itself is never stored
+ */
+final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    static byte[] of(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String hex(String token) {
+        return hex(of(token));
+    }
+
+    static String hex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    static byte[] fromHex(String digest) {
+        return HexFormat.of().parseHex(digest);
+    }
+}
@@ -0,0 +1,79 @@
+package com.simsekolah.security;
+
+import com.simsekolah.entity.User;
+import com.simsekolah.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves a login identifier (email, NIP or username) to a user in one query
+ * The identifier is classified first: email syntax is looked up by email and anything else that is not
+ * purely numeric by username, each through its unique index. Numeric identifiers can be a NIP or a
+ * username, so they use a single query matching all three columns; the same query is the fallback
+ * when a targeted lookup finds nothing. Roles and their permissions are fetched with the user.
+ */
+@Component
+public class UserLookup {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern NUMERIC = Pattern.compile("^\\d+$");
+
+    enum IdentifierType {
+        EMAIL,
+        USERNAME,
+        // A NIP, or a username made of digits
+        NUMERIC
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    static IdentifierType classify(String identifier) {
+        if (EMAIL.matcher(identifier).matches()) {
+            return IdentifierType.EMAIL;
+        }
+        if (NUMERIC.matcher(identifier).matches()) {
+            return IdentifierType.NUMERIC;
+        }
+        return IdentifierType.USERNAME;
+    }
+
+    /**
+     * User with roles and permissions loaded, or empty when no user has this email, username or NIP
+     */
+    public Optional<User> findForAuthentication(String identifier) {
+        if (identifier == null || identifier.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<User> user;
+        switch (classify(identifier)) {
+            case EMAIL:
+                user = userRepository.findByEmailWithAuthorities(identifier);
+                break;
+            case USERNAME:
+                user = userRepository.findByUsernameWithAuthorities(identifier);
+                break;
+            default:
+                user = Optional.empty();
+        }
+        return user.isPresent() ? user : findByAnyIdentifier(identifier);
+    }
+
+    /**
+     * When one user's email is another's username or NIP, the email match wins, then username, then NIP
+     */
+    private Optional<User> findByAnyIdentifier(String identifier) {
+        List<User> users = userRepository.findByAnyIdentifierWithAuthorities(identifier);
+        return users.stream().min(Comparator.comparingInt(user -> {
+            if (identifier.equals(user.getEmail())) {
+                return 0;
+            }
+            return identifier.equals(user.getUsername()) ? 1 : 2;
+        }));
+    }
+}
@@ -72,6 +72,11 @@ public interface AcademicReportService {
      */
     List<AcademicReportResponse.StudentRanking> generateStudentRankings(Long classRoomId, String academicYear, Integer semester);
 
+    /**
+     * Get the dense rank of a single student within a class
+     */
+    Map<String, Object> getStudentClassRank(Long studentId, Long classRoomId, String academicYear, Integer semester);
+
     /**
      * Generate subject rankings
      */
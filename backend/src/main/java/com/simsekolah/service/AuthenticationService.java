@@ -61,6 +61,12 @@ public class AuthenticationService {
     @Autowired
     private com.simsekolah.security.TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private com.simsekolah.security.AuthenticatedPrincipalCache authenticatedPrincipalCache;
+
+    @Autowired
+    private com.simsekolah.security.UserLookup userLookup;
+
     /**
      * Authenticate user and generate JWT tokens
      */
@@ -82,10 +88,9 @@ public class AuthenticationService {
             // Get user details
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             
-            // Find user entity for additional information (email, username, or NIP)
-            User user = userRepository.findByEmailOrNipForAuthentication(loginRequest.getIdentifier())
-                .orElseGet(() -> userRepository.findByUsername(loginRequest.getIdentifier())
-                    .orElseThrow(() -> new UserNotFoundException("User not found: " + loginRequest.getIdentifier())));
+            // Find user entity for additional information; the principal's username is the user's email
+            User user = userLookup.findForAuthentication(userDetails.getUsername())
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + loginRequest.getIdentifier()));
 
             // Check if user is active
             if (!user.getIsActive()) {
@@ -145,7 +150,7 @@ public class AuthenticationService {
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
             
             // Find user entity
-            User user = userRepository.findByEmailOrNipForAuthentication(username)
+            User user = userLookup.findForAuthentication(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
 
             // Check if user is still active
@@ -279,6 +284,7 @@ public class AuthenticationService {
             user.setUpdatedAt(LocalDateTime.now());
             
             userRepository.save(user);
+            authenticatedPrincipalCache.invalidateUser(user.getEmail());
 
             logger.info("Password reset successful for user: {}", email);
 
@@ -313,7 +319,7 @@ public class AuthenticationService {
         }
 
         String username = authentication.getName();
-        return userRepository.findByEmailOrNipForAuthentication(username).orElse(null);
+        return userLookup.findForAuthentication(username).orElse(null);
     }
 
     /**
@@ -346,7 +352,7 @@ public class AuthenticationService {
             logger.info("Logging out all sessions for user: {}", username);
             
             // Update user's token version or similar mechanism to invalidate all tokens
-            User user = userRepository.findByEmailOrNipForAuthentication(username).orElse(null);
+            User user = userLookup.findForAuthentication(username).orElse(null);
             if (user != null) {
                 // You could add a tokenVersion field to User entity and increment it
                 // All tokens would need to include this version and be validated against it
@@ -368,7 +374,7 @@ public class AuthenticationService {
             }
             
             String username = jwtTokenProvider.getUsernameFromToken(token);
-            User user = userRepository.findByEmailOrNipForAuthentication(username)
+            User user = userLookup.findForAuthentication(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
             
             java.util.Map<String, Object> tokenInfo = new java.util.HashMap<>();
@@ -397,7 +403,7 @@ public class AuthenticationService {
             }
             
             String username = jwtTokenProvider.getUsernameFromToken(token);
-            User user = userRepository.findByEmailOrNipForAuthentication(username)
+            User user = userLookup.findForAuthentication(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
             
             java.util.Map<String, Object> userInfo = new java.util.HashMap<>();
@@ -434,7 +440,7 @@ public class AuthenticationService {
             }
             
             String username = jwtTokenProvider.getUsernameFromToken(token);
-            User user = userRepository.findByEmailOrNipForAuthentication(username)
+            User user = userLookup.findForAuthentication(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
             
             // Verify current password
@@ -446,6 +452,7 @@ public class AuthenticationService {
             user.setPassword(passwordEncoder.encode(newPassword));
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            authenticatedPrincipalCache.invalidateUser(user.getEmail());
             
             logger.info("Password changed successfully for user: {}", username);
             
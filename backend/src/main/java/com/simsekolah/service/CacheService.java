@@ -61,6 +61,11 @@ public interface CacheService {
      */
     void invalidateClassCaches(Long classRoomId);
 
+    /**
+     * Invalidate subject-related caches when subject data changes
+     */
+    void invalidateSubjectCaches(Long subjectId);
+
     /**
      * Invalidate all student caches
      */
@@ -129,6 +134,12 @@ public interface CacheService {
      */
     void warmUpCaches();
 
+    /**
+     * Start warming up frequently accessed caches in the background
+     * Returns the status of the started warm-up, or of the one already in progress
+     */
+    Map<String, Object> startCacheWarmup();
+
     /**
      * Warm up user caches
      */
@@ -149,6 +160,11 @@ public interface CacheService {
      */
     void warmUpDashboardCaches();
 
+    /**
+     * Get progress of the current or last cache warm-up
+     */
+    Map<String, Object> getCacheWarmupStatus();
+
     // Cache Monitoring
 
     /**
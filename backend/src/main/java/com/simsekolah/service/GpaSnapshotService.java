@@ -0,0 +1,82 @@
+package com.simsekolah.service;
+
+import com.simsekolah.entity.StudentAssessment;
+import com.simsekolah.entity.StudentGpaSnapshot;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service interface for per-student, per-semester GPA snapshots
+ * Snapshots are updated in the transaction that writes a grade, so GPA readers never
+ * have to re-aggregate individual assessment scores
+ */
+public interface GpaSnapshotService {
+
+    /**
+     * Apply a new or changed score to the snapshot of the student's academic period
+     * previousScore is null when the student had no score for the assessment before
+     */
+    void recordGrade(StudentAssessment studentAssessment, BigDecimal previousScore);
+
+    /**
+     * Recompute snapshots of the given students for an academic period from their scores
+     * Used when an assessment itself changes (max score, subject or period)
+     */
+    void refreshStudents(Collection<Long> studentIds, String academicYear, Integer semester);
+
+    /**
+     * Recompute all snapshots of an academic period from scores
+     */
+    int rebuildSnapshots(String academicYear, Integer semester);
+
+    /**
+     * Rebuild every academic period whose snapshots do not cover all of its scores, e.g. grades
+     * written before snapshots existed
+     * Returns the number of snapshots rebuilt per period ("academicYear-semester")
+     */
+    Map<String, Integer> rebuildIncompletePeriods();
+
+    /**
+     * Get snapshot of a student for an academic period
+     */
+    Optional<StudentGpaSnapshot> getSnapshot(Long studentId, String academicYear, Integer semester);
+
+    /**
+     * Get GPA of a student for an academic period (0 when nothing is graded)
+     */
+    double getStudentGpa(Long studentId, String academicYear, Integer semester);
+
+    /**
+     * Get snapshots of the students in a class keyed by student id
+     */
+    Map<Long, StudentGpaSnapshot> getClassSnapshots(Long classRoomId, String academicYear, Integer semester);
+
+    /**
+     * Get the highest-GPA snapshots of an academic period with students loaded
+     */
+    List<StudentGpaSnapshot> getTopSnapshots(String academicYear, Integer semester, int limit);
+
+    /**
+     * Count students with at least one scored assessment in an academic period
+     */
+    long countGradedStudents(String academicYear, Integer semester);
+
+    /**
+     * Get snapshots of an academic period below a GPA threshold with students loaded
+     */
+    List<StudentGpaSnapshot> getSnapshotsBelow(String academicYear, Integer semester, double threshold);
+
+    /**
+     * Get all snapshots of a student in chronological order
+     */
+    List<StudentGpaSnapshot> getStudentSnapshots(Long studentId);
+
+    /**
+     * Calculate cumulative GPA of a student as a credit-weighted sum over all semesters
+     */
+    BigDecimal calculateCumulativeGpa(Long studentId);
+}
@@ -0,0 +1,30 @@
+package com.simsekolah.service;
+
+import java.io.OutputStream;
+
+/**
+ * Service interface for rendering student report cards as PDF
+ * Renders transcript data per student and streams bulk output as ZIP archives; an archive is written
+ * to the output stream only once every report card in it has been rendered
+ */
+public interface ReportCardPdfService {
+
+    /**
+     * Render the report card of a single student
+     */
+    byte[] renderReportCard(Long studentId, String academicYear, Integer semester);
+
+    /**
+     * Stream report cards of all active students in a class into a ZIP archive
+     *
+     * @return number of report cards written
+     */
+    int writeClassReportCards(Long classRoomId, String academicYear, Integer semester, OutputStream outputStream);
+
+    /**
+     * Stream report cards of all active students in a grade level into a ZIP archive
+     *
+     * @return number of report cards written
+     */
+    int writeGradeReportCards(Integer gradeLevel, String academicYear, Integer semester, OutputStream outputStream);
+}
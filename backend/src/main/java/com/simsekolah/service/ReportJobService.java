@@ -0,0 +1,56 @@
+package com.simsekolah.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for asynchronous report jobs
+ * Runs heavy reports on a bounded worker pool, persists job state and results in
+ * report_runs and collapses concurrent identical requests into a single computation
+ */
+public interface ReportJobService {
+
+    String STUDENT_TRANSCRIPT = "STUDENT_TRANSCRIPT";
+    String CLASS_PERFORMANCE = "CLASS_PERFORMANCE";
+    String SUBJECT_PERFORMANCE = "SUBJECT_PERFORMANCE";
+    String GRADE_DISTRIBUTION = "GRADE_DISTRIBUTION";
+    String TOP_PERFORMERS = "TOP_PERFORMERS";
+    String STUDENTS_AT_RISK = "STUDENTS_AT_RISK";
+    String MONTHLY_ATTENDANCE = "MONTHLY_ATTENDANCE";
+
+    /**
+     * Submit a report job, joining an identical job that is already queued or running
+     */
+    Map<String, Object> submitJob(String reportType, Map<String, Object> parameters);
+
+    /**
+     * Run a report through the job engine and wait for its result
+     * Concurrent identical calls share one computation
+     */
+    Map<String, Object> execute(String reportType, Map<String, Object> parameters);
+
+    /**
+     * Get job status and progress
+     */
+    Map<String, Object> getJobStatus(String jobId);
+
+    /**
+     * Get the result of a completed job
+     */
+    Map<String, Object> getJobResult(String jobId);
+
+    /**
+     * Cancel a queued or running job
+     */
+    void cancelJob(String jobId);
+
+    /**
+     * Delete finished jobs older than the given number of days
+     */
+    int purgeFinishedJobs(int daysToKeep);
+
+    /**
+     * Get report types supported by the job engine
+     */
+    List<String> getSupportedReportTypes();
+}
@@ -3,6 +3,7 @@ package com.simsekolah.service;
 import com.simsekolah.entity.Permission;
 import com.simsekolah.entity.Role;
 import com.simsekolah.repository.RoleRepository;
+import com.simsekolah.security.AuthenticatedPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +24,9 @@ public class RoleService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private AuthenticatedPrincipalCache authenticatedPrincipalCache;
+
     /**
      * Get all roles
      */
@@ -99,6 +103,8 @@ public class RoleService {
         role.setDescription(roleDetails.getDescription());
         role.setIsSystemRole(roleDetails.getIsSystemRole());
 
+        // Authorities carry the role name
+        authenticatedPrincipalCache.invalidateAll();
         return roleRepository.save(role);
     }
 
@@ -114,6 +120,7 @@ public class RoleService {
         }
 
         roleRepository.delete(role);
+        authenticatedPrincipalCache.invalidateAll();
     }
 
     /**
@@ -159,6 +166,7 @@ public class RoleService {
                 .orElseThrow(() -> new RuntimeException("Role not found with id: " + roleId));
 
         role.addPermission(permission);
+        authenticatedPrincipalCache.invalidateAll();
         return roleRepository.save(role);
     }
 
@@ -170,6 +178,7 @@ public class RoleService {
                 .orElseThrow(() -> new RuntimeException("Role not found with id: " + roleId));
 
         role.removePermission(permission);
+        authenticatedPrincipalCache.invalidateAll();
         return roleRepository.save(role);
     }
 
@@ -0,0 +1,52 @@
+package com.simsekolah.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service interface for in-memory teacher and classroom availability
+ * Every teacher and classroom has a week bitset of 5-minute slots per academic period, built from
+ * active schedules and kept current from schedule change events, so availability checks, conflict
+ * pre-checks and free slot searches are bitwise operations instead of queries
+ */
+public interface ScheduleAvailabilityService {
+
+    int SLOT_MINUTES = 5;
+
+    /**
+     * Whether the teacher has no active schedule overlapping the interval
+     */
+    boolean isTeacherAvailable(Long teacherId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                               String academicYear, Integer semester);
+
+    /**
+     * Whether the classroom has no active schedule overlapping the interval
+     */
+    boolean isClassRoomAvailable(Long classRoomId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                                 String academicYear, Integer semester);
+
+    /**
+     * Free intervals of a teacher on one day (or the whole week when dayOfWeek is null) within school hours
+     */
+    List<Map<String, Object>> findTeacherFreeSlots(Long teacherId, DayOfWeek dayOfWeek, String academicYear,
+                                                   Integer semester, int minDurationMinutes);
+
+    /**
+     * Free intervals of a classroom on one day (or the whole week when dayOfWeek is null) within school hours
+     */
+    List<Map<String, Object>> findClassRoomFreeSlots(Long classRoomId, DayOfWeek dayOfWeek, String academicYear,
+                                                     Integer semester, int minDurationMinutes);
+
+    /**
+     * Intervals of the week in which both the teacher and the classroom are free
+     */
+    List<Map<String, Object>> findCommonFreeSlots(Long teacherId, Long classRoomId, String academicYear,
+                                                  Integer semester, int minDurationMinutes);
+
+    /**
+     * Drop the index of an academic period; it is rebuilt on next use
+     */
+    void invalidate(String academicYear, Integer semester);
+}
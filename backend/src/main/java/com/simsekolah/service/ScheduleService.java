@@ -32,6 +32,8 @@ public interface ScheduleService {
     List<Map<String, Object>> getAvailableClassroomTimeSlots(Long classRoomId, DayOfWeek dayOfWeek, String academicYear, Integer semester);
     List<ScheduleResponse> generateScheduleSuggestions(Long classRoomId, Long subjectId, Long teacherId, String academicYear, Integer semester);
     List<ScheduleResponse> resolveScheduleConflicts(List<Long> conflictingScheduleIds, String resolutionStrategy);
+    Map<String, Object> generateTimetable(TimetableGenerationRequest request);
+    List<Map<String, Object>> findCommonFreeSlots(Long teacherId, Long classRoomId, String academicYear, Integer semester, Integer minDurationMinutes);
     Map<String, Object> getScheduleStatistics(String academicYear, Integer semester);
     Map<String, Object> getTeacherWorkloadAnalysis(Long teacherId, String academicYear, Integer semester);
     Map<String, Object> getClassroomUtilizationAnalysis(Long classRoomId, String academicYear, Integer semester);
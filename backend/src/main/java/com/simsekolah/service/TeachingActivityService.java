@@ -4,6 +4,7 @@ import com.simsekolah.dto.response.TeachingActivityResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 public interface TeachingActivityService {
@@ -13,6 +14,13 @@ public interface TeachingActivityService {
      */
     Map<String, Object> generateTodaysActivities();
 
+    /**
+     * Generates missing teaching activities from active schedules for every school day in a date range.
+     * Holidays from the academic calendar are skipped; existing activities are left untouched, also when
+     * another run inserts the same schedule and date concurrently.
+     */
+    Map<String, Object> generateActivities(LocalDate startDate, LocalDate endDate);
+
     /**
      * Gets a paginated list of teaching activities for a specific teacher that are pending attendance/completion.
      */
@@ -3,20 +3,39 @@ package com.simsekolah.service.impl;
 import com.simsekolah.dto.request.AcademicReportRequest;
 import com.simsekolah.dto.response.AcademicReportResponse;
 import com.simsekolah.dto.response.TranscriptResponse;
+import com.simsekolah.entity.Student;
+import com.simsekolah.entity.StudentGpaSnapshot;
+import com.simsekolah.event.SnapshotChangedEvent;
+import com.simsekolah.repository.StudentAssessmentRepository;
+import com.simsekolah.repository.StudentGpaSnapshotRepository;
+import com.simsekolah.repository.StudentRepository;
+import com.simsekolah.util.GradeScale;
 import com.simsekolah.service.AcademicReportService;
+import com.simsekolah.service.GpaSnapshotService;
+import com.simsekolah.util.RankingTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Basic implementation of AcademicReportService
@@ -27,6 +46,27 @@ public class AcademicReportServiceImpl implements AcademicReportService {
 
     private static final Logger logger = LoggerFactory.getLogger(AcademicReportServiceImpl.class);
 
+    @Autowired
+    private GpaSnapshotService gpaSnapshotService;
+
+    @Autowired
+    private StudentGpaSnapshotRepository gpaSnapshotRepository;
+
+    @Autowired
+    private StudentAssessmentRepository studentAssessmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Rankings keyed by classRoomId_academicYear_semester, evicted when grades of a member change
+    private static final String CLASS_RANKINGS_CACHE = "classRankings";
+
+    // School-wide class and subject rankings keyed by type_academicYear_semester
+    private static final String PERIOD_RANKINGS_CACHE = "periodRankings";
+
     @Override
     public AcademicReportResponse generateAcademicReport(AcademicReportRequest request) {
         logger.info("Academic report generation requested");
@@ -96,13 +136,14 @@ public class AcademicReportServiceImpl implements AcademicReportService {
     @Override
     public BigDecimal calculateStudentGPA(Long studentId, String academicYear, Integer semester) {
         logger.info("Student GPA calculation requested for student ID: {}", studentId);
-        return BigDecimal.ZERO;
+        return BigDecimal.valueOf(gpaSnapshotService.getStudentGpa(studentId, academicYear, semester))
+                .setScale(2, RoundingMode.HALF_UP);
     }
 
     @Override
     public BigDecimal calculateCumulativeGPA(Long studentId) {
         logger.info("Cumulative GPA calculation requested for student ID: {}", studentId);
-        return BigDecimal.ZERO;
+        return gpaSnapshotService.calculateCumulativeGpa(studentId);
     }
 
     @Override
@@ -120,21 +161,172 @@ public class AcademicReportServiceImpl implements AcademicReportService {
     @Override
     public List<AcademicReportResponse.StudentRanking> generateStudentRankings(Long classRoomId, String academicYear, Integer semester) {
         logger.info("Student rankings generation requested for class ID: {}", classRoomId);
-        return new ArrayList<>();
+        return new ArrayList<>(getClassRanking(classRoomId, academicYear, semester));
+    }
+
+    @Override
+    public Map<String, Object> getStudentClassRank(Long studentId, Long classRoomId, String academicYear, Integer semester) {
+        List<AcademicReportResponse.StudentRanking> rankings = getClassRanking(classRoomId, academicYear, semester);
+        AcademicReportResponse.StudentRanking ranking = rankings.stream()
+                .filter(entry -> studentId.equals(entry.getStudentId()))
+                .findFirst()
+                .orElse(null);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("studentId", studentId);
+        result.put("classRoomId", classRoomId);
+        result.put("academicYear", academicYear);
+        result.put("semester", semester);
+        result.put("rank", ranking != null ? ranking.getRank() : null);
+        result.put("gpa", ranking != null ? ranking.getGpa() : null);
+        result.put("rankedStudents", rankings.size());
+        result.put("distinctRanks", rankings.isEmpty() ? 0 : rankings.get(rankings.size() - 1).getRank());
+        return result;
     }
 
     @Override
     public List<Map<String, Object>> generateSubjectRankings(String academicYear, Integer semester) {
         logger.info("Subject rankings generation requested");
-        return new ArrayList<>();
+        return cached(PERIOD_RANKINGS_CACHE, periodKey("subjects", academicYear, semester), () -> {
+            List<Object[]> rows = studentAssessmentRepository.averagePercentageBySubject(academicYear, semester);
+            return denseRank(rows, 3, row -> {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("subjectId", ((Number) row[0]).longValue());
+                entry.put("subjectName", row[1]);
+                entry.put("subjectCode", row[2]);
+                entry.put("scoredAssessments", ((Number) row[4]).longValue());
+                return entry;
+            }, "averagePercentage");
+        });
     }
 
     @Override
     public List<Map<String, Object>> generateClassRankings(String academicYear, Integer semester) {
         logger.info("Class rankings generation requested");
-        return new ArrayList<>();
+        return cached(PERIOD_RANKINGS_CACHE, periodKey("classes", academicYear, semester), () -> {
+            List<Object[]> rows = gpaSnapshotRepository.averageGpaByClassRoom(academicYear, semester);
+            return denseRank(rows, 2, row -> {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("classRoomId", ((Number) row[0]).longValue());
+                entry.put("className", row[1]);
+                entry.put("rankedStudents", ((Number) row[3]).longValue());
+                return entry;
+            }, "averageGpa");
+        });
+    }
+
+    /**
+     * Evict cached rankings affected by a grade write once it has committed
+     * Subject rankings move with every score; GPA-based rankings only when a GPA changed. Evictions go
+     * through the cache layer, so other nodes drop their copies too.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGpaSnapshotsChanged(SnapshotChangedEvent event) {
+        String academicYear = event.getAcademicYear();
+        Integer semester = event.getSemester();
+        Cache periodRankings = cacheManager.getCache(PERIOD_RANKINGS_CACHE);
+        if (periodRankings != null) {
+            periodRankings.evict(periodKey("subjects", academicYear, semester));
+            if (event.isGpaChanged()) {
+                periodRankings.evict(periodKey("classes", academicYear, semester));
+            }
+        }
+        Cache classRankings = cacheManager.getCache(CLASS_RANKINGS_CACHE);
+        if (!event.isGpaChanged() || classRankings == null) {
+            return;
+        }
+        Collection<Long> studentIds = event.getStudentIds();
+        if (studentIds == null) {
+            classRankings.clear();
+            return;
+        }
+        for (Long classRoomId : studentRepository.findClassRoomIdsByIds(studentIds)) {
+            classRankings.evict(periodKey(String.valueOf(classRoomId), academicYear, semester));
+        }
+    }
+
+    private List<AcademicReportResponse.StudentRanking> getClassRanking(Long classRoomId, String academicYear,
+                                                                        Integer semester) {
+        return cached(CLASS_RANKINGS_CACHE, periodKey(String.valueOf(classRoomId), academicYear, semester),
+                () -> buildClassRanking(classRoomId, academicYear, semester));
+    }
+
+    private <T> T cached(String cacheName, String key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null ? cache.get(key, loader::get) : loader.get();
+    }
+
+    private List<AcademicReportResponse.StudentRanking> buildClassRanking(Long classRoomId, String academicYear, Integer semester) {
+        List<StudentGpaSnapshot> snapshots = gpaSnapshotRepository.findWithStudentsByClassRoomAndPeriod(
+                classRoomId, academicYear, semester);
+        List<Long> memberIds = studentRepository.findIdsByClassRoomId(classRoomId);
+
+        int n = snapshots.size();
+        long[] ids = new long[n];
+        double[] gpas = new double[n];
+        Map<Long, StudentGpaSnapshot> byStudent = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            StudentGpaSnapshot snapshot = snapshots.get(i);
+            ids[i] = snapshot.getStudentId();
+            gpas[i] = snapshot.getGpa();
+            byStudent.put(snapshot.getStudentId(), snapshot);
+        }
+        RankingTable table = RankingTable.of(ids, gpas, memberIds.stream().mapToLong(Long::longValue).toArray());
+
+        List<AcademicReportResponse.StudentRanking> rankings = new ArrayList<>(n);
+        for (int i = 0; i < table.size(); i++) {
+            StudentGpaSnapshot snapshot = byStudent.get(table.idAt(i));
+            Student student = snapshot.getStudent();
+            rankings.add(AcademicReportResponse.StudentRanking.builder()
+                    .studentId(student.getId())
+                    .studentName(student.getNamaLengkap())
+                    .studentNumber(student.getNis())
+                    .className(student.getClassName())
+                    .rank(table.rankAt(i))
+                    .gpa(toGpa(table.scoreAt(i)))
+                    .letterGrade(GradeScale.letterGradeForGpa(table.scoreAt(i)))
+                    .totalCredits(snapshot.getTotalCredits())
+                    .build());
+        }
+        logger.debug("Built ranking of {} students for class {} ({}-{})", n, classRoomId, academicYear, semester);
+        return rankings;
+    }
+
+    /**
+     * Dense rank aggregate rows on the score column (descending) and attach score and rank to each entry
+     */
+    private List<Map<String, Object>> denseRank(List<Object[]> rows, int scoreColumn,
+                                                Function<Object[], Map<String, Object>> mapper, String scoreName) {
+        long[] ids = new long[rows.size()];
+        double[] scores = new double[rows.size()];
+        Map<Long, Object[]> byId = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            ids[i] = ((Number) row[0]).longValue();
+            scores[i] = row[scoreColumn] != null ? ((Number) row[scoreColumn]).doubleValue() : 0.0;
+            byId.put(ids[i], row);
+        }
+        RankingTable table = RankingTable.of(ids, scores, ids);
+
+        List<Map<String, Object>> ranked = new ArrayList<>(table.size());
+        for (int i = 0; i < table.size(); i++) {
+            Map<String, Object> entry = mapper.apply(byId.get(table.idAt(i)));
+            entry.put("rank", table.rankAt(i));
+            entry.put(scoreName, BigDecimal.valueOf(table.scoreAt(i)).setScale(2, RoundingMode.HALF_UP));
+            ranked.add(entry);
+        }
+        return Collections.unmodifiableList(ranked);
+    }
+
+    private String periodKey(String prefix, String academicYear, Integer semester) {
+        return prefix + "_" + academicYear + "_" + semester;
+    }
+
+    private BigDecimal toGpa(double gpa) {
+        return BigDecimal.valueOf(gpa).setScale(2, RoundingMode.HALF_UP);
     }
 
+
     @Override
     public Map<String, BigDecimal> calculateWeightedFinalGrades(Long studentId, String academicYear, Integer semester) {
         logger.info("Weighted final grades calculation requested for student ID: {}", studentId);
@@ -228,7 +420,18 @@ public class AcademicReportServiceImpl implements AcademicReportService {
     @Override
     public List<Map<String, Object>> calculateGPAByPeriod(Long studentId) {
         logger.info("GPA by period calculation requested for student ID: {}", studentId);
-        return new ArrayList<>();
+
+        List<Map<String, Object>> periods = new ArrayList<>();
+        for (StudentGpaSnapshot snapshot : gpaSnapshotService.getStudentSnapshots(studentId)) {
+            Map<String, Object> period = new HashMap<>();
+            period.put("academicYear", snapshot.getAcademicYear());
+            period.put("semester", snapshot.getSemester());
+            period.put("gpa", BigDecimal.valueOf(snapshot.getGpa()).setScale(2, RoundingMode.HALF_UP));
+            period.put("totalCredits", snapshot.getTotalCredits());
+            period.put("totalAssessments", snapshot.getAssessmentCount());
+            periods.add(period);
+        }
+        return periods;
     }
 
     @Override
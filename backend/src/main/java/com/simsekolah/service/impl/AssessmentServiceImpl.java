@@ -7,22 +7,38 @@ import com.simsekolah.dto.request.UpdateAssessmentRequest;
 import com.simsekolah.dto.response.AssessmentResponse;
 import com.simsekolah.dto.response.StudentAssessmentResponse;
 import com.simsekolah.entity.Assessment;
+import com.simsekolah.entity.Student;
+import com.simsekolah.entity.StudentAssessment;
+import com.simsekolah.entity.User;
 import com.simsekolah.enums.AssessmentType;
+import com.simsekolah.exception.ResourceNotFoundException;
+import com.simsekolah.exception.ValidationException;
 import com.simsekolah.repository.AssessmentRepository;
+import com.simsekolah.repository.StudentAssessmentRepository;
+import com.simsekolah.repository.StudentRepository;
 import com.simsekolah.service.AssessmentService;
+import com.simsekolah.service.GpaSnapshotService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of AssessmentService for assessment management
@@ -32,6 +48,9 @@ import java.util.Optional;
 public class AssessmentServiceImpl implements AssessmentService {
 
     private final AssessmentRepository assessmentRepository;
+    private final StudentAssessmentRepository studentAssessmentRepository;
+    private final StudentRepository studentRepository;
+    private final GpaSnapshotService gpaSnapshotService;
 
     @Override
     public List<Assessment> getAllAssessments() {
@@ -49,8 +68,10 @@ public class AssessmentServiceImpl implements AssessmentService {
     }
 
     @Override
+    @Transactional
     public Assessment updateAssessment(Long id, Assessment assessmentDetails) {
         Assessment assessment = assessmentRepository.findById(id).orElseThrow();
+        BigDecimal previousMaxScore = assessment.getMaxScore();
         // Update fields
         assessment.setStudentId(assessmentDetails.getStudentId());
         assessment.setSubjectId(assessmentDetails.getSubjectId());
@@ -58,12 +79,23 @@ public class AssessmentServiceImpl implements AssessmentService {
         assessment.setMaxScore(assessmentDetails.getMaxScore());
         assessment.setScore(assessmentDetails.getScore());
         assessment.setDescription(assessmentDetails.getDescription());
-        return assessmentRepository.save(assessment);
+        Assessment saved = assessmentRepository.save(assessment);
+
+        // A new max score moves every result of this assessment to a different grade band
+        if (!Objects.equals(previousMaxScore, saved.getMaxScore())) {
+            gpaSnapshotService.refreshStudents(studentAssessmentRepository.findStudentIdsByAssessmentId(id),
+                    saved.getAcademicYear(), saved.getSemester());
+        }
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteAssessment(Long id) {
+        Optional<Assessment> assessment = assessmentRepository.findById(id);
+        List<Long> studentIds = studentAssessmentRepository.findStudentIdsByAssessmentId(id);
         assessmentRepository.deleteById(id);
+        assessment.ifPresent(a -> gpaSnapshotService.refreshStudents(studentIds, a.getAcademicYear(), a.getSemester()));
     }
 
     @Override
@@ -107,9 +139,68 @@ public class AssessmentServiceImpl implements AssessmentService {
     }
 
     @Override
+    @Transactional
     public List<StudentAssessmentResponse> gradeAssessment(Long assessmentId, GradeAssessmentRequest request) {
-        // TODO: Implement proper grading logic
-        return new ArrayList<>();
+        Assessment assessment = assessmentRepository.findById(assessmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Assessment", "id", assessmentId));
+
+        Map<Long, StudentAssessment> existing = studentAssessmentRepository.findByAssessment(assessment).stream()
+                .collect(Collectors.toMap(sa -> sa.getStudent().getId(), Function.identity()));
+
+        List<Long> newStudentIds = request.getStudentGrades().stream()
+                .map(GradeAssessmentRequest.StudentGrade::getStudentId)
+                .filter(studentId -> !existing.containsKey(studentId))
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Student> newStudents = studentRepository.findAllById(newStudentIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+        User grader = getCurrentUser();
+        LocalDateTime now = LocalDateTime.now();
+        List<StudentAssessment> graded = new ArrayList<>();
+        List<BigDecimal> previousScores = new ArrayList<>();
+
+        for (GradeAssessmentRequest.StudentGrade studentGrade : request.getStudentGrades()) {
+            if (studentGrade.getScore() != null && assessment.getMaxScore() != null
+                    && studentGrade.getScore().compareTo(assessment.getMaxScore()) > 0) {
+                throw new ValidationException("score",
+                        "Score for student " + studentGrade.getStudentId() + " exceeds max score " + assessment.getMaxScore());
+            }
+
+            StudentAssessment studentAssessment = existing.get(studentGrade.getStudentId());
+            if (studentAssessment == null) {
+                Student student = newStudents.get(studentGrade.getStudentId());
+                if (student == null) {
+                    throw new ResourceNotFoundException("Student", "id", studentGrade.getStudentId());
+                }
+                studentAssessment = new StudentAssessment();
+                studentAssessment.setAssessment(assessment);
+                studentAssessment.setStudent(student);
+                existing.put(student.getId(), studentAssessment);
+            }
+
+            previousScores.add(studentAssessment.getScore());
+            studentAssessment.setScore(studentGrade.getScore());
+            studentAssessment.setGrade(studentGrade.getGrade());
+            studentAssessment.setFeedback(studentGrade.getFeedback());
+            studentAssessment.setNotes(studentGrade.getNotes());
+            studentAssessment.setIsSubmitted(Boolean.TRUE.equals(studentGrade.getIsSubmitted()));
+            if (Boolean.TRUE.equals(studentGrade.getIsSubmitted()) && studentAssessment.getSubmissionDate() == null) {
+                studentAssessment.setSubmissionDate(now);
+            }
+            studentAssessment.setGradedBy(grader);
+            studentAssessment.setGradedAt(now);
+            graded.add(studentAssessment);
+        }
+
+        List<StudentAssessment> saved = studentAssessmentRepository.saveAll(graded);
+
+        // Keep GPA snapshots in step within the same transaction
+        for (int i = 0; i < saved.size(); i++) {
+            gpaSnapshotService.recordGrade(saved.get(i), previousScores.get(i));
+        }
+
+        return saved.stream().map(this::toStudentAssessmentResponse).collect(Collectors.toList());
     }
 
     @Override
@@ -132,14 +223,18 @@ public class AssessmentServiceImpl implements AssessmentService {
 
     @Override
     public BigDecimal calculateStudentGPA(Long studentId, String academicYear, Integer semester) {
-        // TODO: Implement proper GPA calculation
-        return BigDecimal.ZERO;
+        return BigDecimal.valueOf(gpaSnapshotService.getStudentGpa(studentId, academicYear, semester))
+                .setScale(2, RoundingMode.HALF_UP);
     }
 
     @Override
+    @Transactional
     public List<StudentAssessmentResponse> bulkGradeAssessment(Long assessmentId, List<GradeAssessmentRequest> requests) {
-        // TODO: Implement proper bulk grading logic
-        return new ArrayList<>();
+        List<StudentAssessmentResponse> results = new ArrayList<>();
+        for (GradeAssessmentRequest request : requests) {
+            results.addAll(gradeAssessment(assessmentId, request));
+        }
+        return results;
     }
 
     // Additional method implementations for test compatibility
@@ -178,4 +273,53 @@ public class AssessmentServiceImpl implements AssessmentService {
         // TODO: Implement proper upcoming assessments logic
         return new PageImpl<>(new ArrayList<>(), pageable, 0);
     }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        return null;
+    }
+
+    private StudentAssessmentResponse toStudentAssessmentResponse(StudentAssessment studentAssessment) {
+        Assessment assessment = studentAssessment.getAssessment();
+        Student student = studentAssessment.getStudent();
+        User grader = studentAssessment.getGradedBy();
+
+        return StudentAssessmentResponse.builder()
+                .id(studentAssessment.getId())
+                .assessment(StudentAssessmentResponse.AssessmentInfo.builder()
+                        .id(assessment.getId())
+                        .title(assessment.getTitle())
+                        .type(assessment.getType() != null ? assessment.getType().name() : null)
+                        .maxScore(assessment.getMaxScore())
+                        .dueDate(assessment.getDueDate() != null ? assessment.getDueDate().atStartOfDay() : null)
+                        .academicYear(assessment.getAcademicYear())
+                        .semester(assessment.getSemester())
+                        .build())
+                .student(StudentAssessmentResponse.StudentInfo.builder()
+                        .id(student.getId())
+                        .fullName(student.getNamaLengkap())
+                        .studentNumber(student.getNis())
+                        .className(student.getClassName())
+                        .build())
+                .score(studentAssessment.getScore())
+                .grade(studentAssessment.getGrade())
+                .isSubmitted(studentAssessment.getIsSubmitted())
+                .submissionDate(studentAssessment.getSubmissionDate())
+                .feedback(studentAssessment.getFeedback())
+                .notes(studentAssessment.getNotes())
+                .gradedBy(grader != null ? StudentAssessmentResponse.GraderInfo.builder()
+                        .id(grader.getId())
+                        .firstName(grader.getFirstName())
+                        .lastName(grader.getLastName())
+                        .fullName(grader.getFullName())
+                        .username(grader.getUsername())
+                        .build() : null)
+                .gradedAt(studentAssessment.getGradedAt())
+                .createdAt(studentAssessment.getCreatedAt())
+                .updatedAt(studentAssessment.getUpdatedAt())
+                .build();
+    }
 }
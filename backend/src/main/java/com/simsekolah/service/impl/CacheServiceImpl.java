@@ -1,16 +1,56 @@
 package com.simsekolah.service.impl;
 
+import com.simsekolah.cache.CacheMetrics;
+import com.simsekolah.cache.CachePolicies;
+import com.simsekolah.cache.CacheSnapshotFile;
+import com.simsekolah.cache.CacheTagIndex;
+import com.simsekolah.cache.CacheTags;
+import com.simsekolah.cache.CacheWarmup;
+import com.simsekolah.cache.CoalescingCacheManager;
+import com.simsekolah.cache.CompactBinaryCodec;
+import com.simsekolah.cache.HotKeyTracker;
+import com.simsekolah.cache.InstrumentedCacheManager;
+import com.simsekolah.cache.JsonCacheValueCodec;
+import com.simsekolah.cache.TinyLfuCache;
+import com.simsekolah.cache.TwoLevelCacheManager;
+import com.simsekolah.cache.VersionedCacheValueSerializer;
+import com.simsekolah.dto.response.SemesterResponse;
+import com.simsekolah.entity.ClassRoom;
+import com.simsekolah.repository.ClassRoomRepository;
+import com.simsekolah.repository.ScheduleRepository;
+import com.simsekolah.repository.StudentRepository;
 import com.simsekolah.service.CacheService;
+import com.simsekolah.service.ReportService;
+import com.simsekolah.service.ScheduleService;
+import com.simsekolah.service.SemesterService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -22,12 +62,87 @@ public class CacheServiceImpl implements CacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(CacheServiceImpl.class);
 
+    // Invalidation messages are "nodeId|cacheName" or "nodeId|cacheName|key"
+    private static final String INVALIDATION_CHANNEL = "cache:invalidation";
+    private static final String INVALIDATION_SEPARATOR = "|";
+
+    // Held by the node warming the shared caches at startup, expires with the warm-up time budget
+    private static final String WARMUP_LOCK_KEY = "cache:warmup:startup";
+
+    private static final long LOW_HIT_RATIO_MIN_READS = 100;
+    private static final double LOW_HIT_RATIO_THRESHOLD = 0.5;
+    private static final int DEFAULT_HOT_KEY_LIMIT = 10;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicReference<CacheWarmup> lastWarmup = new AtomicReference<>();
+
+    @Value("${app.cache.warmup.on-startup:false}")
+    private boolean warmupOnStartup;
+
+    @Value("${app.cache.warmup.threads:4}")
+    private int warmupThreads;
+
+    @Value("${app.cache.warmup.time-budget-seconds:120}")
+    private long warmupTimeBudgetSeconds;
+
+    @Value("${app.cache.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${app.cache.snapshot.file:}")
+    private String snapshotPath;
+
+    @Value("${app.cache.codec.schema-version:1}")
+    private int codecSchemaVersion;
+
+    @Value("${app.cache.codec.compression-threshold-bytes:1024}")
+    private int compressionThreshold;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private CacheManager cacheManager;
 
     @Autowired(required = false)
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired(required = false)
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired(required = false)
+    private CacheTagIndex cacheTagIndex;
+
+    // Warm-up loads through the cached service methods so entries get their normal keys and TTLs
+    @Autowired
+    @Lazy
+    private ReportService reportService;
+
+    @Autowired
+    @Lazy
+    private ScheduleService scheduleService;
+
+    @Autowired
+    @Lazy
+    private SemesterService semesterService;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @PostConstruct
+    void initCacheInvalidation() {
+        subscribeToCacheInvalidationEvents();
+    }
+
     // Cache Invalidation Implementation
 
     @Override
@@ -106,7 +221,7 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public void invalidateCacheEntriesByPattern(String cacheName, String pattern) {
-        if (redisTemplate == null) {
+        if (cacheTagIndex == null) {
             logger.debug("Redis not available, skipping pattern invalidation");
             return;
         }
@@ -114,16 +229,46 @@ public class CacheServiceImpl implements CacheService {
         logger.info("Invalidating cache entries by pattern - cache: {}, pattern: {}", cacheName, pattern);
 
         try {
-            Set<String> keys = redisTemplate.keys(cacheName + "::" + pattern);
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                logger.info("Successfully invalidated {} cache entries by pattern", keys.size());
+            long deleted = cacheTagIndex.deleteMatching(CacheTagIndex.redisKey(cacheName, pattern));
+            if (deleted > 0) {
+                clearLocalTier(cacheName);
+                logger.info("Successfully invalidated {} cache entries by pattern", deleted);
             }
         } catch (Exception e) {
             logger.error("Failed to invalidate cache entries by pattern - cache: {}, pattern: {}", cacheName, pattern, e);
         }
     }
 
+    /**
+     * Invalidate every cache entry tagged with an entity (see {@link CacheTags})
+     * Entries written before tagging was enabled are found with a SCAN per cache until they have expired.
+     */
+    private void invalidateTaggedEntries(String entity, Long id) {
+        Map<String, String> keyGlobs = CacheTags.keyGlobs(entity, id);
+        if (cacheTagIndex == null) {
+            // In-process caches are cheap to clear and have no tag index
+            keyGlobs.keySet().forEach(this::invalidateCache);
+            return;
+        }
+
+        try {
+            Set<String> affectedCaches = new TreeSet<>();
+            Set<String> deletedKeys = cacheTagIndex.invalidate(CacheTags.tag(entity, id));
+            deletedKeys.forEach(key -> affectedCaches.add(CacheTagIndex.cacheName(key)));
+            if (cacheTagIndex.isLegacyScanNeeded()) {
+                keyGlobs.forEach((cacheName, glob) -> {
+                    if (cacheTagIndex.deleteMatching(CacheTagIndex.redisKey(cacheName, glob)) > 0) {
+                        affectedCaches.add(cacheName);
+                    }
+                });
+            }
+            affectedCaches.forEach(this::clearLocalTier);
+            logger.debug("Invalidated {} tagged cache entries for {}:{}", deletedKeys.size(), entity, id);
+        } catch (Exception e) {
+            logger.error("Failed to invalidate tagged cache entries for {}:{}", entity, id, e);
+        }
+    }
+
     // User-related cache invalidation
 
     @Override
@@ -173,6 +318,7 @@ public class CacheServiceImpl implements CacheService {
             invalidateCacheEntry("studentProfiles", "profile:" + studentId);
             invalidateCacheEntry("transcripts", "transcript:" + studentId);
             invalidateCacheEntry("grades", "grades:" + studentId);
+            invalidateTaggedEntries("student", studentId);
             
             // Invalidate attendance caches
             invalidateAttendanceCaches(studentId);
@@ -196,6 +342,7 @@ public class CacheServiceImpl implements CacheService {
             // Invalidate class-specific caches
             invalidateCacheEntry("classRooms", "class:" + classRoomId);
             invalidateCacheEntry("studentsByClass", "class:" + classRoomId);
+            invalidateTaggedEntries("class", classRoomId);
             
             // Invalidate related report caches
             invalidatePerformanceReportCaches();
@@ -208,6 +355,21 @@ public class CacheServiceImpl implements CacheService {
         }
     }
 
+    @Override
+    public void invalidateSubjectCaches(Long subjectId) {
+        logger.info("Invalidating subject caches for subject: {}", subjectId);
+        
+        try {
+            invalidateCacheEntry("subjects", "subject:" + subjectId);
+            invalidateTaggedEntries("subject", subjectId);
+            invalidatePerformanceReportCaches();
+            
+            logger.info("Successfully invalidated subject caches for subject: {}", subjectId);
+        } catch (Exception e) {
+            logger.error("Failed to invalidate subject caches for subject: {}", subjectId, e);
+        }
+    }
+
     @Override
     public void invalidateAllStudentCaches() {
         logger.info("Invalidating all student caches");
@@ -435,6 +597,17 @@ public class CacheServiceImpl implements CacheService {
                 Set<String> keys = getCacheKeys(cacheName);
                 statistics.put("keyCount", keys.size());
                 statistics.put("sampleKeys", keys.stream().limit(10).collect(Collectors.toList()));
+
+                CacheMetrics metrics = cacheMetrics(cacheName);
+                if (metrics != null) {
+                    statistics.put("hitRatio", metrics.getHitRatio());
+                    statistics.put("metrics", metrics.snapshot());
+                }
+
+                TinyLfuCache localCache = InstrumentedCacheManager.unwrap(cache, TinyLfuCache.class);
+                if (localCache != null) {
+                    statistics.put("local", localCache.getStats());
+                }
                 
             } else {
                 statistics.put("error", "Cache not found");
@@ -450,14 +623,16 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public Long getCacheSize(String cacheName) {
-        if (redisTemplate == null) {
-            logger.debug("Redis not available, returning 0 for cache size");
-            return 0L;
+        if (cacheTagIndex == null) {
+            Cache cache = cacheManager.getCache(cacheName);
+            TinyLfuCache localCache = cache != null ? InstrumentedCacheManager.unwrap(cache, TinyLfuCache.class) : null;
+            return localCache != null ? (long) localCache.size() : 0L;
         }
 
         try {
-            Set<String> keys = redisTemplate.keys(cacheName + "::*");
-            return keys != null ? (long) keys.size() : 0L;
+            long[] size = new long[1];
+            cacheTagIndex.scan(CacheTagIndex.redisKey(cacheName, "*"), key -> size[0]++);
+            return size[0];
         } catch (Exception e) {
             logger.error("Failed to get cache size for cache: {}", cacheName, e);
             return 0L;
@@ -471,16 +646,16 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public Set<String> getCacheKeys(String cacheName) {
-        if (redisTemplate == null) {
+        if (cacheTagIndex == null) {
             logger.debug("Redis not available, returning empty set for cache keys");
             return new HashSet<>();
         }
 
         try {
-            Set<String> keys = redisTemplate.keys(cacheName + "::*");
-            return keys != null ? keys.stream()
-                .map(key -> key.substring((cacheName + "::").length()))
-                .collect(Collectors.toSet()) : new HashSet<>();
+            String prefix = CacheTagIndex.redisKey(cacheName, "");
+            Set<String> keys = new HashSet<>();
+            cacheTagIndex.scan(prefix + "*", key -> keys.add(key.substring(prefix.length())));
+            return keys;
         } catch (Exception e) {
             logger.error("Failed to get cache keys for cache: {}", cacheName, e);
             return new HashSet<>();
@@ -637,25 +812,558 @@ public class CacheServiceImpl implements CacheService {
         return info;
     }
 
+    // Cache Warming Implementation
+
+    /**
+     * Warm the caches in the background once the application accepts traffic
+     * With shared Redis caches only the first node to start within the time budget warms them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!warmupOnStartup) {
+            return;
+        }
+        if (stringRedisTemplate != null) {
+            try {
+                Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(WARMUP_LOCK_KEY, nodeId,
+                    Duration.ofSeconds(Math.max(1, warmupTimeBudgetSeconds)));
+                if (!Boolean.TRUE.equals(acquired)) {
+                    logger.info("Skipping startup cache warm-up: another node is warming the shared caches");
+                    return;
+                }
+            } catch (Exception e) {
+                logger.warn("Could not take the cache warm-up lock, warming anyway: {}", e.getMessage());
+            }
+        }
+        startCacheWarmup();
+    }
+
+    @Override
+    public void warmUpCaches() {
+        CacheWarmup warmup = registerWarmup("all", allTiers());
+        if (warmup != null) {
+            warmup.run();
+        }
+    }
+
+    @Override
+    public Map<String, Object> startCacheWarmup() {
+        CacheWarmup warmup = registerWarmup("all", allTiers());
+        if (warmup != null) {
+            Thread thread = new Thread(warmup::run, "cache-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return getCacheWarmupStatus();
+    }
+
+    @Override
+    public void warmUpUserCaches() {
+        runWarmup("users", List.of(new CacheWarmup.Tier("teacherTimetables",
+            () -> withCurrentSemester(semester -> teacherTimetableTasks(semester, todaysSlots(semester))))));
+    }
+
+    @Override
+    public void warmUpStudentCaches() {
+        runWarmup("students", List.of(transcriptTier()));
+    }
+
+    @Override
+    public void warmUpReferenceDataCaches() {
+        runWarmup("referenceData", List.of(referenceDataTier()));
+    }
+
+    @Override
+    public void warmUpDashboardCaches() {
+        runWarmup("dashboards", List.of(new CacheWarmup.Tier("dashboards",
+            () -> withCurrentSemester(this::dashboardTasks))));
+    }
+
+    @Override
+    public Map<String, Object> getCacheWarmupStatus() {
+        CacheWarmup warmup = lastWarmup.get();
+        if (warmup == null) {
+            Map<String, Object> status = new HashMap<>();
+            status.put("status", "NEVER_RUN");
+            return status;
+        }
+        return warmup.snapshot();
+    }
+
+    private void runWarmup(String name, List<CacheWarmup.Tier> tiers) {
+        CacheWarmup warmup = registerWarmup(name, tiers);
+        if (warmup != null) {
+            warmup.run();
+        }
+    }
+
+    /**
+     * Make a new warm-up the current one, or return null while another one is pending or running
+     */
+    private CacheWarmup registerWarmup(String name, List<CacheWarmup.Tier> tiers) {
+        CacheWarmup warmup = new CacheWarmup(name, tiers, warmupThreads, Duration.ofSeconds(warmupTimeBudgetSeconds));
+        CacheWarmup current = lastWarmup.get();
+        boolean busy = current != null
+            && (current.isRunning() || current.getStatus() == CacheWarmup.Status.PENDING);
+        if (busy || !lastWarmup.compareAndSet(current, warmup)) {
+            logger.info("Cache warm-up '{}' is already running, not starting '{}'", current != null ? current.getName() : "?", name);
+            return null;
+        }
+        logger.info("Starting cache warm-up '{}' with {} tiers", name, tiers.size());
+        return warmup;
+    }
+
+    private List<CacheWarmup.Tier> allTiers() {
+        return List.of(referenceDataTier(), todayTier(), transcriptTier());
+    }
+
+    /**
+     * Tier 1: schedule listings of every active class for the current semester
+     */
+    private CacheWarmup.Tier referenceDataTier() {
+        return new CacheWarmup.Tier("referenceData", () -> withCurrentSemester(semester ->
+            activeClassRoomIds().stream()
+                .map(classRoomId -> new CacheWarmup.Task("schedules:" + classRoomId,
+                    () -> scheduleService.getSchedulesByClassRoom(classRoomId, semester.getAcademicYear(),
+                        semester.getSemesterNumber())))
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Tier 2: timetables of the classes and teachers with lessons today, then the dashboard reports
+     */
+    private CacheWarmup.Tier todayTier() {
+        return new CacheWarmup.Tier("todayTimetablesAndDashboards", () -> withCurrentSemester(semester -> {
+            List<Object[]> slots = todaysSlots(semester);
+            List<CacheWarmup.Task> tasks = new ArrayList<>();
+            slots.stream().map(slot -> (Long) slot[1]).filter(Objects::nonNull).distinct()
+                .forEach(classRoomId -> tasks.add(new CacheWarmup.Task("classTimetable:" + classRoomId,
+                    () -> scheduleService.generateClassTimetable(classRoomId, semester.getAcademicYear(),
+                        semester.getSemesterNumber()))));
+            tasks.addAll(teacherTimetableTasks(semester, slots));
+            tasks.addAll(dashboardTasks(semester));
+            return tasks;
+        }));
+    }
+
+    /**
+     * Tier 3: transcripts of active students, the most read ones first
+     */
+    private CacheWarmup.Tier transcriptTier() {
+        return new CacheWarmup.Tier("studentTranscripts", () -> withCurrentSemester(semester -> {
+            String keySuffix = "_" + semester.getAcademicYear() + "_" + semester.getSemesterNumber();
+            Set<Long> studentIds = new LinkedHashSet<>();
+            CacheMetrics metrics = cacheMetrics("studentTranscripts");
+            if (metrics != null) {
+                for (HotKeyTracker.HotKey hotKey : metrics.getHotKeys(Integer.MAX_VALUE)) {
+                    String key = hotKey.getKey();
+                    if (key.endsWith(keySuffix)) {
+                        try {
+                            studentIds.add(Long.valueOf(key.substring(0, key.length() - keySuffix.length())));
+                        } catch (NumberFormatException e) {
+                            // not a transcript key of this semester
+                        }
+                    }
+                }
+            }
+            studentIds.addAll(studentRepository.findActiveStudentIds());
+            return studentIds.stream()
+                .map(studentId -> new CacheWarmup.Task("transcript:" + studentId,
+                    () -> reportService.generateStudentTranscript(studentId, semester.getAcademicYear(),
+                        semester.getSemesterNumber())))
+                .collect(Collectors.toList());
+        }));
+    }
+
+    private List<CacheWarmup.Task> teacherTimetableTasks(SemesterResponse semester, List<Object[]> slots) {
+        return slots.stream().map(slot -> (Long) slot[2]).filter(Objects::nonNull).distinct()
+            .map(teacherId -> new CacheWarmup.Task("teacherTimetable:" + teacherId,
+                () -> scheduleService.generateTeacherTimetable(teacherId, semester.getAcademicYear(),
+                    semester.getSemesterNumber())))
+            .collect(Collectors.toList());
+    }
+
+    private List<CacheWarmup.Task> dashboardTasks(SemesterResponse semester) {
+        List<CacheWarmup.Task> tasks = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        tasks.add(new CacheWarmup.Task("dailyAttendanceSummary:" + today,
+            () -> reportService.generateDailyAttendanceSummary(today)));
+        tasks.add(new CacheWarmup.Task("gradeDistribution",
+            () -> reportService.generateGradeDistributionReport(semester.getAcademicYear(), semester.getSemesterNumber())));
+        for (Long classRoomId : activeClassRoomIds()) {
+            tasks.add(new CacheWarmup.Task("classPerformance:" + classRoomId,
+                () -> reportService.generateClassPerformanceReport(classRoomId, semester.getAcademicYear(),
+                    semester.getSemesterNumber())));
+        }
+        return tasks;
+    }
+
+    /**
+     * Slot rows of today's lessons: [scheduleId, classRoomId, teacherId, dayOfWeek, startTime, endTime]
+     */
+    private List<Object[]> todaysSlots(SemesterResponse semester) {
+        DayOfWeek today = LocalDate.now().getDayOfWeek();
+        return scheduleRepository.findActiveSlotRowsByPeriod(semester.getAcademicYear(), semester.getSemesterNumber())
+            .stream()
+            .filter(slot -> today.equals(slot[3]))
+            .collect(Collectors.toList());
+    }
+
+    private List<Long> activeClassRoomIds() {
+        return classRoomRepository.findByIsActiveTrue().stream()
+            .map(ClassRoom::getId)
+            .collect(Collectors.toList());
+    }
+
+    private List<CacheWarmup.Task> withCurrentSemester(
+            Function<SemesterResponse, List<CacheWarmup.Task>> tasks) {
+        Optional<SemesterResponse> semester = semesterService.getCurrentSemester();
+        if (semester.isEmpty()) {
+            logger.info("No current semester, nothing to warm up");
+            return new ArrayList<>();
+        }
+        return tasks.apply(semester.get());
+    }
+
+    @Override
+    public void cleanupExpiredEntries() {
+        // Redis expires its own keys; only in-process caches need sweeping
+        int removed = 0;
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            TinyLfuCache localCache = cache != null ? InstrumentedCacheManager.unwrap(cache, TinyLfuCache.class) : null;
+            if (localCache != null) {
+                removed += localCache.cleanUp();
+            }
+        }
+        logger.info("Removed {} expired in-process cache entries", removed);
+    }
+
+    // Cache Snapshot Implementation
+
+    /**
+     * Restore the last snapshot before the application accepts traffic
+     */
+    @PostConstruct
+    void restoreSnapshotOnStartup() {
+        if (snapshotEnabled && !Paths.get(snapshotPath).isAbsolute()) {
+            // A relative path depends on the working directory and may be shared by several instances
+            logger.warn("Cache snapshot disabled: app.cache.snapshot.file must be an absolute path, got '{}'",
+                snapshotPath);
+            snapshotEnabled = false;
+        }
+        if (snapshotEnabled && !localCaches().isEmpty()) {
+            restoreCacheData(Collections.emptyMap());
+        }
+    }
+
+    /**
+     * Snapshot the in-process caches on graceful shutdown
+     */
+    @PreDestroy
+    void backupSnapshotOnShutdown() {
+        if (snapshotEnabled && !localCaches().isEmpty()) {
+            backupCacheData(Collections.emptyList());
+        }
+    }
+
+    /**
+     * Write the in-process caches with declared entity dependencies to the snapshot file
+     * Caches that cannot be validated on restore (no declared dependencies, or a dependency written by
+     * bulk statements) are not written.
+     *
+     * @param cacheNames caches to write; all when empty
+     */
+    @Override
+    public Map<String, Object> backupCacheData(List<String> cacheNames) {
+        Map<String, Object> result = new HashMap<>();
+        List<TinyLfuCache> caches = new ArrayList<>();
+        Set<String> entities = new TreeSet<>();
+        localCaches().forEach((name, cache) -> {
+            if ((cacheNames == null || cacheNames.isEmpty() || cacheNames.contains(name))
+                    && CachePolicies.isSnapshotSafe(name)) {
+                caches.add(cache);
+                entities.addAll(CachePolicies.entityDependencies(name));
+            }
+        });
+        if (caches.isEmpty()) {
+            result.put("status", "SKIPPED");
+            result.put("message", "No in-process caches to snapshot");
+            return result;
+        }
+
+        CacheSnapshotFile snapshotFile = snapshotFile(snapshotPath);
+        try {
+            CacheSnapshotFile.WriteResult written = snapshotFile.write(caches, entityVersionStamps(entities));
+            result.put("status", "SUCCESS");
+            result.put("file", snapshotFile.getFile().toString());
+            result.put("createdAt", written.getCreatedAt().toString());
+            result.put("entries", written.getEntries());
+            result.put("skippedEntries", written.getSkipped());
+            result.put("bytes", written.getBytes());
+            logger.info("Wrote cache snapshot {} with {} entries ({} bytes)", snapshotFile.getFile(),
+                written.getEntries().values().stream().mapToInt(Integer::intValue).sum(), written.getBytes());
+        } catch (Exception e) {
+            logger.error("Failed to write cache snapshot {}", snapshotFile.getFile(), e);
+            result.put("status", "FAILED");
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Restore the snapshot file ("file" in the backup data, else the configured file)
+     * A cache's entries are restored only while every entity it depends on has the version stamp it had
+     * when the snapshot was written; entries that expired in the meantime are dropped.
+     */
+    @Override
+    public void restoreCacheData(Map<String, Object> backupData) {
+        Object file = backupData != null ? backupData.get("file") : null;
+        CacheSnapshotFile snapshotFile = snapshotFile(file != null ? file.toString() : snapshotPath);
+        try {
+            CacheSnapshotFile.Snapshot snapshot = snapshotFile.open();
+            if (snapshot == null) {
+                logger.info("No cache snapshot to restore at {}", snapshotFile.getFile());
+                return;
+            }
+            Map<String, String> savedStamps = snapshot.getStamps();
+            Map<String, String> currentStamps = entityVersionStamps(savedStamps.keySet());
+            Map<String, TinyLfuCache> targets = new HashMap<>();
+            CacheSnapshotFile.ReadResult restored = snapshot.read(
+                cacheName -> {
+                    List<String> entities = CachePolicies.entityDependencies(cacheName);
+                    return CachePolicies.isSnapshotSafe(cacheName) && entities.stream().allMatch(entity ->
+                        savedStamps.containsKey(entity) && savedStamps.get(entity).equals(currentStamps.get(entity)));
+                },
+                (cacheName, key, value, remainingTtl) -> {
+                    TinyLfuCache cache = targets.computeIfAbsent(cacheName, this::localCache);
+                    if (cache != null) {
+                        cache.put(key, value, remainingTtl);
+                    }
+                });
+            logger.info("Restored {} cache entries from snapshot of {}: {}; changed data: {}, expired: {}, stale schema: {}",
+                restored.getRestoredCount(), snapshot.getCreatedAt(), restored.getRestored(), restored.getRejected(),
+                restored.getExpired(), restored.getStale());
+        } catch (Exception e) {
+            logger.warn("Failed to restore cache snapshot {}: {}", snapshotFile.getFile(), e.getMessage());
+        }
+    }
+
+    private CacheSnapshotFile snapshotFile(String path) {
+        if (path == null || !Paths.get(path).isAbsolute()) {
+            throw new IllegalArgumentException("Cache snapshot file must be an absolute path: " + path);
+        }
+        JsonCacheValueCodec jsonCodec = new JsonCacheValueCodec(JsonCacheValueCodec.createTypedSerializer());
+        return new CacheSnapshotFile(Paths.get(path),
+            new VersionedCacheValueSerializer(new CompactBinaryCodec(), jsonCodec, codecSchemaVersion, compressionThreshold));
+    }
+
+    /**
+     * Row count and latest update time of each entity; inserts, deletes and JPA updates (which set updatedAt)
+     * change the stamp, bulk statements may not (see CachePolicies#isSnapshotSafe)
+     */
+    private Map<String, String> entityVersionStamps(Collection<String> entities) {
+        Map<String, String> stamps = new TreeMap<>();
+        for (String entity : entities) {
+            Object[] row = (Object[]) entityManager
+                .createQuery("SELECT COUNT(e), MAX(e.updatedAt) FROM " + entity + " e")
+                .getSingleResult();
+            stamps.put(entity, row[0] + "@" + row[1]);
+        }
+        return stamps;
+    }
+
+    /**
+     * In-process TinyLFU caches by name; empty when the caches live in Redis
+     */
+    private Map<String, TinyLfuCache> localCaches() {
+        Map<String, TinyLfuCache> caches = new TreeMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            TinyLfuCache cache = localCache(cacheName);
+            if (cache != null) {
+                caches.put(cacheName, cache);
+            }
+        }
+        return caches;
+    }
+
+    private TinyLfuCache localCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null ? InstrumentedCacheManager.unwrap(cache, TinyLfuCache.class) : null;
+    }
+
     // Placeholder implementations for remaining interface methods
-    @Override public void warmUpCaches() { logger.info("Cache warm-up not implemented yet"); }
-    @Override public void warmUpUserCaches() { logger.info("User cache warm-up not implemented yet"); }
-    @Override public void warmUpStudentCaches() { logger.info("Student cache warm-up not implemented yet"); }
-    @Override public void warmUpReferenceDataCaches() { logger.info("Reference data cache warm-up not implemented yet"); }
-    @Override public void warmUpDashboardCaches() { logger.info("Dashboard cache warm-up not implemented yet"); }
-    @Override public Double getCacheHitRatio(String cacheName) { return 0.0; }
-    @Override public void cleanupExpiredEntries() { logger.info("Cache cleanup not implemented yet"); }
     @Override public void optimizeCacheMemory() { logger.info("Cache memory optimization not implemented yet"); }
-    @Override public Map<String, Object> backupCacheData(List<String> cacheNames) { return new HashMap<>(); }
-    @Override public void restoreCacheData(Map<String, Object> backupData) { logger.info("Cache restore not implemented yet"); }
     @Override public void updateCacheTTL(String cacheName, Long ttlSeconds) { logger.info("Cache TTL update not implemented yet"); }
     @Override public Map<String, Object> getCacheConfiguration(String cacheName) { return new HashMap<>(); }
     @Override public void updateCacheConfiguration(String cacheName, Map<String, Object> config) { logger.info("Cache config update not implemented yet"); }
-    @Override public void publishCacheInvalidationEvent(String cacheName, String key) { logger.info("Cache invalidation event publishing not implemented yet"); }
-    @Override public void subscribeToCacheInvalidationEvents() { logger.info("Cache invalidation event subscription not implemented yet"); }
     @Override public void synchronizeCache(String cacheName) { logger.info("Cache synchronization not implemented yet"); }
-    @Override public Map<String, Object> getCachePerformanceMetrics() { return new HashMap<>(); }
-    @Override public List<Map<String, Object>> getMostAccessedCacheEntries(String cacheName, Integer limit) { return new ArrayList<>(); }
-    @Override public Map<String, Object> getCacheAccessPatterns(String cacheName) { return new HashMap<>(); }
-    @Override public Map<String, Object> generateCacheUsageReport() { return new HashMap<>(); }
+
+    // Distributed Cache Operations Implementation
+
+    @Override
+    public void publishCacheInvalidationEvent(String cacheName, String key) {
+        if (stringRedisTemplate == null) {
+            return;
+        }
+
+        try {
+            String message = nodeId + INVALIDATION_SEPARATOR + cacheName
+                + (key != null ? INVALIDATION_SEPARATOR + key : "");
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            // Other nodes fall back to the bounded L1 TTL
+            logger.warn("Failed to publish cache invalidation - cache: {}, key: {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribeToCacheInvalidationEvents() {
+        TwoLevelCacheManager twoLevelCacheManager = twoLevelCacheManager();
+        if (listenerContainer == null || twoLevelCacheManager == null) {
+            logger.debug("No two-level cache in use, skipping cache invalidation subscription");
+            return;
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            return;
+        }
+
+        twoLevelCacheManager.setInvalidationPublisher(this::publishCacheInvalidationEvent);
+        listenerContainer.addMessageListener(
+            (message, pattern) -> onCacheInvalidationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(INVALIDATION_CHANNEL));
+        logger.info("Subscribed to cache invalidation events as node {}", nodeId);
+    }
+
+    /**
+     * Drop the in-process copies of a cache on every node after keys were deleted in Redis directly
+     */
+    private void clearLocalTier(String cacheName) {
+        TwoLevelCacheManager twoLevelCacheManager = twoLevelCacheManager();
+        if (twoLevelCacheManager != null) {
+            twoLevelCacheManager.evictLocal(cacheName, null);
+            publishCacheInvalidationEvent(cacheName, null);
+        }
+    }
+
+    private void onCacheInvalidationMessage(String message) {
+        String[] parts = message.split("\\" + INVALIDATION_SEPARATOR, 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        twoLevelCacheManager().evictLocal(parts[1], parts.length == 3 ? parts[2] : null);
+        logger.debug("Applied cache invalidation from node {} - cache: {}", parts[0], parts[1]);
+    }
+
+    // Cache Analytics Implementation
+
+    @Override
+    public Double getCacheHitRatio(String cacheName) {
+        CacheMetrics metrics = cacheMetrics(cacheName);
+        return metrics != null ? metrics.getHitRatio() : 0.0;
+    }
+
+    @Override
+    public Map<String, Object> getCachePerformanceMetrics() {
+        Map<String, Object> performance = new HashMap<>();
+        InstrumentedCacheManager instrumented = instrumentedCacheManager();
+        if (instrumented == null) {
+            performance.put("error", "Cache metrics not available");
+            return performance;
+        }
+
+        long hits = 0;
+        long misses = 0;
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (Map.Entry<String, CacheMetrics> entry : instrumented.getAllMetrics().entrySet()) {
+            hits += entry.getValue().getHits();
+            misses += entry.getValue().getMisses();
+            caches.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        performance.put("totalHits", hits);
+        performance.put("totalMisses", misses);
+        performance.put("overallHitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        performance.put("caches", caches);
+        performance.put("timestamp", System.currentTimeMillis());
+        return performance;
+    }
+
+    @Override
+    public List<Map<String, Object>> getMostAccessedCacheEntries(String cacheName, Integer limit) {
+        CacheMetrics metrics = cacheMetrics(cacheName);
+        if (metrics == null) {
+            return new ArrayList<>();
+        }
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        int rank = 1;
+        for (HotKeyTracker.HotKey hotKey : metrics.getHotKeys(limit != null ? limit : DEFAULT_HOT_KEY_LIMIT)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", rank++);
+            entry.put("key", hotKey.getKey());
+            entry.put("estimatedAccesses", hotKey.getEstimatedAccesses());
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    @Override
+    public Map<String, Object> getCacheAccessPatterns(String cacheName) {
+        Map<String, Object> patterns = new HashMap<>();
+        CacheMetrics metrics = cacheMetrics(cacheName);
+        if (metrics == null) {
+            patterns.put("error", "No metrics recorded for cache: " + cacheName);
+            return patterns;
+        }
+
+        long reads = metrics.getHits() + metrics.getMisses();
+        patterns.put("cacheName", cacheName);
+        patterns.put("reads", reads);
+        patterns.put("writes", metrics.getPuts());
+        patterns.put("readWriteRatio", metrics.getPuts() > 0 ? (double) reads / metrics.getPuts() : null);
+        patterns.put("evictionsPerWrite", metrics.getPuts() > 0 ? (double) metrics.getEvictions() / metrics.getPuts() : null);
+        patterns.putAll(metrics.snapshot());
+        patterns.put("hotKeys", getMostAccessedCacheEntries(cacheName, DEFAULT_HOT_KEY_LIMIT));
+        return patterns;
+    }
+
+    @Override
+    public Map<String, Object> generateCacheUsageReport() {
+        Map<String, Object> report = getCachePerformanceMetrics();
+        InstrumentedCacheManager instrumented = instrumentedCacheManager();
+        if (instrumented == null) {
+            return report;
+        }
+
+        // Caches that are read often but rarely hit are candidates for a longer TTL or removal
+        List<String> lowHitRatioCaches = instrumented.getAllMetrics().values().stream()
+            .filter(metrics -> metrics.getHits() + metrics.getMisses() >= LOW_HIT_RATIO_MIN_READS)
+            .filter(metrics -> metrics.getHitRatio() < LOW_HIT_RATIO_THRESHOLD)
+            .map(CacheMetrics::getCacheName)
+            .collect(Collectors.toList());
+        Set<String> unusedCaches = new TreeSet<>(cacheManager.getCacheNames());
+        unusedCaches.removeAll(instrumented.getAllMetrics().keySet());
+
+        report.put("lowHitRatioCaches", lowHitRatioCaches);
+        report.put("unusedCaches", unusedCaches);
+        return report;
+    }
+
+    private InstrumentedCacheManager instrumentedCacheManager() {
+        return cacheManager instanceof InstrumentedCacheManager instrumented ? instrumented : null;
+    }
+
+    private TwoLevelCacheManager twoLevelCacheManager() {
+        CacheManager target = cacheManager instanceof InstrumentedCacheManager instrumented
+            ? instrumented.getDelegate() : cacheManager;
+        if (target instanceof CoalescingCacheManager coalescing) {
+            target = coalescing.getDelegate();
+        }
+        return target instanceof TwoLevelCacheManager twoLevel ? twoLevel : null;
+    }
+
+    private CacheMetrics cacheMetrics(String cacheName) {
+        InstrumentedCacheManager instrumented = instrumentedCacheManager();
+        return instrumented != null ? instrumented.getMetrics(cacheName) : null;
+    }
 }
@@ -0,0 +1,287 @@
+package com.simsekolah.service.impl;
+
+import com.simsekolah.entity.Assessment;
+import com.simsekolah.entity.StudentAssessment;
+import com.simsekolah.entity.StudentGpaSnapshot;
+import com.simsekolah.event.SnapshotChangedEvent;
+import com.simsekolah.repository.StudentAssessmentRepository;
+import com.simsekolah.repository.StudentGpaSnapshotRepository;
+import com.simsekolah.service.GpaSnapshotService;
+import com.simsekolah.util.GradeScale;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of GpaSnapshotService
+ * Grade writes apply the difference between the old and new contribution of a score
+ * (grade points x credit hours) with a single UPDATE statement; structural changes to an
+ * assessment fall back to recomputing the affected snapshots from student_assessments
+ */
+@Service
+@Transactional
+public class GpaSnapshotServiceImpl implements GpaSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GpaSnapshotServiceImpl.class);
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    @Autowired
+    private StudentGpaSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private StudentAssessmentRepository studentAssessmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reports.gpa-snapshot.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    // First grade of a period creates its empty snapshot row outside the grade transaction
+    private TransactionTemplate createTransaction;
+
+    @PostConstruct
+    public void initTransactions() {
+        createTransaction = new TransactionTemplate(transactionManager);
+        createTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void recordGrade(StudentAssessment studentAssessment, BigDecimal previousScore) {
+        Assessment assessment = studentAssessment.getAssessment();
+        int credits = creditsOf(assessment);
+
+        BigDecimal points = contribution(studentAssessment.getScore(), assessment, credits)
+                .subtract(contribution(previousScore, assessment, credits));
+        int creditDelta = (studentAssessment.getScore() != null ? credits : 0) - (previousScore != null ? credits : 0);
+        int countDelta = (studentAssessment.getScore() != null ? 1 : 0) - (previousScore != null ? 1 : 0);
+
+        applyDelta(studentAssessment.getStudent().getId(), assessment, points, creditDelta, countDelta);
+    }
+
+    @Override
+    public void refreshStudents(Collection<Long> studentIds, String academicYear, Integer semester) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return;
+        }
+        snapshotRepository.deleteByStudentsAndPeriod(studentIds, academicYear, semester);
+        List<Object[]> rows = studentAssessmentRepository.sumGradePointsByStudentsAndPeriod(
+                studentIds, academicYear, semester);
+        snapshotRepository.saveAll(toSnapshots(rows, academicYear, semester));
+        eventPublisher.publishEvent(new SnapshotChangedEvent(List.copyOf(studentIds), academicYear, semester));
+        logger.debug("Refreshed GPA snapshots of {} students for {}-{}", studentIds.size(), academicYear, semester);
+    }
+
+    @Override
+    public int rebuildSnapshots(String academicYear, Integer semester) {
+        logger.info("Rebuilding GPA snapshots for {}-{}", academicYear, semester);
+        snapshotRepository.deleteByPeriod(academicYear, semester);
+        List<StudentGpaSnapshot> snapshots = toSnapshots(
+                studentAssessmentRepository.sumGradePointsByPeriod(academicYear, semester), academicYear, semester);
+        snapshotRepository.saveAll(snapshots);
+        eventPublisher.publishEvent(new SnapshotChangedEvent(null, academicYear, semester));
+        logger.info("Rebuilt {} GPA snapshots for {}-{}", snapshots.size(), academicYear, semester);
+        return snapshots.size();
+    }
+
+    @Override
+    public Map<String, Integer> rebuildIncompletePeriods() {
+        Map<String, Long> snapshotCounts = new HashMap<>();
+        for (Object[] row : snapshotRepository.sumAssessmentCountsByPeriod()) {
+            snapshotCounts.put(row[0] + "-" + row[1], ((Number) row[2]).longValue());
+        }
+        Map<String, Integer> rebuilt = new LinkedHashMap<>();
+        for (Object[] row : studentAssessmentRepository.countScoredByPeriod()) {
+            String academicYear = (String) row[0];
+            Integer semester = ((Number) row[1]).intValue();
+            String period = academicYear + "-" + semester;
+            if (snapshotCounts.getOrDefault(period, 0L) != ((Number) row[2]).longValue()) {
+                rebuilt.put(period, rebuildSnapshots(academicYear, semester));
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Backfill periods graded before snapshots existed (or while they were out of step) so GPA readers,
+     * which only read snapshots, see every grade
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIncompletePeriodsOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            Map<String, Integer> rebuilt = rebuildIncompletePeriods();
+            if (!rebuilt.isEmpty()) {
+                logger.info("Backfilled GPA snapshots of periods {}", rebuilt.keySet());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to backfill GPA snapshots", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StudentGpaSnapshot> getSnapshot(Long studentId, String academicYear, Integer semester) {
+        return snapshotRepository.findByStudentIdAndAcademicYearAndSemester(studentId, academicYear, semester);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public double getStudentGpa(Long studentId, String academicYear, Integer semester) {
+        return getSnapshot(studentId, academicYear, semester).map(StudentGpaSnapshot::getGpa).orElse(0.0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, StudentGpaSnapshot> getClassSnapshots(Long classRoomId, String academicYear, Integer semester) {
+        return snapshotRepository.findByClassRoomAndPeriod(classRoomId, academicYear, semester).stream()
+                .collect(Collectors.toMap(StudentGpaSnapshot::getStudentId, Function.identity()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentGpaSnapshot> getTopSnapshots(String academicYear, Integer semester, int limit) {
+        return snapshotRepository.findRankedByPeriod(academicYear, semester, PageRequest.of(0, Math.max(limit, 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countGradedStudents(String academicYear, Integer semester) {
+        return snapshotRepository.countByAcademicYearAndSemesterAndAssessmentCountGreaterThan(academicYear, semester, 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentGpaSnapshot> getSnapshotsBelow(String academicYear, Integer semester, double threshold) {
+        return snapshotRepository.findBelowGpaByPeriod(academicYear, semester, BigDecimal.valueOf(threshold));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentGpaSnapshot> getStudentSnapshots(Long studentId) {
+        return snapshotRepository.findByStudentIdOrderByAcademicYearAscSemesterAsc(studentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal calculateCumulativeGpa(Long studentId) {
+        List<Object[]> rows = snapshotRepository.sumCumulativeByStudent(studentId);
+        if (rows.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal points = toBigDecimal(rows.get(0)[0]);
+        long credits = ((Number) rows.get(0)[1]).longValue();
+        return credits > 0 ? points.divide(BigDecimal.valueOf(credits), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
+    private void applyDelta(Long studentId, Assessment assessment, BigDecimal points, int credits, int count) {
+        if (points.signum() == 0 && credits == 0 && count == 0) {
+            // Same grade band: the GPA is unchanged but subject averages still moved
+            eventPublisher.publishEvent(new SnapshotChangedEvent(List.of(studentId), assessment.getAcademicYear(),
+                    assessment.getSemester(), false));
+            return;
+        }
+        if (!snapshotRepository.existsByStudentIdAndAcademicYearAndSemester(studentId, assessment.getAcademicYear(),
+                assessment.getSemester())) {
+            createEmptySnapshot(studentId, assessment.getAcademicYear(), assessment.getSemester());
+        }
+        int updated = snapshotRepository.applyDelta(studentId, assessment.getAcademicYear(), assessment.getSemester(),
+                points, credits, count, LocalDateTime.now());
+        if (updated == 0) {
+            // Only a concurrent refresh deleting the row gets here; that refresh recomputes from student_assessments
+            logger.warn("GPA snapshot of student {} for {}-{} vanished while applying a grade", studentId,
+                    assessment.getAcademicYear(), assessment.getSemester());
+        }
+        eventPublisher.publishEvent(new SnapshotChangedEvent(List.of(studentId), assessment.getAcademicYear(),
+                assessment.getSemester()));
+    }
+
+    /**
+     * Insert a zero snapshot in its own transaction so every grade, including the first of a period, lands through
+     * the same UPDATE; when concurrent first grades race, the losing insert hits the unique key and is ignored
+     * without marking the grade transaction rollback-only
+     */
+    private void createEmptySnapshot(Long studentId, String academicYear, Integer semester) {
+        try {
+            createTransaction.executeWithoutResult(status -> snapshotRepository.saveAndFlush(StudentGpaSnapshot.builder()
+                    .studentId(studentId)
+                    .academicYear(academicYear)
+                    .semester(semester)
+                    .updatedAt(LocalDateTime.now())
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("GPA snapshot of student {} for {}-{} was created concurrently", studentId, academicYear,
+                    semester);
+        }
+    }
+
+    private List<StudentGpaSnapshot> toSnapshots(List<Object[]> rows, String academicYear, Integer semester) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StudentGpaSnapshot> snapshots = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            snapshots.add(StudentGpaSnapshot.builder()
+                    .studentId(((Number) row[0]).longValue())
+                    .academicYear(academicYear)
+                    .semester(semester)
+                    .weightedPoints(toBigDecimal(row[1]).setScale(4, RoundingMode.HALF_UP))
+                    .totalCredits(((Number) row[2]).intValue())
+                    .assessmentCount(((Number) row[3]).intValue())
+                    .updatedAt(now)
+                    .build());
+        }
+        return snapshots;
+    }
+
+    private BigDecimal contribution(BigDecimal score, Assessment assessment, int credits) {
+        if (score == null) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal maxScore = assessment.getMaxScore() != null && assessment.getMaxScore().signum() > 0
+                ? assessment.getMaxScore() : BigDecimal.valueOf(GradeScale.DEFAULT_MAX_SCORE);
+        double percentage = score.multiply(HUNDRED).divide(maxScore, 4, RoundingMode.HALF_UP).doubleValue();
+        return BigDecimal.valueOf(GradeScale.gradePoints(percentage) * credits).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private int creditsOf(Assessment assessment) {
+        return assessment.getSubject() != null && assessment.getSubject().getSks() != null
+                ? assessment.getSubject().getSks() : 0;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,341 @@
+package com.simsekolah.service.impl;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.simsekolah.exception.ResourceNotFoundException;
+import com.simsekolah.repository.ClassRoomRepository;
+import com.simsekolah.repository.StudentRepository;
+import com.simsekolah.util.GradeScale;
+import com.simsekolah.service.ReportCardPdfService;
+import com.simsekolah.service.ReportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Implementation of ReportCardPdfService using iText
+ * Bulk output is rendered on a worker pool with a bounded window of in-flight documents and
+ * spooled to a temporary file, so memory stays flat regardless of how many students are in the
+ * class or grade.
+ */
+@Service
+public class ReportCardPdfServiceImpl implements ReportCardPdfService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCardPdfServiceImpl.class);
+
+    private static final float[] GRADE_TABLE_COLUMNS = {1, 6, 2, 2, 2};
+    private static final String[] GRADE_TABLE_HEADERS = {"No", "Subject", "Assessments", "Average (%)", "Grade"};
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    @Value("${app.school.name:}")
+    private String schoolName;
+
+    @Value("${app.school.address:}")
+    private String schoolAddress;
+
+    @Value("${app.school.phone:}")
+    private String schoolPhone;
+
+    @Value("${app.reports.pdf.worker-threads:4}")
+    private int workerThreads;
+
+    private ExecutorService pdfExecutor;
+
+    // Parsed once; a PdfFont is bound to one document, its FontProgram is not
+    private FontProgram regularFontProgram;
+    private FontProgram boldFontProgram;
+    private String schoolContactLine;
+
+    @PostConstruct
+    public void init() throws IOException {
+        regularFontProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        boldFontProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        schoolContactLine = String.join(" | ", nonBlank(schoolAddress, schoolPhone));
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        pdfExecutor = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "report-card-pdf-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pdfExecutor.shutdownNow();
+    }
+
+    @Override
+    public byte[] renderReportCard(Long studentId, String academicYear, Integer semester) {
+        logger.info("Rendering report card for student: {} for {}-{}", studentId, academicYear, semester);
+        return render(reportService.generateStudentTranscript(studentId, academicYear, semester));
+    }
+
+    @Override
+    public int writeClassReportCards(Long classRoomId, String academicYear, Integer semester,
+                                     OutputStream outputStream) {
+        if (!classRoomRepository.existsById(classRoomId)) {
+            throw new ResourceNotFoundException("Class room not found with ID: " + classRoomId);
+        }
+        List<Long> studentIds = studentRepository.findActiveStudentIdsByClassRoom(classRoomId);
+        logger.info("Streaming {} report cards for class: {} for {}-{}", studentIds.size(), classRoomId,
+                academicYear, semester);
+        return writeZip(studentIds, academicYear, semester, outputStream);
+    }
+
+    @Override
+    public int writeGradeReportCards(Integer gradeLevel, String academicYear, Integer semester,
+                                     OutputStream outputStream) {
+        List<Long> studentIds = studentRepository.findActiveStudentIdsByGrade(gradeLevel);
+        logger.info("Streaming {} report cards for grade: {} for {}-{}", studentIds.size(), gradeLevel,
+                academicYear, semester);
+        return writeZip(studentIds, academicYear, semester, outputStream);
+    }
+
+    /**
+     * Build the archive in a temporary file and copy it to the output only once it is complete, so a
+     * student that fails to render surfaces as an error before anything was sent instead of as a
+     * truncated download
+     */
+    private int writeZip(List<Long> studentIds, String academicYear, Integer semester, OutputStream outputStream) {
+        Path archive;
+        try {
+            archive = Files.createTempFile("report-cards-", ".zip");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create report card archive", e);
+        }
+        try {
+            int written = writeEntries(studentIds, academicYear, semester, archive);
+            Files.copy(archive, outputStream);
+            logger.info("Streamed {} report cards for {}-{}", written, academicYear, semester);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to send report card archive", e);
+        } finally {
+            try {
+                Files.deleteIfExists(archive);
+            } catch (IOException e) {
+                logger.warn("Could not delete temporary report card archive: {}", archive, e);
+            }
+        }
+    }
+
+    /**
+     * Render in parallel but write entries in submission order, keeping at most
+     * two documents per worker in memory at any time
+     */
+    private int writeEntries(List<Long> studentIds, String academicYear, Integer semester, Path archive) {
+        int window = Math.max(1, workerThreads * 2);
+        Deque<Future<RenderedReportCard>> pending = new ArrayDeque<>(window);
+        Iterator<Long> remaining = studentIds.iterator();
+        int written = 0;
+
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive)))) {
+            while (remaining.hasNext() || !pending.isEmpty()) {
+                while (remaining.hasNext() && pending.size() < window) {
+                    Long studentId = remaining.next();
+                    pending.addLast(pdfExecutor.submit(() -> renderEntry(studentId, academicYear, semester)));
+                }
+
+                RenderedReportCard reportCard = pending.removeFirst().get();
+                zip.putNextEntry(new ZipEntry(reportCard.entryName));
+                zip.write(reportCard.content);
+                zip.closeEntry();
+                written++;
+            }
+            zip.finish();
+        } catch (IOException e) {
+            pending.forEach(future -> future.cancel(true));
+            throw new UncheckedIOException("Failed to write report card archive", e);
+        } catch (InterruptedException e) {
+            pending.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Report card generation interrupted", e);
+        } catch (ExecutionException e) {
+            pending.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Report card generation failed", cause);
+        }
+        return written;
+    }
+
+    private RenderedReportCard renderEntry(Long studentId, String academicYear, Integer semester) {
+        Map<String, Object> transcript = reportService.generateStudentTranscript(studentId, academicYear, semester);
+        Map<String, Object> student = asMap(transcript.get("student"));
+
+        String folder = sanitize(Objects.toString(student.get("className"), "no-class"));
+        String fileName = sanitize(Objects.toString(student.get("nis"), String.valueOf(studentId)) + "_"
+                + Objects.toString(student.get("name"), ""));
+        return new RenderedReportCard(folder + "/" + fileName + ".pdf", render(transcript));
+    }
+
+    private byte[] render(Map<String, Object> transcript) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+        PdfDocument pdf = new PdfDocument(new PdfWriter(buffer, new WriterProperties().setFullCompressionMode(true)));
+        PdfFont regular = PdfFontFactory.createFont(regularFontProgram, PdfEncodings.WINANSI);
+        PdfFont bold = PdfFontFactory.createFont(boldFontProgram, PdfEncodings.WINANSI);
+
+        try (Document document = new Document(pdf, PageSize.A4)) {
+            document.setFont(regular).setFontSize(10);
+
+            document.add(new Paragraph(schoolName).setFont(bold).setFontSize(14)
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(0));
+            if (!schoolContactLine.isEmpty()) {
+                document.add(new Paragraph(schoolContactLine).setFontSize(8).setTextAlignment(TextAlignment.CENTER));
+            }
+            document.add(new Paragraph("STUDENT REPORT CARD").setFont(bold).setFontSize(12)
+                    .setTextAlignment(TextAlignment.CENTER).setMarginTop(10));
+
+            Map<String, Object> student = asMap(transcript.get("student"));
+            Table identity = new Table(UnitValue.createPercentArray(new float[]{3, 7})).useAllAvailableWidth();
+            addIdentityRow(identity, "Name", student.get("name"), bold);
+            addIdentityRow(identity, "NIS", student.get("nis"), bold);
+            addIdentityRow(identity, "Class", student.get("className"), bold);
+            addIdentityRow(identity, "Academic Year", transcript.get("academicYear"), bold);
+            addIdentityRow(identity, "Semester", transcript.get("semester"), bold);
+            document.add(identity.setMarginBottom(10));
+
+            Table grades = new Table(UnitValue.createPercentArray(GRADE_TABLE_COLUMNS)).useAllAvailableWidth();
+            for (String header : GRADE_TABLE_HEADERS) {
+                grades.addHeaderCell(new Cell().add(new Paragraph(header).setFont(bold))
+                        .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+            }
+            int row = 1;
+            for (Map.Entry<String, List<Map<String, Object>>> subject : sortedSubjects(transcript).entrySet()) {
+                double average = averagePercentage(subject.getValue());
+                grades.addCell(String.valueOf(row++));
+                grades.addCell(subject.getKey());
+                grades.addCell(String.valueOf(subject.getValue().size()));
+                grades.addCell(new Cell().add(new Paragraph(format(average))).setTextAlignment(TextAlignment.RIGHT));
+                grades.addCell(new Cell().add(new Paragraph(GradeScale.letterGrade(average))).setTextAlignment(TextAlignment.CENTER));
+            }
+            document.add(grades);
+
+            Map<String, Object> attendance = asMap(transcript.get("attendance"));
+            Table summary = new Table(UnitValue.createPercentArray(new float[]{3, 7})).useAllAvailableWidth()
+                    .setMarginTop(10);
+            addIdentityRow(summary, "GPA", format(toDouble(transcript.get("gpa"))), bold);
+            addIdentityRow(summary, "Total Credits", transcript.get("totalCredits"), bold);
+            addIdentityRow(summary, "Attendance", attendance.get("presentDays") + " / " + attendance.get("totalDays")
+                    + " days (" + format(toDouble(attendance.get("attendanceRate"))) + "%)", bold);
+            document.add(summary);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Helper methods
+
+    private void addIdentityRow(Table table, String label, Object value, PdfFont bold) {
+        table.addCell(new Cell().add(new Paragraph(label).setFont(bold)));
+        table.addCell(new Cell().add(new Paragraph(value != null ? value.toString() : "-")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<Map<String, Object>>> sortedSubjects(Map<String, Object> transcript) {
+        Object subjectGrades = transcript.get("subjectGrades");
+        if (!(subjectGrades instanceof Map)) {
+            return Collections.emptyMap();
+        }
+        return new TreeMap<>((Map<String, List<Map<String, Object>>>) subjectGrades);
+    }
+
+    private double averagePercentage(List<Map<String, Object>> grades) {
+        return grades.stream()
+                .mapToDouble(grade -> toDouble(grade.get("percentage")))
+                .average()
+                .orElse(0.0);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+
+    private double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.toString());
+            } catch (NumberFormatException e) {
+                return 0.0;
+            }
+        }
+        return 0.0;
+    }
+
+    private String format(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private String sanitize(String value) {
+        return value.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
+
+    private List<String> nonBlank(String... values) {
+        List<String> result = new ArrayList<>();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private static final class RenderedReportCard {
+        final String entryName;
+        final byte[] content;
+
+        RenderedReportCard(String entryName, byte[] content) {
+            this.entryName = entryName;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package com.simsekolah.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simsekolah.entity.ReportRun;
+import com.simsekolah.enums.ReportRunStatus;
+import com.simsekolah.exception.ReportJobUnavailableException;
+import com.simsekolah.exception.ResourceNotFoundException;
+import com.simsekolah.exception.ValidationException;
+import com.simsekolah.repository.ReportRunRepository;
+import com.simsekolah.service.ReportJobService;
+import com.simsekolah.service.ReportService;
+import com.simsekolah.util.ReportProgress;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of ReportJobService
+ * Identical requests (same report type and canonical parameters) are single-flighted:
+ * while a run is queued or running, later submissions join it instead of starting another.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobServiceImpl.class);
+
+    private static final List<String> SUPPORTED_REPORT_TYPES = List.of(
+            STUDENT_TRANSCRIPT, CLASS_PERFORMANCE, SUBJECT_PERFORMANCE, GRADE_DISTRIBUTION,
+            TOP_PERFORMERS, STUDENTS_AT_RISK, MONTHLY_ATTENDANCE);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportRunRepository reportRunRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reports.jobs.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${app.reports.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.reports.jobs.wait-timeout-seconds:120}")
+    private long waitTimeoutSeconds;
+
+    private ThreadPoolExecutor reportExecutor;
+
+    private final Map<String, InFlightRun> inFlightByKey = new ConcurrentHashMap<>();
+    private final Map<String, InFlightRun> inFlightByJobId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initExecutor() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        reportExecutor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Report job executor started with {} workers and queue capacity {}", workerThreads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        reportExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs left QUEUED/RUNNING by a previous process will never finish; mark them failed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedRuns() {
+        int failed = reportRunRepository.failUnfinishedRuns(
+                EnumSet.of(ReportRunStatus.QUEUED, ReportRunStatus.RUNNING), ReportRunStatus.FAILED,
+                "Interrupted by application restart", LocalDateTime.now());
+        if (failed > 0) {
+            logger.warn("Marked {} interrupted report runs as failed", failed);
+        }
+    }
+
+    @Override
+    public Map<String, Object> submitJob(String reportType, Map<String, Object> parameters) {
+        return toStatusMap(submit(reportType, parameters));
+    }
+
+    @Override
+    public Map<String, Object> execute(String reportType, Map<String, Object> parameters) {
+        InFlightRun run = submit(reportType, parameters);
+        try {
+            return run.future.get(waitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new ReportJobUnavailableException("Report is still being generated, poll job " + run.jobId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReportJobUnavailableException("Interrupted while waiting for report job " + run.jobId, e);
+        } catch (CancellationException e) {
+            throw new ReportJobUnavailableException("Report job " + run.jobId + " was cancelled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Report job " + run.jobId + " failed", cause);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getJobStatus(String jobId) {
+        InFlightRun run = inFlightByJobId.get(jobId);
+        if (run != null) {
+            return toStatusMap(run);
+        }
+        return toStatusMap(findRun(jobId));
+    }
+
+    @Override
+    public Map<String, Object> getJobResult(String jobId) {
+        InFlightRun run = inFlightByJobId.get(jobId);
+        if (run != null && run.future.isDone() && !run.future.isCompletedExceptionally()) {
+            return run.future.join();
+        }
+
+        ReportRun reportRun = findRun(jobId);
+        if (reportRun.getStatus() != ReportRunStatus.COMPLETED || reportRun.getResult() == null) {
+            throw new ValidationException("Report job " + jobId + " has not completed (status: "
+                    + reportRun.getStatus() + ")");
+        }
+        try {
+            return objectMapper.readValue(reportRun.getResult(), new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read result of report job " + jobId, e);
+        }
+    }
+
+    @Override
+    public void cancelJob(String jobId) {
+        InFlightRun run = inFlightByJobId.get(jobId);
+        if (run == null) {
+            ReportRun reportRun = findRun(jobId);
+            logger.info("Report job {} already finished with status {}", jobId, reportRun.getStatus());
+            return;
+        }
+
+        boolean cancelled = run.transition(ReportRunStatus.CANCELLED, () -> updateRun(run.jobId, r -> {
+            r.setStatus(ReportRunStatus.CANCELLED);
+            r.setCompletedAt(LocalDateTime.now());
+        }));
+        if (cancelled) {
+            Future<?> task = run.task;
+            if (task != null) {
+                task.cancel(true);
+            }
+            run.future.cancel(false);
+            release(run);
+            logger.info("Report job {} cancelled", jobId);
+        }
+    }
+
+    @Override
+    public int purgeFinishedJobs(int daysToKeep) {
+        int deleted = reportRunRepository.deleteFinishedRunsBefore(LocalDateTime.now().minusDays(daysToKeep),
+                EnumSet.of(ReportRunStatus.COMPLETED, ReportRunStatus.FAILED, ReportRunStatus.CANCELLED));
+        logger.info("Purged {} report runs older than {} days", deleted, daysToKeep);
+        return deleted;
+    }
+
+    @Override
+    public List<String> getSupportedReportTypes() {
+        return SUPPORTED_REPORT_TYPES;
+    }
+
+    // Job lifecycle
+
+    private InFlightRun submit(String reportType, Map<String, Object> parameters) {
+        String type = reportType != null ? reportType.trim().toUpperCase() : null;
+        if (type == null || !SUPPORTED_REPORT_TYPES.contains(type)) {
+            throw new ValidationException("reportType", "Unsupported report type: " + reportType);
+        }
+
+        SortedMap<String, Object> canonical = canonicalize(parameters);
+        String runKey = buildRunKey(type, canonical);
+
+        InFlightRun[] created = new InFlightRun[1];
+        InFlightRun run = inFlightByKey.computeIfAbsent(runKey, key -> {
+            created[0] = new InFlightRun(UUID.randomUUID().toString(), key, type, canonical, currentUsername());
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            logger.info("Joining in-flight report job {} for {} {}", run.jobId, type, canonical);
+            return run;
+        }
+
+        inFlightByJobId.put(run.jobId, run);
+        try {
+            reportRunRepository.save(ReportRun.builder()
+                    .jobId(run.jobId)
+                    .runKey(runKey)
+                    .reportType(type)
+                    .parameters(writeJson(canonical))
+                    .status(ReportRunStatus.QUEUED)
+                    .progress(0)
+                    .requestedBy(run.requestedBy)
+                    .createdAt(run.createdAt)
+                    .build());
+            run.task = reportExecutor.submit(() -> runJob(run));
+        } catch (RejectedExecutionException e) {
+            failRun(run, "Report queue is full");
+            throw new ReportJobUnavailableException("Report queue is full, try again later", e);
+        } catch (RuntimeException e) {
+            failRun(run, e.getMessage());
+            throw e;
+        }
+
+        logger.info("Queued report job {} for {} {}", run.jobId, type, canonical);
+        return run;
+    }
+
+    private void runJob(InFlightRun run) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        boolean started = run.transition(ReportRunStatus.RUNNING, () -> {
+            updateRun(run.jobId, r -> {
+                r.setStatus(ReportRunStatus.RUNNING);
+                r.setStartedAt(startedAt);
+            });
+            run.startedAt = startedAt;
+        });
+        if (!started) {
+            return;
+        }
+
+        ReportProgress.bind(run.progress::set);
+        try {
+            Map<String, Object> result = dispatch(run.reportType, run.parameters);
+            String json = writeJson(result);
+            boolean completed = run.transition(ReportRunStatus.COMPLETED, () -> {
+                updateRun(run.jobId, r -> {
+                    r.setStatus(ReportRunStatus.COMPLETED);
+                    r.setProgress(100);
+                    r.setResult(json);
+                    r.setCompletedAt(LocalDateTime.now());
+                });
+                run.progress.set(100);
+                run.future.complete(result);
+            });
+            if (completed) {
+                logger.info("Report job {} completed", run.jobId);
+            }
+        } catch (Exception e) {
+            logger.error("Report job {} failed", run.jobId, e);
+            run.transition(ReportRunStatus.FAILED, () -> {
+                updateRun(run.jobId, r -> {
+                    r.setStatus(ReportRunStatus.FAILED);
+                    r.setProgress(run.progress.get());
+                    r.setErrorMessage(truncate(e.getMessage()));
+                    r.setCompletedAt(LocalDateTime.now());
+                });
+                run.future.completeExceptionally(e);
+            });
+        } finally {
+            ReportProgress.clear();
+            release(run);
+        }
+    }
+
+    private Map<String, Object> dispatch(String reportType, Map<String, Object> p) {
+        switch (reportType) {
+            case STUDENT_TRANSCRIPT:
+                return reportService.generateStudentTranscript(
+                        longParam(p, "studentId"), stringParam(p, "academicYear"), intParam(p, "semester", null));
+            case CLASS_PERFORMANCE:
+                return reportService.generateClassPerformanceReport(
+                        longParam(p, "classRoomId"), stringParam(p, "academicYear"), intParam(p, "semester", null));
+            case SUBJECT_PERFORMANCE:
+                return reportService.generateSubjectPerformanceReport(
+                        longParam(p, "subjectId"), stringParam(p, "academicYear"), intParam(p, "semester", null));
+            case GRADE_DISTRIBUTION:
+                return reportService.generateGradeDistributionReport(
+                        stringParam(p, "academicYear"), intParam(p, "semester", null));
+            case TOP_PERFORMERS:
+                return reportService.generateTopPerformersReport(
+                        stringParam(p, "academicYear"), intParam(p, "semester", null), intParam(p, "limit", 10));
+            case STUDENTS_AT_RISK:
+                return reportService.generateStudentsAtRiskReport(
+                        stringParam(p, "academicYear"), intParam(p, "semester", null), doubleParam(p, "threshold", 2.0));
+            case MONTHLY_ATTENDANCE:
+                return reportService.generateMonthlyAttendanceReport(intParam(p, "year", null), intParam(p, "month", null));
+            default:
+                throw new ValidationException("reportType", "Unsupported report type: " + reportType);
+        }
+    }
+
+    private void failRun(InFlightRun run, String message) {
+        run.transition(ReportRunStatus.FAILED, () -> {
+            updateRun(run.jobId, r -> {
+                r.setStatus(ReportRunStatus.FAILED);
+                r.setErrorMessage(truncate(message));
+                r.setCompletedAt(LocalDateTime.now());
+            });
+            run.future.completeExceptionally(new ReportJobUnavailableException(message));
+        });
+        release(run);
+    }
+
+    private void release(InFlightRun run) {
+        inFlightByKey.remove(run.runKey, run);
+        inFlightByJobId.remove(run.jobId, run);
+    }
+
+    private void updateRun(String jobId, Consumer<ReportRun> change) {
+        try {
+            reportRunRepository.findByJobId(jobId).ifPresent(reportRun -> {
+                change.accept(reportRun);
+                reportRunRepository.save(reportRun);
+            });
+        } catch (Exception e) {
+            logger.warn("Failed to persist state of report job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private ReportRun findRun(String jobId) {
+        return reportRunRepository.findByJobId(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job", "jobId", jobId));
+    }
+
+    // Status mapping
+
+    private Map<String, Object> toStatusMap(InFlightRun run) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", run.jobId);
+        status.put("reportType", run.reportType);
+        status.put("parameters", run.parameters);
+        status.put("status", run.status.get().name());
+        status.put("progress", run.progress.get());
+        status.put("requestedBy", run.requestedBy);
+        status.put("createdAt", run.createdAt);
+        status.put("startedAt", run.startedAt);
+        return status;
+    }
+
+    private Map<String, Object> toStatusMap(ReportRun reportRun) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", reportRun.getJobId());
+        status.put("reportType", reportRun.getReportType());
+        status.put("parameters", readParameters(reportRun.getParameters()));
+        status.put("status", reportRun.getStatus().name());
+        status.put("progress", reportRun.getProgress());
+        status.put("requestedBy", reportRun.getRequestedBy());
+        status.put("createdAt", reportRun.getCreatedAt());
+        status.put("startedAt", reportRun.getStartedAt());
+        status.put("completedAt", reportRun.getCompletedAt());
+        if (reportRun.getErrorMessage() != null) {
+            status.put("error", reportRun.getErrorMessage());
+        }
+        return status;
+    }
+
+    // Parameter handling
+
+    private SortedMap<String, Object> canonicalize(Map<String, Object> parameters) {
+        SortedMap<String, Object> canonical = new TreeMap<>();
+        if (parameters != null) {
+            parameters.forEach((key, value) -> {
+                if (key != null && value != null) {
+                    canonical.put(key, value);
+                }
+            });
+        }
+        return canonical;
+    }
+
+    private String buildRunKey(String reportType, SortedMap<String, Object> canonical) {
+        StringBuilder sb = new StringBuilder(reportType);
+        canonical.forEach((key, value) -> sb.append('|').append(key).append('=').append(value));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String stringParam(Map<String, Object> p, String name) {
+        Object value = p.get(name);
+        if (value == null) {
+            throw new ValidationException(name, "Parameter is required");
+        }
+        return value.toString();
+    }
+
+    private Long longParam(Map<String, Object> p, String name) {
+        try {
+            return Long.valueOf(stringParam(p, name));
+        } catch (NumberFormatException e) {
+            throw new ValidationException(name, "Must be a number");
+        }
+    }
+
+    private Integer intParam(Map<String, Object> p, String name, Integer defaultValue) {
+        if (p.get(name) == null && defaultValue != null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(stringParam(p, name));
+        } catch (NumberFormatException e) {
+            throw new ValidationException(name, "Must be an integer");
+        }
+    }
+
+    private Double doubleParam(Map<String, Object> p, String name, Double defaultValue) {
+        if (p.get(name) == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.valueOf(p.get(name).toString());
+        } catch (NumberFormatException e) {
+            throw new ValidationException(name, "Must be a number");
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize report data", e);
+        }
+    }
+
+    private Map<String, Object> readParameters(String json) {
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    /**
+     * In-memory handle of a queued or running job, shared by all joined callers
+     */
+    private static final class InFlightRun {
+        final String jobId;
+        final String runKey;
+        final String reportType;
+        final SortedMap<String, Object> parameters;
+        final String requestedBy;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        final AtomicInteger progress = new AtomicInteger();
+        final AtomicReference<ReportRunStatus> status = new AtomicReference<>(ReportRunStatus.QUEUED);
+        volatile Future<?> task;
+        volatile LocalDateTime startedAt;
+
+        InFlightRun(String jobId, String runKey, String reportType, SortedMap<String, Object> parameters,
+                    String requestedBy) {
+            this.jobId = jobId;
+            this.runKey = runKey;
+            this.reportType = reportType;
+            this.parameters = parameters;
+            this.requestedBy = requestedBy;
+        }
+
+        /**
+         * Move to the target status unless the run already finished
+         * The change is persisted (and the future settled) before the in-memory status flips, so a caller
+         * that sees the new status also finds it, and any result, in the database. Transitions hold the
+         * run's monitor, so a cancellation and the worker cannot interleave their writes.
+         */
+        synchronized boolean transition(ReportRunStatus target, Runnable persist) {
+            if (status.get().isFinished()) {
+                return false;
+            }
+            persist.run();
+            status.set(target);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.simsekolah.service.impl;
+
+import com.simsekolah.event.ScheduleSlot;
+import com.simsekolah.event.SchedulesChangedEvent;
+import com.simsekolah.repository.ScheduleRepository;
+import com.simsekolah.service.ScheduleAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ScheduleAvailabilityService
+ * A week is 7 x 288 five-minute slots; bit (day * 288 + minute / 5) is set while a teacher or classroom
+ * is busy. Schedules mark every slot they touch, so a clear intersection proves the absence of conflicts
+ * while a set one only means "check exactly".
+ * With Redis every write bumps a shared version stamp of its period, and an index is only trusted while
+ * its stamp matches, so a node rebuilds the periods that other nodes changed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ScheduleAvailabilityServiceImpl implements ScheduleAvailabilityService {
+
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final String STAMP_KEY_PREFIX = "schedule:availability:stamp:";
+
+    private final ScheduleRepository scheduleRepository;
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    private final Map<String, PeriodIndex> periods = new ConcurrentHashMap<>();
+    private final AtomicLong changeVersion = new AtomicLong();
+
+    @Value("${app.schedule.availability.school-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private String schoolDays;
+
+    @Value("${app.schedule.availability.day-start:07:00}")
+    private String dayStart;
+
+    @Value("${app.schedule.availability.day-end:17:00}")
+    private String dayEnd;
+
+    @Override
+    public boolean isTeacherAvailable(Long teacherId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                                      String academicYear, Integer semester) {
+        BitSet busy = getPeriodIndex(academicYear, semester).teacherBusy(teacherId);
+        return !busy.intersects(mask(dayOfWeek, startTime, endTime));
+    }
+
+    @Override
+    public boolean isClassRoomAvailable(Long classRoomId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                                        String academicYear, Integer semester) {
+        BitSet busy = getPeriodIndex(academicYear, semester).classRoomBusy(classRoomId);
+        return !busy.intersects(mask(dayOfWeek, startTime, endTime));
+    }
+
+    @Override
+    public List<Map<String, Object>> findTeacherFreeSlots(Long teacherId, DayOfWeek dayOfWeek, String academicYear,
+                                                          Integer semester, int minDurationMinutes) {
+        BitSet busy = getPeriodIndex(academicYear, semester).teacherBusy(teacherId);
+        return freeSlots(busy, daysOf(dayOfWeek), minDurationMinutes);
+    }
+
+    @Override
+    public List<Map<String, Object>> findClassRoomFreeSlots(Long classRoomId, DayOfWeek dayOfWeek, String academicYear,
+                                                            Integer semester, int minDurationMinutes) {
+        BitSet busy = getPeriodIndex(academicYear, semester).classRoomBusy(classRoomId);
+        return freeSlots(busy, daysOf(dayOfWeek), minDurationMinutes);
+    }
+
+    @Override
+    public List<Map<String, Object>> findCommonFreeSlots(Long teacherId, Long classRoomId, String academicYear,
+                                                         Integer semester, int minDurationMinutes) {
+        PeriodIndex index = getPeriodIndex(academicYear, semester);
+        BitSet busy = index.teacherBusy(teacherId);
+        busy.or(index.classRoomBusy(classRoomId));
+        return freeSlots(busy, daysOf(null), minDurationMinutes);
+    }
+
+    @Override
+    public void invalidate(String academicYear, Integer semester) {
+        String key = periodKey(academicYear, semester);
+        changeVersion.incrementAndGet();
+        periods.remove(key);
+        bumpStamp(key);
+    }
+
+    /**
+     * Apply committed schedule writes to the periods that are already indexed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSchedulesChanged(SchedulesChangedEvent event) {
+        changeVersion.incrementAndGet();
+        for (PeriodIndex index : periods.values()) {
+            event.getRemovedIds().forEach(index::remove);
+            event.getChangedSlots().forEach(slot -> index.remove(slot.getScheduleId()));
+        }
+        for (ScheduleSlot slot : event.getChangedSlots()) {
+            PeriodIndex index = periods.get(periodKey(slot.getAcademicYear(), slot.getSemester()));
+            if (index != null && slot.isActive()) {
+                index.put(slot);
+            }
+        }
+        if (stringRedisTemplate == null) {
+            return;
+        }
+        // Keep an index only if no other node wrote to its period since it was built
+        for (String key : event.getPeriods()) {
+            long stamp = bumpStamp(key);
+            PeriodIndex index = periods.get(key);
+            if (index != null && !index.advanceStamp(stamp)) {
+                periods.remove(key, index);
+            }
+        }
+    }
+
+    private PeriodIndex getPeriodIndex(String academicYear, Integer semester) {
+        String key = periodKey(academicYear, semester);
+        long stamp = readStamp(key);
+        PeriodIndex index = periods.get(key);
+        if (index != null && index.stamp == stamp) {
+            return index;
+        }
+        if (index != null) {
+            periods.remove(key, index);
+        }
+
+        // Only publish the index if no write committed while it was being loaded
+        long version = changeVersion.get();
+        PeriodIndex loaded = new PeriodIndex(stamp);
+        for (Object[] row : scheduleRepository.findActiveSlotRowsByPeriod(academicYear, semester)) {
+            loaded.put(new ScheduleSlot((Long) row[0], (Long) row[1], (Long) row[2], (DayOfWeek) row[3],
+                    (LocalTime) row[4], (LocalTime) row[5], academicYear, semester, true));
+        }
+        log.debug("Built availability index for {} with {} schedules", key, loaded.slots.size());
+        if (stamp >= 0 && changeVersion.get() == version) {
+            PeriodIndex existing = periods.putIfAbsent(key, loaded);
+            return existing != null ? existing : loaded;
+        }
+        return loaded;
+    }
+
+    private List<Map<String, Object>> freeSlots(BitSet busy, List<DayOfWeek> days, int minDurationMinutes) {
+        int firstSlot = LocalTime.parse(dayStart).toSecondOfDay() / 60 / SLOT_MINUTES;
+        int lastSlot = ceilSlot(LocalTime.parse(dayEnd).toSecondOfDay() / 60);
+        int minSlots = Math.max(1, ceilSlot(minDurationMinutes));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (DayOfWeek day : days) {
+            int base = day.ordinal() * SLOTS_PER_DAY;
+            int to = base + lastSlot;
+            int start = busy.nextClearBit(base + firstSlot);
+            while (start < to) {
+                int next = busy.nextSetBit(start);
+                int end = next < 0 || next > to ? to : next;
+                if (end - start >= minSlots) {
+                    Map<String, Object> slot = new LinkedHashMap<>();
+                    slot.put("dayOfWeek", day);
+                    slot.put("startTime", timeOf(start - base));
+                    slot.put("endTime", timeOf(end - base));
+                    slot.put("durationMinutes", (end - start) * SLOT_MINUTES);
+                    result.add(slot);
+                }
+                start = busy.nextClearBit(end);
+            }
+        }
+        return result;
+    }
+
+    private List<DayOfWeek> daysOf(DayOfWeek dayOfWeek) {
+        if (dayOfWeek != null) {
+            return List.of(dayOfWeek);
+        }
+        return Arrays.stream(schoolDays.split(","))
+                .map(String::trim)
+                .filter(day -> !day.isEmpty())
+                .map(DayOfWeek::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private static BitSet mask(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        BitSet mask = new BitSet(7 * SLOTS_PER_DAY);
+        mark(mask, dayOfWeek, startTime, endTime);
+        return mask;
+    }
+
+    private static void mark(BitSet bits, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        if (dayOfWeek == null || startTime == null || endTime == null) {
+            return;
+        }
+        int base = dayOfWeek.ordinal() * SLOTS_PER_DAY;
+        int from = startTime.toSecondOfDay() / 60 / SLOT_MINUTES;
+        int to = ceilSlot((endTime.toSecondOfDay() + 59) / 60);
+        if (to > from) {
+            bits.set(base + from, base + to);
+        }
+    }
+
+    private static int ceilSlot(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    private static LocalTime timeOf(int slotOfDay) {
+        int minutes = slotOfDay * SLOT_MINUTES;
+        return minutes >= 24 * 60 ? LocalTime.MAX : LocalTime.of(minutes / 60, minutes % 60);
+    }
+
+    private static String periodKey(String academicYear, Integer semester) {
+        return SchedulesChangedEvent.periodKey(academicYear, semester);
+    }
+
+    /**
+     * Shared version stamp of a period: 0 without Redis or before the first write, -1 if Redis failed
+     */
+    private long readStamp(String key) {
+        if (stringRedisTemplate == null) {
+            return 0;
+        }
+        try {
+            String stamp = stringRedisTemplate.opsForValue().get(STAMP_KEY_PREFIX + key);
+            return stamp != null ? Long.parseLong(stamp) : 0;
+        } catch (Exception e) {
+            // An unverifiable index is not cached, the period is loaded from the database per check
+            log.warn("Failed to read availability stamp of {}: {}", key, e.getMessage());
+            return -1;
+        }
+    }
+
+    private long bumpStamp(String key) {
+        if (stringRedisTemplate == null) {
+            return 0;
+        }
+        try {
+            Long stamp = stringRedisTemplate.opsForValue().increment(STAMP_KEY_PREFIX + key);
+            return stamp != null ? stamp : -1;
+        } catch (Exception e) {
+            log.warn("Failed to bump availability stamp of {}: {}", key, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Busy bitsets of one academic period; a resource's bitset is rebuilt from its schedules on change
+     * so overlapping schedules never clear each other's slots
+     */
+    private static final class PeriodIndex {
+
+        private final Map<Long, ScheduleSlot> slots = new HashMap<>();
+        private final Map<Long, Set<Long>> teacherSchedules = new HashMap<>();
+        private final Map<Long, Set<Long>> classRoomSchedules = new HashMap<>();
+        private final Map<Long, BitSet> teacherBusy = new HashMap<>();
+        private final Map<Long, BitSet> classRoomBusy = new HashMap<>();
+        private volatile long stamp;
+
+        PeriodIndex(long stamp) {
+            this.stamp = stamp;
+        }
+
+        /**
+         * Move to the stamp of a local write; fails when other writes were stamped in between
+         */
+        synchronized boolean advanceStamp(long next) {
+            if (stamp < 0 || next != stamp + 1) {
+                return false;
+            }
+            stamp = next;
+            return true;
+        }
+
+        synchronized void put(ScheduleSlot slot) {
+            remove(slot.getScheduleId());
+            slots.put(slot.getScheduleId(), slot);
+            if (slot.getTeacherId() != null) {
+                teacherSchedules.computeIfAbsent(slot.getTeacherId(), id -> new HashSet<>()).add(slot.getScheduleId());
+                mark(teacherBusy.computeIfAbsent(slot.getTeacherId(), id -> new BitSet(7 * SLOTS_PER_DAY)),
+                        slot.getDayOfWeek(), slot.getStartTime(), slot.getEndTime());
+            }
+            if (slot.getClassRoomId() != null) {
+                classRoomSchedules.computeIfAbsent(slot.getClassRoomId(), id -> new HashSet<>()).add(slot.getScheduleId());
+                mark(classRoomBusy.computeIfAbsent(slot.getClassRoomId(), id -> new BitSet(7 * SLOTS_PER_DAY)),
+                        slot.getDayOfWeek(), slot.getStartTime(), slot.getEndTime());
+            }
+        }
+
+        synchronized void remove(Long scheduleId) {
+            ScheduleSlot slot = slots.remove(scheduleId);
+            if (slot == null) {
+                return;
+            }
+            if (slot.getTeacherId() != null) {
+                rebuild(slot.getTeacherId(), scheduleId, teacherSchedules, teacherBusy);
+            }
+            if (slot.getClassRoomId() != null) {
+                rebuild(slot.getClassRoomId(), scheduleId, classRoomSchedules, classRoomBusy);
+            }
+        }
+
+        synchronized BitSet teacherBusy(Long teacherId) {
+            BitSet busy = teacherBusy.get(teacherId);
+            return busy != null ? (BitSet) busy.clone() : new BitSet(7 * SLOTS_PER_DAY);
+        }
+
+        synchronized BitSet classRoomBusy(Long classRoomId) {
+            BitSet busy = classRoomBusy.get(classRoomId);
+            return busy != null ? (BitSet) busy.clone() : new BitSet(7 * SLOTS_PER_DAY);
+        }
+
+        private void rebuild(Long resourceId, Long removedId, Map<Long, Set<Long>> schedulesByResource,
+                             Map<Long, BitSet> busyByResource) {
+            Set<Long> scheduleIds = schedulesByResource.get(resourceId);
+            scheduleIds.remove(removedId);
+            if (scheduleIds.isEmpty()) {
+                schedulesByResource.remove(resourceId);
+                busyByResource.remove(resourceId);
+                return;
+            }
+            BitSet busy = new BitSet(7 * SLOTS_PER_DAY);
+            for (Long id : scheduleIds) {
+                ScheduleSlot remaining = slots.get(id);
+                mark(busy, remaining.getDayOfWeek(), remaining.getStartTime(), remaining.getEndTime());
+            }
+            busyByResource.put(resourceId, busy);
+        }
+    }
+}
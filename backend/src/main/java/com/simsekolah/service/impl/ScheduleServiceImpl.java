@@ -4,24 +4,59 @@ import com.simsekolah.dto.request.*;
 import com.simsekolah.dto.response.ScheduleResponse;
 import com.simsekolah.dto.response.TimetableResponse;
 import com.simsekolah.entity.*;
+import com.simsekolah.event.SchedulesChangedEvent;
 import com.simsekolah.exception.ResourceNotFoundException;
 import com.simsekolah.exception.ValidationException;
 import com.simsekolah.repository.*;
+import com.simsekolah.service.ScheduleAvailabilityService;
 import com.simsekolah.service.ScheduleService;
+import com.simsekolah.util.IntervalIndex;
+import com.simsekolah.util.IntervalSweep;
+import com.simsekolah.util.ScheduleMatrix;
+import com.simsekolah.util.TimetableGrid;
+import com.simsekolah.util.TimetableSolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +73,11 @@ public class ScheduleServiceImpl implements ScheduleService {
     private final ClassRoomRepository classRoomRepository;
     private final SubjectRepository subjectRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduleAvailabilityService availabilityService;
+    private final PlatformTransactionManager transactionManager;
 
     // Time slot constants
     private static final LocalTime SCHOOL_START_TIME = LocalTime.of(7, 0);
@@ -45,9 +85,94 @@ public class ScheduleServiceImpl implements ScheduleService {
     private static final int MIN_SESSION_DURATION = 30; // minutes
     private static final int MAX_SESSION_DURATION = 180; // minutes
 
+    // Bulk creation
+    private static final int BULK_INSERT_BATCH_SIZE = 500;
+    private static final int TEACHER_RESOURCE = 0;
+    private static final int CLASSROOM_RESOURCE = 1;
+    private static final String INSERT_SCHEDULE_SQL = "INSERT INTO schedules (class_room_id, subject_id, teacher_id, "
+            + "day_of_week, start_time, end_time, academic_year, semester, is_active, notes, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Timetable solver defaults
+    private static final int DEFAULT_WEEKLY_PERIODS = 2;
+    private static final int DEFAULT_LESSON_LENGTH = 2;
+    private static final int MOVE_PENALTY = 50;
+
+    @Value("${app.schedule.solver.school-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private String solverSchoolDays;
+
+    @Value("${app.schedule.solver.day-start:07:00}")
+    private String solverDayStart;
+
+    @Value("${app.schedule.solver.period-minutes:45}")
+    private int solverPeriodMinutes;
+
+    @Value("${app.schedule.solver.periods-per-day:10}")
+    private int solverPeriodsPerDay;
+
+    @Value("${app.schedule.solver.break-after-period:4}")
+    private int solverBreakAfterPeriod;
+
+    @Value("${app.schedule.solver.break-minutes:15}")
+    private int solverBreakMinutes;
+
+    @Value("${app.schedule.solver.late-from-period:8}")
+    private int solverLateFromPeriod;
+
+    @Value("${app.schedule.solver.time-budget-seconds:5}")
+    private int solverTimeBudgetSeconds;
+
+    @Value("${app.schedule.solver.max-time-budget-seconds:60}")
+    private int solverMaxTimeBudgetSeconds;
+
+    @Value("${app.schedule.solver.workers:0}")
+    private int solverWorkers;
+
+    @Value("${app.schedule.solver.threads:0}")
+    private int solverThreads;
+
+    @Value("${app.schedule.solver.queue-capacity:16}")
+    private int solverQueueCapacity;
+
+    @Value("${app.schedule.analytics.max-consecutive-periods:4}")
+    private int maxConsecutivePeriods;
+
+    // Occupancy matrices per academic period, shared by the analytics reports
+    private final Map<String, ScheduleMatrix> scheduleMatrices = new ConcurrentHashMap<>();
+    private final AtomicLong matrixVersion = new AtomicLong();
+
+    // Solver workers run on their own pool; solver entry points read and write in short transactions
+    private ThreadPoolExecutor solverExecutor;
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void initSolver() {
+        int threads = solverThreads > 0 ? solverThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCounter = new AtomicInteger();
+        // When the queue is full the requesting thread runs the worker itself rather than failing the request
+        solverExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, solverQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "timetable-solver-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        log.info("Timetable solver executor started with {} threads", threads);
+    }
+
+    @PreDestroy
+    public void shutdownSolver() {
+        solverExecutor.shutdownNow();
+    }
+
     @Override
     @Transactional
-    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public ScheduleResponse createSchedule(CreateScheduleRequest request) {
         log.info("Creating new schedule for class: {}, subject: {}, teacher: {}",
                 request.getClassRoomId(), request.getSubjectId(), request.getTeacherId());
@@ -90,6 +215,7 @@ public class ScheduleServiceImpl implements ScheduleService {
         schedule.setIsActive(request.getIsActive());
 
         Schedule savedSchedule = scheduleRepository.save(schedule);
+        publishScheduleChanges(List.of(savedSchedule));
 
         log.info("Schedule created successfully with id: {}", savedSchedule.getId());
         return mapToScheduleResponse(savedSchedule);
@@ -97,13 +223,16 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     @Override
     @Transactional
-    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public ScheduleResponse updateSchedule(Long scheduleId, UpdateScheduleRequest request) {
         log.info("Updating schedule with id: {}", scheduleId);
 
         Schedule schedule = scheduleRepository.findById(scheduleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Schedule not found with id: " + scheduleId));
 
+        // Keys of the old class, teacher, subject and period are evicted along with the new ones
+        SchedulesChangedEvent changes = new SchedulesChangedEvent();
+        changes.add(schedule);
+
         // Update fields if provided
         if (request.getClassRoomId() != null) {
             ClassRoom classRoom = classRoomRepository.findById(request.getClassRoomId())
@@ -146,6 +275,8 @@ public class ScheduleServiceImpl implements ScheduleService {
         }
 
         Schedule updatedSchedule = scheduleRepository.save(schedule);
+        changes.add(updatedSchedule);
+        eventPublisher.publishEvent(changes);
         log.info("Schedule updated successfully with id: {}", updatedSchedule.getId());
 
         return mapToScheduleResponse(updatedSchedule);
@@ -164,14 +295,16 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     @Override
     @Transactional
-    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public void deleteSchedule(Long scheduleId) {
         log.info("Deleting schedule with id: {}", scheduleId);
 
         Schedule schedule = scheduleRepository.findById(scheduleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Schedule not found with id: " + scheduleId));
 
+        SchedulesChangedEvent changes = new SchedulesChangedEvent();
+        changes.remove(schedule);
         scheduleRepository.delete(schedule);
+        eventPublisher.publishEvent(changes);
         log.info("Schedule deleted successfully with id: {}", scheduleId);
     }
 
@@ -179,81 +312,77 @@ public class ScheduleServiceImpl implements ScheduleService {
     public Page<ScheduleResponse> searchSchedules(ScheduleSearchRequest request, Pageable pageable) {
         log.info("Searching schedules with criteria: {}", request);
 
-        List<Schedule> schedules = scheduleRepository.findAll();
-
-        // Apply basic filters
-        List<Schedule> filteredSchedules = schedules.stream()
-                .filter(schedule -> {
-                    if (request.getClassRoomId() != null
-                            && !schedule.getClassRoom().getId().equals(request.getClassRoomId())) {
-                        return false;
-                    }
-                    if (request.getSubjectId() != null
-                            && !schedule.getSubject().getId().equals(request.getSubjectId())) {
-                        return false;
-                    }
-                    if (request.getTeacherId() != null
-                            && !schedule.getTeacher().getId().equals(request.getTeacherId())) {
-                        return false;
-                    }
-                    if (request.getAcademicYear() != null
-                            && !schedule.getAcademicYear().equals(request.getAcademicYear())) {
-                        return false;
-                    }
-                    if (request.getSemester() != null && !schedule.getSemester().equals(request.getSemester())) {
-                        return false;
-                    }
-                    if (request.getDayOfWeek() != null && !schedule.getDayOfWeek().equals(request.getDayOfWeek())) {
-                        return false;
-                    }
-                    if (request.getIsActive() != null && !schedule.getIsActive().equals(request.getIsActive())) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
-
-        List<ScheduleResponse> responses = filteredSchedules.stream()
-                .map(this::mapToScheduleResponse)
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), responses.size());
-        List<ScheduleResponse> pageContent = responses.subList(start, end);
+        // Filtering, ordering and paging run in SQL; ordering lives in the specification,
+        // so the page request passed to the repository stays unsorted
+        Sort sort;
+        try {
+            sort = ScheduleSpecifications.resolveSort(request, pageable.getSort());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("sortBy", e.getMessage());
+        }
 
-        return new PageImpl<>(pageContent, pageable, responses.size());
+        Page<Schedule> page = scheduleRepository.findAll(ScheduleSpecifications.search(request, sort),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return page.map(this::mapToScheduleResponse);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = { "schedules", "timetables" }, allEntries = true)
     public List<ScheduleResponse> createBulkSchedules(BulkScheduleRequest request) {
-        log.info("Creating {} schedules in bulk", request.getSchedules().size());
-
-        List<ScheduleResponse> responses = new ArrayList<>();
+        List<CreateScheduleRequest> items = request.getSchedules();
+        log.info("Creating {} schedules in bulk", items.size());
+
+        boolean checkConflicts = !Boolean.TRUE.equals(request.getSkipConflictCheck());
+        boolean allowOverlap = Boolean.TRUE.equals(request.getAllowOverlap());
+        boolean stopOnFirstError = Boolean.TRUE.equals(request.getStopOnFirstError());
+
+        // Referenced entities are resolved up front, one query per type
+        Map<Long, ClassRoom> classRooms = classRoomRepository.findAllById(collectIds(items, CreateScheduleRequest::getClassRoomId))
+                .stream().collect(Collectors.toMap(ClassRoom::getId, classRoom -> classRoom));
+        Map<Long, Subject> subjects = subjectRepository.findAllById(collectIds(items, CreateScheduleRequest::getSubjectId))
+                .stream().collect(Collectors.toMap(Subject::getId, subject -> subject));
+        Map<Long, User> teachers = userRepository.findAllById(collectIds(items, CreateScheduleRequest::getTeacherId))
+                .stream().collect(Collectors.toMap(User::getId, teacher -> teacher));
+
+        // Existing active schedules are loaded once per academic period; accepted items join the index
+        // so conflicts inside the batch are caught as well
+        Map<String, IntervalIndex<Schedule>> periodIndexes = new HashMap<>();
+        List<Schedule> accepted = new ArrayList<>();
         List<String> errors = new ArrayList<>();
 
-        for (int i = 0; i < request.getSchedules().size(); i++) {
-            CreateScheduleRequest scheduleRequest = request.getSchedules().get(i);
+        for (int i = 0; i < items.size(); i++) {
+            CreateScheduleRequest item = items.get(i);
             try {
-                scheduleRequest.setSkipConflictCheck(request.getSkipConflictCheck());
-                scheduleRequest.setAllowOverlap(request.getAllowOverlap());
-
-                ScheduleResponse response = createSchedule(scheduleRequest);
-                responses.add(response);
+                Schedule schedule = buildBulkSchedule(item, classRooms, subjects, teachers);
+                if (checkConflicts) {
+                    IntervalIndex<Schedule> index = periodIndexes.computeIfAbsent(
+                            item.getAcademicYear() + "-" + item.getSemester(),
+                            key -> buildScheduleIndex(activeSchedules(item.getAcademicYear(), item.getSemester())));
+                    List<Map<String, Object>> conflicts = findIndexedConflicts(index, schedule);
+                    if (!conflicts.isEmpty() && !allowOverlap) {
+                        throw new ValidationException("Schedule conflicts detected: " + conflicts.size() + " conflicts found");
+                    }
+                    indexSchedule(index, schedule);
+                }
+                accepted.add(schedule);
             } catch (Exception e) {
                 String error = String.format("Error creating schedule %d: %s", i + 1, e.getMessage());
                 errors.add(error);
-                log.error(error, e);
+                log.error(error);
 
-                if (request.getStopOnFirstError()) {
+                if (stopOnFirstError) {
                     throw new ValidationException("Bulk schedule creation failed: " + error);
                 }
             }
         }
 
-        log.info("Bulk schedule creation completed. Created: {}, Errors: {}", responses.size(), errors.size());
-        return responses;
+        batchInsertSchedules(accepted);
+        publishScheduleChanges(accepted);
+
+        log.info("Bulk schedule creation completed. Created: {}, Errors: {}", accepted.size(), errors.size());
+        return accepted.stream()
+                .map(this::mapToScheduleResponse)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -308,7 +437,7 @@ public class ScheduleServiceImpl implements ScheduleService {
     }
 
     @Override
-    @Cacheable(value = "timetables", key = "'class-' + #classRoomId + '-' + #academicYear + '-' + #semester")
+    @Cacheable(value = "timetables", key = "'class-' + #classRoomId + '-' + #academicYear + '-' + #semester", sync = true)
     public TimetableResponse generateClassTimetable(Long classRoomId, String academicYear, Integer semester) {
         log.info("Generating class timetable for class: {}, period: {}/{}", classRoomId, academicYear, semester);
 
@@ -337,7 +466,7 @@ public class ScheduleServiceImpl implements ScheduleService {
     }
 
     @Override
-    @Cacheable(value = "timetables", key = "'teacher-' + #teacherId + '-' + #academicYear + '-' + #semester")
+    @Cacheable(value = "timetables", key = "'teacher-' + #teacherId + '-' + #academicYear + '-' + #semester", sync = true)
     public TimetableResponse generateTeacherTimetable(Long teacherId, String academicYear, Integer semester) {
         log.info("Generating teacher timetable for teacher: {}, period: {}/{}", teacherId, academicYear, semester);
 
@@ -366,7 +495,7 @@ public class ScheduleServiceImpl implements ScheduleService {
     }
 
     @Override
-    @Cacheable(value = "timetables", key = "'subject-' + #subjectId + '-' + #academicYear + '-' + #semester")
+    @Cacheable(value = "timetables", key = "'subject-' + #subjectId + '-' + #academicYear + '-' + #semester", sync = true)
     public TimetableResponse generateSubjectTimetable(Long subjectId, String academicYear, Integer semester) {
         log.info("Generating subject timetable for subject: {}, period: {}/{}", subjectId, academicYear, semester);
 
@@ -400,6 +529,15 @@ public class ScheduleServiceImpl implements ScheduleService {
 
         List<Map<String, Object>> conflicts = new ArrayList<>();
 
+        // Clear availability bits prove there is no overlap; only a possible hit needs the exact check.
+        // Both paths count active schedules only, like the timetable solver.
+        if (availabilityService.isTeacherAvailable(request.getTeacherId(), request.getDayOfWeek(),
+                request.getStartTime(), request.getEndTime(), request.getAcademicYear(), request.getSemester())
+                && availabilityService.isClassRoomAvailable(request.getClassRoomId(), request.getDayOfWeek(),
+                request.getStartTime(), request.getEndTime(), request.getAcademicYear(), request.getSemester())) {
+            return conflicts;
+        }
+
         // Check teacher conflicts
         List<Schedule> teacherSchedules = scheduleRepository.findByTeacherAndDayOfWeekAndAcademicYearAndSemester(
                 userRepository.findById(request.getTeacherId()).orElse(null),
@@ -408,7 +546,8 @@ public class ScheduleServiceImpl implements ScheduleService {
                 request.getSemester());
 
         for (Schedule existingSchedule : teacherSchedules) {
-            if (isTimeOverlap(request.getStartTime(), request.getEndTime(),
+            if (Boolean.TRUE.equals(existingSchedule.getIsActive())
+                    && isTimeOverlap(request.getStartTime(), request.getEndTime(),
                     existingSchedule.getStartTime(), existingSchedule.getEndTime())) {
                 conflicts.add(createConflictInfo("TEACHER_CONFLICT", existingSchedule,
                         "Teacher has another class at this time"));
@@ -423,7 +562,8 @@ public class ScheduleServiceImpl implements ScheduleService {
                 request.getSemester());
 
         for (Schedule existingSchedule : classroomSchedules) {
-            if (isTimeOverlap(request.getStartTime(), request.getEndTime(),
+            if (Boolean.TRUE.equals(existingSchedule.getIsActive())
+                    && isTimeOverlap(request.getStartTime(), request.getEndTime(),
                     existingSchedule.getStartTime(), existingSchedule.getEndTime())) {
                 conflicts.add(createConflictInfo("CLASSROOM_CONFLICT", existingSchedule,
                         "Classroom is already occupied at this time"));
@@ -469,34 +609,61 @@ public class ScheduleServiceImpl implements ScheduleService {
         log.info("Detecting existing conflicts for period: {}/{}", academicYear, semester);
 
         List<Schedule> allSchedules = scheduleRepository.findByAcademicYearAndSemester(academicYear, semester);
-        List<Map<String, Object>> conflicts = new ArrayList<>();
-
-        for (int i = 0; i < allSchedules.size(); i++) {
-            for (int j = i + 1; j < allSchedules.size(); j++) {
-                Schedule schedule1 = allSchedules.get(i);
-                Schedule schedule2 = allSchedules.get(j);
-
-                if (schedule1.getDayOfWeek().equals(schedule2.getDayOfWeek()) &&
-                        isTimeOverlap(schedule1.getStartTime(), schedule1.getEndTime(),
-                                schedule2.getStartTime(), schedule2.getEndTime())) {
-
-                    // Check if same teacher or same classroom
-                    if (schedule1.getTeacher().getId().equals(schedule2.getTeacher().getId())) {
-                        conflicts.add(createConflictInfo("TEACHER_CONFLICT", schedule2,
-                                "Teacher has conflicting schedules"));
-                    }
+        int n = allSchedules.size();
+
+        // Primitive minute arrays; groups are day of week x teacher and day of week x classroom
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        int[] teacherGroups = new int[n];
+        int[] classRoomGroups = new int[n];
+        Map<Long, Integer> teacherIndex = new HashMap<>();
+        Map<Long, Integer> classRoomIndex = new HashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            Schedule schedule = allSchedules.get(i);
+            if (schedule.getDayOfWeek() == null || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+                teacherGroups[i] = -1;
+                classRoomGroups[i] = -1;
+                continue;
+            }
+            int day = schedule.getDayOfWeek().ordinal();
+            starts[i] = schedule.getStartTime().toSecondOfDay() / 60;
+            ends[i] = schedule.getEndTime().toSecondOfDay() / 60;
+            teacherGroups[i] = schedule.getTeacher() != null
+                    ? dayGroup(day, teacherIndex.computeIfAbsent(schedule.getTeacher().getId(), id -> teacherIndex.size()))
+                    : -1;
+            classRoomGroups[i] = schedule.getClassRoom() != null
+                    ? dayGroup(day, classRoomIndex.computeIfAbsent(schedule.getClassRoom().getId(), id -> classRoomIndex.size()))
+                    : -1;
+        }
 
-                    if (schedule1.getClassRoom().getId().equals(schedule2.getClassRoom().getId())) {
-                        conflicts.add(createConflictInfo("CLASSROOM_CONFLICT", schedule2,
-                                "Classroom has conflicting schedules"));
-                    }
-                }
+        long[] teacherPairs = IntervalSweep.findOverlappingPairs(teacherGroups, starts, ends);
+        long[] classRoomPairs = IntervalSweep.findOverlappingPairs(classRoomGroups, starts, ends);
+
+        // Merge in pair order, teacher before classroom for the same pair; the later schedule is reported
+        List<Map<String, Object>> conflicts = new ArrayList<>(teacherPairs.length + classRoomPairs.length);
+        int t = 0;
+        int c = 0;
+        while (t < teacherPairs.length || c < classRoomPairs.length) {
+            if (c >= classRoomPairs.length || (t < teacherPairs.length && teacherPairs[t] <= classRoomPairs[c])) {
+                conflicts.add(createConflictInfo("TEACHER_CONFLICT",
+                        allSchedules.get(IntervalSweep.second(teacherPairs[t++])),
+                        "Teacher has conflicting schedules"));
+            } else {
+                conflicts.add(createConflictInfo("CLASSROOM_CONFLICT",
+                        allSchedules.get(IntervalSweep.second(classRoomPairs[c++])),
+                        "Classroom has conflicting schedules"));
             }
         }
 
+        log.info("Detected {} conflicts among {} schedules", conflicts.size(), n);
         return conflicts;
     }
 
+    private int dayGroup(int dayOrdinal, int resourceIndex) {
+        return resourceIndex * 7 + dayOrdinal;
+    }
+
     public Map<String, Object> checkTeacherAvailability(Long teacherId, DayOfWeek dayOfWeek,
             LocalTime startTime, LocalTime endTime,
             String academicYear, Integer semester) {
@@ -505,8 +672,12 @@ public class ScheduleServiceImpl implements ScheduleService {
         User teacher = userRepository.findById(teacherId)
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher not found with id: " + teacherId));
 
-        List<Schedule> existingSchedules = scheduleRepository.findByTeacherAndDayOfWeekAndAcademicYearAndSemester(
-                teacher, dayOfWeek, academicYear, semester);
+        // Schedules are only loaded when the availability bits report a possible overlap
+        List<Schedule> existingSchedules = availabilityService.isTeacherAvailable(teacherId, dayOfWeek,
+                startTime, endTime, academicYear, semester)
+                ? Collections.emptyList()
+                : scheduleRepository.findByTeacherAndDayOfWeekAndAcademicYearAndSemester(
+                        teacher, dayOfWeek, academicYear, semester);
 
         boolean isAvailable = existingSchedules.stream()
                 .noneMatch(schedule -> isTimeOverlap(startTime, endTime,
@@ -536,8 +707,11 @@ public class ScheduleServiceImpl implements ScheduleService {
         ClassRoom classRoom = classRoomRepository.findById(classRoomId)
                 .orElseThrow(() -> new ResourceNotFoundException("ClassRoom not found with id: " + classRoomId));
 
-        List<Schedule> existingSchedules = scheduleRepository.findByClassRoomAndDayOfWeekAndAcademicYearAndSemester(
-                classRoom, dayOfWeek, academicYear, semester);
+        List<Schedule> existingSchedules = availabilityService.isClassRoomAvailable(classRoomId, dayOfWeek,
+                startTime, endTime, academicYear, semester)
+                ? Collections.emptyList()
+                : scheduleRepository.findByClassRoomAndDayOfWeekAndAcademicYearAndSemester(
+                        classRoom, dayOfWeek, academicYear, semester);
 
         boolean isAvailable = existingSchedules.stream()
                 .noneMatch(schedule -> isTimeOverlap(startTime, endTime,
@@ -720,6 +894,294 @@ public class ScheduleServiceImpl implements ScheduleService {
         }
     }
 
+    // Change events and cache invalidation
+
+    private void publishScheduleChanges(Collection<Schedule> schedules) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+        SchedulesChangedEvent changes = new SchedulesChangedEvent();
+        schedules.forEach(changes::add);
+        eventPublisher.publishEvent(changes);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSchedulesChanged(SchedulesChangedEvent event) {
+        evictKeys("schedules", event.getScheduleKeys());
+        evictKeys("timetables", event.getTimetableKeys());
+        // Updates may move a schedule between periods, so every matrix is rebuilt on next use
+        matrixVersion.incrementAndGet();
+        scheduleMatrices.clear();
+    }
+
+    private void evictKeys(String cacheName, Set<Object> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        keys.forEach(cache::evict);
+        log.debug("Evicted {} keys from cache {}", keys.size(), cacheName);
+    }
+
+    // Bulk creation helpers
+
+    private Set<Long> collectIds(List<CreateScheduleRequest> items, Function<CreateScheduleRequest, Long> idOf) {
+        return items.stream().map(idOf).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private Schedule buildBulkSchedule(CreateScheduleRequest request, Map<Long, ClassRoom> classRooms,
+            Map<Long, Subject> subjects, Map<Long, User> teachers) {
+        ClassRoom classRoom = classRooms.get(request.getClassRoomId());
+        if (classRoom == null) {
+            throw new ResourceNotFoundException("ClassRoom not found with id: " + request.getClassRoomId());
+        }
+        Subject subject = subjects.get(request.getSubjectId());
+        if (subject == null) {
+            throw new ResourceNotFoundException("Subject not found with id: " + request.getSubjectId());
+        }
+        User teacher = teachers.get(request.getTeacherId());
+        if (teacher == null) {
+            throw new ResourceNotFoundException("Teacher not found with id: " + request.getTeacherId());
+        }
+        validateScheduleData(request);
+
+        Schedule schedule = new Schedule();
+        schedule.setClassRoom(classRoom);
+        schedule.setSubject(subject);
+        schedule.setTeacher(teacher);
+        schedule.setDayOfWeek(request.getDayOfWeek());
+        schedule.setStartTime(request.getStartTime());
+        schedule.setEndTime(request.getEndTime());
+        schedule.setAcademicYear(request.getAcademicYear());
+        schedule.setSemester(request.getSemester());
+        schedule.setNotes(request.getNotes());
+        schedule.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
+        return schedule;
+    }
+
+    private IntervalIndex<Schedule> buildScheduleIndex(List<Schedule> schedules) {
+        IntervalIndex<Schedule> index = new IntervalIndex<>();
+        for (Schedule schedule : schedules) {
+            indexSchedule(index, schedule);
+        }
+        return index;
+    }
+
+    private void indexSchedule(IntervalIndex<Schedule> index, Schedule schedule) {
+        if (schedule.getDayOfWeek() == null || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+            return;
+        }
+        int start = schedule.getStartTime().toSecondOfDay() / 60;
+        int end = schedule.getEndTime().toSecondOfDay() / 60;
+        if (schedule.getTeacher() != null) {
+            index.add(resourceKey(TEACHER_RESOURCE, schedule.getTeacher().getId(), schedule.getDayOfWeek()), start, end, schedule);
+        }
+        if (schedule.getClassRoom() != null) {
+            index.add(resourceKey(CLASSROOM_RESOURCE, schedule.getClassRoom().getId(), schedule.getDayOfWeek()), start, end, schedule);
+        }
+    }
+
+    private List<Map<String, Object>> findIndexedConflicts(IntervalIndex<Schedule> index, Schedule schedule) {
+        int start = schedule.getStartTime().toSecondOfDay() / 60;
+        int end = schedule.getEndTime().toSecondOfDay() / 60;
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+        for (Schedule existing : index.overlapping(
+                resourceKey(TEACHER_RESOURCE, schedule.getTeacher().getId(), schedule.getDayOfWeek()), start, end)) {
+            conflicts.add(createConflictInfo("TEACHER_CONFLICT", existing, "Teacher has another class at this time"));
+        }
+        for (Schedule existing : index.overlapping(
+                resourceKey(CLASSROOM_RESOURCE, schedule.getClassRoom().getId(), schedule.getDayOfWeek()), start, end)) {
+            conflicts.add(createConflictInfo("CLASSROOM_CONFLICT", existing, "Classroom is already occupied at this time"));
+        }
+        return conflicts;
+    }
+
+    private long resourceKey(int resourceType, Long resourceId, DayOfWeek dayOfWeek) {
+        return (resourceId << 4 | dayOfWeek.ordinal()) << 1 | resourceType;
+    }
+
+    /**
+     * Insert schedules with JDBC batches and write the generated ids back
+     * Schedule ids use IDENTITY generation, which keeps Hibernate from batching inserts
+     */
+    private void batchInsertSchedules(List<Schedule> schedules) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < schedules.size(); from += BULK_INSERT_BATCH_SIZE) {
+            List<Schedule> chunk = schedules.subList(from, Math.min(from + BULK_INSERT_BATCH_SIZE, schedules.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SCHEDULE_SQL, new String[] { "id" }),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Schedule schedule = chunk.get(i);
+                            ps.setLong(1, schedule.getClassRoom().getId());
+                            ps.setLong(2, schedule.getSubject().getId());
+                            ps.setLong(3, schedule.getTeacher().getId());
+                            ps.setString(4, schedule.getDayOfWeek().name());
+                            ps.setTime(5, Time.valueOf(schedule.getStartTime()));
+                            ps.setTime(6, Time.valueOf(schedule.getEndTime()));
+                            ps.setString(7, schedule.getAcademicYear());
+                            ps.setInt(8, schedule.getSemester());
+                            ps.setBoolean(9, schedule.getIsActive());
+                            ps.setString(10, schedule.getNotes());
+                            ps.setTimestamp(11, Timestamp.valueOf(now));
+                            ps.setTimestamp(12, Timestamp.valueOf(now));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    },
+                    keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size(); i++) {
+                Schedule schedule = chunk.get(i);
+                // Drivers differ in the generated key column label, so take the single value
+                schedule.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+                schedule.setCreatedAt(now);
+                schedule.setUpdatedAt(now);
+            }
+        }
+    }
+
+    // Timetable solver helpers
+
+    private TimetableGrid timetableGrid() {
+        List<DayOfWeek> days = Arrays.stream(solverSchoolDays.split(","))
+                .map(String::trim)
+                .filter(day -> !day.isEmpty())
+                .map(DayOfWeek::valueOf)
+                .collect(Collectors.toList());
+        return new TimetableGrid(days, LocalTime.parse(solverDayStart), solverPeriodMinutes,
+                solverPeriodsPerDay, solverBreakAfterPeriod, solverBreakMinutes);
+    }
+
+    private List<Schedule> activeSchedules(String academicYear, Integer semester) {
+        return scheduleRepository.findByAcademicYearAndSemesterAndIsActiveTrue(academicYear, semester);
+    }
+
+    private void addLessons(List<Schedule> lessons, List<Integer> lengths, ClassRoom classRoom, Subject subject,
+            User teacher, String academicYear, Integer semester, int weeklyPeriods, int lessonLength,
+            int periodsPerDay) {
+        int length = Math.min(Math.max(lessonLength, 1), periodsPerDay);
+        for (int remaining = weeklyPeriods; remaining > 0; remaining -= length) {
+            Schedule lesson = new Schedule();
+            lesson.setClassRoom(classRoom);
+            lesson.setSubject(subject);
+            lesson.setTeacher(teacher);
+            lesson.setAcademicYear(academicYear);
+            lesson.setSemester(semester);
+            lesson.setIsActive(true);
+            lessons.add(lesson);
+            lengths.add(Math.min(length, remaining));
+        }
+    }
+
+    /**
+     * Place lessons on the grid around the fixed schedules and write the chosen day and times into them
+     * Class and teacher slots taken by fixed schedules or teacher unavailability are blocked;
+     * preferred holds each lesson's original slot (or null) and preferredWeight the cost of moving it.
+     * Callers run this outside any transaction; it only reads ids, days and times of the schedules.
+     */
+    private TimetableSolver.Result solveLessons(TimetableGrid grid, List<Schedule> lessons, int[] lengths,
+            int[] preferred, List<Schedule> fixed,
+            List<TimetableGenerationRequest.TeacherUnavailability> unavailability,
+            int preferredWeight, Integer classDailyLimit, Integer timeBudgetSeconds) {
+        Map<Long, Integer> classIndex = new HashMap<>();
+        Map<Long, Integer> teacherIndex = new HashMap<>();
+        Map<String, Integer> assignmentIndex = new HashMap<>();
+        for (Schedule lesson : lessons) {
+            classIndex.computeIfAbsent(lesson.getClassRoom().getId(), id -> classIndex.size());
+            teacherIndex.computeIfAbsent(lesson.getTeacher().getId(), id -> teacherIndex.size());
+        }
+
+        TimetableSolver.Builder builder = TimetableSolver.Problem
+                .builder(grid.getDays(), grid.getPeriodsPerDay(), classIndex.size(), teacherIndex.size())
+                .preferredWeight(preferredWeight)
+                .classDailyLimit(classDailyLimit != null ? classDailyLimit : 0)
+                .lateFromPeriod(solverLateFromPeriod);
+
+        for (Schedule schedule : fixed) {
+            int day = grid.dayIndex(schedule.getDayOfWeek());
+            if (day < 0) {
+                continue;
+            }
+            Integer classRoom = classIndex.get(schedule.getClassRoom().getId());
+            Integer teacher = schedule.getTeacher() != null ? teacherIndex.get(schedule.getTeacher().getId()) : null;
+            if (classRoom == null && teacher == null) {
+                continue;
+            }
+            for (int p = grid.firstPeriod(schedule.getStartTime()); p <= grid.lastPeriod(schedule.getEndTime()); p++) {
+                if (classRoom != null) {
+                    builder.blockClassSlot(classRoom, grid.slot(day, p));
+                }
+                if (teacher != null) {
+                    builder.blockTeacherSlot(teacher, grid.slot(day, p));
+                }
+            }
+        }
+        for (TimetableGenerationRequest.TeacherUnavailability window : unavailability) {
+            Integer teacher = teacherIndex.get(window.getTeacherId());
+            int day = grid.dayIndex(window.getDayOfWeek());
+            if (teacher == null || day < 0) {
+                continue;
+            }
+            int from = window.getStartTime() != null ? grid.firstPeriod(window.getStartTime()) : 0;
+            int to = window.getEndTime() != null ? grid.lastPeriod(window.getEndTime()) : grid.getPeriodsPerDay() - 1;
+            for (int p = from; p <= to; p++) {
+                builder.blockTeacherSlot(teacher, grid.slot(day, p));
+            }
+        }
+
+        for (int i = 0; i < lessons.size(); i++) {
+            Schedule lesson = lessons.get(i);
+            String key = lesson.getClassRoom().getId() + "-" + lesson.getSubject().getId() + "-" + lesson.getTeacher().getId();
+            Integer assignment = assignmentIndex.get(key);
+            if (assignment == null) {
+                assignment = builder.addAssignment(classIndex.get(lesson.getClassRoom().getId()),
+                        teacherIndex.get(lesson.getTeacher().getId()));
+                assignmentIndex.put(key, assignment);
+            }
+            builder.addLesson(assignment, lengths[i], preferred != null ? preferred[i] : -1);
+        }
+
+        int budgetSeconds = timeBudgetSeconds != null ? timeBudgetSeconds : solverTimeBudgetSeconds;
+        budgetSeconds = Math.max(1, Math.min(budgetSeconds, solverMaxTimeBudgetSeconds));
+        int poolSize = solverExecutor.getMaximumPoolSize();
+        int workers = solverWorkers > 0 ? Math.min(solverWorkers, poolSize) : poolSize;
+
+        TimetableSolver.Result result = new TimetableSolver(builder.build())
+                .solve(solverExecutor, workers, budgetSeconds * 1000L, System.nanoTime());
+
+        for (int i = 0; i < lessons.size(); i++) {
+            int slot = result.getLessonSlot(i);
+            int period = grid.periodOfSlot(slot);
+            Schedule lesson = lessons.get(i);
+            lesson.setDayOfWeek(grid.dayOfSlot(slot));
+            lesson.setStartTime(grid.startTime(period));
+            lesson.setEndTime(grid.endTime(period, lengths[i]));
+        }
+        return result;
+    }
+
+    private <T> Map<Long, T> loadById(List<T> entities, Function<T, Long> idOf,
+            Set<Long> requestedIds, String entityName) {
+        Map<Long, T> byId = entities.stream().collect(Collectors.toMap(idOf, entity -> entity));
+        for (Long id : requestedIds) {
+            if (!byId.containsKey(id)) {
+                throw new ResourceNotFoundException(entityName + " not found with id: " + id);
+            }
+        }
+        return byId;
+    }
+
+    private int[] toIntArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
     private ScheduleResponse mapToScheduleResponse(Schedule schedule) {
         return ScheduleResponse.builder()
                 .id(schedule.getId())
@@ -827,26 +1289,267 @@ public class ScheduleServiceImpl implements ScheduleService {
     @Override
     public List<Map<String, Object>> getAvailableTimeSlots(Long teacherId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        return availabilityService.findTeacherFreeSlots(teacherId, dayOfWeek, academicYear, semester,
+                MIN_SESSION_DURATION);
     }
 
     @Override
     public List<Map<String, Object>> getAvailableClassroomTimeSlots(Long classRoomId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        return availabilityService.findClassRoomFreeSlots(classRoomId, dayOfWeek, academicYear, semester,
+                MIN_SESSION_DURATION);
+    }
+
+    @Override
+    public List<Map<String, Object>> findCommonFreeSlots(Long teacherId, Long classRoomId, String academicYear,
+            Integer semester, Integer minDurationMinutes) {
+        log.info("Finding common free slots for teacher: {} and class: {}, period: {}/{}",
+                teacherId, classRoomId, academicYear, semester);
+        int minDuration = minDurationMinutes != null ? minDurationMinutes : MIN_SESSION_DURATION;
+        return availabilityService.findCommonFreeSlots(teacherId, classRoomId, academicYear, semester, minDuration);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ScheduleResponse> generateScheduleSuggestions(Long classRoomId, Long subjectId,
             Long teacherId, String academicYear,
             Integer semester) {
-        return new ArrayList<>();
+        log.info("Generating schedule suggestions for class: {}, subject: {}, period: {}/{}",
+                classRoomId, subjectId, academicYear, semester);
+
+        if (!validateAcademicPeriod(academicYear, semester)) {
+            throw new ValidationException("Invalid academic period: " + academicYear + "/" + semester);
+        }
+        TimetableGrid grid = timetableGrid();
+        List<Schedule> periodSchedules = new ArrayList<>();
+        List<Schedule> lessons = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        readTransaction.executeWithoutResult(status -> loadSuggestionInput(classRoomId, subjectId, teacherId,
+                academicYear, semester, grid, periodSchedules, lessons, lengths));
+        if (lessons.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        TimetableSolver.Result result = solveLessons(grid, lessons, toIntArray(lengths), null,
+                periodSchedules, Collections.emptyList(), 0, null, null);
+        if (!result.isFeasible()) {
+            log.warn("No conflict-free suggestion for class {} subject {}: {}", classRoomId, subjectId, result.toMetrics());
+            return new ArrayList<>();
+        }
+
+        return lessons.stream()
+                .map(this::mapToScheduleResponse)
+                .collect(Collectors.toList());
+    }
+
+    private void loadSuggestionInput(Long classRoomId, Long subjectId, Long teacherId, String academicYear,
+            Integer semester, TimetableGrid grid, List<Schedule> periodSchedules, List<Schedule> lessons,
+            List<Integer> lengths) {
+        ClassRoom classRoom = classRoomRepository.findById(classRoomId)
+                .orElseThrow(() -> new ResourceNotFoundException("ClassRoom not found with id: " + classRoomId));
+        Subject subject = subjectRepository.findById(subjectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Subject not found with id: " + subjectId));
+
+        periodSchedules.addAll(activeSchedules(academicYear, semester));
+
+        // Weekly quota is the subject credit hours; periods already scheduled for the class count against it
+        int quota = subject.getCreditHours() != null && subject.getCreditHours() > 0
+                ? subject.getCreditHours() : DEFAULT_WEEKLY_PERIODS;
+        int scheduled = 0;
+        User teacher = null;
+        for (Schedule schedule : periodSchedules) {
+            if (classRoomId.equals(schedule.getClassRoom().getId()) && subjectId.equals(schedule.getSubject().getId())) {
+                scheduled += grid.coveredPeriods(schedule.getStartTime(), schedule.getEndTime());
+                if (teacher == null) {
+                    teacher = (User) Hibernate.unproxy(schedule.getTeacher());
+                }
+            }
+        }
+        int remaining = quota - scheduled;
+        if (remaining <= 0) {
+            log.info("Subject {} already fills its {} weekly periods for class {}", subjectId, quota, classRoomId);
+            return;
+        }
+
+        if (teacherId != null) {
+            teacher = userRepository.findById(teacherId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found with id: " + teacherId));
+        } else if (teacher == null) {
+            throw new ValidationException("teacherId", "Teacher is required when the subject has no schedule in this class yet");
+        }
+
+        addLessons(lessons, lengths, classRoom, subject, teacher, academicYear, semester,
+                remaining, DEFAULT_LESSON_LENGTH, grid.getPeriodsPerDay());
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ScheduleResponse> resolveScheduleConflicts(List<Long> conflictingScheduleIds,
             String resolutionStrategy) {
-        return new ArrayList<>();
+        log.info("Resolving conflicts for {} schedules with strategy: {}",
+                conflictingScheduleIds != null ? conflictingScheduleIds.size() : 0, resolutionStrategy);
+
+        if (conflictingScheduleIds == null || conflictingScheduleIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String strategy = resolutionStrategy != null ? resolutionStrategy.toUpperCase() : "MINIMAL_CHANGE";
+        int preferredWeight;
+        switch (strategy) {
+            case "MINIMAL_CHANGE":
+                preferredWeight = MOVE_PENALTY;
+                break;
+            case "OPTIMIZE":
+                preferredWeight = 0;
+                break;
+            default:
+                throw new ValidationException("resolutionStrategy", "Unsupported resolution strategy: " + resolutionStrategy);
+        }
+
+        List<Schedule> lessons = new ArrayList<>();
+        List<Schedule> fixed = new ArrayList<>();
+        readTransaction.executeWithoutResult(status -> {
+            lessons.addAll(scheduleRepository.findAllById(conflictingScheduleIds));
+            if (lessons.size() != new HashSet<>(conflictingScheduleIds).size()) {
+                throw new ResourceNotFoundException("One or more schedules not found: " + conflictingScheduleIds);
+            }
+            Schedule first = lessons.get(0);
+            for (Schedule schedule : lessons) {
+                if (!Objects.equals(first.getAcademicYear(), schedule.getAcademicYear())
+                        || !Objects.equals(first.getSemester(), schedule.getSemester())) {
+                    throw new ValidationException("Schedules to resolve must belong to the same academic period");
+                }
+            }
+            Set<Long> movable = lessons.stream().map(Schedule::getId).collect(Collectors.toSet());
+            activeSchedules(first.getAcademicYear(), first.getSemester()).stream()
+                    .filter(schedule -> !movable.contains(schedule.getId()))
+                    .forEach(fixed::add);
+        });
+
+        TimetableGrid grid = timetableGrid();
+
+        int[] lengths = new int[lessons.size()];
+        int[] preferred = new int[lessons.size()];
+        LocalTime[] originalStart = new LocalTime[lessons.size()];
+        LocalTime[] originalEnd = new LocalTime[lessons.size()];
+        for (int i = 0; i < lessons.size(); i++) {
+            Schedule schedule = lessons.get(i);
+            int day = grid.dayIndex(schedule.getDayOfWeek());
+            lengths[i] = Math.min(grid.coveredPeriods(schedule.getStartTime(), schedule.getEndTime()),
+                    grid.getPeriodsPerDay());
+            preferred[i] = day >= 0 ? grid.slot(day, grid.firstPeriod(schedule.getStartTime())) : -1;
+            originalStart[i] = schedule.getStartTime();
+            originalEnd[i] = schedule.getEndTime();
+        }
+
+        TimetableSolver.Result result = solveLessons(grid, lessons, lengths, preferred, fixed,
+                Collections.emptyList(), preferredWeight, null, null);
+        if (!result.isFeasible()) {
+            throw new ValidationException("Unable to resolve schedule conflicts: "
+                    + result.getHardViolations() + " conflicts remain");
+        }
+
+        // Lessons that stay in their original slot keep their exact original times
+        for (int i = 0; i < lessons.size(); i++) {
+            if (preferred[i] == result.getLessonSlot(i)) {
+                lessons.get(i).setStartTime(originalStart[i]);
+                lessons.get(i).setEndTime(originalEnd[i]);
+            }
+        }
+        List<ScheduleResponse> responses = writeTransaction.execute(status -> {
+            List<Schedule> saved = scheduleRepository.saveAll(lessons);
+            publishScheduleChanges(saved);
+            return saved.stream()
+                    .map(this::mapToScheduleResponse)
+                    .collect(Collectors.toList());
+        });
+
+        log.info("Resolved schedule conflicts: {}", result.toMetrics());
+        return responses;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> generateTimetable(TimetableGenerationRequest request) {
+        log.info("Generating timetable for {} assignments, period: {}/{}",
+                request.getAssignments().size(), request.getAcademicYear(), request.getSemester());
+
+        if (!validateAcademicPeriod(request.getAcademicYear(), request.getSemester())) {
+            throw new ValidationException("Invalid academic period: " + request.getAcademicYear() + "/" + request.getSemester());
+        }
+
+        TimetableGrid grid = timetableGrid();
+        List<Schedule> lessons = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        List<Schedule> replaced = new ArrayList<>();
+        List<Schedule> fixed = new ArrayList<>();
+        readTransaction.executeWithoutResult(status -> loadTimetableInput(request, grid, lessons, lengths, replaced, fixed));
+
+        TimetableSolver.Result result = solveLessons(grid, lessons, toIntArray(lengths), null, fixed,
+                request.getTeacherUnavailability(), 0, request.getMaxDailyPeriodsPerClass(),
+                request.getTimeBudgetSeconds());
+
+        boolean persisted = result.isFeasible() && Boolean.TRUE.equals(request.getPersist());
+        List<ScheduleResponse> schedules;
+        if (persisted) {
+            schedules = writeTransaction.execute(status -> {
+                replaced.forEach(schedule -> schedule.setIsActive(false));
+                List<Schedule> changed = new ArrayList<>(scheduleRepository.saveAll(replaced));
+                List<Schedule> generated = scheduleRepository.saveAll(lessons);
+                changed.addAll(generated);
+                publishScheduleChanges(changed);
+                return generated.stream()
+                        .map(this::mapToScheduleResponse)
+                        .collect(Collectors.toList());
+            });
+        } else {
+            schedules = lessons.stream()
+                    .map(this::mapToScheduleResponse)
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("schedules", schedules);
+        response.put("metrics", result.toMetrics());
+        response.put("persisted", persisted);
+        response.put("replacedSchedules", persisted ? replaced.size() : 0);
+
+        log.info("Timetable generated, persisted: {}, metrics: {}", persisted, result.toMetrics());
+        return response;
+    }
+
+    private void loadTimetableInput(TimetableGenerationRequest request, TimetableGrid grid, List<Schedule> lessons,
+            List<Integer> lengths, List<Schedule> replaced, List<Schedule> fixed) {
+        Set<Long> classRoomIds = new HashSet<>();
+        Set<Long> subjectIds = new HashSet<>();
+        Set<Long> teacherIds = new HashSet<>();
+        for (TimetableGenerationRequest.Assignment assignment : request.getAssignments()) {
+            classRoomIds.add(assignment.getClassRoomId());
+            subjectIds.add(assignment.getSubjectId());
+            teacherIds.add(assignment.getTeacherId());
+        }
+        Map<Long, ClassRoom> classRooms = loadById(classRoomRepository.findAllById(classRoomIds), ClassRoom::getId,
+                classRoomIds, "ClassRoom");
+        Map<Long, Subject> subjects = loadById(subjectRepository.findAllById(subjectIds), Subject::getId,
+                subjectIds, "Subject");
+        Map<Long, User> teachers = loadById(userRepository.findAllById(teacherIds), User::getId,
+                teacherIds, "Teacher");
+
+        for (TimetableGenerationRequest.Assignment assignment : request.getAssignments()) {
+            int lessonLength = assignment.getLessonLength() != null ? assignment.getLessonLength() : DEFAULT_LESSON_LENGTH;
+            addLessons(lessons, lengths, classRooms.get(assignment.getClassRoomId()),
+                    subjects.get(assignment.getSubjectId()), teachers.get(assignment.getTeacherId()),
+                    request.getAcademicYear(), request.getSemester(), assignment.getWeeklyPeriods(),
+                    lessonLength, grid.getPeriodsPerDay());
+        }
+
+        for (Schedule schedule : activeSchedules(request.getAcademicYear(), request.getSemester())) {
+            if (Boolean.TRUE.equals(request.getReplaceExisting())
+                    && classRoomIds.contains(schedule.getClassRoom().getId())) {
+                replaced.add(schedule);
+            } else {
+                fixed.add(schedule);
+            }
+        }
     }
 
     @Override
@@ -914,18 +1617,71 @@ public class ScheduleServiceImpl implements ScheduleService {
     @Override
     public List<Map<String, Object>> getFreePeriods(Long classRoomId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        return availabilityService.findClassRoomFreeSlots(classRoomId, dayOfWeek, academicYear, semester,
+                ScheduleAvailabilityService.SLOT_MINUTES);
     }
 
     @Override
     public List<Map<String, Object>> getTeacherFreePeriods(Long teacherId, DayOfWeek dayOfWeek,
             String academicYear, Integer semester) {
-        return new ArrayList<>();
+        return availabilityService.findTeacherFreeSlots(teacherId, dayOfWeek, academicYear, semester,
+                ScheduleAvailabilityService.SLOT_MINUTES);
     }
 
     @Override
     public Map<String, Object> generateScheduleDensityReport(String academicYear, Integer semester) {
-        return new HashMap<>();
+        log.info("Generating schedule density report for {} semester {}", academicYear, semester);
+
+        TimetableGrid grid = timetableGrid();
+        ScheduleMatrix matrix = getScheduleMatrix(academicYear, semester, grid);
+        int periods = grid.getPeriodsPerDay();
+        int[] concurrency = matrix.classConcurrency();
+
+        List<Map<String, Object>> heatmap = new ArrayList<>();
+        Map<DayOfWeek, Integer> dayTotals = new LinkedHashMap<>();
+        int peakCell = -1;
+        int occupied = 0;
+        for (int d = 0; d < grid.getDays(); d++) {
+            int total = 0;
+            for (int p = 0; p < periods; p++) {
+                int cell = d * periods + p;
+                total += concurrency[cell];
+                if (peakCell < 0 || concurrency[cell] > concurrency[peakCell]) {
+                    peakCell = cell;
+                }
+            }
+            occupied += total;
+            DayOfWeek day = grid.dayOfSlot(grid.slot(d, 0));
+            dayTotals.put(day, total);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("dayOfWeek", day);
+            row.put("periods", Arrays.copyOfRange(concurrency, d * periods, (d + 1) * periods));
+            row.put("totalClassPeriods", total);
+            heatmap.add(row);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("academicYear", academicYear);
+        report.put("semester", semester);
+        report.put("scheduleCount", matrix.getScheduleCount());
+        report.put("classCount", matrix.getClassCount());
+        report.put("teacherCount", matrix.getTeacherCount());
+        report.put("periodsPerDay", periods);
+        report.put("heatmap", heatmap);
+        report.put("dayTotals", dayTotals);
+        if (peakCell >= 0 && concurrency[peakCell] > 0) {
+            Map<String, Object> peak = new LinkedHashMap<>();
+            peak.put("dayOfWeek", grid.dayOfSlot(grid.slot(peakCell / periods, 0)));
+            peak.put("period", peakCell % periods + 1);
+            peak.put("startTime", grid.startTime(peakCell % periods));
+            peak.put("concurrentClasses", concurrency[peakCell]);
+            report.put("peak", peak);
+        }
+        int cells = concurrency.length;
+        report.put("averageConcurrentClasses", round(cells > 0 ? (double) occupied / cells : 0));
+        report.put("density", round(matrix.getClassCount() > 0 ? (double) occupied / (cells * matrix.getClassCount()) : 0));
+        report.put("outsideGridSchedules", matrix.getOutsideGrid());
+        return report;
     }
 
     @Override
@@ -935,7 +1691,14 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     @Override
     public Map<String, Object> generateScheduleEfficiencyMetrics(String academicYear, Integer semester) {
-        return new HashMap<>();
+        log.info("Generating schedule efficiency metrics for {} semester {}", academicYear, semester);
+
+        TimetableGrid grid = timetableGrid();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("academicYear", academicYear);
+        metrics.put("semester", semester);
+        metrics.putAll(efficiencyMetrics(getScheduleMatrix(academicYear, semester, grid)));
+        return metrics;
     }
 
     @Override
@@ -969,6 +1732,102 @@ public class ScheduleServiceImpl implements ScheduleService {
     @Override
     public Map<String, Object> generateScheduleComparisonReport(String academicYear1, Integer semester1,
             String academicYear2, Integer semester2) {
-        return new HashMap<>();
+        log.info("Comparing schedules of {} semester {} with {} semester {}",
+                academicYear1, semester1, academicYear2, semester2);
+
+        TimetableGrid grid = timetableGrid();
+        Map<String, Number> first = efficiencyMetrics(getScheduleMatrix(academicYear1, semester1, grid));
+        Map<String, Number> second = efficiencyMetrics(getScheduleMatrix(academicYear2, semester2, grid));
+
+        Map<String, Number> changes = new LinkedHashMap<>();
+        first.forEach((metric, value) -> {
+            Number other = second.get(metric);
+            if (value instanceof Integer && other instanceof Integer) {
+                changes.put(metric, other.intValue() - value.intValue());
+            } else {
+                changes.put(metric, round(other.doubleValue() - value.doubleValue()));
+            }
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("period1", Map.of("academicYear", academicYear1, "semester", semester1, "metrics", first));
+        report.put("period2", Map.of("academicYear", academicYear2, "semester", semester2, "metrics", second));
+        report.put("changes", changes);
+        return report;
+    }
+
+    // Schedule analytics helpers
+
+    /**
+     * Occupancy matrices of an academic period, built from a single projection query and kept until the
+     * next committed schedule change
+     */
+    private ScheduleMatrix getScheduleMatrix(String academicYear, Integer semester, TimetableGrid grid) {
+        String key = academicYear + "_" + semester;
+        ScheduleMatrix matrix = scheduleMatrices.get(key);
+        if (matrix != null) {
+            return matrix;
+        }
+
+        long version = matrixVersion.get();
+        ScheduleMatrix.Builder builder = ScheduleMatrix.builder(grid.getDays(), grid.getPeriodsPerDay());
+        for (Object[] row : scheduleRepository.findActiveSlotRowsByPeriod(academicYear, semester)) {
+            if (row[1] == null || row[2] == null || row[4] == null || row[5] == null) {
+                continue;
+            }
+            LocalTime start = (LocalTime) row[4];
+            LocalTime end = (LocalTime) row[5];
+            builder.add((Long) row[2], (Long) row[1], grid.dayIndex((DayOfWeek) row[3]),
+                    grid.firstPeriod(start), grid.lastPeriod(end));
+        }
+        matrix = builder.build();
+        log.debug("Built schedule matrix for {} with {} schedules", key, matrix.getScheduleCount());
+        if (matrixVersion.get() == version) {
+            ScheduleMatrix existing = scheduleMatrices.putIfAbsent(key, matrix);
+            return existing != null ? existing : matrix;
+        }
+        return matrix;
+    }
+
+    private Map<String, Number> efficiencyMetrics(ScheduleMatrix matrix) {
+        ScheduleMatrix.Stats teachers = matrix.teacherStats(maxConsecutivePeriods);
+        ScheduleMatrix.Stats classes = matrix.classStats(maxConsecutivePeriods);
+
+        int[] dailyLoad = new int[matrix.getDays()];
+        int[] concurrency = matrix.classConcurrency();
+        for (int cell = 0; cell < concurrency.length; cell++) {
+            dailyLoad[cell / matrix.getPeriods()] += concurrency[cell];
+        }
+        double meanLoad = Arrays.stream(dailyLoad).average().orElse(0);
+        double loadStdDev = Math.sqrt(Arrays.stream(dailyLoad)
+                .mapToDouble(load -> (load - meanLoad) * (load - meanLoad)).average().orElse(0));
+
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("scheduleCount", matrix.getScheduleCount());
+        metrics.put("teacherCount", teachers.getResources());
+        metrics.put("classCount", classes.getResources());
+        metrics.put("teacherIdleGaps", teachers.getIdleGaps());
+        metrics.put("teacherIdleGapsPerDay", round(teachers.getIdleGapsPerActiveDay()));
+        metrics.put("classIdleGaps", classes.getIdleGaps());
+        metrics.put("classIdleGapsPerDay", round(classes.getIdleGapsPerActiveDay()));
+        metrics.put("teacherMaxConsecutivePeriods", teachers.getMaxConsecutive());
+        metrics.put("teacherAverageLongestRun", round(teachers.getAverageLongestRun()));
+        metrics.put("teacherOverloadedDays", teachers.getOverloadedDays());
+        metrics.put("classMaxConsecutivePeriods", classes.getMaxConsecutive());
+        metrics.put("roomUtilization", round(classes.getAverageUtilization()));
+        metrics.put("roomUtilizationMin", round(classes.getMinUtilization()));
+        metrics.put("roomUtilizationMax", round(classes.getMaxUtilization()));
+        metrics.put("teacherUtilization", round(teachers.getAverageUtilization()));
+        metrics.put("teacherDayBalanceStdDev", round(teachers.getAverageDailyStdDev()));
+        metrics.put("classDayBalanceStdDev", round(classes.getAverageDailyStdDev()));
+        metrics.put("dailyLoadVariation", round(meanLoad > 0 ? loadStdDev / meanLoad : 0));
+        metrics.put("teacherDoubleBookedPeriods", teachers.getDoubleBookedPeriods());
+        metrics.put("classDoubleBookedPeriods", classes.getDoubleBookedPeriods());
+        metrics.put("outsideGridSchedules", matrix.getOutsideGrid());
+        return metrics;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
     }
 }
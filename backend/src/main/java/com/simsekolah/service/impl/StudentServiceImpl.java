@@ -13,6 +13,7 @@ import com.simsekolah.enums.UserType;
 import com.simsekolah.exception.ResourceNotFoundException;
 import com.simsekolah.exception.ValidationException;
 import com.simsekolah.repository.*;
+import com.simsekolah.service.ReportService;
 import com.simsekolah.service.StudentService;
 
 import org.slf4j.Logger;
@@ -53,6 +54,9 @@ public class StudentServiceImpl implements StudentService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ReportService reportService;
+
     @Override
     public StudentResponse createStudent(CreateStudentRequest request) {
         logger.info("Creating new student with NIS: {}", request.getNis());
@@ -597,12 +601,10 @@ public class StudentServiceImpl implements StudentService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> generateStudentReportCard(Long studentId, String academicYear, Integer semester) {
-        // This would involve complex queries across multiple tables
-        // Implementation would depend on specific report requirements
-        Map<String, Object> reportCard = new HashMap<>();
+        // Report cards are rendered from transcript data (see ReportCardPdfService)
+        findStudentById(studentId);
+        Map<String, Object> reportCard = new HashMap<>(reportService.generateStudentTranscript(studentId, academicYear, semester));
         reportCard.put("studentId", studentId);
-        reportCard.put("academicYear", academicYear);
-        reportCard.put("semester", semester);
         return reportCard;
     }
 
@@ -1,23 +1,34 @@
 package com.simsekolah.service.impl;
 
 import com.simsekolah.dto.response.TeachingActivityResponse;
-import com.simsekolah.entity.Schedule;
 import com.simsekolah.entity.TeachingActivity;
+import com.simsekolah.event.ScheduleSlot;
+import com.simsekolah.event.SchedulesChangedEvent;
+import com.simsekolah.exception.ValidationException;
 import com.simsekolah.repository.ScheduleRepository;
 import com.simsekolah.repository.TeachingActivityRepository;
+import com.simsekolah.service.AcademicCalendarService;
 import com.simsekolah.service.TeachingActivityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -26,48 +37,89 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
 
     private final TeachingActivityRepository teachingActivityRepository;
     private final ScheduleRepository scheduleRepository;
+    private final AcademicCalendarService academicCalendarService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String DEFAULT_TOPIC = "Sesuai Silabus";
+    private static final int MAX_GENERATION_DAYS = 366;
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final String INSERT_ACTIVITY_COLUMNS = " INTO teaching_activities (subject_id, teacher_id, "
+            + "class_room_id, schedule_id, date, start_time, end_time, topic, is_completed, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Insert that skips rows already present for (schedule_id, date), resolved from the database on first use
+    private volatile String insertActivitySql;
 
     @Override
     @Transactional
     public Map<String, Object> generateTodaysActivities() {
         LocalDate today = LocalDate.now();
-        DayOfWeek dayOfWeek = today.getDayOfWeek();
-        log.info("Starting generation of teaching activities for today: {} ({})", today, dayOfWeek);
+        return generateActivities(today, today);
+    }
 
-        List<Schedule> todaysSchedules = scheduleRepository.findByDayOfWeekAndIsActiveTrue(dayOfWeek);
-        if (todaysSchedules.isEmpty()) {
-            log.info("No active schedules found for {}", dayOfWeek);
-            return Map.of("message", "No active schedules for today.", "created", 0, "skipped", 0);
+    @Override
+    @Transactional
+    public Map<String, Object> generateActivities(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new ValidationException("Invalid date range: " + startDate + " - " + endDate);
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_GENERATION_DAYS) {
+            throw new ValidationException("Date range must not exceed " + MAX_GENERATION_DAYS + " days");
         }
+        log.info("Starting generation of teaching activities from {} to {}", startDate, endDate);
 
-        int createdCount = 0;
-        int skippedCount = 0;
+        List<LocalDate> dates = startDate.datesUntil(endDate.plusDays(1)).collect(Collectors.toList());
+        Set<LocalDate> holidays = academicCalendarService.findHolidaysInDates(dates);
+
+        // Active schedules of the weekdays in range, grouped by day of week
+        Set<DayOfWeek> days = dates.stream()
+                .filter(date -> !holidays.contains(date))
+                .map(LocalDate::getDayOfWeek)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DayOfWeek.class)));
+        Map<DayOfWeek, List<Object[]>> schedulesByDay = days.isEmpty()
+                ? Collections.emptyMap()
+                : scheduleRepository.findActiveRowsByDays(days).stream()
+                        .collect(Collectors.groupingBy(row -> (DayOfWeek) row[4]));
 
-        for (Schedule schedule : todaysSchedules) {
-            if (teachingActivityRepository.existsByScheduleIdAndDate(schedule.getId(), today)) {
-                skippedCount++;
+        // Activities that already exist for the range, keyed by schedule id and date
+        Set<String> existing = new HashSet<>();
+        for (Object[] row : teachingActivityRepository.findScheduleDatesBetween(startDate, endDate)) {
+            existing.add(row[0] + "|" + row[1]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        int skippedCount = 0;
+        int holidayCount = 0;
+        for (LocalDate date : dates) {
+            if (holidays.contains(date)) {
+                holidayCount++;
                 continue;
             }
-
-            TeachingActivity newActivity = new TeachingActivity();
-            newActivity.setSchedule(schedule);
-            newActivity.setSubject(schedule.getSubject());
-            newActivity.setTeacher(schedule.getTeacher());
-            newActivity.setClassRoom(schedule.getClassRoom());
-            newActivity.setDate(today);
-            newActivity.setStartTime(schedule.getStartTime());
-            newActivity.setEndTime(schedule.getEndTime());
-            newActivity.setTopic("Sesuai Silabus");
-            newActivity.setIsCompleted(false);
-
-            teachingActivityRepository.save(newActivity);
-            createdCount++;
+            for (Object[] schedule : schedulesByDay.getOrDefault(date.getDayOfWeek(), Collections.emptyList())) {
+                if (existing.contains(schedule[0] + "|" + date)) {
+                    skippedCount++;
+                    continue;
+                }
+                rows.add(new Object[] {
+                        schedule[1], schedule[2], schedule[3], schedule[0], Date.valueOf(date),
+                        Time.valueOf((LocalTime) schedule[5]), Time.valueOf((LocalTime) schedule[6]),
+                        DEFAULT_TOPIC, false, Timestamp.valueOf(now), Timestamp.valueOf(now)
+                });
+            }
         }
 
-        log.info("Finished generating teaching activities. Created: {}, Skipped: {}", createdCount, skippedCount);
+        int createdCount = rows.isEmpty() ? 0 : insertActivities(rows);
+        skippedCount += rows.size() - createdCount;
+
+        log.info("Finished generating teaching activities. Created: {}, Skipped: {}, Holidays: {}",
+                createdCount, skippedCount, holidayCount);
         Map<String, Object> result = new HashMap<>();
+        result.put("startDate", startDate);
+        result.put("endDate", endDate);
         result.put("activitiesCreated", createdCount);
         result.put("activitiesSkipped", skippedCount);
+        result.put("holidaysSkipped", holidayCount);
         return result;
     }
 
@@ -79,6 +131,73 @@ public class TeachingActivityServiceImpl implements TeachingActivityService {
         return activitiesPage.map(this::mapToResponse);
     }
 
+    /**
+     * Drop pre-generated activities that no longer match their schedule
+     * Runs inside the schedule write; future activities of every changed schedule that have not started, are
+     * not completed and have no attendance are deleted, then the dates they covered are generated again from
+     * the active schedules. Deleted schedules are not handled here: their activities cascade with them.
+     */
+    @EventListener
+    @Transactional
+    public void onSchedulesChanged(SchedulesChangedEvent event) {
+        Set<Long> scheduleIds = event.getChangedSlots().stream()
+                .map(ScheduleSlot::getScheduleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (scheduleIds.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        LocalDate lastDate = teachingActivityRepository.findLastUnstartedDate(scheduleIds, today, now);
+        if (lastDate == null) {
+            return;
+        }
+        int deleted = teachingActivityRepository.deleteUnstartedBySchedules(scheduleIds, today, now);
+        log.info("Deleted {} unstarted teaching activities of {} changed schedules", deleted, scheduleIds.size());
+        if (event.getChangedSlots().stream().anyMatch(ScheduleSlot::isActive)) {
+            LocalDate endDate = lastDate.isAfter(today.plusDays(MAX_GENERATION_DAYS - 1))
+                    ? today.plusDays(MAX_GENERATION_DAYS - 1) : lastDate;
+            generateActivities(today, endDate);
+        }
+    }
+
+    /**
+     * Batch insert the rows; a concurrent run may have inserted the same schedule and date after our read,
+     * in which case the unique key drops the row
+     *
+     * @return number of rows inserted
+     */
+    private int insertActivities(List<Object[]> rows) {
+        int[][] counts = jdbcTemplate.batchUpdate(insertActivitySql(), rows, INSERT_BATCH_SIZE, (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                ps.setObject(i + 1, row[i]);
+            }
+        });
+        int created = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for a batched row
+                created += count >= 0 ? count : 1;
+            }
+        }
+        return created;
+    }
+
+    private String insertActivitySql() {
+        String sql = insertActivitySql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            // MySQL, MariaDB and H2 in MySQL mode know INSERT IGNORE; PostgreSQL needs ON CONFLICT
+            sql = product != null && product.toLowerCase().contains("postgres")
+                    ? "INSERT" + INSERT_ACTIVITY_COLUMNS + " ON CONFLICT (schedule_id, date) DO NOTHING"
+                    : "INSERT IGNORE" + INSERT_ACTIVITY_COLUMNS;
+            insertActivitySql = sql;
+        }
+        return sql;
+    }
+
     private TeachingActivityResponse mapToResponse(TeachingActivity activity) {
         return TeachingActivityResponse.builder()
                 .id(activity.getId())
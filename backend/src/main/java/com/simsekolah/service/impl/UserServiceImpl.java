@@ -10,6 +10,7 @@ import com.simsekolah.exception.ResourceNotFoundException;
 import com.simsekolah.exception.ValidationException;
 import com.simsekolah.repository.RoleRepository;
 import com.simsekolah.repository.UserRepository;
+import com.simsekolah.security.AuthenticatedPrincipalCache;
 import com.simsekolah.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +48,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthenticatedPrincipalCache authenticatedPrincipalCache;
+
     @Override
     public UserResponse createUser(CreateUserRequest request) {
         logger.info("Creating new user with email: {}", request.getEmail());
@@ -83,6 +87,7 @@ public class UserServiceImpl implements UserService {
         logger.info("Updating user with ID: {}", userId);
 
         User user = findUserById(userId);
+        String previousEmail = user.getEmail();
 
         // Validate unique constraints if email or NIP is being updated
         if (StringUtils.hasText(request.getEmail()) && !request.getEmail().equals(user.getEmail())) {
@@ -121,6 +126,8 @@ public class UserServiceImpl implements UserService {
 
         user.setUpdatedAt(LocalDateTime.now());
 
+        // Email, user type and active flag all feed the authenticated principal
+        authenticatedPrincipalCache.invalidateUser(previousEmail);
         User updatedUser = userRepository.save(user);
         logger.info("Successfully updated user with ID: {}", updatedUser.getId());
 
@@ -174,6 +181,7 @@ public class UserServiceImpl implements UserService {
 
         User user = findUserById(userId);
         userRepository.delete(user);
+        authenticatedPrincipalCache.invalidateUser(user.getEmail());
 
         logger.info("Successfully deleted user with ID: {}", userId);
     }
@@ -198,6 +206,7 @@ public class UserServiceImpl implements UserService {
         user.setIsActive(false);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        authenticatedPrincipalCache.invalidateUser(user.getEmail());
 
         logger.info("Successfully deactivated user with ID: {}", userId);
     }
@@ -213,6 +222,7 @@ public class UserServiceImpl implements UserService {
             user.getRoles().add(role);
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            authenticatedPrincipalCache.invalidateUser(user.getEmail());
             logger.info("Successfully assigned role {} to user {}", roleId, userId);
         } else {
             logger.warn("User {} already has role {}", userId, roleId);
@@ -230,6 +240,7 @@ public class UserServiceImpl implements UserService {
             user.getRoles().remove(role);
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            authenticatedPrincipalCache.invalidateUser(user.getEmail());
             logger.info("Successfully removed role {} from user {}", roleId, userId);
         } else {
             logger.warn("User {} does not have role {}", userId, roleId);
@@ -271,6 +282,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        authenticatedPrincipalCache.invalidateUser(user.getEmail());
 
         logger.info("Successfully changed password for user: {}", userId);
     }
@@ -283,6 +295,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        authenticatedPrincipalCache.invalidateUser(user.getEmail());
 
         logger.info("Successfully reset password for user: {}", userId);
     }
@@ -345,6 +358,7 @@ public class UserServiceImpl implements UserService {
         });
         
         userRepository.saveAll(users);
+        users.forEach(user -> authenticatedPrincipalCache.invalidateUser(user.getEmail()));
         logger.info("Successfully deactivated {} users", users.size());
     }
 
@@ -0,0 +1,96 @@
+package com.simsekolah.util;
+
+/**
+ * The school's grading scale: percentage bands for letter grades and grade points, and GPA bands
+ * Every place that turns a score into a letter or grade points uses this class, including the JPQL
+ * aggregations, so report cards, transcripts, distributions and GPA snapshots cannot drift apart.
+ */
+public final class GradeScale {
+
+    public static final int A_MIN_PERCENTAGE = 90;
+    public static final int B_MIN_PERCENTAGE = 80;
+    public static final int C_MIN_PERCENTAGE = 70;
+    public static final int D_MIN_PERCENTAGE = 60;
+
+    /**
+     * Maximum score assumed for assessments whose own maximum is missing or not positive
+     */
+    public static final int DEFAULT_MAX_SCORE = 100;
+
+    /**
+     * Score percentage of a {@code StudentAssessment sa} joined to its {@code Assessment a} in JPQL
+     */
+    public static final String PERCENTAGE_JPQL =
+            "sa.score * 100 / CASE WHEN a.maxScore > 0 THEN a.maxScore ELSE " + DEFAULT_MAX_SCORE + " END";
+
+    /**
+     * JPQL expression for the letter grade of {@link #PERCENTAGE_JPQL}
+     */
+    public static final String LETTER_GRADE_JPQL =
+            "CASE WHEN " + PERCENTAGE_JPQL + " >= " + A_MIN_PERCENTAGE + " THEN 'A' " +
+            "WHEN " + PERCENTAGE_JPQL + " >= " + B_MIN_PERCENTAGE + " THEN 'B' " +
+            "WHEN " + PERCENTAGE_JPQL + " >= " + C_MIN_PERCENTAGE + " THEN 'C' " +
+            "WHEN " + PERCENTAGE_JPQL + " >= " + D_MIN_PERCENTAGE + " THEN 'D' ELSE 'F' END";
+
+    /**
+     * JPQL expression for the grade points of {@link #PERCENTAGE_JPQL}
+     */
+    public static final String GRADE_POINTS_JPQL =
+            "CASE WHEN " + PERCENTAGE_JPQL + " >= " + A_MIN_PERCENTAGE + " THEN 4 " +
+            "WHEN " + PERCENTAGE_JPQL + " >= " + B_MIN_PERCENTAGE + " THEN 3 " +
+            "WHEN " + PERCENTAGE_JPQL + " >= " + C_MIN_PERCENTAGE + " THEN 2 " +
+            "WHEN " + PERCENTAGE_JPQL + " >= " + D_MIN_PERCENTAGE + " THEN 1 ELSE 0 END";
+
+    private GradeScale() {
+    }
+
+    public static String letterGrade(double percentage) {
+        if (percentage >= A_MIN_PERCENTAGE)
+            return "A";
+        if (percentage >= B_MIN_PERCENTAGE)
+            return "B";
+        if (percentage >= C_MIN_PERCENTAGE)
+            return "C";
+        if (percentage >= D_MIN_PERCENTAGE)
+            return "D";
+        return "F";
+    }
+
+    public static String letterGrade(double score, double maxScore) {
+        return letterGrade(percentage(score, maxScore));
+    }
+
+    public static double gradePoints(double percentage) {
+        if (percentage >= A_MIN_PERCENTAGE)
+            return 4.0;
+        if (percentage >= B_MIN_PERCENTAGE)
+            return 3.0;
+        if (percentage >= C_MIN_PERCENTAGE)
+            return 2.0;
+        if (percentage >= D_MIN_PERCENTAGE)
+            return 1.0;
+        return 0.0;
+    }
+
+    /**
+     * Letter grade of a GPA on the 4-point scale (the midpoint between grade points)
+     */
+    public static String letterGradeForGpa(double gpa) {
+        if (gpa >= 3.5)
+            return "A";
+        if (gpa >= 2.5)
+            return "B";
+        if (gpa >= 1.5)
+            return "C";
+        if (gpa >= 0.5)
+            return "D";
+        return "F";
+    }
+
+    /**
+     * Score percentage, with the same fallback to {@link #DEFAULT_MAX_SCORE} as {@link #PERCENTAGE_JPQL}
+     */
+    public static double percentage(double score, double maxScore) {
+        return (score / (maxScore > 0 ? maxScore : DEFAULT_MAX_SCORE)) * 100;
+    }
+}
@@ -0,0 +1,87 @@
+package com.simsekolah.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyed index of half-open integer intervals supporting incremental inserts and overlap queries
+ * Each key keeps its intervals sorted by start together with the longest interval length, so an
+ * overlap query only scans starts in (start - maxLength, end): O(log n + candidates).
+ */
+public final class IntervalIndex<T> {
+
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    /**
+     * Add interval [start, end) carrying value under key
+     */
+    public void add(long key, int start, int end, T value) {
+        buckets.computeIfAbsent(key, k -> new Bucket()).add(start, end, value);
+    }
+
+    /**
+     * Values of all intervals under key overlapping [start, end), in start order
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> overlapping(long key, int start, int end) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null || start >= end) {
+            return new ArrayList<>();
+        }
+        List<T> result = new ArrayList<>();
+        // First candidate: smallest index whose start can still reach past the query start
+        int i = bucket.firstStartAbove(start - bucket.maxLength);
+        for (; i < bucket.size && bucket.starts[i] < end; i++) {
+            if (bucket.ends[i] > start) {
+                result.add((T) bucket.values[i]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return buckets.values().stream().mapToInt(bucket -> bucket.size).sum();
+    }
+
+    private static final class Bucket {
+        int[] starts = new int[4];
+        int[] ends = new int[4];
+        Object[] values = new Object[4];
+        int size;
+        int maxLength;
+
+        void add(int start, int end, Object value) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int position = firstStartAbove(start);
+            System.arraycopy(starts, position, starts, position + 1, size - position);
+            System.arraycopy(ends, position, ends, position + 1, size - position);
+            System.arraycopy(values, position, values, position + 1, size - position);
+            starts[position] = start;
+            ends[position] = end;
+            values[position] = value;
+            size++;
+            maxLength = Math.max(maxLength, end - start);
+        }
+
+        int firstStartAbove(int value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.simsekolah.util;
+
+import java.util.Arrays;
+
+/**
+ * Sweep-line overlap detection over primitive interval arrays
+ * Intervals are half-open [start, end) and only intervals of the same group can overlap
+ * (a group is typically day of week x teacher or day of week x classroom).
+ * Runs in O(n log n + k) for n intervals and k overlapping pairs.
+ */
+public final class IntervalSweep {
+
+    private static final int INDEX_BITS = 21;
+    private static final int START_BITS = 21;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long START_MASK = (1L << START_BITS) - 1;
+
+    /**
+     * Largest number of intervals and largest start value a single sweep can handle
+     */
+    public static final int MAX_INTERVALS = 1 << INDEX_BITS;
+
+    private IntervalSweep() {
+    }
+
+    /**
+     * Find all overlapping pairs (i, j) with i &lt; j and groups[i] == groups[j]
+     * Intervals with a negative group are ignored. Each pair is packed as (i &lt;&lt; 32) | j;
+     * the returned array is sorted, i.e. in the order a nested i/j loop would visit the pairs.
+     *
+     * @param groups non-negative group id per interval (at most 2^21 distinct ids)
+     * @param starts start per interval (0 .. 2^21, e.g. minute of day)
+     * @param ends   end per interval
+     */
+    public static long[] findOverlappingPairs(int[] groups, int[] starts, int[] ends) {
+        int n = groups.length;
+        if (n >= MAX_INTERVALS) {
+            throw new IllegalArgumentException("Too many intervals for a single sweep: " + n);
+        }
+
+        long[] keys = new long[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (groups[i] < 0) {
+                continue;
+            }
+            keys[count++] = ((long) groups[i] << (START_BITS + INDEX_BITS))
+                    | ((starts[i] & START_MASK) << INDEX_BITS)
+                    | i;
+        }
+        Arrays.sort(keys, 0, count);
+
+        long[] pairs = new long[Math.max(count, 16)];
+        int pairCount = 0;
+        int[] active = new int[Math.max(count, 1)];
+
+        int runStart = 0;
+        while (runStart < count) {
+            int group = (int) (keys[runStart] >>> (START_BITS + INDEX_BITS));
+            int runEnd = runStart;
+            while (runEnd < count && (int) (keys[runEnd] >>> (START_BITS + INDEX_BITS)) == group) {
+                runEnd++;
+            }
+
+            // Sweep one group in start order; active holds intervals still open at the current start
+            int activeCount = 0;
+            for (int k = runStart; k < runEnd; k++) {
+                int current = (int) (keys[k] & INDEX_MASK);
+                int kept = 0;
+                for (int a = 0; a < activeCount; a++) {
+                    int other = active[a];
+                    if (ends[other] > starts[current]) {
+                        active[kept++] = other;
+                        if (starts[other] < ends[current]) {
+                            if (pairCount == pairs.length) {
+                                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                            }
+                            int i = Math.min(current, other);
+                            int j = Math.max(current, other);
+                            pairs[pairCount++] = ((long) i << 32) | j;
+                        }
+                    }
+                }
+                activeCount = kept;
+                active[activeCount++] = current;
+            }
+            runStart = runEnd;
+        }
+
+        long[] result = Arrays.copyOf(pairs, pairCount);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * First index of a packed pair
+     */
+    public static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    /**
+     * Second index of a packed pair
+     */
+    public static int second(long pair) {
+        return (int) pair;
+    }
+}
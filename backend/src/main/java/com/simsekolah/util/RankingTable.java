@@ -0,0 +1,142 @@
+package com.simsekolah.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable dense ranking over primitive arrays
+ * Entries are kept sorted by score descending (ties by id ascending); a second copy sorted by id
+ * and the array of distinct scores give O(log n) rank lookups for a single id.
+ * Members are all ids the table was built for, including ids without a score,
+ * so callers can tell whether a change to an id affects the table.
+ */
+public final class RankingTable {
+
+    private final long[] rankedIds;
+    private final double[] rankedScores;
+    private final int[] ranks;
+
+    private final long[] idsSorted;
+    private final double[] scoresById;
+    private final double[] distinctScoresDesc;
+
+    private final long[] memberIds;
+
+    private RankingTable(long[] rankedIds, double[] rankedScores, long[] memberIds) {
+        int n = rankedIds.length;
+        this.rankedIds = rankedIds;
+        this.rankedScores = rankedScores;
+        this.ranks = new int[n];
+
+        double[] distinct = new double[n];
+        int distinctCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinctCount == 0 || Double.compare(distinct[distinctCount - 1], rankedScores[i]) != 0) {
+                distinct[distinctCount++] = rankedScores[i];
+            }
+            ranks[i] = distinctCount;
+        }
+        this.distinctScoresDesc = Arrays.copyOf(distinct, distinctCount);
+
+        Integer[] byId = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byId[i] = i;
+        }
+        Arrays.sort(byId, (a, b) -> Long.compare(rankedIds[a], rankedIds[b]));
+        this.idsSorted = new long[n];
+        this.scoresById = new double[n];
+        for (int i = 0; i < n; i++) {
+            idsSorted[i] = rankedIds[byId[i]];
+            scoresById[i] = rankedScores[byId[i]];
+        }
+
+        this.memberIds = memberIds.clone();
+        Arrays.sort(this.memberIds);
+    }
+
+    /**
+     * Build a table from parallel id/score arrays; memberIds may contain ids that have no score
+     */
+    public static RankingTable of(long[] ids, double[] scores, long[] memberIds) {
+        if (ids.length != scores.length) {
+            throw new IllegalArgumentException("ids and scores must have the same length");
+        }
+        int n = ids.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : Long.compare(ids[a], ids[b]);
+        });
+        long[] rankedIds = new long[n];
+        double[] rankedScores = new double[n];
+        for (int i = 0; i < n; i++) {
+            rankedIds[i] = ids[order[i]];
+            rankedScores[i] = scores[order[i]];
+        }
+        return new RankingTable(rankedIds, rankedScores, memberIds);
+    }
+
+    /**
+     * Dense rank of an id (1 = best), or 0 when the id has no score in this table
+     */
+    public int rankOf(long id) {
+        int index = Arrays.binarySearch(idsSorted, id);
+        if (index < 0) {
+            return 0;
+        }
+        return rankOfScore(scoresById[index]);
+    }
+
+    /**
+     * Dense rank a score would have in this table
+     */
+    public int rankOfScore(double score) {
+        int low = 0;
+        int high = distinctScoresDesc.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Double.compare(distinctScoresDesc[mid], score);
+            if (cmp > 0) {
+                low = mid + 1;
+            } else if (cmp < 0) {
+                high = mid - 1;
+            } else {
+                return mid + 1;
+            }
+        }
+        return low + 1;
+    }
+
+    /**
+     * Score of an id, or NaN when the id has no score in this table
+     */
+    public double scoreOf(long id) {
+        int index = Arrays.binarySearch(idsSorted, id);
+        return index >= 0 ? scoresById[index] : Double.NaN;
+    }
+
+    /**
+     * Whether the table was built for this id (scored or not)
+     */
+    public boolean isMember(long id) {
+        return Arrays.binarySearch(memberIds, id) >= 0;
+    }
+
+    public int size() {
+        return rankedIds.length;
+    }
+
+    public long idAt(int position) {
+        return rankedIds[position];
+    }
+
+    public double scoreAt(int position) {
+        return rankedScores[position];
+    }
+
+    public int rankAt(int position) {
+        return ranks[position];
+    }
+}
@@ -0,0 +1,40 @@
+package com.simsekolah.util;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Thread-bound progress reporting for long running report generation
+ * Report workers bind a listener before running a report; report code calls
+ * {@link #update(int, int)} from its main loop. Outside a worker this is a no-op.
+ */
+public final class ReportProgress {
+
+    private static final ThreadLocal<IntConsumer> LISTENER = new ThreadLocal<>();
+
+    private ReportProgress() {
+    }
+
+    /**
+     * Bind a progress listener (receives 0-100) to the current thread
+     */
+    public static void bind(IntConsumer listener) {
+        LISTENER.set(listener);
+    }
+
+    /**
+     * Remove the progress listener from the current thread
+     */
+    public static void clear() {
+        LISTENER.remove();
+    }
+
+    /**
+     * Report that {@code completed} of {@code total} work items are done
+     */
+    public static void update(int completed, int total) {
+        IntConsumer listener = LISTENER.get();
+        if (listener != null && total > 0) {
+            listener.accept((int) Math.min(99, (long) completed * 100 / total));
+        }
+    }
+}
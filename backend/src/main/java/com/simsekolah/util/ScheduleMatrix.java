@@ -0,0 +1,294 @@
+package com.simsekolah.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable per-teacher and per-class occupancy matrices (day x period) of one academic period.
+ * Cells count how many schedules cover a period, so values above one are double bookings.
+ * All statistics are computed from the primitive arrays without touching entities.
+ */
+public final class ScheduleMatrix {
+
+    private final int days;
+    private final int periods;
+    private final int scheduleCount;
+    private final int outsideGrid;
+    private final long[] teacherIds;
+    private final long[] classIds;
+    private final int[] teacherOcc;
+    private final int[] classOcc;
+
+    private ScheduleMatrix(Builder builder) {
+        this.days = builder.days;
+        this.periods = builder.periods;
+        this.scheduleCount = builder.scheduleCount;
+        this.outsideGrid = builder.outsideGrid;
+        this.teacherIds = builder.teacherIds.keySet().stream().mapToLong(Long::longValue).toArray();
+        this.classIds = builder.classIds.keySet().stream().mapToLong(Long::longValue).toArray();
+        int cells = days * periods;
+        this.teacherOcc = new int[teacherIds.length * cells];
+        this.classOcc = new int[classIds.length * cells];
+
+        // Builder indexes follow insertion order of the LinkedHashMaps
+        for (int i = 0; i < builder.size; i++) {
+            int base = builder.day[i] * periods;
+            for (int p = builder.first[i]; p <= builder.last[i]; p++) {
+                teacherOcc[builder.teacher[i] * cells + base + p]++;
+                classOcc[builder.classRoom[i] * cells + base + p]++;
+            }
+        }
+    }
+
+    public static Builder builder(int days, int periods) {
+        return new Builder(days, periods);
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getPeriods() {
+        return periods;
+    }
+
+    public int getScheduleCount() {
+        return scheduleCount;
+    }
+
+    /**
+     * Schedules that fall on days outside the grid and are not part of the matrices
+     */
+    public int getOutsideGrid() {
+        return outsideGrid;
+    }
+
+    public int getTeacherCount() {
+        return teacherIds.length;
+    }
+
+    public int getClassCount() {
+        return classIds.length;
+    }
+
+    /**
+     * Number of classes in a lesson, per day x period cell
+     */
+    public int[] classConcurrency() {
+        int cells = days * periods;
+        int[] concurrency = new int[cells];
+        for (int c = 0; c < classIds.length; c++) {
+            for (int cell = 0; cell < cells; cell++) {
+                if (classOcc[c * cells + cell] > 0) {
+                    concurrency[cell]++;
+                }
+            }
+        }
+        return concurrency;
+    }
+
+    public Stats teacherStats(int consecutiveLimit) {
+        return stats(teacherOcc, teacherIds.length, consecutiveLimit);
+    }
+
+    public Stats classStats(int consecutiveLimit) {
+        return stats(classOcc, classIds.length, consecutiveLimit);
+    }
+
+    private Stats stats(int[] occ, int resources, int consecutiveLimit) {
+        Stats stats = new Stats();
+        stats.resources = resources;
+        int cells = days * periods;
+        double utilizationSum = 0;
+        double stdDevSum = 0;
+        stats.minUtilization = resources > 0 ? 1.0 : 0.0;
+        int[] daily = new int[days];
+
+        for (int r = 0; r < resources; r++) {
+            int resourceOccupied = 0;
+            for (int d = 0; d < days; d++) {
+                int base = r * cells + d * periods;
+                int occupied = 0;
+                int first = -1;
+                int last = -1;
+                int run = 0;
+                int longest = 0;
+                for (int p = 0; p < periods; p++) {
+                    int value = occ[base + p];
+                    if (value > 0) {
+                        occupied++;
+                        run++;
+                        longest = Math.max(longest, run);
+                        if (first < 0) {
+                            first = p;
+                        }
+                        last = p;
+                        if (value > 1) {
+                            stats.doubleBookedPeriods += value - 1;
+                        }
+                    } else {
+                        run = 0;
+                    }
+                }
+                daily[d] = occupied;
+                resourceOccupied += occupied;
+                if (occupied > 0) {
+                    stats.activeDays++;
+                    stats.idleGaps += (last - first + 1) - occupied;
+                    stats.consecutiveSum += longest;
+                    stats.maxConsecutive = Math.max(stats.maxConsecutive, longest);
+                    if (longest > consecutiveLimit) {
+                        stats.overloadedDays++;
+                    }
+                }
+            }
+            stats.occupiedPeriods += resourceOccupied;
+            double utilization = (double) resourceOccupied / cells;
+            utilizationSum += utilization;
+            stats.minUtilization = Math.min(stats.minUtilization, utilization);
+            stats.maxUtilization = Math.max(stats.maxUtilization, utilization);
+            stdDevSum += stdDev(daily);
+        }
+
+        if (resources > 0) {
+            stats.averageUtilization = utilizationSum / resources;
+            stats.averageDailyStdDev = stdDevSum / resources;
+        }
+        return stats;
+    }
+
+    static double stdDev(int[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double mean = Arrays.stream(values).average().orElse(0);
+        double variance = 0;
+        for (int value : values) {
+            variance += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(variance / values.length);
+    }
+
+    /**
+     * Aggregated statistics over all teachers or all classes
+     */
+    public static final class Stats {
+        int resources;
+        int occupiedPeriods;
+        int activeDays;
+        int idleGaps;
+        int doubleBookedPeriods;
+        int maxConsecutive;
+        long consecutiveSum;
+        int overloadedDays;
+        double averageUtilization;
+        double minUtilization;
+        double maxUtilization;
+        double averageDailyStdDev;
+
+        public int getResources() {
+            return resources;
+        }
+
+        public int getOccupiedPeriods() {
+            return occupiedPeriods;
+        }
+
+        public int getActiveDays() {
+            return activeDays;
+        }
+
+        public int getIdleGaps() {
+            return idleGaps;
+        }
+
+        public double getIdleGapsPerActiveDay() {
+            return activeDays > 0 ? (double) idleGaps / activeDays : 0;
+        }
+
+        public int getDoubleBookedPeriods() {
+            return doubleBookedPeriods;
+        }
+
+        public int getMaxConsecutive() {
+            return maxConsecutive;
+        }
+
+        public double getAverageLongestRun() {
+            return activeDays > 0 ? (double) consecutiveSum / activeDays : 0;
+        }
+
+        public int getOverloadedDays() {
+            return overloadedDays;
+        }
+
+        public double getAverageUtilization() {
+            return averageUtilization;
+        }
+
+        public double getMinUtilization() {
+            return minUtilization;
+        }
+
+        public double getMaxUtilization() {
+            return maxUtilization;
+        }
+
+        public double getAverageDailyStdDev() {
+            return averageDailyStdDev;
+        }
+    }
+
+    /**
+     * Collects schedule intervals already mapped to grid coordinates
+     */
+    public static final class Builder {
+        private final int days;
+        private final int periods;
+        private final Map<Long, Integer> teacherIds = new LinkedHashMap<>();
+        private final Map<Long, Integer> classIds = new LinkedHashMap<>();
+        private int[] teacher = new int[64];
+        private int[] classRoom = new int[64];
+        private int[] day = new int[64];
+        private int[] first = new int[64];
+        private int[] last = new int[64];
+        private int size;
+        private int scheduleCount;
+        private int outsideGrid;
+
+        private Builder(int days, int periods) {
+            this.days = days;
+            this.periods = periods;
+        }
+
+        /**
+         * Add a schedule covering periods first..last of a grid day; day -1 marks a day outside the grid
+         */
+        public Builder add(long teacherId, long classRoomId, int dayIndex, int firstPeriod, int lastPeriod) {
+            scheduleCount++;
+            if (dayIndex < 0 || dayIndex >= days) {
+                outsideGrid++;
+                return this;
+            }
+            if (size == teacher.length) {
+                teacher = Arrays.copyOf(teacher, size * 2);
+                classRoom = Arrays.copyOf(classRoom, size * 2);
+                day = Arrays.copyOf(day, size * 2);
+                first = Arrays.copyOf(first, size * 2);
+                last = Arrays.copyOf(last, size * 2);
+            }
+            teacher[size] = teacherIds.computeIfAbsent(teacherId, id -> teacherIds.size());
+            classRoom[size] = classIds.computeIfAbsent(classRoomId, id -> classIds.size());
+            day[size] = dayIndex;
+            first[size] = Math.max(0, firstPeriod);
+            last[size] = Math.min(periods - 1, lastPeriod);
+            size++;
+            return this;
+        }
+
+        public ScheduleMatrix build() {
+            return new ScheduleMatrix(this);
+        }
+    }
+}
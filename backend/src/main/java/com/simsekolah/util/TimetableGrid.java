@@ -0,0 +1,109 @@
+package com.simsekolah.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Weekly lesson grid: school days x fixed-length periods with an optional break
+ * Every minute of a school day maps to exactly one period (the break belongs to the period
+ * before it, minutes outside the grid are clamped to the first or last period), so two
+ * overlapping time intervals always share at least one covered period.
+ */
+public final class TimetableGrid {
+
+    private final DayOfWeek[] days;
+    private final int[] dayIndex = new int[7];
+    private final int[] periodStarts;
+    private final int periodMinutes;
+
+    public TimetableGrid(List<DayOfWeek> schoolDays, LocalTime dayStart, int periodMinutes,
+                         int periodsPerDay, int breakAfterPeriod, int breakMinutes) {
+        if (schoolDays.isEmpty() || periodsPerDay <= 0 || periodMinutes <= 0) {
+            throw new IllegalArgumentException("Timetable grid needs school days and positive period settings");
+        }
+        this.days = schoolDays.toArray(new DayOfWeek[0]);
+        Arrays.fill(dayIndex, -1);
+        for (int d = 0; d < days.length; d++) {
+            dayIndex[days[d].ordinal()] = d;
+        }
+        this.periodMinutes = periodMinutes;
+        this.periodStarts = new int[periodsPerDay];
+        int minute = dayStart.toSecondOfDay() / 60;
+        for (int p = 0; p < periodsPerDay; p++) {
+            if (breakAfterPeriod > 0 && p == breakAfterPeriod) {
+                minute += breakMinutes;
+            }
+            periodStarts[p] = minute;
+            minute += periodMinutes;
+        }
+    }
+
+    public int getDays() {
+        return days.length;
+    }
+
+    public int getPeriodsPerDay() {
+        return periodStarts.length;
+    }
+
+    /**
+     * Grid day index of a day of week, or -1 when it is not a school day
+     */
+    public int dayIndex(DayOfWeek dayOfWeek) {
+        return dayOfWeek == null ? -1 : dayIndex[dayOfWeek.ordinal()];
+    }
+
+    public DayOfWeek dayOfSlot(int slot) {
+        return days[slot / periodStarts.length];
+    }
+
+    public int slot(int day, int period) {
+        return day * periodStarts.length + period;
+    }
+
+    public int periodOfSlot(int slot) {
+        return slot % periodStarts.length;
+    }
+
+    /**
+     * Period covering the given minute of the day
+     */
+    public int periodOf(int minuteOfDay) {
+        int low = 0;
+        int high = periodStarts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (periodStarts[mid] <= minuteOfDay) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public int firstPeriod(LocalTime start) {
+        return periodOf(start.toSecondOfDay() / 60);
+    }
+
+    public int lastPeriod(LocalTime end) {
+        return periodOf(end.toSecondOfDay() / 60 - 1);
+    }
+
+    /**
+     * Number of periods covered by the interval [start, end)
+     */
+    public int coveredPeriods(LocalTime start, LocalTime end) {
+        return Math.max(1, lastPeriod(end) - firstPeriod(start) + 1);
+    }
+
+    public LocalTime startTime(int period) {
+        return LocalTime.ofSecondOfDay(periodStarts[period] * 60L);
+    }
+
+    public LocalTime endTime(int period, int length) {
+        return LocalTime.ofSecondOfDay((periodStarts[period + length - 1] + periodMinutes) * 60L);
+    }
+}
@@ -0,0 +1,729 @@
+package com.simsekolah.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Timetable solver based on parallel simulated annealing over a day x period grid
+ * A problem is a set of assignments (class, teacher, number of weekly lessons) on top of slots
+ * that are already taken for classes or teachers. Lessons occupy one or more consecutive periods
+ * of one day. Hard constraints (no class or teacher double booking, class daily limit) dominate
+ * the cost; soft constraints keep idle gaps low, spread an assignment over the week, avoid the
+ * last periods of the day and, when a lesson has a preferred slot, keep it there.
+ * Each worker anneals from its own start and reheats from its best state when it stagnates;
+ * the best solution over all workers within the time budget is returned.
+ */
+public final class TimetableSolver {
+
+    static final int HARD = 1000;
+    static final int CLASS_GAP = 3;
+    static final int TEACHER_GAP = 1;
+    static final int SAME_DAY = 10;
+    static final int LATE_PERIOD = 1;
+
+    private final Problem problem;
+
+    public TimetableSolver(Problem problem) {
+        this.problem = problem;
+    }
+
+    /**
+     * Run the given number of independent workers on the executor for at most budgetMillis
+     */
+    public Result solve(Executor executor, int workers, long budgetMillis, long seed) {
+        long started = System.currentTimeMillis();
+        long deadline = started + Math.max(budgetMillis, 1);
+        int workerCount = Math.max(1, workers);
+
+        List<CompletableFuture<Result>> futures = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            long workerSeed = seed + 0x9E3779B97F4A7C15L * (w + 1);
+            futures.add(CompletableFuture.supplyAsync(() -> new Worker(problem, workerSeed).run(deadline), executor));
+        }
+
+        Result best = null;
+        long iterations = 0;
+        int restarts = 0;
+        for (CompletableFuture<Result> future : futures) {
+            Result result = future.join();
+            iterations += result.iterations;
+            restarts += result.restarts;
+            if (best == null || result.cost < best.cost) {
+                best = result;
+            }
+        }
+        best.iterations = iterations;
+        best.restarts = restarts;
+        best.workers = workerCount;
+        best.elapsedMillis = System.currentTimeMillis() - started;
+        return best;
+    }
+
+    /**
+     * Immutable description of what has to be placed and what is already taken
+     */
+    public static final class Problem {
+        final int days;
+        final int periodsPerDay;
+        final int slots;
+        final int classCount;
+        final int teacherCount;
+        final int[] assignmentClass;
+        final int[] assignmentTeacher;
+        final int[] assignmentMaxPerDay;
+        final int[] lessonAssignment;
+        final int[] lessonLength;
+        final int[] lessonPreferred;
+        final int preferredWeight;
+        final int classDailyLimit;
+        final int lateFromPeriod;
+        final byte[] classBlocked;
+        final byte[] teacherBlocked;
+
+        private Problem(Builder builder) {
+            this.days = builder.days;
+            this.periodsPerDay = builder.periodsPerDay;
+            this.slots = days * periodsPerDay;
+            this.classCount = builder.classCount;
+            this.teacherCount = builder.teacherCount;
+            int assignments = builder.assignmentClass.size();
+            this.assignmentClass = toArray(builder.assignmentClass);
+            this.assignmentTeacher = toArray(builder.assignmentTeacher);
+            this.assignmentMaxPerDay = new int[assignments];
+            this.lessonAssignment = toArray(builder.lessonAssignment);
+            this.lessonLength = toArray(builder.lessonLength);
+            this.lessonPreferred = toArray(builder.lessonPreferred);
+            this.preferredWeight = builder.preferredWeight;
+            this.classDailyLimit = builder.classDailyLimit > 0 ? builder.classDailyLimit : periodsPerDay;
+            this.lateFromPeriod = builder.lateFromPeriod > 0 ? builder.lateFromPeriod : periodsPerDay;
+            this.classBlocked = builder.classBlocked;
+            this.teacherBlocked = builder.teacherBlocked;
+
+            int[] lessonsPerAssignment = new int[assignments];
+            for (int a : lessonAssignment) {
+                lessonsPerAssignment[a]++;
+            }
+            for (int a = 0; a < assignments; a++) {
+                assignmentMaxPerDay[a] = Math.max(1, (lessonsPerAssignment[a] + days - 1) / days);
+            }
+        }
+
+        public static Builder builder(int days, int periodsPerDay, int classCount, int teacherCount) {
+            return new Builder(days, periodsPerDay, classCount, teacherCount);
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public int getPeriodsPerDay() {
+            return periodsPerDay;
+        }
+
+        public int getLessonCount() {
+            return lessonAssignment.length;
+        }
+
+        public int getLessonAssignment(int lesson) {
+            return lessonAssignment[lesson];
+        }
+
+        public int getLessonLength(int lesson) {
+            return lessonLength[lesson];
+        }
+
+        public int getLessonPreferred(int lesson) {
+            return lessonPreferred[lesson];
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Builder for {@link Problem}; classes and teachers are dense indexes chosen by the caller
+     */
+    public static final class Builder {
+        private final int days;
+        private final int periodsPerDay;
+        private final int classCount;
+        private final int teacherCount;
+        private final byte[] classBlocked;
+        private final byte[] teacherBlocked;
+        private final List<Integer> assignmentClass = new ArrayList<>();
+        private final List<Integer> assignmentTeacher = new ArrayList<>();
+        private final List<Integer> lessonAssignment = new ArrayList<>();
+        private final List<Integer> lessonLength = new ArrayList<>();
+        private final List<Integer> lessonPreferred = new ArrayList<>();
+        private int preferredWeight;
+        private int classDailyLimit;
+        private int lateFromPeriod;
+
+        private Builder(int days, int periodsPerDay, int classCount, int teacherCount) {
+            if (days <= 0 || periodsPerDay <= 0) {
+                throw new IllegalArgumentException("Timetable grid must have at least one day and one period");
+            }
+            this.days = days;
+            this.periodsPerDay = periodsPerDay;
+            this.classCount = classCount;
+            this.teacherCount = teacherCount;
+            this.classBlocked = new byte[Math.max(classCount, 1) * days * periodsPerDay];
+            this.teacherBlocked = new byte[Math.max(teacherCount, 1) * days * periodsPerDay];
+        }
+
+        /**
+         * Add an assignment and return its index
+         */
+        public int addAssignment(int classIndex, int teacherIndex) {
+            assignmentClass.add(classIndex);
+            assignmentTeacher.add(teacherIndex);
+            return assignmentClass.size() - 1;
+        }
+
+        /**
+         * Add a lesson of an assignment; preferredSlot is -1 when the lesson may go anywhere
+         */
+        public int addLesson(int assignment, int length, int preferredSlot) {
+            if (length < 1 || length > periodsPerDay) {
+                throw new IllegalArgumentException("Lesson length must be between 1 and " + periodsPerDay);
+            }
+            lessonAssignment.add(assignment);
+            lessonLength.add(length);
+            lessonPreferred.add(preferredSlot);
+            return lessonAssignment.size() - 1;
+        }
+
+        public Builder blockClassSlot(int classIndex, int slot) {
+            classBlocked[classIndex * days * periodsPerDay + slot] = 1;
+            return this;
+        }
+
+        public Builder blockTeacherSlot(int teacherIndex, int slot) {
+            teacherBlocked[teacherIndex * days * periodsPerDay + slot] = 1;
+            return this;
+        }
+
+        public Builder preferredWeight(int preferredWeight) {
+            this.preferredWeight = preferredWeight;
+            return this;
+        }
+
+        public Builder classDailyLimit(int classDailyLimit) {
+            this.classDailyLimit = classDailyLimit;
+            return this;
+        }
+
+        public Builder lateFromPeriod(int lateFromPeriod) {
+            this.lateFromPeriod = lateFromPeriod;
+            return this;
+        }
+
+        public Problem build() {
+            return new Problem(this);
+        }
+    }
+
+    /**
+     * Best placement found and its quality metrics
+     */
+    public static final class Result {
+        int[] lessonSlot;
+        long cost;
+        long iterations;
+        int restarts;
+        int workers;
+        long elapsedMillis;
+        int hardViolations;
+        int classGaps;
+        int teacherGaps;
+        int sameDayExcess;
+        int latePeriods;
+        int movedLessons;
+
+        /**
+         * Start slot (day * periodsPerDay + period) of a lesson
+         */
+        public int getLessonSlot(int lesson) {
+            return lessonSlot[lesson];
+        }
+
+        public boolean isFeasible() {
+            return hardViolations == 0;
+        }
+
+        public int getHardViolations() {
+            return hardViolations;
+        }
+
+        public int getMovedLessons() {
+            return movedLessons;
+        }
+
+        public Map<String, Object> toMetrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("feasible", isFeasible());
+            metrics.put("cost", cost);
+            metrics.put("hardViolations", hardViolations);
+            metrics.put("classIdleGaps", classGaps);
+            metrics.put("teacherIdleGaps", teacherGaps);
+            metrics.put("sameDayExcessLessons", sameDayExcess);
+            metrics.put("latePeriodLessons", latePeriods);
+            metrics.put("movedLessons", movedLessons);
+            metrics.put("iterations", iterations);
+            metrics.put("restarts", restarts);
+            metrics.put("workers", workers);
+            metrics.put("elapsedMillis", elapsedMillis);
+            return metrics;
+        }
+    }
+
+    /**
+     * One annealing run with its own mutable state
+     */
+    private static final class Worker {
+        private static final int TIME_CHECK_INTERVAL = 1024;
+
+        private final Problem p;
+        private final SplittableRandom random;
+        private final int lessons;
+        private final int[] slot;
+        private final int[] classOcc;
+        private final int[] teacherOcc;
+        private final int[] assignmentDay;
+        private final int[] classLessons;
+        private final int[] classLessonOffset;
+        private final long[] touched = new long[12];
+        private int touchedCount;
+
+        private int[] bestSlot;
+        private long bestCost;
+        private long cost;
+
+        Worker(Problem problem, long seed) {
+            this.p = problem;
+            this.random = new SplittableRandom(seed);
+            this.lessons = problem.lessonAssignment.length;
+            this.slot = new int[lessons];
+            this.classOcc = new int[Math.max(problem.classCount, 1) * problem.slots];
+            this.teacherOcc = new int[Math.max(problem.teacherCount, 1) * problem.slots];
+            this.assignmentDay = new int[Math.max(problem.assignmentClass.length, 1) * problem.days];
+            for (int i = 0; i < classOcc.length; i++) {
+                classOcc[i] = problem.classBlocked[i];
+            }
+            for (int i = 0; i < teacherOcc.length; i++) {
+                teacherOcc[i] = problem.teacherBlocked[i];
+            }
+
+            // Lessons grouped by class for swap moves
+            int[] perClass = new int[Math.max(problem.classCount, 1) + 1];
+            for (int l = 0; l < lessons; l++) {
+                perClass[problem.assignmentClass[problem.lessonAssignment[l]] + 1]++;
+            }
+            for (int c = 1; c < perClass.length; c++) {
+                perClass[c] += perClass[c - 1];
+            }
+            this.classLessonOffset = perClass.clone();
+            this.classLessons = new int[lessons];
+            int[] fill = perClass.clone();
+            for (int l = 0; l < lessons; l++) {
+                classLessons[fill[problem.assignmentClass[problem.lessonAssignment[l]]]++] = l;
+            }
+        }
+
+        Result run(long deadline) {
+            Arrays.fill(slot, -1);
+            if (lessons == 0) {
+                bestSlot = new int[0];
+                return buildResult(0, 0);
+            }
+            greedyStart();
+            cost = fullCost();
+            bestCost = cost;
+            bestSlot = slot.clone();
+
+            long iterations = 0;
+            int restarts = 0;
+            long startMillis = System.currentTimeMillis();
+            long span = Math.max(1, deadline - startMillis);
+            double t0 = HARD / 2.0;
+            double tEnd = 0.05;
+            double temperature = t0;
+            long lastImprovement = 0;
+            long stagnationLimit = 50_000L + 20L * lessons;
+
+            while (true) {
+                if ((iterations & (TIME_CHECK_INTERVAL - 1)) == 0) {
+                    long now = System.currentTimeMillis();
+                    if (now >= deadline || bestCost == 0) {
+                        break;
+                    }
+                    double progress = (double) (now - startMillis) / span;
+                    temperature = t0 * Math.pow(tEnd / t0, progress);
+                }
+                iterations++;
+
+                long delta = random.nextInt(2) == 0 ? tryMove(temperature) : trySwap(temperature);
+                if (delta != Long.MIN_VALUE) {
+                    cost += delta;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        System.arraycopy(slot, 0, bestSlot, 0, lessons);
+                        lastImprovement = iterations;
+                    }
+                }
+
+                // Reheat from the best state when stuck
+                if (iterations - lastImprovement > stagnationLimit) {
+                    restoreBest();
+                    t0 = Math.max(temperature * 4, 2.0);
+                    startMillis = System.currentTimeMillis();
+                    span = Math.max(1, deadline - startMillis);
+                    lastImprovement = iterations;
+                    restarts++;
+                }
+            }
+            return buildResult(iterations, restarts);
+        }
+
+        private void greedyStart() {
+            int[] order = new int[lessons];
+            for (int i = 0; i < lessons; i++) {
+                order[i] = i;
+            }
+            // Longest lessons first, random tie order
+            for (int i = lessons - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+            Integer[] boxed = new Integer[lessons];
+            for (int i = 0; i < lessons; i++) {
+                boxed[i] = order[i];
+            }
+            Arrays.sort(boxed, (a, b) -> Integer.compare(p.lessonLength[b], p.lessonLength[a]));
+
+            for (Integer lesson : boxed) {
+                int preferred = p.lessonPreferred[lesson];
+                if (preferred >= 0 && fits(lesson, preferred)) {
+                    place(lesson, preferred);
+                    continue;
+                }
+                int bestStart = -1;
+                long bestDelta = Long.MAX_VALUE;
+                int offset = random.nextInt(p.slots);
+                for (int k = 0; k < p.slots; k++) {
+                    int candidate = (k + offset) % p.slots;
+                    if (!fits(lesson, candidate)) {
+                        continue;
+                    }
+                    collectComponents(lesson, -1, candidate);
+                    long before = componentsCost();
+                    place(lesson, candidate);
+                    long delta = componentsCost() - before;
+                    unplace(lesson);
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestStart = candidate;
+                    }
+                }
+                place(lesson, bestStart >= 0 ? bestStart : firstValidStart(lesson));
+            }
+        }
+
+        private long tryMove(double temperature) {
+            int lesson = random.nextInt(lessons);
+            int from = slot[lesson];
+            int to = random.nextInt(p.slots);
+            if (to == from || !fits(lesson, to)) {
+                return Long.MIN_VALUE;
+            }
+            collectComponents(lesson, from, to);
+            long before = componentsCost() + lessonCost(lesson, from);
+            unplace(lesson);
+            place(lesson, to);
+            long delta = componentsCost() + lessonCost(lesson, to) - before;
+            if (accept(delta, temperature)) {
+                return delta;
+            }
+            unplace(lesson);
+            place(lesson, from);
+            return Long.MIN_VALUE;
+        }
+
+        private long trySwap(double temperature) {
+            int first = random.nextInt(lessons);
+            int classIndex = p.assignmentClass[p.lessonAssignment[first]];
+            int from = classLessonOffset[classIndex];
+            int count = classLessonOffset[classIndex + 1] - from;
+            if (count < 2) {
+                return tryMove(temperature);
+            }
+            int second = classLessons[from + random.nextInt(count)];
+            int slotA = slot[first];
+            int slotB = slot[second];
+            if (first == second || slotA == slotB
+                    || !fits(first, slotB) || !fits(second, slotA)) {
+                return Long.MIN_VALUE;
+            }
+            touchedCount = 0;
+            addComponents(first, slotA);
+            addComponents(first, slotB);
+            addComponents(second, slotA);
+            addComponents(second, slotB);
+            long before = componentsCost() + lessonCost(first, slotA) + lessonCost(second, slotB);
+            unplace(first);
+            unplace(second);
+            place(first, slotB);
+            place(second, slotA);
+            long delta = componentsCost() + lessonCost(first, slotB) + lessonCost(second, slotA) - before;
+            if (accept(delta, temperature)) {
+                return delta;
+            }
+            unplace(first);
+            unplace(second);
+            place(first, slotA);
+            place(second, slotB);
+            return Long.MIN_VALUE;
+        }
+
+        private boolean accept(long delta, double temperature) {
+            return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+        }
+
+        private boolean fits(int lesson, int start) {
+            return start % p.periodsPerDay + p.lessonLength[lesson] <= p.periodsPerDay;
+        }
+
+        private int firstValidStart(int lesson) {
+            for (int s = 0; s < p.slots; s++) {
+                if (fits(lesson, s)) {
+                    return s;
+                }
+            }
+            return 0;
+        }
+
+        private void place(int lesson, int start) {
+            int a = p.lessonAssignment[lesson];
+            int classBase = p.assignmentClass[a] * p.slots;
+            int teacherBase = p.assignmentTeacher[a] * p.slots;
+            for (int k = 0; k < p.lessonLength[lesson]; k++) {
+                classOcc[classBase + start + k]++;
+                teacherOcc[teacherBase + start + k]++;
+            }
+            assignmentDay[a * p.days + start / p.periodsPerDay]++;
+            slot[lesson] = start;
+        }
+
+        private void unplace(int lesson) {
+            int start = slot[lesson];
+            int a = p.lessonAssignment[lesson];
+            int classBase = p.assignmentClass[a] * p.slots;
+            int teacherBase = p.assignmentTeacher[a] * p.slots;
+            for (int k = 0; k < p.lessonLength[lesson]; k++) {
+                classOcc[classBase + start + k]--;
+                teacherOcc[teacherBase + start + k]--;
+            }
+            assignmentDay[a * p.days + start / p.periodsPerDay]--;
+            slot[lesson] = -1;
+        }
+
+        private void restoreBest() {
+            for (int l = 0; l < lessons; l++) {
+                unplace(l);
+            }
+            for (int l = 0; l < lessons; l++) {
+                place(l, bestSlot[l]);
+            }
+            cost = bestCost;
+        }
+
+        // Components are (type, entity, day): 0 = class day, 1 = teacher day, 2 = assignment day
+
+        private void collectComponents(int lesson, int from, int to) {
+            touchedCount = 0;
+            if (from >= 0) {
+                addComponents(lesson, from);
+            }
+            addComponents(lesson, to);
+        }
+
+        private void addComponents(int lesson, int start) {
+            int a = p.lessonAssignment[lesson];
+            int day = start / p.periodsPerDay;
+            addComponent(0, p.assignmentClass[a], day);
+            addComponent(1, p.assignmentTeacher[a], day);
+            addComponent(2, a, day);
+        }
+
+        private void addComponent(int type, int entity, int day) {
+            long key = ((long) type << 56) | ((long) entity << 16) | day;
+            for (int i = 0; i < touchedCount; i++) {
+                if (touched[i] == key) {
+                    return;
+                }
+            }
+            touched[touchedCount++] = key;
+        }
+
+        private long componentsCost() {
+            long total = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                long key = touched[i];
+                int type = (int) (key >>> 56);
+                int entity = (int) ((key >>> 16) & 0xFFFFFFFFFFL);
+                int day = (int) (key & 0xFFFF);
+                switch (type) {
+                    case 0:
+                        total += classDayCost(entity, day);
+                        break;
+                    case 1:
+                        total += teacherDayCost(entity, day);
+                        break;
+                    default:
+                        total += assignmentDayCost(entity, day);
+                }
+            }
+            return total;
+        }
+
+        private long classDayCost(int classIndex, int day) {
+            int base = classIndex * p.slots + day * p.periodsPerDay;
+            long hard = 0;
+            int occupied = 0;
+            int first = -1;
+            int last = -1;
+            for (int k = 0; k < p.periodsPerDay; k++) {
+                int occ = classOcc[base + k];
+                if (occ > 0) {
+                    occupied++;
+                    if (first < 0) {
+                        first = k;
+                    }
+                    last = k;
+                    if (occ > 1) {
+                        hard += occ - 1;
+                    }
+                }
+            }
+            if (occupied > p.classDailyLimit) {
+                hard += occupied - p.classDailyLimit;
+            }
+            int gaps = first >= 0 ? (last - first + 1) - occupied : 0;
+            return hard * HARD + (long) gaps * CLASS_GAP;
+        }
+
+        private long teacherDayCost(int teacherIndex, int day) {
+            int base = teacherIndex * p.slots + day * p.periodsPerDay;
+            long hard = 0;
+            int occupied = 0;
+            int first = -1;
+            int last = -1;
+            for (int k = 0; k < p.periodsPerDay; k++) {
+                int occ = teacherOcc[base + k];
+                if (occ > 0) {
+                    occupied++;
+                    if (first < 0) {
+                        first = k;
+                    }
+                    last = k;
+                    if (occ > 1) {
+                        hard += occ - 1;
+                    }
+                }
+            }
+            int gaps = first >= 0 ? (last - first + 1) - occupied : 0;
+            return hard * HARD + (long) gaps * TEACHER_GAP;
+        }
+
+        private long assignmentDayCost(int assignment, int day) {
+            int excess = assignmentDay[assignment * p.days + day] - p.assignmentMaxPerDay[assignment];
+            return excess > 0 ? (long) excess * SAME_DAY : 0;
+        }
+
+        private long lessonCost(int lesson, int start) {
+            long total = 0;
+            int lastPeriod = start % p.periodsPerDay + p.lessonLength[lesson] - 1;
+            if (lastPeriod >= p.lateFromPeriod) {
+                total += (long) (lastPeriod - p.lateFromPeriod + 1) * LATE_PERIOD;
+            }
+            int preferred = p.lessonPreferred[lesson];
+            if (preferred >= 0 && preferred != start) {
+                total += p.preferredWeight;
+            }
+            return total;
+        }
+
+        private long fullCost() {
+            long total = 0;
+            for (int c = 0; c < p.classCount; c++) {
+                for (int d = 0; d < p.days; d++) {
+                    total += classDayCost(c, d);
+                }
+            }
+            for (int t = 0; t < p.teacherCount; t++) {
+                for (int d = 0; d < p.days; d++) {
+                    total += teacherDayCost(t, d);
+                }
+            }
+            for (int a = 0; a < p.assignmentClass.length; a++) {
+                for (int d = 0; d < p.days; d++) {
+                    total += assignmentDayCost(a, d);
+                }
+            }
+            for (int l = 0; l < lessons; l++) {
+                total += lessonCost(l, slot[l]);
+            }
+            return total;
+        }
+
+        private Result buildResult(long iterations, int restarts) {
+            if (lessons > 0) {
+                restoreBest();
+            }
+            Result result = new Result();
+            result.lessonSlot = bestSlot.clone();
+            result.cost = bestCost;
+            result.iterations = iterations;
+            result.restarts = restarts;
+
+            for (int c = 0; c < p.classCount; c++) {
+                for (int d = 0; d < p.days; d++) {
+                    long dayCost = classDayCost(c, d);
+                    result.hardViolations += (int) (dayCost / HARD);
+                    result.classGaps += (int) (dayCost % HARD) / CLASS_GAP;
+                }
+            }
+            for (int t = 0; t < p.teacherCount; t++) {
+                for (int d = 0; d < p.days; d++) {
+                    long dayCost = teacherDayCost(t, d);
+                    result.hardViolations += (int) (dayCost / HARD);
+                    result.teacherGaps += (int) (dayCost % HARD) / TEACHER_GAP;
+                }
+            }
+            for (int a = 0; a < p.assignmentClass.length; a++) {
+                for (int d = 0; d < p.days; d++) {
+                    result.sameDayExcess += (int) (assignmentDayCost(a, d) / SAME_DAY);
+                }
+            }
+            for (int l = 0; l < lessons; l++) {
+                int lastPeriod = slot[l] % p.periodsPerDay + p.lessonLength[l] - 1;
+                if (lastPeriod >= p.lateFromPeriod) {
+                    result.latePeriods++;
+                }
+                if (p.lessonPreferred[l] >= 0 && p.lessonPreferred[l] != slot[l]) {
+                    result.movedLessons++;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Asynchronous report job state and results
+
+CREATE TABLE report_runs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id VARCHAR(36) NOT NULL UNIQUE,
+    run_key VARCHAR(64) NOT NULL,
+    report_type VARCHAR(50) NOT NULL,
+    parameters TEXT,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    progress INT NOT NULL DEFAULT 0,
+    result LONGTEXT,
+    error_message VARCHAR(1000),
+    requested_by VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_report_run_key_status ON report_runs(run_key, status);
+CREATE INDEX idx_report_run_created ON report_runs(created_at);
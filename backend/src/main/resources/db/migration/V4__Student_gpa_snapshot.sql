@@ -0,0 +1,16 @@
+-- Per-student, per-semester GPA components maintained on every grade write
+
+CREATE TABLE student_gpa_snapshot (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    academic_year VARCHAR(20) NOT NULL,
+    semester INT NOT NULL,
+    weighted_points DECIMAL(12,4) NOT NULL DEFAULT 0,
+    total_credits INT NOT NULL DEFAULT 0,
+    assessment_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NULL,
+    CONSTRAINT uk_gpa_snapshot_student_period UNIQUE (student_id, academic_year, semester),
+    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_gpa_snapshot_period ON student_gpa_snapshot(academic_year, semester);
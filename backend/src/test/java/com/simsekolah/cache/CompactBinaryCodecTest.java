@@ -0,0 +1,149 @@
+package com.simsekolah.cache;
+
+import com.simsekolah.enums.ReportRunStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBinaryCodecTest {
+
+    private final CompactBinaryCodec codec = new CompactBinaryCodec();
+
+    @Test
+    void roundTrip_ReportRows() {
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("studentId", 1000L + i);
+            row.put("name", "Siswa " + i);
+            row.put("average", new BigDecimal("87.25"));
+            row.put("passed", i != 1);
+            row.put("remark", null);
+            rows.add(row);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("academicYear", "2026/2027");
+        report.put("semester", 1);
+        report.put("generatedAt", LocalDateTime.of(2026, 10, 19, 7, 30, 15, 123_000_000));
+        report.put("rows", rows);
+
+        assertEquals(report, roundTrip(report));
+    }
+
+    @Test
+    void roundTrip_ScalarTypes() {
+        List<Object> values = Arrays.asList(
+                null, true, false, 0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE,
+                Math.PI, -0.0, Double.NaN, "", "\u00fc\u221e", "x".repeat(200),
+                new BigDecimal("-12345678901234567890.000123"), new BigInteger("98765432109876543210"),
+                LocalDate.of(1999, 12, 31), LocalTime.of(23, 59, 59, 999_999_999),
+                Instant.ofEpochSecond(-1, 500), ReportRunStatus.COMPLETED, DayOfWeek.FRIDAY);
+
+        assertEquals(values, roundTrip(values));
+    }
+
+    @Test
+    void roundTrip_PreservesSetAndMapOrder() {
+        Set<String> set = new LinkedHashSet<>(List.of("c", "a", "b"));
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put(3, "three");
+        map.put("one", 1);
+        map.put(LocalDate.of(2026, 1, 1), set);
+
+        Map<?, ?> decoded = (Map<?, ?>) roundTrip(map);
+
+        assertEquals(List.of(3, "one", LocalDate.of(2026, 1, 1)), new ArrayList<>(decoded.keySet()));
+        assertEquals(List.of("c", "a", "b"), new ArrayList<>((Set<?>) decoded.get(LocalDate.of(2026, 1, 1))));
+    }
+
+    @Test
+    void narrowNumbers_AreWidened() {
+        List<?> decoded = (List<?>) roundTrip(List.of((short) -7, (byte) 42, 1.5f));
+
+        assertEquals(Integer.valueOf(-7), decoded.get(0));
+        assertEquals(Integer.valueOf(42), decoded.get(1));
+        assertEquals(Double.valueOf(1.5), decoded.get(2));
+    }
+
+    @Test
+    void repeatedStrings_AreWrittenOnce() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(Map.of("studentName", i));
+        }
+
+        byte[] encoded = codec.encode(rows);
+
+        // Map header, key reference and varint value: under 8 bytes a row instead of 18 with the key inline
+        assertTrue(encoded.length < 100 * 8, "Encoded size " + encoded.length);
+        assertEquals(rows, roundTrip(rows));
+    }
+
+    @Test
+    void decode_UsesOffsetAndLength() {
+        byte[] encoded = codec.encode(Map.of("semester", 2));
+        byte[] framed = new byte[encoded.length + 3];
+        System.arraycopy(encoded, 0, framed, 2, encoded.length);
+
+        assertEquals(Map.of("semester", 2), codec.decode(framed, 2, encoded.length));
+    }
+
+    @Test
+    void unsupportedValues_AreRejected() {
+        assertThrows(CacheValueCodec.UnsupportedValueException.class, () -> codec.encode(new Object()));
+        assertThrows(CacheValueCodec.UnsupportedValueException.class, () -> codec.encode(List.of(TimeUnit.SECONDS)));
+        List<Object> nested = new ArrayList<>();
+        List<Object> current = nested;
+        for (int i = 0; i < 100; i++) {
+            List<Object> child = new ArrayList<>();
+            current.add(child);
+            current = child;
+        }
+        assertThrows(CacheValueCodec.UnsupportedValueException.class, () -> codec.encode(nested));
+    }
+
+    @Test
+    void corruptInput_IsRejected() {
+        byte[] encoded = codec.encode(List.of("academicYear", 2026));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded, 0, encoded.length - 1));
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(trailing, 0, trailing.length));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[] {99}, 0, 1));
+        // STRING_REF to a string that was never read
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[] {7, 0}, 0, 2));
+    }
+
+    @Test
+    void stringReference_BeyondRemainingInput() {
+        // Ten distinct keys, then the last one again as the final value: its index exceeds the bytes left
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            row.put("column" + i, i);
+        }
+        row.put("last", "column9");
+
+        assertEquals(row, roundTrip(row));
+    }
+
+    private Object roundTrip(Object value) {
+        byte[] encoded = codec.encode(value);
+        return codec.decode(encoded, 0, encoded.length);
+    }
+}
@@ -0,0 +1,59 @@
+package com.simsekolah.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void width_IsRoundedUpToPowerOfTwo() {
+        assertEquals(128, new CountMinSketch(100).getWidth());
+        assertEquals(128, new CountMinSketch(128).getWidth());
+        assertEquals(32, new CountMinSketch(1).getWidth());
+    }
+
+    @Test
+    void estimate_NeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(64);
+        for (int hash = 0; hash < 500; hash++) {
+            for (int i = 0; i <= hash % 7; i++) {
+                sketch.increment(hash * 31);
+            }
+        }
+
+        for (int hash = 0; hash < 500; hash++) {
+            assertTrue(sketch.estimate(hash * 31) >= hash % 7 + 1);
+        }
+    }
+
+    @Test
+    void halve_AgesEveryCounter() {
+        CountMinSketch sketch = new CountMinSketch(64);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(42);
+        }
+        sketch.increment(7);
+        assertEquals(10, sketch.estimate(42));
+
+        sketch.halve();
+        assertEquals(5, sketch.estimate(42));
+        assertEquals(0, sketch.estimate(7));
+
+        sketch.halve();
+        sketch.halve();
+        sketch.halve();
+        assertEquals(0, sketch.estimate(42));
+    }
+
+    @Test
+    void clear_ResetsCounts() {
+        CountMinSketch sketch = new CountMinSketch(64);
+        assertEquals(1, sketch.increment(42));
+        assertEquals(2, sketch.increment(42));
+
+        sketch.clear();
+
+        assertEquals(0, sketch.estimate(42));
+    }
+}
@@ -0,0 +1,107 @@
+package com.simsekolah.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TinyLfuCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Test
+    void putAndGet() {
+        TinyLfuCache cache = cache(100);
+
+        cache.put("class:1", "X IPA 1");
+
+        assertEquals("X IPA 1", cache.get("class:1", String.class));
+        assertNull(cache.get("class:2"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void nullValue_IsRejectedLikeRedis() {
+        TinyLfuCache cache = cache(100);
+
+        assertFalse(cache.isAllowNullValues());
+        assertThrows(IllegalArgumentException.class, () -> cache.put("class:1", null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void frequentlyReadEntries_SurviveScanOfOneOffEntries() {
+        TinyLfuCache cache = cache(100);
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot:" + i, i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                assertEquals(i, cache.get("hot:" + i, Integer.class));
+            }
+        }
+
+        for (int i = 0; i < 500; i++) {
+            cache.put("scan:" + i, i);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(cache.get("hot:" + i), "hot:" + i + " was evicted by the scan");
+        }
+        assertTrue(cache.getWeightedSize() <= 100);
+        assertTrue(cache.getRejectionCount() > 0);
+    }
+
+    @Test
+    void weightBound_EvictsWithoutReads() {
+        TinyLfuCache cache = cache(100);
+
+        for (int i = 0; i < 250; i++) {
+            cache.put("key:" + i, i);
+        }
+
+        assertEquals(100, cache.getWeightedSize());
+        assertEquals(100, cache.size());
+        assertEquals(150, cache.getEvictionCount() + cache.getRejectionCount());
+        // The newest entry sits in the admission window
+        assertEquals(249, cache.get("key:249", Integer.class));
+    }
+
+    @Test
+    void valueHeavierThanCache_IsRejected() {
+        TinyLfuCache cache = new TinyLfuCache("reports", 10, TTL, TinyLfuCache::approximateWeight);
+        cache.put("report:1", "small");
+
+        cache.put("report:1", List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+
+        assertNull(cache.get("report:1"));
+        assertEquals(1, cache.getRejectionCount());
+        assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    void expiredEntry_IsNotReturnedAndIsCleanedUp() {
+        TinyLfuCache cache = cache(100);
+        cache.put("class:1", "X IPA 1", Duration.ZERO);
+        cache.put("class:2", "X IPA 2");
+
+        assertNull(cache.get("class:1"));
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(0, cache.cleanUp());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void approximateWeight_CountsNestedElements() {
+        assertEquals(1, TinyLfuCache.approximateWeight("value"));
+        assertEquals(4, TinyLfuCache.approximateWeight(List.of(1, 2, 3)));
+        assertEquals(6, TinyLfuCache.approximateWeight(List.of(List.of(1, 2), List.of(3))));
+    }
+
+    private static TinyLfuCache cache(long maximumWeight) {
+        return new TinyLfuCache("test", maximumWeight, TTL, value -> 1);
+    }
+}
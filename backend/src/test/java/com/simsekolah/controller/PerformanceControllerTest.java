@@ -64,6 +64,23 @@ class PerformanceControllerTest {
         verify(cacheService).getCacheStatistics("users");
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getMostAccessedCacheEntries_Success() throws Exception {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("rank", 1);
+        entry.put("key", "transcript:42");
+        entry.put("estimatedAccesses", 310);
+        when(cacheService.getMostAccessedCacheEntries("transcripts", 5)).thenReturn(List.of(entry));
+
+        mockMvc.perform(get("/api/v1/performance/cache/statistics/transcripts/hot-keys")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key").value("transcript:42"));
+
+        verify(cacheService).getMostAccessedCacheEntries("transcripts", 5);
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void invalidateAllCaches_Success() throws Exception {
@@ -115,13 +132,35 @@ class PerformanceControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void warmUpCaches_Success() throws Exception {
-        doNothing().when(cacheService).warmUpCaches();
+        Map<String, Object> status = new HashMap<>();
+        status.put("name", "all");
+        status.put("status", "PENDING");
+        when(cacheService.startCacheWarmup()).thenReturn(status);
 
         mockMvc.perform(post("/api/v1/performance/cache/warmup"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Cache warm-up started"))
+                .andExpect(jsonPath("$.warmup.status").value("PENDING"));
+
+        verify(cacheService).startCacheWarmup();
+        verify(cacheService, never()).warmUpCaches();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getCacheWarmupStatus_Success() throws Exception {
+        Map<String, Object> status = new HashMap<>();
+        status.put("name", "all");
+        status.put("status", "RUNNING");
+        status.put("percentComplete", 42.5);
+        when(cacheService.getCacheWarmupStatus()).thenReturn(status);
+
+        mockMvc.perform(get("/api/v1/performance/cache/warmup/status"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("Cache warm-up completed successfully"));
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.percentComplete").value(42.5));
 
-        verify(cacheService).warmUpCaches();
+        verify(cacheService).getCacheWarmupStatus();
     }
 
     @Test
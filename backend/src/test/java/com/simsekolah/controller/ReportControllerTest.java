@@ -4,6 +4,10 @@ import com.simsekolah.dto.request.AcademicReportRequest;
 import com.simsekolah.dto.request.AttendanceReportRequest;
 import com.simsekolah.dto.response.AcademicReportResponse;
 import com.simsekolah.dto.response.AttendanceReportResponse;
+import com.simsekolah.service.AcademicReportService;
+import com.simsekolah.service.GpaSnapshotService;
+import com.simsekolah.service.ReportCardPdfService;
+import com.simsekolah.service.ReportJobService;
 import com.simsekolah.service.ReportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +37,18 @@ class ReportControllerTest {
     @Mock
     private ReportService reportService;
 
+    @Mock
+    private ReportJobService reportJobService;
+
+    @Mock
+    private ReportCardPdfService reportCardPdfService;
+
+    @Mock
+    private AcademicReportService academicReportService;
+
+    @Mock
+    private GpaSnapshotService gpaSnapshotService;
+
     @InjectMocks
     private ReportController reportController;
 
@@ -72,6 +88,22 @@ class ReportControllerTest {
         verify(reportService).generateStudentTranscript(eq(1L), eq("2023"), eq(1));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void downloadStudentReportCard_Success() throws Exception {
+        byte[] pdf = "%PDF-1.7".getBytes();
+        when(reportCardPdfService.renderReportCard(eq(1L), eq("2023"), eq(1))).thenReturn(pdf);
+
+        mockMvc.perform(get("/api/v1/reports/academic/report-cards/student/1")
+                        .param("academicYear", "2023")
+                        .param("semester", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().bytes(pdf));
+
+        verify(reportCardPdfService).renderReportCard(eq(1L), eq("2023"), eq(1));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void generateClassPerformanceReport_Success() throws Exception {
@@ -104,21 +136,24 @@ class ReportControllerTest {
     @WithMockUser(roles = "ADMIN")
     void generateGradeDistributionReport_Success() throws Exception {
         Map<String, Object> report = new HashMap<>();
-        when(reportService.generateGradeDistributionReport(eq("2023"), eq(1))).thenReturn(report);
+        when(reportJobService.execute(eq(ReportJobService.GRADE_DISTRIBUTION),
+                eq(Map.<String, Object>of("academicYear", "2023", "semester", 1)))).thenReturn(report);
 
         mockMvc.perform(get("/api/v1/reports/academic/grade-distribution")
                         .param("academicYear", "2023")
                         .param("semester", "1"))
                 .andExpect(status().isOk());
 
-        verify(reportService).generateGradeDistributionReport(eq("2023"), eq(1));
+        verify(reportJobService).execute(eq(ReportJobService.GRADE_DISTRIBUTION),
+                eq(Map.<String, Object>of("academicYear", "2023", "semester", 1)));
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void generateTopPerformersReport_Success() throws Exception {
         Map<String, Object> report = new HashMap<>();
-        when(reportService.generateTopPerformersReport(eq("2023"), eq(1), eq(10))).thenReturn(report);
+        when(reportJobService.execute(eq(ReportJobService.TOP_PERFORMERS),
+                eq(Map.<String, Object>of("academicYear", "2023", "semester", 1, "limit", 10)))).thenReturn(report);
 
         mockMvc.perform(get("/api/v1/reports/academic/top-performers")
                         .param("academicYear", "2023")
@@ -126,14 +161,16 @@ class ReportControllerTest {
                         .param("limit", "10"))
                 .andExpect(status().isOk());
 
-        verify(reportService).generateTopPerformersReport(eq("2023"), eq(1), eq(10));
+        verify(reportJobService).execute(eq(ReportJobService.TOP_PERFORMERS),
+                eq(Map.<String, Object>of("academicYear", "2023", "semester", 1, "limit", 10)));
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void generateStudentsAtRiskReport_Success() throws Exception {
         Map<String, Object> report = new HashMap<>();
-        when(reportService.generateStudentsAtRiskReport(eq("2023"), eq(1), eq(2.0))).thenReturn(report);
+        when(reportJobService.execute(eq(ReportJobService.STUDENTS_AT_RISK),
+                eq(Map.<String, Object>of("academicYear", "2023", "semester", 1, "threshold", 2.0)))).thenReturn(report);
 
         mockMvc.perform(get("/api/v1/reports/academic/students-at-risk")
                         .param("academicYear", "2023")
@@ -141,7 +178,8 @@ class ReportControllerTest {
                         .param("threshold", "2.0"))
                 .andExpect(status().isOk());
 
-        verify(reportService).generateStudentsAtRiskReport(eq("2023"), eq(1), eq(2.0));
+        verify(reportJobService).execute(eq(ReportJobService.STUDENTS_AT_RISK),
+                eq(Map.<String, Object>of("academicYear", "2023", "semester", 1, "threshold", 2.0)));
     }
 
     @Test
@@ -176,14 +214,16 @@ class ReportControllerTest {
     @WithMockUser(roles = "ADMIN")
     void generateMonthlyAttendanceReport_Success() throws Exception {
         Map<String, Object> report = new HashMap<>();
-        when(reportService.generateMonthlyAttendanceReport(eq(2023), eq(1))).thenReturn(report);
+        when(reportJobService.execute(eq(ReportJobService.MONTHLY_ATTENDANCE),
+                eq(Map.<String, Object>of("year", 2023, "month", 1)))).thenReturn(report);
 
         mockMvc.perform(get("/api/v1/reports/attendance/monthly")
                         .param("year", "2023")
                         .param("month", "1"))
                 .andExpect(status().isOk());
 
-        verify(reportService).generateMonthlyAttendanceReport(eq(2023), eq(1));
+        verify(reportJobService).execute(eq(ReportJobService.MONTHLY_ATTENDANCE),
+                eq(Map.<String, Object>of("year", 2023, "month", 1)));
     }
 
     @Test
@@ -279,6 +319,84 @@ class ReportControllerTest {
         verify(reportService).getAvailableReportTypes();
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getClassStudentRankings_Success() throws Exception {
+        AcademicReportResponse.StudentRanking ranking = AcademicReportResponse.StudentRanking.builder()
+                .studentId(1L)
+                .rank(1)
+                .build();
+        when(academicReportService.generateStudentRankings(eq(1L), eq("2023"), eq(1))).thenReturn(List.of(ranking));
+
+        mockMvc.perform(get("/api/v1/reports/academic/rankings/class/1")
+                        .param("academicYear", "2023")
+                        .param("semester", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rank").value(1));
+
+        verify(academicReportService).generateStudentRankings(eq(1L), eq("2023"), eq(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getStudentClassRank_Success() throws Exception {
+        Map<String, Object> rank = new HashMap<>();
+        rank.put("rank", 2);
+        when(academicReportService.getStudentClassRank(eq(5L), eq(1L), eq("2023"), eq(1))).thenReturn(rank);
+
+        mockMvc.perform(get("/api/v1/reports/academic/rankings/class/1/student/5")
+                        .param("academicYear", "2023")
+                        .param("semester", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void submitReportJob_Accepted() throws Exception {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", "job-1");
+        status.put("status", "QUEUED");
+        when(reportJobService.submitJob(eq("STUDENTS_AT_RISK"), anyMap())).thenReturn(status);
+
+        mockMvc.perform(post("/api/v1/reports/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reportType\":\"STUDENTS_AT_RISK\",\"parameters\":{\"academicYear\":\"2023\",\"semester\":1}}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-1"));
+
+        verify(reportJobService).submitJob(eq("STUDENTS_AT_RISK"), anyMap());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getReportJobResult_StillRunning() throws Exception {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", "job-1");
+        status.put("status", "RUNNING");
+        when(reportJobService.getJobStatus("job-1")).thenReturn(status);
+
+        mockMvc.perform(get("/api/v1/reports/jobs/job-1/result"))
+                .andExpect(status().isAccepted());
+
+        verify(reportJobService, never()).getJobResult(anyString());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getReportJobResult_Completed() throws Exception {
+        Map<String, Object> status = new HashMap<>();
+        status.put("status", "COMPLETED");
+        Map<String, Object> result = new HashMap<>();
+        result.put("totalStudentsAtRisk", 3);
+        when(reportJobService.getJobStatus("job-1")).thenReturn(status);
+        when(reportJobService.getJobResult("job-1")).thenReturn(result);
+
+        mockMvc.perform(get("/api/v1/reports/jobs/job-1/result"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalStudentsAtRisk").value(3));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void clearReportCache_Success() throws Exception {
@@ -290,4 +408,30 @@ class ReportControllerTest {
 
         verify(reportService).clearAllReportCache();
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rebuildGpaSnapshots_Period() throws Exception {
+        when(gpaSnapshotService.rebuildSnapshots("2023/2024", 1)).thenReturn(42);
+
+        mockMvc.perform(post("/api/v1/reports/academic/gpa-snapshots/rebuild")
+                        .param("academicYear", "2023/2024")
+                        .param("semester", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rebuiltPeriods['2023/2024-1']").value(42));
+
+        verify(gpaSnapshotService, never()).rebuildIncompletePeriods();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rebuildGpaSnapshots_IncompletePeriods() throws Exception {
+        when(gpaSnapshotService.rebuildIncompletePeriods()).thenReturn(Map.of("2023/2024-2", 7));
+
+        mockMvc.perform(post("/api/v1/reports/academic/gpa-snapshots/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rebuiltPeriods['2023/2024-2']").value(7));
+
+        verify(gpaSnapshotService).rebuildIncompletePeriods();
+    }
+}
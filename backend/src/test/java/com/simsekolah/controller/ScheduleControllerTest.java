@@ -2,6 +2,7 @@ package com.simsekolah.controller;
 
 import com.simsekolah.dto.request.CreateScheduleRequest;
 import com.simsekolah.dto.request.ScheduleSearchRequest;
+import com.simsekolah.dto.request.TimetableGenerationRequest;
 import com.simsekolah.dto.request.UpdateScheduleRequest;
 import com.simsekolah.dto.response.ScheduleResponse;
 import com.simsekolah.service.ScheduleService;
@@ -190,4 +191,101 @@ class ScheduleControllerTest {
 
         verify(scheduleService).getScheduleStatistics(eq("2024/2025"), eq(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void generateTimetable_Success() throws Exception {
+        Map<String, Object> result = new HashMap<>();
+        result.put("schedules", Collections.emptyList());
+        result.put("metrics", Map.of("feasible", true, "hardViolations", 0));
+        result.put("persisted", true);
+        when(scheduleService.generateTimetable(any(TimetableGenerationRequest.class))).thenReturn(result);
+
+        mockMvc.perform(post("/api/schedules/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"academicYear\":\"2024/2025\",\"semester\":1,\"timeBudgetSeconds\":2," +
+                                "\"assignments\":[{\"classRoomId\":1,\"subjectId\":1,\"teacherId\":1,\"weeklyPeriods\":4}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persisted").value(true))
+                .andExpect(jsonPath("$.metrics.hardViolations").value(0));
+
+        verify(scheduleService).generateTimetable(any(TimetableGenerationRequest.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getScheduleSuggestions_Success() throws Exception {
+        ScheduleResponse suggestion = new ScheduleResponse();
+        when(scheduleService.generateScheduleSuggestions(eq(1L), eq(2L), isNull(), eq("2024/2025"), eq(1)))
+                .thenReturn(List.of(suggestion));
+
+        mockMvc.perform(get("/api/schedules/suggestions")
+                        .param("classRoomId", "1")
+                        .param("subjectId", "2")
+                        .param("academicYear", "2024/2025")
+                        .param("semester", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(scheduleService).generateScheduleSuggestions(eq(1L), eq(2L), isNull(), eq("2024/2025"), eq(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void resolveScheduleConflicts_Success() throws Exception {
+        ScheduleResponse response = new ScheduleResponse();
+        response.setId(5L);
+        when(scheduleService.resolveScheduleConflicts(eq(List.of(5L, 6L)), eq("MINIMAL_CHANGE")))
+                .thenReturn(List.of(response));
+
+        mockMvc.perform(post("/api/schedules/resolve-conflicts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[5,6]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(5L));
+
+        verify(scheduleService).resolveScheduleConflicts(eq(List.of(5L, 6L)), eq("MINIMAL_CHANGE"));
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void getCommonFreeSlots_Success() throws Exception {
+        Map<String, Object> slot = new HashMap<>();
+        slot.put("dayOfWeek", "MONDAY");
+        slot.put("startTime", "09:00");
+        slot.put("endTime", "10:30");
+        slot.put("durationMinutes", 90);
+        when(scheduleService.findCommonFreeSlots(eq(3L), eq(1L), eq("2024/2025"), eq(1), eq(45)))
+                .thenReturn(List.of(slot));
+
+        mockMvc.perform(get("/api/schedules/availability/common")
+                        .param("teacherId", "3")
+                        .param("classRoomId", "1")
+                        .param("academicYear", "2024/2025")
+                        .param("semester", "1")
+                        .param("minDuration", "45"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].durationMinutes").value(90));
+
+        verify(scheduleService).findCommonFreeSlots(eq(3L), eq(1L), eq("2024/2025"), eq(1), eq(45));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getScheduleComparisonReport_Success() throws Exception {
+        Map<String, Object> report = new HashMap<>();
+        report.put("changes", Map.of("teacherIdleGaps", -4));
+        when(scheduleService.generateScheduleComparisonReport(eq("2023/2024"), eq(2), eq("2024/2025"), eq(1)))
+                .thenReturn(report);
+
+        mockMvc.perform(get("/api/schedules/analytics/comparison")
+                        .param("academicYear1", "2023/2024")
+                        .param("semester1", "2")
+                        .param("academicYear2", "2024/2025")
+                        .param("semester2", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.teacherIdleGaps").value(-4));
+
+        verify(scheduleService).generateScheduleComparisonReport(eq("2023/2024"), eq(2), eq("2024/2025"), eq(1));
+    }
+}
@@ -0,0 +1,137 @@
+package com.simsekolah.repository;
+
+import com.simsekolah.dto.request.ScheduleSearchRequest;
+import com.simsekolah.entity.ClassRoom;
+import com.simsekolah.entity.Schedule;
+import com.simsekolah.entity.Subject;
+import com.simsekolah.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the schedule search specification against an embedded database
+ */
+@DataJpaTest
+class ScheduleSpecificationsTest {
+
+    @SpringBootConfiguration
+    @EntityScan(basePackages = {"com.simsekolah.entity", "com.simsekolah.model"})
+    @EnableJpaRepositories(basePackageClasses = ScheduleRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ScheduleRepository.class))
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @BeforeEach
+    void setUp() {
+        ClassRoom classB = persistClassRoom("XI-B");
+        ClassRoom classA = persistClassRoom("X-A");
+        Subject math = entityManager.persist(new Subject("MTK", "Matematika"));
+        Subject physics = entityManager.persist(new Subject("FIS", "Fisika"));
+        User teacher = persistTeacher("guru1");
+
+        persistSchedule(classB, math, teacher, DayOfWeek.WEDNESDAY, LocalTime.of(7, 0), true);
+        persistSchedule(classA, physics, teacher, DayOfWeek.MONDAY, LocalTime.of(9, 0), true);
+        persistSchedule(classA, math, teacher, DayOfWeek.MONDAY, LocalTime.of(7, 0), false);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void search_SortedByClassRoom() {
+        Page<Schedule> page = search(new ScheduleSearchRequest(), Sort.by(Sort.Direction.DESC, "classRoom"));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("XI-B", "X-A", "X-A"), page.getContent().stream()
+                .map(schedule -> schedule.getClassRoom().getClassName())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void search_DefaultWeeklyOrderWithFilter() {
+        ScheduleSearchRequest request = new ScheduleSearchRequest();
+        request.setIsActive(true);
+
+        Page<Schedule> page = search(request, null);
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(DayOfWeek.MONDAY, page.getContent().get(0).getDayOfWeek());
+        assertEquals(DayOfWeek.WEDNESDAY, page.getContent().get(1).getDayOfWeek());
+    }
+
+    @Test
+    void search_SortedBySubjectAndTeacherAcrossPages() {
+        Page<Schedule> first = search(new ScheduleSearchRequest(), Sort.by("subject", "teacher"), PageRequest.of(0, 2));
+        Page<Schedule> second = search(new ScheduleSearchRequest(), Sort.by("subject", "teacher"), PageRequest.of(1, 2));
+
+        assertEquals(3, first.getTotalElements());
+        assertEquals("Fisika", first.getContent().get(0).getSubject().getName());
+        assertEquals("Matematika", second.getContent().get(0).getSubject().getName());
+    }
+
+    @Test
+    void resolveSort_RejectsUnknownProperty() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ScheduleSpecifications.resolveSort(new ScheduleSearchRequest(), Sort.by("password")));
+    }
+
+    private Page<Schedule> search(ScheduleSearchRequest request, Sort pageableSort) {
+        return search(request, pageableSort, PageRequest.of(0, 20));
+    }
+
+    private Page<Schedule> search(ScheduleSearchRequest request, Sort pageableSort, PageRequest pageRequest) {
+        Sort sort = ScheduleSpecifications.resolveSort(request, pageableSort);
+        return scheduleRepository.findAll(ScheduleSpecifications.search(request, sort), pageRequest);
+    }
+
+    private ClassRoom persistClassRoom(String className) {
+        return entityManager.persist(ClassRoom.builder()
+                .className(className)
+                .gradeLevel(10)
+                .capacity(30)
+                .academicYear("2024/2025")
+                .semester(1)
+                .build());
+    }
+
+    private User persistTeacher(String username) {
+        return entityManager.persist(User.builder()
+                .username(username)
+                .email(username + "@school.test")
+                .password("secret")
+                .firstName("Guru")
+                .lastName("Satu")
+                .build());
+    }
+
+    private void persistSchedule(ClassRoom classRoom, Subject subject, User teacher, DayOfWeek day,
+                                 LocalTime startTime, boolean active) {
+        Schedule schedule = new Schedule(classRoom, subject, teacher, day, startTime, startTime.plusMinutes(90),
+                "2024/2025", 1);
+        schedule.setIsActive(active);
+        entityManager.persist(schedule);
+    }
+}
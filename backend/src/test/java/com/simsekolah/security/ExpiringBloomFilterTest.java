@@ -0,0 +1,91 @@
+package com.simsekolah.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringBloomFilterTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    // 10:00 on some day, the start of an hourly window
+    private static final long TEN_O_CLOCK = 20_000 * 24 * HOUR + 10 * HOUR;
+
+    @Test
+    void addedDigests_AreAlwaysFound() throws Exception {
+        ExpiringBloomFilter filter = new ExpiringBloomFilter(Duration.ofHours(1), 1000, 0.01);
+        for (int i = 0; i < 3000; i++) {
+            filter.add(digest("token-" + i), TEN_O_CLOCK + (i % 180) * 60_000L);
+        }
+
+        for (int i = 0; i < 3000; i++) {
+            assertTrue(filter.mightContain(digest("token-" + i), TEN_O_CLOCK), "token-" + i);
+        }
+        assertEquals(3, filter.getGenerationCount());
+    }
+
+    @Test
+    void digest_IsRememberedUntilItsWindowEnds() throws Exception {
+        ExpiringBloomFilter filter = new ExpiringBloomFilter(Duration.ofHours(1), 100, 0.01);
+        byte[] digest = digest("token");
+        long expiresAt = TEN_O_CLOCK + 42 * 60_000L;
+        filter.add(digest, expiresAt);
+
+        assertTrue(filter.mightContain(digest, TEN_O_CLOCK));
+        assertTrue(filter.mightContain(digest, expiresAt));
+        assertTrue(filter.mightContain(digest, TEN_O_CLOCK + HOUR - 1));
+
+        assertFalse(filter.mightContain(digest, TEN_O_CLOCK + HOUR));
+        assertEquals(0, filter.getGenerationCount());
+    }
+
+    @Test
+    void expiredWindow_IsDroppedWhileLaterWindowsStay() throws Exception {
+        ExpiringBloomFilter filter = new ExpiringBloomFilter(Duration.ofHours(1), 100, 0.01);
+        byte[] early = digest("early");
+        byte[] late = digest("late");
+        filter.add(early, TEN_O_CLOCK + 10 * 60_000L);
+        filter.add(late, TEN_O_CLOCK + 2 * HOUR + 10 * 60_000L);
+
+        assertFalse(filter.mightContain(early, TEN_O_CLOCK + HOUR));
+        assertTrue(filter.mightContain(late, TEN_O_CLOCK + HOUR));
+        assertEquals(1, filter.getGenerationCount());
+    }
+
+    @Test
+    void falsePositiveRate_StaysNearTarget() throws Exception {
+        ExpiringBloomFilter filter = new ExpiringBloomFilter(Duration.ofHours(1), 1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add(digest("token-" + i), TEN_O_CLOCK + 30 * 60_000L);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(digest("other-" + i), TEN_O_CLOCK)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, falsePositives + " false positives in 10000");
+    }
+
+    @Test
+    void clear_ForgetsEverything() throws Exception {
+        ExpiringBloomFilter filter = new ExpiringBloomFilter(Duration.ofHours(1), 100, 0.01);
+        byte[] digest = digest("token");
+        filter.add(digest, TEN_O_CLOCK + HOUR);
+
+        filter.clear();
+
+        assertFalse(filter.mightContain(digest, TEN_O_CLOCK));
+        assertEquals(0, filter.getGenerationCount());
+    }
+
+    private static byte[] digest(String token) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,144 @@
+package com.simsekolah.security;
+
+import com.simsekolah.entity.User;
+import com.simsekolah.repository.UserRepository;
+import com.simsekolah.service.impl.UserServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final String EMAIL = "guru@school.test";
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Claims claims;
+
+    @Spy
+    private AuthenticatedPrincipalCache authenticatedPrincipalCache = new AuthenticatedPrincipalCache(true, 100, 900);
+
+    @InjectMocks
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        when(tokenProvider.getValidClaims(TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(EMAIL);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3_600_000));
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenAnswer(invocation -> teacher());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedToken_SkipsVerificationAndUserLookup() throws Exception {
+        assertEquals(EMAIL, authenticate().getName());
+        SecurityContextHolder.clearContext();
+
+        Authentication authentication = authenticate();
+
+        assertNotNull(authentication);
+        assertEquals(EMAIL, authentication.getName());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_TEACHER".equals(authority.getAuthority())));
+        verify(tokenProvider, times(1)).getValidClaims(TOKEN);
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+        verify(tokenBlacklistService, times(2)).isTokenBlacklisted(TOKEN);
+    }
+
+    @Test
+    void blacklistedCachedToken_IsEvictedAndRejected() throws Exception {
+        assertNotNull(authenticate());
+        SecurityContextHolder.clearContext();
+        when(tokenBlacklistService.isTokenBlacklisted(TOKEN)).thenReturn(true);
+
+        assertNull(authenticate());
+
+        verify(authenticatedPrincipalCache).evict(TOKEN);
+        assertNull(authenticatedPrincipalCache.get(TOKEN));
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void deactivatedUser_CachedTokenIsInvalidated() throws Exception {
+        assertNotNull(authenticate());
+        SecurityContextHolder.clearContext();
+
+        User user = User.builder()
+                .id(1L)
+                .username("guru")
+                .email(EMAIL)
+                .password("secret")
+                .firstName("Guru")
+                .lastName("Satu")
+                .build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        UserServiceImpl userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "authenticatedPrincipalCache", authenticatedPrincipalCache);
+        doThrow(new UsernameNotFoundException("User account is disabled: " + EMAIL))
+                .when(userDetailsService).loadUserByUsername(EMAIL);
+
+        userService.deactivateUser(1L);
+
+        assertFalse(user.getIsActive());
+        verify(authenticatedPrincipalCache).invalidateUser(EMAIL);
+        assertNull(authenticatedPrincipalCache.get(TOKEN));
+        assertNull(authenticate());
+        verify(tokenProvider, times(2)).getValidClaims(TOKEN);
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    private Authentication authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/schedules");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static UserDetails teacher() {
+        return org.springframework.security.core.userdetails.User.withUsername(EMAIL)
+                .password("secret")
+                .roles("TEACHER")
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.simsekolah.security;
+
+import com.simsekolah.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityServiceTest {
+
+    private static final String EMAIL = "siswa@school.test";
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @InjectMocks
+    private SecurityService securityService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void isCurrentStudent_OwnRecord() {
+        authenticateStudent();
+        when(studentRepository.existsByIdAndUserEmailIgnoreCase(7L, EMAIL)).thenReturn(true);
+
+        assertTrue(securityService.isCurrentStudent(7L));
+    }
+
+    @Test
+    void isCurrentStudent_OtherStudentsRecord() {
+        authenticateStudent();
+        when(studentRepository.existsByIdAndUserEmailIgnoreCase(8L, EMAIL)).thenReturn(false);
+
+        assertFalse(securityService.isCurrentStudent(8L));
+    }
+
+    @Test
+    void isCurrentStudent_Anonymous() {
+        assertFalse(securityService.isCurrentStudent(7L));
+        verifyNoInteractions(studentRepository);
+    }
+
+    private void authenticateStudent() {
+        UserDetails student = User.withUsername(EMAIL).password("secret").roles("STUDENT").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(student, null, student.getAuthorities()));
+    }
+}
@@ -0,0 +1,112 @@
+package com.simsekolah.service.impl;
+
+import com.simsekolah.repository.ClassRoomRepository;
+import com.simsekolah.repository.StudentRepository;
+import com.simsekolah.service.ReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportCardPdfServiceImplTest {
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+
+    @InjectMocks
+    private ReportCardPdfServiceImpl reportCardPdfService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(reportCardPdfService, "schoolName", "SMA Negeri 1");
+        ReflectionTestUtils.setField(reportCardPdfService, "schoolAddress", "");
+        ReflectionTestUtils.setField(reportCardPdfService, "schoolPhone", "");
+        ReflectionTestUtils.setField(reportCardPdfService, "workerThreads", 1);
+        reportCardPdfService.init();
+
+        when(classRoomRepository.existsById(10L)).thenReturn(true);
+        when(studentRepository.findActiveStudentIdsByClassRoom(10L)).thenReturn(List.of(1L, 2L, 3L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportCardPdfService.shutdown();
+    }
+
+    @Test
+    void writeClassReportCards_WritesCompleteArchive() throws Exception {
+        when(reportService.generateStudentTranscript(anyLong(), eq("2026/2027"), eq(1)))
+                .thenAnswer(invocation -> transcript(invocation.getArgument(0)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        int written = reportCardPdfService.writeClassReportCards(10L, "2026/2027", 1, output);
+
+        assertEquals(3, written);
+        assertEquals(List.of("X-IPA-1/1001_Siswa_1.pdf", "X-IPA-1/1002_Siswa_2.pdf", "X-IPA-1/1003_Siswa_3.pdf"),
+                entryNames(output.toByteArray()));
+    }
+
+    @Test
+    void writeClassReportCards_FailedStudentSendsNothing() {
+        when(reportService.generateStudentTranscript(anyLong(), eq("2026/2027"), eq(1))).thenAnswer(invocation -> {
+            Long studentId = invocation.getArgument(0);
+            if (studentId == 2L) {
+                throw new IllegalStateException("Transcript unavailable");
+            }
+            return transcript(studentId);
+        });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(IllegalStateException.class,
+                () -> reportCardPdfService.writeClassReportCards(10L, "2026/2027", 1, output));
+
+        assertEquals(0, output.size());
+    }
+
+    private static Map<String, Object> transcript(Long studentId) {
+        return Map.of(
+                "student", Map.of("name", "Siswa " + studentId, "nis", String.valueOf(1000 + studentId),
+                        "className", "X-IPA-1"),
+                "academicYear", "2026/2027",
+                "semester", 1,
+                "subjectGrades", Map.of("Matematika", List.of(Map.of("percentage", 85.0))),
+                "gpa", 3.5,
+                "totalCredits", 4,
+                "attendance", Map.of("presentDays", 90, "totalDays", 95, "attendanceRate", 94.7));
+    }
+
+    private static List<String> entryNames(byte[] archive) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                assertTrue(zip.readAllBytes().length > 0);
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+}
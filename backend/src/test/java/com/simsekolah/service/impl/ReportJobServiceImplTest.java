@@ -0,0 +1,176 @@
+package com.simsekolah.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simsekolah.entity.ReportRun;
+import com.simsekolah.enums.ReportRunStatus;
+import com.simsekolah.repository.ReportRunRepository;
+import com.simsekolah.service.ReportJobService;
+import com.simsekolah.service.ReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceImplTest {
+
+    private static final Map<String, Object> PARAMETERS = Map.of("academicYear", "2026/2027", "semester", 1);
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private ReportRunRepository reportRunRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ReportJobServiceImpl reportJobService;
+
+    // Stands in for the report_runs table
+    private final Map<String, ReportRun> rows = new ConcurrentHashMap<>();
+    private volatile Consumer<ReportRun> onSave = reportRun -> { };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reportJobService, "workerThreads", 1);
+        ReflectionTestUtils.setField(reportJobService, "queueCapacity", 5);
+        ReflectionTestUtils.setField(reportJobService, "waitTimeoutSeconds", 5L);
+        reportJobService.initExecutor();
+
+        when(reportRunRepository.save(any(ReportRun.class))).thenAnswer(invocation -> {
+            ReportRun reportRun = invocation.getArgument(0);
+            onSave.accept(reportRun);
+            rows.put(reportRun.getJobId(), copy(reportRun));
+            return reportRun;
+        });
+        when(reportRunRepository.findByJobId(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))).map(this::copy));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdownExecutor();
+    }
+
+    @Test
+    void completedStatusIsPublishedOnlyAfterResultIsPersisted() throws Exception {
+        List<String> inMemoryStatusAtSave = new CopyOnWriteArrayList<>();
+        onSave = reportRun -> {
+            if (reportRun.getStatus() == ReportRunStatus.COMPLETED) {
+                inMemoryStatusAtSave.add((String) reportJobService.getJobStatus(reportRun.getJobId()).get("status"));
+            }
+        };
+        when(reportService.generateGradeDistributionReport("2026/2027", 1)).thenReturn(Map.of("totalGrades", 42));
+
+        String jobId = (String) reportJobService.submitJob(ReportJobService.GRADE_DISTRIBUTION, PARAMETERS).get("jobId");
+        awaitStatus(jobId, ReportRunStatus.COMPLETED);
+
+        assertEquals(List.of("RUNNING"), inMemoryStatusAtSave);
+        assertNotNull(rows.get(jobId).getResult());
+        assertEquals(42, reportJobService.getJobResult(jobId).get("totalGrades"));
+    }
+
+    @Test
+    void cancelRunningJob_PersistsCancellationAndKeepsIt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch workerDone = new CountDownLatch(1);
+        when(reportService.generateGradeDistributionReport("2026/2027", 1)).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                return Map.of("totalGrades", 42);
+            } finally {
+                workerDone.countDown();
+            }
+        });
+
+        String jobId = (String) reportJobService.submitJob(ReportJobService.GRADE_DISTRIBUTION, PARAMETERS).get("jobId");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        awaitStatus(jobId, ReportRunStatus.RUNNING);
+
+        reportJobService.cancelJob(jobId);
+
+        assertEquals(ReportRunStatus.CANCELLED, rows.get(jobId).getStatus());
+        assertEquals("CANCELLED", reportJobService.getJobStatus(jobId).get("status"));
+        // The interrupted worker fails, but must not overwrite the cancellation
+        assertTrue(workerDone.await(5, TimeUnit.SECONDS));
+        reportJobService.shutdownExecutor();
+        assertTrue(getExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(ReportRunStatus.CANCELLED, rows.get(jobId).getStatus());
+        assertNull(rows.get(jobId).getResult());
+    }
+
+    @Test
+    void cancelQueuedJob_NeverRunsIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.generateGradeDistributionReport(anyString(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("totalGrades", 1);
+        });
+
+        String first = (String) reportJobService.submitJob(ReportJobService.GRADE_DISTRIBUTION, PARAMETERS).get("jobId");
+        String queued = (String) reportJobService.submitJob(ReportJobService.GRADE_DISTRIBUTION,
+                Map.of("academicYear", "2025/2026", "semester", 2)).get("jobId");
+
+        reportJobService.cancelJob(queued);
+        release.countDown();
+        awaitStatus(first, ReportRunStatus.COMPLETED);
+        reportJobService.shutdownExecutor();
+        assertTrue(getExecutor().awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(ReportRunStatus.CANCELLED, rows.get(queued).getStatus());
+        assertNull(rows.get(queued).getStartedAt());
+        verify(reportService, never()).generateGradeDistributionReport("2025/2026", 2);
+    }
+
+    private void awaitStatus(String jobId, ReportRunStatus expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.name().equals(reportJobService.getJobStatus(jobId).get("status"))) {
+            assertTrue(System.nanoTime() < deadline, "Job " + jobId + " did not reach " + expected);
+            Thread.sleep(10);
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        return (ThreadPoolExecutor) ReflectionTestUtils.getField(reportJobService, "reportExecutor");
+    }
+
+    private ReportRun copy(ReportRun reportRun) {
+        return ReportRun.builder()
+                .id(reportRun.getId())
+                .jobId(reportRun.getJobId())
+                .runKey(reportRun.getRunKey())
+                .reportType(reportRun.getReportType())
+                .parameters(reportRun.getParameters())
+                .status(reportRun.getStatus())
+                .progress(reportRun.getProgress())
+                .result(reportRun.getResult())
+                .errorMessage(reportRun.getErrorMessage())
+                .requestedBy(reportRun.getRequestedBy())
+                .createdAt(reportRun.getCreatedAt())
+                .startedAt(reportRun.getStartedAt())
+                .completedAt(reportRun.getCompletedAt())
+                .build();
+    }
+}
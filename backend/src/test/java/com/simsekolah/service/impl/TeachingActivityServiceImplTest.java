@@ -0,0 +1,162 @@
+package com.simsekolah.service.impl;
+
+import com.simsekolah.entity.Schedule;
+import com.simsekolah.event.SchedulesChangedEvent;
+import com.simsekolah.repository.ScheduleRepository;
+import com.simsekolah.repository.TeachingActivityRepository;
+import com.simsekolah.service.AcademicCalendarService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeachingActivityServiceImplTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+    @Mock
+    private TeachingActivityRepository teachingActivityRepository;
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private AcademicCalendarService academicCalendarService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TeachingActivityServiceImpl teachingActivityService;
+
+    @Test
+    void generateActivities_SkipsExistingAndInsertsIdempotently() {
+        stubGeneration("H2", new int[][] {{1}});
+        when(teachingActivityRepository.findScheduleDatesBetween(MONDAY, MONDAY))
+                .thenReturn(List.<Object[]>of(new Object[] {1L, MONDAY}));
+
+        Map<String, Object> result = teachingActivityService.generateActivities(MONDAY, MONDAY);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<Object[]>> rows = rowsCaptor();
+        verify(jdbcTemplate).batchUpdate(sql.capture(), rows.capture(), anyInt(), any());
+        assertTrue(sql.getValue().startsWith("INSERT IGNORE INTO teaching_activities"));
+        assertEquals(1, rows.getValue().size());
+        assertEquals(2L, rows.getValue().iterator().next()[3]);
+        assertEquals(1, result.get("activitiesCreated"));
+        assertEquals(1, result.get("activitiesSkipped"));
+    }
+
+    @Test
+    void generateActivities_CountsRowsInsertedByConcurrentRunAsSkipped() {
+        stubGeneration("PostgreSQL", new int[][] {{1, 0}});
+
+        Map<String, Object> result = teachingActivityService.generateActivities(MONDAY, MONDAY);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), anyCollection(), anyInt(), any());
+        assertTrue(sql.getValue().endsWith("ON CONFLICT (schedule_id, date) DO NOTHING"));
+        assertEquals(1, result.get("activitiesCreated"));
+        assertEquals(1, result.get("activitiesSkipped"));
+    }
+
+    @Test
+    void onSchedulesChanged_DeactivatedScheduleDropsUnstartedActivities() {
+        when(teachingActivityRepository.findLastUnstartedDate(eq(Set.of(1L)), any(), any()))
+                .thenReturn(LocalDate.now().plusDays(3));
+        when(teachingActivityRepository.deleteUnstartedBySchedules(eq(Set.of(1L)), any(), any())).thenReturn(2);
+
+        teachingActivityService.onSchedulesChanged(changed(schedule(1L, false)));
+
+        verify(teachingActivityRepository).deleteUnstartedBySchedules(eq(Set.of(1L)), eq(LocalDate.now()), any());
+        verifyNoInteractions(scheduleRepository, jdbcTemplate);
+    }
+
+    @Test
+    void onSchedulesChanged_MovedScheduleRegeneratesDeletedDates() {
+        LocalDate lastDate = LocalDate.now().plusDays(2);
+        when(teachingActivityRepository.findLastUnstartedDate(eq(Set.of(1L)), any(), any())).thenReturn(lastDate);
+        // Every regenerated date is a holiday, so only the range of the regeneration is checked
+        when(academicCalendarService.findHolidaysInDates(anyList()))
+                .thenReturn(Set.of(LocalDate.now(), LocalDate.now().plusDays(1), lastDate));
+
+        teachingActivityService.onSchedulesChanged(changed(schedule(1L, true)));
+
+        verify(teachingActivityRepository).deleteUnstartedBySchedules(eq(Set.of(1L)), any(), any());
+        verify(teachingActivityRepository).findScheduleDatesBetween(LocalDate.now(), lastDate);
+    }
+
+    @Test
+    void onSchedulesChanged_NothingPreGenerated() {
+        teachingActivityService.onSchedulesChanged(changed(schedule(1L, true)));
+
+        verify(teachingActivityRepository, never()).deleteUnstartedBySchedules(any(), any(), any());
+        verifyNoInteractions(academicCalendarService, jdbcTemplate);
+    }
+
+    @Test
+    void onSchedulesChanged_DeletedScheduleIsLeftToCascade() {
+        SchedulesChangedEvent event = new SchedulesChangedEvent();
+        event.remove(schedule(1L, true));
+
+        teachingActivityService.onSchedulesChanged(event);
+
+        verifyNoInteractions(teachingActivityRepository, jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubGeneration(String databaseProduct, int[][] counts) {
+        when(academicCalendarService.findHolidaysInDates(List.of(MONDAY))).thenReturn(Set.of());
+        when(scheduleRepository.findActiveRowsByDays(Set.of(DayOfWeek.MONDAY))).thenReturn(List.of(
+                scheduleRow(1L, LocalTime.of(7, 0)),
+                scheduleRow(2L, LocalTime.of(9, 0))));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(databaseProduct);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenReturn(counts);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<Collection<Object[]>> rowsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+    }
+
+    private static Object[] scheduleRow(Long scheduleId, LocalTime startTime) {
+        return new Object[] {scheduleId, 10L, 20L, 30L, DayOfWeek.MONDAY, startTime, startTime.plusMinutes(90)};
+    }
+
+    private static SchedulesChangedEvent changed(Schedule schedule) {
+        SchedulesChangedEvent event = new SchedulesChangedEvent();
+        event.add(schedule);
+        return event;
+    }
+
+    private static Schedule schedule(Long id, boolean active) {
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setDayOfWeek(DayOfWeek.MONDAY);
+        schedule.setStartTime(LocalTime.of(7, 0));
+        schedule.setEndTime(LocalTime.of(8, 30));
+        schedule.setAcademicYear("2026/2027");
+        schedule.setSemester(1);
+        schedule.setIsActive(active);
+        return schedule;
+    }
+}
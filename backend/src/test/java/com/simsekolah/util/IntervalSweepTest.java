@@ -0,0 +1,89 @@
+package com.simsekolah.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalSweepTest {
+
+    @Test
+    void adjacentIntervals_DoNotOverlap() {
+        long[] pairs = IntervalSweep.findOverlappingPairs(
+                new int[] {1, 1, 1},
+                new int[] {420, 510, 600},
+                new int[] {510, 600, 690});
+
+        assertEquals(0, pairs.length);
+    }
+
+    @Test
+    void fullyContainedInterval_Overlaps() {
+        long[] pairs = IntervalSweep.findOverlappingPairs(
+                new int[] {1, 1},
+                new int[] {420, 450},
+                new int[] {600, 480});
+
+        assertEquals(1, pairs.length);
+        assertEquals(0, IntervalSweep.first(pairs[0]));
+        assertEquals(1, IntervalSweep.second(pairs[0]));
+    }
+
+    @Test
+    void identicalIntervals_Overlap() {
+        long[] pairs = IntervalSweep.findOverlappingPairs(
+                new int[] {3, 3},
+                new int[] {420, 420},
+                new int[] {510, 510});
+
+        assertArrayEquals(new long[] {1L}, pairs);
+    }
+
+    @Test
+    void differentGroups_DoNotOverlap() {
+        long[] pairs = IntervalSweep.findOverlappingPairs(
+                new int[] {1, 2},
+                new int[] {420, 420},
+                new int[] {510, 510});
+
+        assertEquals(0, pairs.length);
+    }
+
+    @Test
+    void negativeGroup_IsIgnored() {
+        long[] pairs = IntervalSweep.findOverlappingPairs(
+                new int[] {-1, 1, 1},
+                new int[] {420, 420, 480},
+                new int[] {510, 510, 540});
+
+        assertEquals(1, pairs.length);
+        assertEquals(1, IntervalSweep.first(pairs[0]));
+        assertEquals(2, IntervalSweep.second(pairs[0]));
+    }
+
+    @Test
+    void pairs_AreSortedWithSmallerIndexFirst() {
+        // Start order is the reverse of index order, so the sweep finds the pairs out of order
+        long[] pairs = IntervalSweep.findOverlappingPairs(
+                new int[] {1, 1, 1, 2, 2},
+                new int[] {500, 480, 420, 420, 450},
+                new int[] {560, 510, 520, 480, 500});
+
+        assertEquals(4, pairs.length);
+        assertEquals(pair(0, 1), pairs[0]);
+        assertEquals(pair(0, 2), pairs[1]);
+        assertEquals(pair(1, 2), pairs[2]);
+        assertEquals(pair(3, 4), pairs[3]);
+    }
+
+    @Test
+    void tooManyIntervals_Rejected() {
+        int[] values = new int[IntervalSweep.MAX_INTERVALS];
+
+        assertThrows(IllegalArgumentException.class,
+                () -> IntervalSweep.findOverlappingPairs(values, values, values));
+    }
+
+    private static long pair(int first, int second) {
+        return ((long) first << 32) | second;
+    }
+}
@@ -0,0 +1,92 @@
+package com.simsekolah.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimetableSolverTest {
+
+    private static final Executor CALLER = Runnable::run;
+    private static final long SEED = 42L;
+
+    @Test
+    void solve_SpreadsLessonsWithoutClashes() {
+        TimetableSolver.Problem problem = weeklyProblem();
+
+        TimetableSolver.Result result = new TimetableSolver(problem).solve(CALLER, 1, 10_000, SEED);
+
+        assertTrue(result.isFeasible());
+        assertEquals(0, result.getHardViolations());
+        boolean[] usedDays = new boolean[problem.getDays()];
+        for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+            int day = result.getLessonSlot(lesson) / problem.getPeriodsPerDay();
+            assertFalse(usedDays[day], "Two lessons of one assignment on day " + day);
+            usedDays[day] = true;
+        }
+    }
+
+    @Test
+    void solve_SameSeedGivesSameTimetable() {
+        TimetableSolver.Problem problem = weeklyProblem();
+
+        TimetableSolver.Result first = new TimetableSolver(problem).solve(CALLER, 1, 10_000, SEED);
+        TimetableSolver.Result second = new TimetableSolver(problem).solve(CALLER, 1, 10_000, SEED);
+
+        for (int lesson = 0; lesson < problem.getLessonCount(); lesson++) {
+            assertEquals(first.getLessonSlot(lesson), second.getLessonSlot(lesson));
+        }
+    }
+
+    @Test
+    void solve_PreferredSlotIsKept() {
+        TimetableSolver.Builder builder = TimetableSolver.Problem.builder(5, 4, 1, 1).preferredWeight(50);
+        int assignment = builder.addAssignment(0, 0);
+        builder.addLesson(assignment, 2, 6);
+
+        TimetableSolver.Result result = new TimetableSolver(builder.build()).solve(CALLER, 1, 10_000, SEED);
+
+        assertEquals(6, result.getLessonSlot(0));
+        assertEquals(0, result.getMovedLessons());
+    }
+
+    @Test
+    void solve_MoreLessonsThanFreeSlotsIsInfeasible() {
+        // One day of two periods, the first already taken: three lessons cannot fit
+        TimetableSolver.Builder builder = TimetableSolver.Problem.builder(1, 2, 1, 1).blockClassSlot(0, 0);
+        int assignment = builder.addAssignment(0, 0);
+        for (int i = 0; i < 3; i++) {
+            builder.addLesson(assignment, 1, -1);
+        }
+
+        TimetableSolver.Result result = new TimetableSolver(builder.build()).solve(CALLER, 2, 50, SEED);
+
+        assertFalse(result.isFeasible());
+        assertTrue(result.getHardViolations() >= 2);
+        assertEquals(false, result.toMetrics().get("feasible"));
+    }
+
+    @Test
+    void builder_RejectsLessonLongerThanDay() {
+        TimetableSolver.Builder builder = TimetableSolver.Problem.builder(5, 4, 1, 1);
+        int assignment = builder.addAssignment(0, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addLesson(assignment, 5, -1));
+    }
+
+    /**
+     * Five single-period lessons of one class and teacher over a five-day week; a clash-free,
+     * gap-free spread of one lesson a day exists, so the solver stops as soon as it has one
+     */
+    private static TimetableSolver.Problem weeklyProblem() {
+        TimetableSolver.Builder builder = TimetableSolver.Problem.builder(5, 6, 2, 2)
+                .blockClassSlot(0, 0)
+                .blockTeacherSlot(0, 7);
+        int assignment = builder.addAssignment(0, 0);
+        for (int i = 0; i < 5; i++) {
+            builder.addLesson(assignment, 1, -1);
+        }
+        return builder.build();
+    }
+}